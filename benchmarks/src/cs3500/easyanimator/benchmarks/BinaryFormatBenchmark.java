@@ -0,0 +1,110 @@
+package cs3500.easyanimator.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.util.BinaryAnimationReader;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+import cs3500.easyanimator.util.ParallelAnimationLoader;
+import cs3500.easyanimator.view.BinaryAnimationView;
+import cs3500.easyanimator.view.IAnimatorView;
+
+/**
+ * Compares loading a generated scene into a model from the text format, the way -in does, with
+ * loading the same scene from the binary format. Unlike ReaderBenchmark this includes building
+ * the model, since skipping the builder is what the binary format is for.
+ *
+ * <p>Usage: BinaryFormatBenchmark [shapes] [motionsPerShape] [rounds].</p>
+ */
+public final class BinaryFormatBenchmark {
+  // The binary loader is short enough that it needs a few rounds before it's fully compiled.
+  private static final int WARM_UP_ROUNDS = 5;
+
+  /**
+   * Something that loads a model from a file.
+   */
+  private interface Loader {
+    Object load(FileChannel in);
+  }
+
+  /**
+   * Runs the benchmark.
+   * @param args  Optionally the number of shapes, motions per shape and timed rounds.
+   * @throws IOException If the scene files can't be written or read.
+   */
+  public static void main(String[] args) throws IOException {
+    int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int motionsPerShape = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+    Path text = Files.createTempFile("scene", ".txt");
+    Path binary = Files.createTempFile("scene", ".bin");
+    try {
+      try (BufferedWriter out = Files.newBufferedWriter(text, StandardCharsets.US_ASCII)) {
+        new SceneGenerator(shapes, motionsPerShape, 0, 3500).write(out);
+      }
+      IAnimatorModel model = (IAnimatorModel) loadText(text);
+      try (OutputStream out = Files.newOutputStream(binary)) {
+        IAnimatorView view = new BinaryAnimationView(out);
+        view.setModel(model);
+        view.makeVisible();
+      }
+      System.out.printf("Scene: %d shapes, %d motions, text %.1f MB, binary %.1f MB%n",
+              shapes, shapes * motionsPerShape, Files.size(text) / 1e6, Files.size(binary) / 1e6);
+
+      run("text", text, rounds, in -> new ParallelAnimationLoader()
+              .load(in, new EasyAnimatorModelBuilder()));
+      run("binary", binary, rounds, BinaryAnimationReader::readFile);
+    } finally {
+      Files.deleteIfExists(text);
+      Files.deleteIfExists(binary);
+    }
+  }
+
+  /**
+   * A helper to load the text scene once, to have a model to write out.
+   */
+  private static Object loadText(Path file) throws IOException {
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new ParallelAnimationLoader().load(in, new EasyAnimatorModelBuilder());
+    }
+  }
+
+  /**
+   * Times a loader over the given file, after some warm up rounds, and prints the best round.
+   * @param label   What to call the loader in the results.
+   * @param file    The file to load.
+   * @param rounds  The number of timed rounds.
+   * @param loader  The loader to time.
+   * @throws IOException If the file can't be opened.
+   */
+  private static void run(String label, Path file, int rounds, Loader loader)
+          throws IOException {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < WARM_UP_ROUNDS + rounds; i++) {
+      try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+        long start = System.nanoTime();
+        Object model = loader.load(in);
+        long time = System.nanoTime() - start;
+        if (i >= WARM_UP_ROUNDS) {
+          best = Math.min(best, time);
+        }
+        if (model instanceof ILayeredAnimatorModel) {
+          model = ((ILayeredAnimatorModel) model).getLayer(0).getModel();
+        }
+        if (((IAnimatorModel) model).getShapeNames().isEmpty()) {
+          throw new IllegalStateException("The loader gave an empty model.");
+        }
+      }
+    }
+    System.out.printf("%-8s %8.1f ms%n", label, best / 1e6);
+  }
+}
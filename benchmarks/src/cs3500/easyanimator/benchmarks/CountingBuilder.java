@@ -0,0 +1,89 @@
+package cs3500.easyanimator.benchmarks;
+
+import cs3500.easyanimator.util.AdvancedAnimationBuilder;
+import cs3500.easyanimator.util.AnimationBuilder;
+
+/**
+ * A CountingBuilder is a builder that only counts and sums what it is given, so benchmarks of
+ * the readers measure reading and not building a model. The sum makes sure nothing the reader
+ * parsed can be skipped as unused.
+ */
+public final class CountingBuilder implements AdvancedAnimationBuilder<Long> {
+  private long calls;
+  private long sum;
+
+  @Override
+  public Long build() {
+    return calls * 31 + sum;
+  }
+
+  @Override
+  public AnimationBuilder<Long> setBounds(int x, int y, int width, int height) {
+    calls++;
+    sum += x + y + width + height;
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<Long> declareShape(String name, String type) {
+    calls++;
+    sum += name.length() + type.length();
+    return this;
+  }
+
+  @Override
+  public AdvancedAnimationBuilder<Long> declareShape(String name, String type, String layer) {
+    calls++;
+    sum += name.length() + type.length() + layer.length();
+    return this;
+  }
+
+  @Override
+  public AdvancedAnimationBuilder<Long> declareLayer(String name, boolean visibility) {
+    calls++;
+    sum += name.length() + (visibility ? 1 : 0);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<Long> addMotion(String name,
+                                          int t1, int x1, int y1, int w1, int h1,
+                                          int r1, int g1, int b1,
+                                          int t2, int x2, int y2, int w2, int h2,
+                                          int r2, int g2, int b2) {
+    calls++;
+    sum += name.length() + t1 + x1 + y1 + w1 + h1 + r1 + g1 + b1
+            + t2 + x2 + y2 + w2 + h2 + r2 + g2 + b2;
+    return this;
+  }
+
+  @Override
+  public AdvancedAnimationBuilder<Long> addMotion(String name,
+                                                  int t1, int x1, int y1, int w1, int h1,
+                                                  int r1, int g1, int b1, int rot1,
+                                                  int t2, int x2, int y2, int w2, int h2,
+                                                  int r2, int g2, int b2, int rot2) {
+    calls++;
+    sum += name.length() + t1 + x1 + y1 + w1 + h1 + r1 + g1 + b1 + rot1
+            + t2 + x2 + y2 + w2 + h2 + r2 + g2 + b2 + rot2;
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<Long> addKeyframe(String name,
+                                            int t, int x, int y, int w, int h,
+                                            int r, int g, int b) {
+    calls++;
+    sum += name.length() + t + x + y + w + h + r + g + b;
+    return this;
+  }
+
+  @Override
+  public AdvancedAnimationBuilder<Long> addKeyframe(String name,
+                                                    int t, int x, int y, int w, int h,
+                                                    int r, int g, int b, int rot) {
+    calls++;
+    sum += name.length() + t + x + y + w + h + r + g + b + rot;
+    return this;
+  }
+}
@@ -0,0 +1,158 @@
+package cs3500.easyanimator.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.MappedAnimationLexer;
+import cs3500.easyanimator.util.ParallelAnimationLoader;
+
+/**
+ * Compares the load time and peak memory of reading a large animation file through a FileReader
+ * against mapping it into memory, which is what -in does now. Peak memory is a whole process
+ * number, so every way of loading is run in a fresh JVM of its own, with the same JVM options as
+ * this one, and reports the VmHWM (peak resident set size) of its /proc/self/status.
+ *
+ * <p>Usage: MappedInputBenchmark [file] [megabytes] [modes...]. The file is generated with about
+ * the given size (1024MB by default) if it doesn't exist yet. The modes are "reader" (a
+ * FileReader into AnimationReader), "mapped", "parallel" (the ParallelAnimationLoader on the
+ * common pool) and "scanner" (a FileReader into the Scanner based reader, which takes a few
+ * minutes on a 1GB file). By default reader, mapped and parallel are run.</p>
+ *
+ * <p>Note that the file is read from the page cache after the first run, and mapped pages that
+ * have been touched count towards the resident set even though they're shared with the cache.
+ * RssAnon is printed as well to show the memory that is the process's own.</p>
+ */
+public final class MappedInputBenchmark {
+  // About how many bytes a generated motion line takes.
+  private static final int BYTES_PER_MOTION = 80;
+  private static final int SHAPES = 5000;
+
+  /**
+   * Runs the benchmark.
+   * @param args  Optionally the file, its size in megabytes and the modes to run.
+   * @throws IOException If the file can't be generated or a run can't be started.
+   * @throws InterruptedException If interrupted while waiting for a run.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length == 3 && args[0].equals("--load")) {
+      load(args[1], Paths.get(args[2]));
+      return;
+    }
+    Path file = Paths.get(args.length > 0 ? args[0] : "benchmark-scene.txt");
+    long megabytes = args.length > 1 ? Long.parseLong(args[1]) : 1024;
+    List<String> modes = args.length > 2
+            ? Arrays.asList(args).subList(2, args.length)
+            : Arrays.asList("reader", "mapped", "parallel");
+
+    if (!Files.exists(file)) {
+      generate(file, megabytes * 1_000_000);
+    }
+    System.out.printf("File: %s, %.1f MB%n", file, Files.size(file) / 1e6);
+    for (String mode : modes) {
+      List<String> command = new ArrayList<>();
+      command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+      command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(MappedInputBenchmark.class.getName());
+      command.add("--load");
+      command.add(mode);
+      command.add(file.toString());
+      Process process = new ProcessBuilder(command).inheritIO().start();
+      if (process.waitFor() != 0) {
+        throw new IllegalStateException("Unable to finish the " + mode + " run.");
+      }
+    }
+  }
+
+  /**
+   * Generates a scene of about the given size.
+   * @param file  Where to write the scene.
+   * @param bytes About how big the scene should be.
+   * @throws IOException If the scene can't be written.
+   */
+  private static void generate(Path file, long bytes) throws IOException {
+    int motionsPerShape = (int) Math.max(1, bytes / BYTES_PER_MOTION / SHAPES);
+    System.out.printf("Generating %s with %d shapes of %d motions%n",
+            file, SHAPES, motionsPerShape);
+    try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+      new SceneGenerator(SHAPES, motionsPerShape, 0, 3500).write(out);
+    }
+  }
+
+  /**
+   * Loads the file the given way and prints how long it took and the peak memory of the process.
+   * @param mode  How to load the file.
+   * @param file  The file to load.
+   * @throws IOException If the file can't be read.
+   */
+  private static void load(String mode, Path file) throws IOException {
+    long start = System.nanoTime();
+    long result;
+    switch (mode) {
+      case "reader":
+        try (FileReader in = new FileReader(file.toFile())) {
+          result = AnimationReader.parseFile(in, new CountingBuilder());
+        }
+        break;
+      case "mapped":
+        try (MappedAnimationLexer lexer =
+                     new MappedAnimationLexer(new FileInputStream(file.toFile()).getChannel(),
+                             false)) {
+          result = AnimationReader.parse(lexer, new CountingBuilder());
+        }
+        break;
+      case "parallel":
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+          result = new ParallelAnimationLoader().load(in, new CountingBuilder());
+        }
+        break;
+      case "scanner":
+        try (FileReader in = new FileReader(file.toFile())) {
+          result = ScannerAnimationReader.parseFile(in, new CountingBuilder());
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unable to load the file with mode " + mode);
+    }
+    long time = System.nanoTime() - start;
+    System.out.printf("%-8s %9.1f ms %8.1f MB/s  VmHWM %s  RssAnon %s  (check %d)%n",
+            mode, time / 1e6, Files.size(file) / 1e6 / (time / 1e9),
+            status("VmHWM"), status("RssAnon"), result);
+  }
+
+  /**
+   * Gives a field of /proc/self/status, or n/a where there isn't one.
+   * @param field The name of the field.
+   * @return      The value of the field.
+   */
+  private static String status(String field) {
+    try (BufferedReader in = new BufferedReader(new InputStreamReader(
+            new FileInputStream("/proc/self/status"), StandardCharsets.US_ASCII))) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.startsWith(field + ":")) {
+          return line.substring(field.length() + 1).trim();
+        }
+      }
+    } catch (IOException e) {
+      // Not on Linux, so we can't tell.
+    }
+    return "n/a";
+  }
+}
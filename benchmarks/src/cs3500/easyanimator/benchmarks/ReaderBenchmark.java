@@ -0,0 +1,71 @@
+package cs3500.easyanimator.benchmarks;
+
+import java.io.StringReader;
+
+import cs3500.easyanimator.util.AdvancedAnimationReader;
+import cs3500.easyanimator.util.AnimationReader;
+
+/**
+ * Measures the throughput of the animation readers against the Scanner based readers they
+ * replaced. Every reader parses the same generated scene from memory into a CountingBuilder, so
+ * only reading is measured, not disk or model building.
+ *
+ * <p>Usage: ReaderBenchmark [shapes] [motionsPerShape] [rounds]. The defaults give a scene of
+ * about 40MB.</p>
+ */
+public final class ReaderBenchmark {
+
+  /**
+   * Something that reads the scene text and returns what the builder built.
+   */
+  private interface Reader {
+    long read(String text);
+  }
+
+  /**
+   * Runs the benchmark.
+   * @param args  Optionally the number of shapes, motions per shape and timed rounds.
+   */
+  public static void main(String[] args) {
+    int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int motionsPerShape = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+    int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    String basic = new SceneGenerator(shapes, motionsPerShape, 0, 3500).writeToString();
+    String layered = new SceneGenerator(shapes, motionsPerShape, 4, 3500).writeToString();
+    System.out.printf("Scene: %d shapes, %d motions, %.1f MB of text%n",
+            shapes, shapes * motionsPerShape, basic.length() / 1e6);
+
+    run("Scanner AnimationReader", basic, rounds,
+        text -> ScannerAnimationReader.parseFile(new StringReader(text), new CountingBuilder()));
+    run("AnimationReader", basic, rounds,
+        text -> AnimationReader.parseFile(new StringReader(text), new CountingBuilder()));
+    run("Scanner AdvancedAnimationReader", layered, rounds,
+        text -> ScannerAdvancedAnimationReader.parseFile(new StringReader(text),
+                new CountingBuilder()));
+    run("AdvancedAnimationReader", layered, rounds,
+        text -> AdvancedAnimationReader.parseFile(new StringReader(text), new CountingBuilder()));
+  }
+
+  /**
+   * Times a reader over the given text, after a warm up round, and prints the best round.
+   * @param label   What to call the reader in the results.
+   * @param text    The text to read.
+   * @param rounds  The number of timed rounds.
+   * @param reader  The reader to time.
+   */
+  private static void run(String label, String text, int rounds, Reader reader) {
+    long check = reader.read(text); // Warm up.
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < rounds; i++) {
+      long start = System.nanoTime();
+      long result = reader.read(text);
+      best = Math.min(best, System.nanoTime() - start);
+      if (result != check) {
+        throw new IllegalStateException("The reader gave different results for the same text.");
+      }
+    }
+    System.out.printf("%-32s %8.1f ms %8.1f MB/s%n",
+            label, best / 1e6, text.length() / 1e6 / (best / 1e9));
+  }
+}
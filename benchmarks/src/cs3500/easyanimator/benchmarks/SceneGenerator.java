@@ -0,0 +1,119 @@
+package cs3500.easyanimator.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * A SceneGenerator writes made up animations in the text format of AnimationReader (or
+ * AdvancedAnimationReader, with layers) for benchmarks. Scenes are random but seeded, so the same
+ * parameters always give the same scene.
+ *
+ * <p>Every shape is a chain of back to back motions, which is what real animations like
+ * buildings.txt and toh-8.txt look like. Shapes start at staggered ticks so only some of them are
+ * alive at a time.</p>
+ */
+public final class SceneGenerator {
+  private final int shapes;
+  private final int motionsPerShape;
+  private final int layers;
+  private final long seed;
+
+  /**
+   * Create a new generator.
+   * @param shapes          The number of shapes in the scene.
+   * @param motionsPerShape The number of motions each shape has.
+   * @param layers          The number of layers to spread shapes over, 0 for the basic format.
+   * @param seed            The seed of the random parts of the scene.
+   * @throws IllegalArgumentException If any count is negative or there are no motions.
+   */
+  public SceneGenerator(int shapes, int motionsPerShape, int layers, long seed) {
+    if (shapes < 0 || motionsPerShape < 1 || layers < 0) {
+      throw new IllegalArgumentException("Unable to generate a scene with those counts.");
+    }
+    this.shapes = shapes;
+    this.motionsPerShape = motionsPerShape;
+    this.layers = layers;
+    this.seed = seed;
+  }
+
+  /**
+   * Gives the name of the shape with the given index.
+   * @param i The index of the shape.
+   * @return  The name it is written with.
+   */
+  public static String shapeName(int i) {
+    return "shape" + i;
+  }
+
+  /**
+   * Writes the scene to the given output.
+   * @param out The output to write to.
+   * @throws IOException If the output can't be written to.
+   */
+  public void write(Appendable out) throws IOException {
+    Random random = new Random(seed);
+    out.append("# A generated scene for benchmarks.\n");
+    out.append("canvas 0 0 800 600\n");
+    for (int l = 0; l < layers; l++) {
+      out.append("layer layer").append(Integer.toString(l)).append(" true\n");
+    }
+    for (int i = 0; i < shapes; i++) {
+      out.append("shape ").append(shapeName(i))
+              .append(i % 2 == 0 ? " rectangle" : " ellipse");
+      if (layers > 0) {
+        out.append(" layer").append(Integer.toString(i % layers));
+      }
+      out.append('\n');
+    }
+    StringBuilder line = new StringBuilder(128);
+    for (int i = 0; i < shapes; i++) {
+      String name = shapeName(i);
+      int tick = i % 1000;
+      int[] state = randomState(random);
+      for (int m = 0; m < motionsPerShape; m++) {
+        int nextTick = tick + 1 + random.nextInt(20);
+        int[] next = randomState(random);
+        line.setLength(0);
+        line.append("motion ").append(name).append(' ').append(tick);
+        for (int v : state) {
+          line.append(' ').append(v);
+        }
+        line.append("    ").append(nextTick);
+        for (int v : next) {
+          line.append(' ').append(v);
+        }
+        line.append('\n');
+        out.append(line);
+        tick = nextTick;
+        state = next;
+      }
+    }
+  }
+
+  /**
+   * Writes the scene into a String.
+   * @return  The text of the scene.
+   */
+  public String writeToString() {
+    StringBuilder out = new StringBuilder();
+    try {
+      write(out);
+    } catch (IOException e) {
+      throw new IllegalStateException("A StringBuilder should not fail to append.", e);
+    }
+    return out.toString();
+  }
+
+  /**
+   * A private helper to make a random state, x, y, width, height, red, green and blue.
+   * @param random  The random to use.
+   * @return        The state as an array.
+   */
+  private static int[] randomState(Random random) {
+    return new int[] {
+      random.nextInt(800), random.nextInt(600),
+      1 + random.nextInt(200), 1 + random.nextInt(200),
+      random.nextInt(256), random.nextInt(256), random.nextInt(256)
+    };
+  }
+}
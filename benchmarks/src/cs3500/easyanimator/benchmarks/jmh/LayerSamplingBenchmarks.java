@@ -0,0 +1,87 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.model.LayeredAnimatorModel;
+import cs3500.easyanimator.model.layers.ILayer;
+
+/**
+ * JMH benchmarks of sampling the layered scene one layer after another against sampling its
+ * layers at the same time on a pool of threads. Try more layers and threads with "-p layers=32
+ * -p threads=1,2,4,8" to see how it scales on a machine with the cores for it.
+ */
+public class LayerSamplingBenchmarks {
+
+  /**
+   * The layers of the scene in a model that samples them on a pool of the given size.
+   */
+  @State(Scope.Benchmark)
+  public static class Pooled {
+    /**
+     * The number of threads to sample layers on, 1 for none at all.
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private ILayeredAnimatorModel model;
+
+    /**
+     * Puts the layers of the scene into a model sampling them on a new pool.
+     * @param scene The scene to take the layers from.
+     */
+    @Setup
+    public void setUp(Scene scene) {
+      if (threads > 1) {
+        pool = new ForkJoinPool(threads);
+        model = new LayeredAnimatorModel(pool);
+      } else {
+        model = new LayeredAnimatorModel();
+      }
+      for (ILayer layer : scene.layeredModel.getLayers()) {
+        model.addLayer(layer);
+      }
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @TearDown
+    public void tearDown() {
+      if (pool != null) {
+        pool.shutdown();
+      }
+    }
+  }
+
+  /**
+   * The frame a thread samples into, reused between calls.
+   */
+  @State(Scope.Thread)
+  public static class Frame {
+    private final FrameBuffer frame = new FrameBuffer();
+  }
+
+  /**
+   * Samples every visible shape of every layer at one tick into a reused frame.
+   * @param pooled  The model to sample.
+   * @param ticks   The tick to sample.
+   * @param frame   The frame to sample into.
+   * @return        The frame, for JMH to consume.
+   */
+  @Benchmark
+  public FrameBuffer fillShapesAtTick(Pooled pooled, ModelBenchmarks.Ticks ticks, Frame frame) {
+    frame.frame.clear();
+    pooled.model.fillShapesAtTick(ticks.next(), frame.frame);
+    return frame.frame;
+  }
+}
@@ -0,0 +1,168 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.motions.IMotion;
+import cs3500.easyanimator.model.shapes.IShape;
+
+/**
+ * JMH benchmarks of the model, sampling it the way the visual views do every frame, and editing
+ * it the way the readers and the editor do.
+ */
+public class ModelBenchmarks {
+
+  /**
+   * The tick a thread samples next. Every call moves on to the next tick, wrapping around at the
+   * end of the scene, so the benchmarks see the whole animation and not one frame of it.
+   */
+  @State(Scope.Thread)
+  public static class Ticks {
+    private int tick;
+    private int maxTick;
+
+    /**
+     * Starts at the first tick of the scene.
+     * @param scene The scene being sampled.
+     */
+    @Setup
+    public void setUp(Scene scene) {
+      tick = 0;
+      maxTick = Math.max(scene.model.getMaxTick(), scene.layeredModel.getMaxTick());
+    }
+
+    /**
+     * Gives the tick to sample, and moves on to the next one.
+     * @return  The tick.
+     */
+    public int next() {
+      int next = tick;
+      tick = tick >= maxTick ? 0 : tick + 1;
+      return next;
+    }
+  }
+
+  /**
+   * The edits that build the scene again from nothing, as shapes, motions and keyframes.
+   */
+  @State(Scope.Benchmark)
+  public static class Edits {
+    private final List<String> names = new ArrayList<>();
+    private final List<IShape> shapes = new ArrayList<>();
+    private final List<String> motionNames = new ArrayList<>();
+    private final List<IMotion> motions = new ArrayList<>();
+    private final List<String> keyframeNames = new ArrayList<>();
+    private final List<Integer> keyframeTicks = new ArrayList<>();
+    private final List<IShape> keyframes = new ArrayList<>();
+
+    /**
+     * Takes the edits from the scene's model.
+     * @param scene The scene to build again.
+     */
+    @Setup
+    public void setUp(Scene scene) {
+      for (Map.Entry<String, IShape> shape : scene.model.getShapes().entrySet()) {
+        names.add(shape.getKey());
+        shapes.add(shape.getValue());
+      }
+      for (Map.Entry<String, SortedSet<IMotion>> shape
+              : scene.model.getSortedMotions().entrySet()) {
+        for (IMotion motion : shape.getValue()) {
+          motionNames.add(shape.getKey());
+          motions.add(motion);
+        }
+      }
+      for (String name : names) {
+        SortedMap<Integer, IShape> states = scene.model.getKeyframes(name);
+        for (Map.Entry<Integer, IShape> state : states.entrySet()) {
+          keyframeNames.add(name);
+          keyframeTicks.add(state.getKey());
+          keyframes.add(state.getValue());
+        }
+      }
+    }
+
+    /**
+     * Gives a new model with the scene's shapes and nothing else.
+     * @return  The model.
+     */
+    IAnimatorModel shapesOnly() {
+      IAnimatorModel model = new EasyAnimator();
+      for (int i = 0; i < names.size(); i++) {
+        model.addShape(names.get(i), shapes.get(i));
+      }
+      return model;
+    }
+  }
+
+  /**
+   * Samples every shape of the scene at one tick.
+   * @param scene The scene.
+   * @param ticks The tick to sample.
+   * @return      The shapes, for JMH to consume.
+   */
+  @Benchmark
+  public List<IShape> getShapesAtTick(Scene scene, Ticks ticks) {
+    return scene.model.getShapesAtTick(ticks.next());
+  }
+
+  /**
+   * Samples every visible shape of every layer of the layered scene at one tick.
+   * @param scene The scene.
+   * @param ticks The tick to sample.
+   * @return      The shapes, for JMH to consume.
+   */
+  @Benchmark
+  public List<IShape> layeredGetShapesAtTick(Scene scene, Ticks ticks) {
+    return scene.layeredModel.getShapesAtTick(ticks.next());
+  }
+
+  /**
+   * Gets every motion of the scene, in order.
+   * @param scene The scene.
+   * @return      The motions, for JMH to consume.
+   */
+  @Benchmark
+  public Map<String, SortedSet<IMotion>> getSortedMotions(Scene scene) {
+    return scene.model.getSortedMotions();
+  }
+
+  /**
+   * Builds the scene again by adding its motions one at a time.
+   * @param edits The edits of the scene.
+   * @return      The model built, for JMH to consume.
+   */
+  @Benchmark
+  public IAnimatorModel addMotion(Edits edits) {
+    IAnimatorModel model = edits.shapesOnly();
+    for (int i = 0; i < edits.motions.size(); i++) {
+      model.addMotion(edits.motionNames.get(i), edits.motions.get(i));
+    }
+    return model;
+  }
+
+  /**
+   * Builds the scene again by adding its keyframes one at a time.
+   * @param edits The edits of the scene.
+   * @return      The model built, for JMH to consume.
+   */
+  @Benchmark
+  public IAnimatorModel addKeyframe(Edits edits) {
+    IAnimatorModel model = edits.shapesOnly();
+    for (int i = 0; i < edits.keyframes.size(); i++) {
+      model.addKeyframe(edits.keyframeNames.get(i), edits.keyframes.get(i),
+              edits.keyframeTicks.get(i));
+    }
+    return model;
+  }
+}
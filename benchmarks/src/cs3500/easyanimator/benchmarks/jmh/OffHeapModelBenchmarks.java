@@ -0,0 +1,130 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Paths;
+
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.OffHeapAnimator;
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+
+/**
+ * JMH benchmarks of the EasyAnimator against the OffHeapAnimator, in direct buffers and mapped
+ * from a file, loading the scene and sampling it. The gc profiler shows what each allocates; to
+ * see the heap model run out where the others don't, give the forks a small heap with something
+ * like "-jvmArgs -Xmx256m -p shapes=5000 -p motionsPerShape=400".
+ */
+public class OffHeapModelBenchmarks {
+
+  /**
+   * The scene loaded into a model keeping its keyframes in the given store.
+   */
+  @State(Scope.Benchmark)
+  public static class Store {
+    /**
+     * Where the model keeps its keyframes: "heap" for an EasyAnimator, "direct" for direct
+     * buffers, or "mapped" for a file in the temporary directory.
+     */
+    @Param({"heap", "direct", "mapped"})
+    public String store;
+
+    private IAnimatorModel model;
+
+    /**
+     * Loads the scene into a model of the store.
+     * @param scene The scene to load.
+     */
+    @Setup
+    public void setUp(Scene scene) {
+      model = load(store, scene);
+    }
+
+    /**
+     * Gives the model's memory or file back.
+     * @throws IOException If the model can't be closed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+      close(model);
+    }
+  }
+
+  /**
+   * The frame a thread samples into, reused between calls.
+   */
+  @State(Scope.Thread)
+  public static class Frame {
+    private final FrameBuffer frame = new FrameBuffer();
+  }
+
+  /**
+   * Loads the scene into a new model of the store.
+   * @param scene The scene to load.
+   * @param store The store to keep the keyframes in.
+   * @return      The last tick of the model, for JMH to consume.
+   * @throws IOException If the model can't be closed.
+   */
+  @Benchmark
+  public int load(Scene scene, Store store) throws IOException {
+    IAnimatorModel model = load(store.store, scene);
+    int maxTick = model.getMaxTick();
+    // Closed right away, or every call would hold on to its memory or file until collected.
+    close(model);
+    return maxTick;
+  }
+
+  /**
+   * Samples every shape of the loaded scene at one tick into a reused frame.
+   * @param store The loaded model.
+   * @param ticks The tick to sample.
+   * @param frame The frame to sample into.
+   * @return      The frame, for JMH to consume.
+   */
+  @Benchmark
+  public FrameBuffer fillShapesAtTick(Store store, ModelBenchmarks.Ticks ticks, Frame frame) {
+    frame.frame.clear();
+    store.model.fillShapesAtTick(ticks.next(), frame.frame);
+    return frame.frame;
+  }
+
+  /**
+   * A private helper to load the scene into a new model of the given store.
+   */
+  private static IAnimatorModel load(String store, Scene scene) {
+    IAnimatorModel model;
+    switch (store) {
+      case "heap":
+        model = new EasyAnimator();
+        break;
+      case "direct":
+        model = new OffHeapAnimator();
+        break;
+      case "mapped":
+        model = new OffHeapAnimator(Paths.get(System.getProperty("java.io.tmpdir")));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown store: " + store);
+    }
+    return AnimationReader.parseFile(new StringReader(scene.text),
+            new EasyAnimatorModelBuilder(model));
+  }
+
+  /**
+   * A private helper to close a model if it holds memory or a file.
+   */
+  private static void close(IAnimatorModel model) throws IOException {
+    if (model instanceof OffHeapAnimator) {
+      ((OffHeapAnimator) model).close();
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.StringReader;
+
+import cs3500.easyanimator.benchmarks.CountingBuilder;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.util.AdvancedAnimationReader;
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+import cs3500.easyanimator.util.LayeredAnimatorModelBuilder;
+
+/**
+ * JMH benchmarks of the animation readers, reading the scene from memory so the disk isn't
+ * measured. Reading into a CountingBuilder measures only the reader, reading into the model
+ * builders measures everything -in does.
+ */
+public class ReaderBenchmarks {
+
+  /**
+   * Reads the scene without building anything.
+   * @param scene The scene.
+   * @return      What the builder counted, for JMH to consume.
+   */
+  @Benchmark
+  public long parseFile(Scene scene) {
+    return AnimationReader.parseFile(new StringReader(scene.text), new CountingBuilder());
+  }
+
+  /**
+   * Reads the scene into a model.
+   * @param scene The scene.
+   * @return      The model, for JMH to consume.
+   */
+  @Benchmark
+  public IAnimatorModel parseFileIntoModel(Scene scene) {
+    return AnimationReader.parseFile(new StringReader(scene.text),
+            new EasyAnimatorModelBuilder());
+  }
+
+  /**
+   * Reads the layered scene into a layered model.
+   * @param scene The scene.
+   * @return      The model, for JMH to consume.
+   */
+  @Benchmark
+  public ILayeredAnimatorModel parseLayeredFileIntoModel(Scene scene) {
+    return AdvancedAnimationReader.parseFile(new StringReader(scene.layeredText),
+            new LayeredAnimatorModelBuilder("Base"));
+  }
+}
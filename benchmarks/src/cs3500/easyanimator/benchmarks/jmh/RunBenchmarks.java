@@ -0,0 +1,50 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the JMH benchmarks of this package, measuring throughput along with the allocation rate
+ * from JMH's gc profiler, so a change to the model, readers or views can be put in numbers.
+ *
+ * <p>The benchmarks are found through the list JMH's annotation processor writes at compile time,
+ * so the module has to be compiled with annotation processing on (jmh-generator-annprocess is on
+ * its classpath for that).</p>
+ *
+ * <p>Usage: RunBenchmarks [JMH options]. Any of the usual JMH command line options can be given,
+ * such as a regex of the benchmarks to run, "-p shapes=5000" for other scene sizes, or "-f 1 -wi 2
+ * -i 3" for a quicker run. Without them every benchmark is run with JMH's defaults.</p>
+ */
+public final class RunBenchmarks {
+
+  /**
+   * Runs the benchmarks.
+   * @param args  Options for JMH.
+   * @throws RunnerException If a benchmark fails.
+   * @throws CommandLineOptionException If the options can't be understood.
+   */
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    OptionsBuilder builder = new OptionsBuilder();
+    builder.parent(commandLine);
+    if (commandLine.getIncludes().isEmpty()) {
+      builder.include(RunBenchmarks.class.getPackage().getName() + "\\.");
+    }
+    if (commandLine.getBenchModes().isEmpty()) {
+      builder.mode(Mode.Throughput);
+    }
+    if (!commandLine.getTimeUnit().hasValue()) {
+      builder.timeUnit(TimeUnit.SECONDS);
+    }
+    Options options = builder.addProfiler(GCProfiler.class).build();
+    new Runner(options).run();
+  }
+}
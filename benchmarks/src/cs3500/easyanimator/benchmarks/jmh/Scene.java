@@ -0,0 +1,77 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.StringReader;
+
+import cs3500.easyanimator.benchmarks.SceneGenerator;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.util.AdvancedAnimationReader;
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+import cs3500.easyanimator.util.LayeredAnimatorModelBuilder;
+
+/**
+ * A Scene is the generated animation the JMH benchmarks run against, shared by every thread of a
+ * trial. Its size is given by JMH parameters, so each benchmark is run over small and large
+ * scenes, and more sizes can be given on the command line with -p.
+ *
+ * <p>The scene is generated once per trial, both as text and already read into models, so only
+ * the work being measured is in a benchmark.</p>
+ */
+@State(Scope.Benchmark)
+public class Scene {
+  /**
+   * The number of shapes in the scene.
+   */
+  @Param({"100", "1000"})
+  public int shapes;
+
+  /**
+   * The number of back to back motions of each shape.
+   */
+  @Param({"20", "200"})
+  public int motionsPerShape;
+
+  /**
+   * The number of layers the shapes are spread over in the layered scene.
+   */
+  @Param({"4"})
+  public int layers;
+
+  /**
+   * The scene in the basic text format.
+   */
+  public String text;
+
+  /**
+   * The scene in the layered text format.
+   */
+  public String layeredText;
+
+  /**
+   * The scene read into a model.
+   */
+  public IAnimatorModel model;
+
+  /**
+   * The layered scene read into a layered model.
+   */
+  public ILayeredAnimatorModel layeredModel;
+
+  /**
+   * Generates the scene and reads it into models.
+   */
+  @Setup
+  public void setUp() {
+    text = new SceneGenerator(shapes, motionsPerShape, 0, 3500).writeToString();
+    layeredText = new SceneGenerator(shapes, motionsPerShape, layers, 3500).writeToString();
+    model = AnimationReader.parseFile(new StringReader(text), new EasyAnimatorModelBuilder());
+    layeredModel = AdvancedAnimationReader.parseFile(new StringReader(layeredText),
+            new LayeredAnimatorModelBuilder("Base"));
+  }
+}
@@ -0,0 +1,114 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+
+import cs3500.easyanimator.model.motions.IMotion;
+import cs3500.easyanimator.model.shapes.IShape;
+
+/**
+ * JMH benchmarks of comparing and tweening shape state through the value objects against doing it
+ * on their packed forms, which is what the model does when it checks keyframes against each other.
+ */
+public class ShapeStateBenchmarks {
+
+  /**
+   * Every keyframe of the scene in order, and every motion between them.
+   */
+  @State(Scope.Benchmark)
+  public static class States {
+    private IShape[] keyframes;
+    private IMotion[] motions;
+
+    /**
+     * Takes the keyframes and motions from the scene's model.
+     * @param scene The scene to take them from.
+     */
+    @Setup
+    public void setUp(Scene scene) {
+      List<IShape> allKeyframes = new ArrayList<>();
+      for (String id : scene.model.getShapeNames()) {
+        allKeyframes.addAll(scene.model.getKeyframes(id).values());
+      }
+      List<IMotion> allMotions = new ArrayList<>();
+      for (SortedSet<IMotion> shape : scene.model.getSortedMotions().values()) {
+        allMotions.addAll(shape);
+      }
+      keyframes = allKeyframes.toArray(new IShape[0]);
+      motions = allMotions.toArray(new IMotion[0]);
+    }
+  }
+
+  /**
+   * Compares every keyframe with the next through their WidthHeight, Point and Color.
+   * @param states  The keyframes.
+   * @return        The number of matches, for JMH to consume.
+   */
+  @Benchmark
+  public int compareObjects(States states) {
+    int same = 0;
+    IShape[] keyframes = states.keyframes;
+    for (int i = 1; i < keyframes.length; i++) {
+      if (keyframes[i - 1].getSize().equals(keyframes[i].getSize())
+              && keyframes[i - 1].getPosition().equals(keyframes[i].getPosition())
+              && keyframes[i - 1].getColor().equals(keyframes[i].getColor())) {
+        same++;
+      }
+    }
+    return same;
+  }
+
+  /**
+   * Compares every keyframe with the next on their packed state.
+   * @param states  The keyframes.
+   * @return        The number of matches, for JMH to consume.
+   */
+  @Benchmark
+  public int comparePacked(States states) {
+    int same = 0;
+    IShape[] keyframes = states.keyframes;
+    for (int i = 1; i < keyframes.length; i++) {
+      if (IShape.sameState(keyframes[i - 1], keyframes[i])) {
+        same++;
+      }
+    }
+    return same;
+  }
+
+  /**
+   * Tweens every motion halfway through, as a WidthHeight, Point and Color.
+   * @param states  The motions.
+   * @return        A sum of the results, for JMH to consume.
+   */
+  @Benchmark
+  public long tweenObjects(States states) {
+    long sum = 0;
+    for (IMotion motion : states.motions) {
+      int tick = (motion.getStartTime() + motion.getEndTime()) / 2;
+      sum += motion.getSize(tick).getWidth() + motion.getPosition(tick).getX()
+              + motion.getColor(tick).getRed();
+    }
+    return sum;
+  }
+
+  /**
+   * Tweens every motion halfway through, on their packed state.
+   * @param states  The motions.
+   * @return        A sum of the results, for JMH to consume.
+   */
+  @Benchmark
+  public long tweenPacked(States states) {
+    long sum = 0;
+    for (IMotion motion : states.motions) {
+      int tick = (motion.getStartTime() + motion.getEndTime()) / 2;
+      sum += motion.getPackedSize(tick) + motion.getPackedPosition(tick) + motion.getRGB(tick);
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,75 @@
+package cs3500.easyanimator.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.Writer;
+
+import cs3500.easyanimator.view.IAnimatorView;
+import cs3500.easyanimator.view.SVGAnimationView;
+import cs3500.easyanimator.view.TextualView;
+
+/**
+ * JMH benchmarks of the views that write the whole animation out. They write into a Writer that
+ * throws everything away, so only making the output is measured and not holding on to it.
+ */
+public class ViewBenchmarks {
+
+  /**
+   * Writes the scene out as text.
+   * @param scene The scene.
+   */
+  @Benchmark
+  public void textualView(Scene scene) {
+    write(new TextualView(new NullWriter()), scene);
+  }
+
+  /**
+   * Writes the scene out as an SVG document.
+   * @param scene The scene.
+   */
+  @Benchmark
+  public void svgView(Scene scene) {
+    write(new SVGAnimationView(new NullWriter()), scene);
+  }
+
+  /**
+   * A private helper to show the scene's model in a view.
+   * @param view  The view.
+   * @param scene The scene.
+   */
+  private static void write(IAnimatorView view, Scene scene) {
+    view.setModel(scene.model);
+    view.setSpeed(20);
+    view.makeVisible();
+  }
+
+  /**
+   * A Writer that throws away everything written to it, like Writer.nullWriter from Java 11.
+   */
+  private static final class NullWriter extends Writer {
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+      // Nothing to keep.
+    }
+
+    @Override
+    public void write(String string, int offset, int length) {
+      // Nothing to keep, and no copying the string into a buffer first.
+    }
+
+    @Override
+    public Writer append(CharSequence sequence) {
+      return this;
+    }
+
+    @Override
+    public void flush() {
+      // Nothing to flush.
+    }
+
+    @Override
+    public void close() {
+      // Nothing to close.
+    }
+  }
+}
@@ -50,6 +50,9 @@ public final class Excellence {
       case "-view":
         builder.setView(value);
         break;
+      case "-store":
+        builder.setStore(value);
+        break;
       default:
         throw new IllegalArgumentException(String.format("Invalid parameter supplied. %s",
                 parameter));
@@ -8,7 +8,6 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 
-import java.util.List;
 import java.util.Map;
 
 import javax.swing.JDialog;
@@ -47,9 +46,9 @@ public class MVCController implements IController, EditorListener {
   }
 
   private static IShapeFactory SHAPE_FACTORY = new BasicShapeFactory();
-  private static WidthHeight DEFAULT_WH = new WidthHeight(100, 100);
-  private static Point DEFAULT_POS = new Point(100, 100);
-  private static Color DEFAULT_COL = new Color(100, 100, 100);
+  private static WidthHeight DEFAULT_WH = WidthHeight.of(100, 100);
+  private static Point DEFAULT_POS = Point.of(100, 100);
+  private static Color DEFAULT_COL = Color.of(100, 100, 100);
 
 
   @Override
@@ -83,8 +82,7 @@ public class MVCController implements IController, EditorListener {
     // This is a trickier situation than calling something in the model.
 
     // We won't rename ontop another shape. Or rename a non-existent shape.
-    List<String> shapeNames = model.getShapeNames();
-    if (!shapeNames.contains(name) || shapeNames.contains(newName)) {
+    if (!model.containsShape(name) || model.containsShape(newName)) {
       return false;
     }
 
@@ -122,13 +120,13 @@ public class MVCController implements IController, EditorListener {
                              String r, String g, String b) {
     viewCheck();
     try {
-      if (!model.getShapeNames().contains(name)) {
+      if (!model.containsShape(name)) {
         return false;
       }
       IShape keyframe = model.getShapes().get(name).accept(new ShapeF(
-              new WidthHeight(Integer.parseInt(w), Integer.parseInt(h)),
-              new Point(Integer.parseInt(x), Integer.parseInt(y)),
-              new Color(Integer.parseInt(r), Integer.parseInt(g), Integer.parseInt(b))));
+              WidthHeight.of(Integer.parseInt(w), Integer.parseInt(h)),
+              Point.of(Integer.parseInt(x), Integer.parseInt(y)),
+              Color.of(Integer.parseInt(r), Integer.parseInt(g), Integer.parseInt(b))));
       model.addKeyframe(name, keyframe, tick);
     } catch (IllegalArgumentException iae) {
       return false;
@@ -5,6 +5,7 @@ import cs3500.easyanimator.model.Color;
 import cs3500.easyanimator.model.EasyAnimator;
 import cs3500.easyanimator.model.IAnimatorModel;
 
+import cs3500.easyanimator.model.ModelEvent;
 import cs3500.easyanimator.model.Point;
 
 import cs3500.easyanimator.model.ILayeredAnimatorModel;
@@ -17,6 +18,8 @@ import cs3500.easyanimator.model.shapes.IShapeVisitor;
 import cs3500.easyanimator.model.shapes.ShapeF;
 import cs3500.easyanimator.model.shapes.ShapeNameVisitor;
 import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.view.FramePipeline;
+import cs3500.easyanimator.view.PlaybackClock;
 
 import javax.swing.Timer;
 
@@ -24,7 +27,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.SortedMap;
 import java.util.stream.Collectors;
 
@@ -34,13 +36,28 @@ import java.util.stream.Collectors;
 public class LayerMVCController implements ILayerMVCController,
         PlaybackControls, EditorControls, LayerControls, ScrubbingControls {
 
+  // How many frames are sampled ahead of playback.
+  private static final int PREPARED_FRAMES = 3;
+  // How many frames on either side of the slider are sampled while scrubbing.
+  private static final int SCRUBBING_FRAMES = 8;
+  // How many frames are kept, so playing or scrubbing over them again doesn't sample them.
+  private static final int CACHED_FRAMES = 64;
+
   private Timer timer;
   private int tick;
+  // Decides the tick to draw from the time gone by, so slow frames skip ticks instead of lagging.
+  private final PlaybackClock clock;
   private double speed;
   private boolean looping;
 
   private ILayeredAnimatorModel model;
   private ILayerView view;
+  // Samples upcoming ticks off the event thread. It has to be settled before we read the model,
+  // we edit it through the pipeline, and it drops the frames our edits affect as it hears of them.
+  private final FramePipeline pipeline;
+  private final List<Integer> upcoming;
+  // The max tick as of the last edit, so playback doesn't read the model while it's sampled.
+  private int maxTick;
 
   // Current layer can be null,
   // for example if there are no layers in the editor, or none of them are selected.
@@ -55,7 +72,14 @@ public class LayerMVCController implements ILayerMVCController,
     this.model = model;
     this.view = view;
     this.tick = 0;
+    this.clock = new PlaybackClock();
     this.looping = false;
+    this.pipeline = new FramePipeline(model, CACHED_FRAMES);
+    this.upcoming = new ArrayList<>();
+    this.maxTick = model.getMaxTick();
+    this.clock.setEndTick(maxTick);
+    this.model.addModelListener(pipeline);
+    this.model.addModelListener(this::modelChanged);
     // We use the value negative -1 for the speed as a way to mark the speed as uninitialized.
     this.view.addPlaybackControls(this);
     this.view.addEditorControls(this);
@@ -64,12 +88,21 @@ public class LayerMVCController implements ILayerMVCController,
     this.view.setScrubbingMax(model.getMaxTick());
 
     // Start timer with the speed of view.
-    this.timer = new Timer(0, e -> this.refreshTick());
+    this.timer = new Timer(clock.getFrameDelay(), e -> {
+      this.refreshTick();
+      if (!looping && tick >= maxTick) {
+        // Playback has reached the end, there is nothing more to fire for.
+        this.timer.stop();
+      } else {
+        this.scheduleRefresh();
+      }
+    });
     this.timer.stop();
   }
 
   @Override
   public void start() {
+    pipeline.settle();
     if (this.speed == -1.0) {
       throw new IllegalArgumentException("Can't start if speed has not been set.");
     }
@@ -82,41 +115,91 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void refreshTick() {
-    //update the shapes that should be drawn. This goes at start so first frame has it.
-    refreshDrawing();
-    if (looping && tick >= model.getMaxTick()) {
-      tick = 0;
+    // The clock may have skipped ticks we had no time for, we play from the first to the last.
+    int next = playbackTick(clock.advance());
+    if (next == tick) {
+      // Timer should still run, but there is nothing new to draw.
+      return;
     }
-    else if (!looping && tick >= model.getMaxTick()) {
-      //do nothing, timer should still run, but don't update the tick.
+    tick = next;
+    refreshDrawing();
+    clock.frameDrawn();
+    view.setPlaybackStats(clock.getFramesPerSecond(), clock.getDroppedTicks());
+
+    // The ticks the next few frames should show are sampled while we wait for them.
+    int step = Math.max(1, (int) Math.round(speed * clock.getFrameDelay() / 1000.0));
+    upcoming.clear();
+    for (int i = 1; i <= PREPARED_FRAMES; i++) {
+      upcoming.add(playbackTick(tick + i * step));
     }
-    else {
-      tick += 1;
+    pipeline.prepare(upcoming);
+  }
+
+  /**
+   * A private helper to find the tick playback shows for a tick of the clock, looping back to
+   * the start or staying on the last tick.
+   * @param clockTick The tick of the clock.
+   * @return          The tick to show.
+   */
+  private int playbackTick(int clockTick) {
+    if (looping) {
+      return clockTick % (maxTick + 1);
     }
+    return Math.min(clockTick, maxTick);
   }
 
   @Override
   public void refreshDrawing() {
     // Update the shapes that should be drawn. This goes at start so first frame has it.
-    view.setDrawShapes(model.getShapesAtTick(this.tick));
+    FramePipeline.PreparedFrame prepared = pipeline.take(this.tick);
+    view.setDrawFrame(prepared.getFrame(), prepared.getImages());
     view.setTick(this.tick);
 
   }
 
+  /**
+   * A private helper to keep the slider and canvas up to date as the model is edited, told about
+   * each edit by the model.
+   * @param event The edit.
+   */
+  private void modelChanged(ModelEvent event) {
+    int newMaxTick = model.getMaxTick();
+    if (newMaxTick != maxTick) {
+      maxTick = newMaxTick;
+      clock.setEndTick(looping ? Integer.MAX_VALUE : maxTick);
+      view.setScrubbingMax(maxTick);
+    }
+    if (event.getKind() == ModelEvent.Kind.CANVAS_CHANGED
+            || event.getKind() == ModelEvent.Kind.LAYERS_CHANGED) {
+      view.setPreferredCanvasSize(model.getCanvasSize());
+    }
+  }
+
   @Override
   public void setSpeed(double tps) {
     this.speed = Math.max(tps, 1);
-    if (this.timer != null) {
-      this.timer.setDelay((int) Math.max(1, (1.0 / speed * 1000.0)));
+    this.clock.setSpeed(speed);
+    if (this.timer != null && this.timer.isRunning()) {
+      scheduleRefresh();
     }
   }
 
+  /**
+   * A private helper to have the timer fire next when the clock's next tick is due, rather than
+   * a fixed delay after it last fired, so jitter doesn't show a tick twice and skip the one after.
+   */
+  private void scheduleRefresh() {
+    timer.setInitialDelay(clock.getFrameDelay());
+    timer.restart();
+  }
+
   // PLAYBACK CONTROLS
 
   @Override
   public void play() {
     if (!timer.isRunning()) {
-      timer.start();
+      clock.start(tick);
+      scheduleRefresh();
     }
   }
 
@@ -130,14 +213,17 @@ public class LayerMVCController implements ILayerMVCController,
   @Override
   public void restart() {
     this.tick = 0;
-    if (!timer.isRunning()) {
-      timer.start();
-    }
+    clock.start(tick);
+    refreshDrawing();
+    scheduleRefresh();
   }
 
   @Override
   public void toggleLooping() {
     looping = !looping;
+    // A looping clock may have run past the end, so we carry on from the tick we show.
+    clock.setEndTick(looping ? Integer.MAX_VALUE : maxTick);
+    clock.start(tick);
   }
 
   @Override
@@ -152,35 +238,40 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void increaseTick() {
+    pipeline.settle();
     if (tick == model.getMaxTick()) {
       tick = 0;
     }
     else {
       tick += 1;
     }
+    clock.start(tick);
     refreshDrawing();
   }
 
   @Override
   public void decreaseTick() {
+    pipeline.settle();
     if (tick == 0) {
       tick = model.getMaxTick();
     }
     else {
       tick -= 1;
     }
+    clock.start(tick);
     refreshDrawing();
   }
 
   // EDITOR FEATURES
 
   private static IShapeFactory SHAPE_FACTORY = new BasicShapeFactory();
-  private static WidthHeight DEFAULT_WH = new WidthHeight(100, 100);
-  private static Point DEFAULT_POS = new Point(100, 100);
-  private static Color DEFAULT_COL = new Color(100, 100, 100);
+  private static WidthHeight DEFAULT_WH = WidthHeight.of(100, 100);
+  private static Point DEFAULT_POS = Point.of(100, 100);
+  private static Color DEFAULT_COL = Color.of(100, 100, 100);
 
   @Override
   public void addShape(String shapeName, String shapeType) {
+    pipeline.settle();
     shapeName = shapeName.trim();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
@@ -202,16 +293,17 @@ public class LayerMVCController implements ILayerMVCController,
     // If we aren't replacing a shape in the current layer,
     // then we'd be adding a shape with the same name.
     // We error out in this specific case.
-    if (model.getShapeNames().contains(shapeName) &&
-            !layerModel.getShapeNames().contains(shapeName)) {
+    if (model.containsShape(shapeName) &&
+            !layerModel.containsShape(shapeName)) {
       System.out.println("Unable to add shape with the same name as another in a different layer.");
       view.makeErrorSound();
       return;
     }
     // We passed that check, time to update / add the shape.
+    String name = shapeName;
     try {
-      layerModel.addShape(shapeName,
-              SHAPE_FACTORY.getShape(shapeType, DEFAULT_WH, DEFAULT_POS, DEFAULT_COL));
+      pipeline.edit(() -> layerModel.addShape(name,
+              SHAPE_FACTORY.getShape(shapeType, DEFAULT_WH, DEFAULT_POS, DEFAULT_COL)));
       updateShapes();
     } catch (IllegalArgumentException iae) {
       iae.printStackTrace();
@@ -222,6 +314,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void deleteShape(String shapeName) {
+    pipeline.settle();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
       view.makeErrorSound();
@@ -231,7 +324,7 @@ public class LayerMVCController implements ILayerMVCController,
     IAnimatorModel layerModel = currentLayer.getModel();
 
     try {
-      layerModel.removeShape(shapeName);
+      pipeline.edit(() -> layerModel.removeShape(shapeName));
       updateShapes();
     } catch (IllegalArgumentException iae) {
       view.makeErrorSound();
@@ -242,6 +335,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void renameShape(String name, String newName, String shapeType) {
+    pipeline.settle();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
       view.makeErrorSound();
@@ -252,8 +346,7 @@ public class LayerMVCController implements ILayerMVCController,
     IAnimatorModel layerModel = currentLayer.getModel();
 
     // We won't rename a non-existent shape.
-    List<String> shapeNames = layerModel.getShapeNames();
-    if (!shapeNames.contains(name)) {
+    if (!layerModel.containsShape(name)) {
       System.out.println("Unable to rename non-existent shape.");
       view.makeErrorSound();
       return;
@@ -261,29 +354,28 @@ public class LayerMVCController implements ILayerMVCController,
 
     // Rename is also how we change the type of shape something is.
     if (newName.equals(name)) {
-      currentLayer.getModel().addShape(name, SHAPE_FACTORY.getShape(shapeType,
-              DEFAULT_WH, DEFAULT_POS, DEFAULT_COL));
+      pipeline.edit(() -> layerModel.addShape(name, SHAPE_FACTORY.getShape(shapeType,
+              DEFAULT_WH, DEFAULT_POS, DEFAULT_COL)));
       refreshDrawing(); // Shape might have changed.
       return;
     }
 
     // We also make sure that there isn't a same name in the entire stack of layers.
-    if (model.getShapeNames().contains(newName)) {
+    if (model.containsShape(newName)) {
       System.out.println("Unable to add shape with the same name as another in a different layer.");
       view.makeErrorSound();
       return;
     }
 
     try {
-      // Fetch old data.
-      Map<Integer, IShape> oldKeyframes = layerModel.getKeyframes(name);
-      // Create new recipient.
-      layerModel.addShape(newName, layerModel.getShapes().get(name));
-      for (Map.Entry<Integer, IShape> keyframe: oldKeyframes.entrySet()) {
-        layerModel.addKeyframe(newName, keyframe.getValue(), keyframe.getKey());
-      }
-      // Done with old shape.
-      layerModel.removeShape(name);
+      // The copy is made as one edit, so if it fails the old shape is left as it was.
+      pipeline.edit(() -> layerModel.edit(m -> {
+        // Create new recipient, with the old data.
+        m.addShape(newName, m.getShapes().get(name));
+        m.addKeyframes(newName, m.getKeyframes(name));
+        // Done with old shape.
+        m.removeShape(name);
+      }));
       updateShapes();
     } catch (IllegalArgumentException iae) {
       view.makeErrorSound();
@@ -296,6 +388,7 @@ public class LayerMVCController implements ILayerMVCController,
                            String x, String y,
                            String width, String height,
                            String r, String g, String b) {
+    pipeline.settle();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
       view.makeErrorSound();
@@ -305,14 +398,15 @@ public class LayerMVCController implements ILayerMVCController,
     IAnimatorModel layerModel = currentLayer.getModel();
 
     try {
-      if (!layerModel.getShapeNames().contains(shapeName)) {
+      if (!layerModel.containsShape(shapeName)) {
         view.makeErrorSound();
       }
       IShape keyframe = layerModel.getShapes().get(shapeName).accept(new ShapeF(
-              new WidthHeight(Integer.parseInt(width), Integer.parseInt(height)),
-              new Point(Integer.parseInt(x), Integer.parseInt(y)),
-              new Color(Integer.parseInt(r), Integer.parseInt(g), Integer.parseInt(b))));
-      layerModel.addKeyframe(shapeName, keyframe, Integer.parseInt(tick));
+              WidthHeight.of(Integer.parseInt(width), Integer.parseInt(height)),
+              Point.of(Integer.parseInt(x), Integer.parseInt(y)),
+              Color.of(Integer.parseInt(r), Integer.parseInt(g), Integer.parseInt(b))));
+      int keyframeTick = Integer.parseInt(tick);
+      pipeline.edit(() -> layerModel.addKeyframe(shapeName, keyframe, keyframeTick));
       updateKeyframeSelector(shapeName);
     } catch (IllegalArgumentException iae) {
       view.makeErrorSound();
@@ -321,6 +415,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void deleteKeyFrame(String shapeName, String tickOfKeyFrame) {
+    pipeline.settle();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
       view.makeErrorSound();
@@ -330,7 +425,8 @@ public class LayerMVCController implements ILayerMVCController,
     IAnimatorModel layerModel = currentLayer.getModel();
 
     try {
-      layerModel.removeKeyframe(shapeName, Integer.parseInt(tickOfKeyFrame));
+      int keyframeTick = Integer.parseInt(tickOfKeyFrame);
+      pipeline.edit(() -> layerModel.removeKeyframe(shapeName, keyframeTick));
       updateKeyframeSelector(shapeName);
     } catch (IllegalArgumentException iae) {
       view.makeErrorSound();
@@ -341,6 +437,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void selectShape(String shapeName) {
+    pipeline.settle();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
       view.makeErrorSound();
@@ -350,7 +447,7 @@ public class LayerMVCController implements ILayerMVCController,
     IAnimatorModel layerModel = currentLayer.getModel();
 
     // If the shape doesn't exist then we don't bother updating fields.
-    if (!layerModel.getShapes().containsKey(shapeName)) {
+    if (!layerModel.containsShape(shapeName)) {
       return;
     }
     // Shape fields.
@@ -418,14 +515,13 @@ public class LayerMVCController implements ILayerMVCController,
       ticksToDisplay.add(Integer.toString(tick));
     }
     view.setAvailableTicks(ticksToDisplay);
-    view.setScrubbingMax(model.getMaxTick());
-    view.setPreferredCanvasSize(model.getCanvasSize());
   }
 
   private static String DEFAULT = "100";
 
   @Override
   public void selectTick(String shapeName, Integer tick) {
+    pipeline.settle();
     if (currentLayer == null) {
       // If there is no currently selected layer then this is not applicable.
       view.makeErrorSound();
@@ -445,7 +541,7 @@ public class LayerMVCController implements ILayerMVCController,
     if (tick == null) {
       tick = this.tick;
     }
-    if (shapeName == null || !layerModel.getShapeNames().contains(shapeName)) {
+    if (shapeName == null || !layerModel.containsShape(shapeName)) {
       return;
     }
     SortedMap<Integer, IShape> keyframes = layerModel.getKeyframes(shapeName);
@@ -494,6 +590,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void selectLayer(String layer) {
+    pipeline.settle();
     if (layer == null || layer.equals(NEW_LAYER)) {
       return; // We don't actually do anything ...
     }
@@ -508,6 +605,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void deleteLayer(String layer) {
+    pipeline.settle();
     if (layer == null || layer.equals(NEW_LAYER)) {
       return; // We don't actually do anything ...
     }
@@ -518,7 +616,7 @@ public class LayerMVCController implements ILayerMVCController,
     } else if (model.getLayers().size() < 2) {
       view.makeErrorSound(); // We don't want to deal with no layers, that's an extra state ...
     }
-    model.removeLayer(layerToDelete);
+    pipeline.edit(() -> model.removeLayer(layerToDelete));
     currentLayer = null;
     updateShapes();
     updateKeyframeSelector(null);
@@ -527,6 +625,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void saveLayer(String selectedLayer, String layerName) {
+    pipeline.settle();
     layerName = layerName.trim(); // We don't want different layer names by spaces.
 
     // Is it an invalid new layer name?
@@ -542,7 +641,7 @@ public class LayerMVCController implements ILayerMVCController,
       IAnimatorModel newModel = new EasyAnimator();
       newModel.setCanvas(model.getCanvasPosition(), model.getCanvasSize());
       ILayer newLayer = new BasicLayer(layerName, true, newModel);
-      model.addLayer(newLayer);
+      pipeline.edit(() -> model.addLayer(newLayer));
       currentLayer = newLayer;
       updateShapes();
     } else {
@@ -555,8 +654,10 @@ public class LayerMVCController implements ILayerMVCController,
       }
       int oldIndex = model.getLayers().indexOf(oldLayer);
       ILayer newLayer = oldLayer.setName(layerName);
-      model.removeLayer(oldLayer);
-      model.addLayer(newLayer, oldIndex);
+      pipeline.edit(() -> {
+        model.removeLayer(oldLayer);
+        model.addLayer(newLayer, oldIndex);
+      });
       currentLayer = newLayer;
       updateShapes();
     }
@@ -565,6 +666,7 @@ public class LayerMVCController implements ILayerMVCController,
 
   @Override
   public void moveLayer(String layer, int delta) {
+    pipeline.settle();
     ILayer selectedLayer = getLayerByName(layer);
     if (selectedLayer == null) {
       view.makeErrorSound();
@@ -575,14 +677,31 @@ public class LayerMVCController implements ILayerMVCController,
       view.makeErrorSound();
       return;
     }
-    model.swapLayer(layerIndex, delta + layerIndex);
+    pipeline.edit(() -> model.swapLayer(layerIndex, delta + layerIndex));
     updateLayers();
   }
 
   @Override
   public void scrubbingOccurred(int value) {
+    if (value == tick) {
+      // The slider follows playback, so it tells us about the tick we just drew.
+      return;
+    }
     tick = value;
+    clock.start(tick);
     refreshDrawing();
 
+    // The ticks on either side are sampled while the slider is still, nearest first, so dragging
+    // back and forth around here doesn't sample at all.
+    upcoming.clear();
+    for (int i = 1; i <= SCRUBBING_FRAMES; i++) {
+      if (tick + i <= maxTick) {
+        upcoming.add(tick + i);
+      }
+      if (tick - i >= 0) {
+        upcoming.add(tick - i);
+      }
+    }
+    pipeline.prepare(upcoming);
   }
 }
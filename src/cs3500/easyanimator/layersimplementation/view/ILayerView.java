@@ -5,8 +5,10 @@ import cs3500.easyanimator.layersimplementation.controller.EditorControls;
 import cs3500.easyanimator.layersimplementation.controller.LayerControls;
 
 import cs3500.easyanimator.layersimplementation.controller.ScrubbingControls;
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.shapes.IShape;
 import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.view.LayerImage;
 
 import java.util.List;
 
@@ -50,12 +52,34 @@ public interface ILayerView {
    */
   void setTick(int tick);
 
+  /**
+   * Shows how well playback is keeping up.
+   * @param framesPerSecond the frames drawn over the last second of playback.
+   * @param droppedTicks the ticks skipped because a frame wasn't drawn in time for them.
+   */
+  void setPlaybackStats(double framesPerSecond, long droppedTicks);
+
   /**
    * Sets the shapes, this is for a specific tick. Should pass to the draw component of the view.
    * @param shapes the shapes to display.
    */
   void setDrawShapes(List<IShape> shapes);
 
+  /**
+   * Sets the frame to draw, this is for a specific tick. Should pass to the draw component of the
+   * view. The frame is copied, so the caller may reuse it for the next tick.
+   * @param frame the frame to display.
+   */
+  void setDrawFrame(FrameBuffer frame);
+
+  /**
+   * Sets the frame to draw along with images of still layers to draw among its shapes, this is for
+   * a specific tick. Both are copied, so the caller may reuse them for the next tick.
+   * @param frame   the frame to display.
+   * @param images  the images of layers to display in their places among the shapes.
+   */
+  void setDrawFrame(FrameBuffer frame, List<LayerImage> images);
+
 
   /**
    * Sets the available shapes of the editor panel.
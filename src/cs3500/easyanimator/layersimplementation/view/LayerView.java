@@ -7,8 +7,10 @@ import cs3500.easyanimator.layersimplementation.controller.ScrubbingControls;
 import cs3500.easyanimator.layersimplementation.view.panels.AnimationPanel;
 import cs3500.easyanimator.layersimplementation.view.panels.EditorPanel;
 import cs3500.easyanimator.layersimplementation.view.panels.LayerPanel;
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.shapes.IShape;
 import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.view.LayerImage;
 
 import javax.swing.JFrame;
 import java.awt.BorderLayout;
@@ -89,11 +91,26 @@ public class LayerView extends JFrame implements ILayerView {
 
   }
 
+  @Override
+  public void setPlaybackStats(double framesPerSecond, long droppedTicks) {
+    animationPanel.setPlaybackStats(framesPerSecond, droppedTicks);
+  }
+
   @Override
   public void setDrawShapes(List<IShape> shapes) {
     animationPanel.setShapes(shapes);
   }
 
+  @Override
+  public void setDrawFrame(FrameBuffer frame) {
+    animationPanel.setFrame(frame);
+  }
+
+  @Override
+  public void setDrawFrame(FrameBuffer frame, List<LayerImage> images) {
+    animationPanel.setFrame(frame, images);
+  }
+
   public void setAvailableShapes(List<String> shapes) {
     editorPanel.setAvailableShapes(shapes);
   }
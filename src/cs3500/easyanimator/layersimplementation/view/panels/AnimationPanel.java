@@ -2,9 +2,11 @@ package cs3500.easyanimator.layersimplementation.view.panels;
 
 import cs3500.easyanimator.layersimplementation.controller.PlaybackControls;
 import cs3500.easyanimator.layersimplementation.controller.ScrubbingControls;
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.shapes.IShape;
 import cs3500.easyanimator.model.shapes.WidthHeight;
 import cs3500.easyanimator.view.DrawPanel;
+import cs3500.easyanimator.view.LayerImage;
 
 import javax.swing.JPanel;
 import javax.swing.BoxLayout;
@@ -67,7 +69,27 @@ public class AnimationPanel extends JPanel {
    */
   public void setShapes(List<IShape> shapes) {
     this.drawPanel.setShapes(shapes);
-    this.drawPanel.repaint();
+    this.drawPanel.repaintChanges();
+  }
+
+  /**
+   * Sets the drawPanels shapes to draw to the shapes of the given frame.
+   * @param frame the frame to set the draw panel to draw.
+   */
+  public void setFrame(FrameBuffer frame) {
+    this.drawPanel.setFrame(frame);
+    this.drawPanel.repaintChanges();
+  }
+
+  /**
+   * Sets the drawPanels shapes to draw to the shapes of the given frame, with the given images of
+   * still layers among them.
+   * @param frame   the frame to set the draw panel to draw.
+   * @param images  the images of layers to draw in their places among the shapes.
+   */
+  public void setFrame(FrameBuffer frame, List<LayerImage> images) {
+    this.drawPanel.setFrame(frame, images);
+    this.drawPanel.repaintChanges();
   }
 
   /**
@@ -103,6 +125,15 @@ public class AnimationPanel extends JPanel {
     scrubbingPanel.setScrubberPosition(tick);
   }
 
+  /**
+   * Shows how well playback is keeping up.
+   * @param framesPerSecond the frames drawn over the last second of playback.
+   * @param droppedTicks the ticks skipped because a frame wasn't drawn in time for them.
+   */
+  public void setPlaybackStats(double framesPerSecond, long droppedTicks) {
+    playbackPanel.setStatsLabel(framesPerSecond, droppedTicks);
+  }
+
 
   /**
    * Sets the preferred canvas size.
@@ -25,6 +25,7 @@ public class PlaybackPanel extends JPanel {
   private JButton tickDown;
 
   private JLabel tickLabel;
+  private JLabel statsLabel;
 
   private static Dimension MAX_PLAYBACK_BUTTONS_SIZE = new Dimension(Integer.MAX_VALUE, 50);
 
@@ -81,6 +82,10 @@ public class PlaybackPanel extends JPanel {
     tickLabel = new JLabel();
     tickLabel.setText("");
     add(tickLabel);
+
+    statsLabel = new JLabel();
+    statsLabel.setText("");
+    add(statsLabel);
   }
 
   /**
@@ -105,4 +110,14 @@ public class PlaybackPanel extends JPanel {
   public void setTickLabel(int tick) {
     this.tickLabel.setText(" " + tick);
   }
+
+  /**
+   * Updates the stats label to how well playback is keeping up.
+   * @param framesPerSecond the frames drawn over the last second.
+   * @param droppedTicks the ticks skipped.
+   */
+  public void setStatsLabel(double framesPerSecond, long droppedTicks) {
+    this.statsLabel.setText(String.format(" %.0f fps, %d dropped", framesPerSecond,
+            droppedTicks));
+  }
 }
@@ -0,0 +1,717 @@
+package cs3500.easyanimator.model;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import cs3500.easyanimator.model.motions.BasicMotion;
+import cs3500.easyanimator.model.motions.IMotion;
+import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+/**
+ * The rules every animator model follows, whichever way it keeps its shapes and keyframes: the
+ * canvas, checking edits, when each shape is alive, making edits as one and undoing them, and
+ * telling listeners. A model only has to keep its shapes and keyframes and sample them, and it's
+ * read back through {@link #getShapes()} and {@link #getKeyframes(String)}.
+ *
+ * @param <K> How the model keeps a shape to undo an edit (see {@link EditBatch}).
+ */
+abstract class AbstractAnimatorModel<K> implements IAnimatorModel {
+  private Point canvasCorner;
+  private WidthHeight canvasSize;
+
+  // When each shape is alive (first to last keyframe), so sampling a tick skips everything else.
+  // Its order matches the shapes of the model, so it keeps the z-order for us.
+  private final ShapeLifetimeIndex lifetimes;
+
+  // When the model changes over time, built when asked for and dropped with any edit to a shape.
+  private ChangeIndex changes;
+
+  // Who to tell about our changes, and our version.
+  private final ModelListeners listeners;
+
+  // The edits being made as one, or null if we aren't making any.
+  private EditBatch<K> batch;
+
+  /**
+   * Create a new model without a canvas or any shapes.
+   */
+  AbstractAnimatorModel() {
+    this.lifetimes = new ShapeLifetimeIndex();
+    this.listeners = new ModelListeners();
+  }
+
+  // WHAT A MODEL KEEPS ITS OWN WAY
+
+  /**
+   * Puts a shape in the model, at the end if it's new, keeping its keyframes if it's replaced.
+   * @param id    The id of the shape.
+   * @param shape The frozen shape.
+   */
+  abstract void putShape(String id, IShape shape);
+
+  /**
+   * Takes a shape and its keyframes out of the model.
+   * @param id  The id of the shape, this is assumed to exist.
+   */
+  abstract void deleteShape(String id);
+
+  /**
+   * Puts a keyframe into a shape, replacing one at the same tick.
+   * @param id    The id of the shape, this is assumed to exist.
+   * @param tick  The tick of the keyframe.
+   * @param state The state of the shape at that tick.
+   */
+  abstract void putKeyframe(String id, int tick, IShape state);
+
+  /**
+   * Puts a keyframe into a shape from packed values, replacing one at the same tick.
+   * @param id        The id of the shape, this is assumed to exist.
+   * @param tick      The tick of the keyframe.
+   * @param size      The packed size of the shape at that tick.
+   * @param position  The packed position of the shape at that tick.
+   * @param rgb       The color of the shape at that tick, packed as 0xRRGGBB.
+   */
+  abstract void putKeyframe(String id, int tick, long size, long position, int rgb);
+
+  /**
+   * Puts many keyframes into a shape, replacing those at the same ticks.
+   * @param id      The id of the shape, this is assumed to exist.
+   * @param states  The states of the shape by tick, all checked already.
+   */
+  abstract void putKeyframes(String id, SortedMap<Integer, IShape> states);
+
+  /**
+   * Takes a keyframe out of a shape, if it has one at the given tick.
+   * @param id    The id of the shape, this is assumed to exist.
+   * @param tick  The tick of the keyframe.
+   */
+  abstract void deleteKeyframe(String id, int tick);
+
+  /**
+   * Drops whatever the model worked out from the keyframes of a shape, because they changed.
+   * @param id  The id of the shape.
+   */
+  abstract void keyframesDropped(String id);
+
+  /**
+   * Samples the state of a shape at the given tick, relative to the canvas corner, and appends it
+   * to the given frame.
+   * @param id      The id of the shape, this is assumed to exist.
+   * @param tick    The tick to sample at.
+   * @param cornerX The x of the canvas corner.
+   * @param cornerY The y of the canvas corner.
+   * @param frame   The frame to append to.
+   * @return        True if the shape has a state at the given tick, false otherwise.
+   */
+  abstract boolean sample(String id, int tick, int cornerX, int cornerY, FrameBuffer frame);
+
+  /**
+   * Tells the ticks of every shape's keyframes, and whether their states change, to a builder.
+   * @param builder The builder of the change index.
+   */
+  abstract void buildChanges(ChangeIndex.Builder builder);
+
+  /**
+   * Keeps a shape as it is, so it can be put back if the edits being made are undone.
+   * @param id  The id of the shape, this is assumed to exist.
+   * @return    The shape as it is.
+   */
+  abstract K keepShape(String id);
+
+  /**
+   * Puts a shape back as it was kept, because the edits made are undone. A shape taken out is put
+   * back at the end, the shapes are put back in order afterwards if any were taken out.
+   * @param id    The id of the shape.
+   * @param kept  The shape as it was kept, or null to take out a shape that didn't exist.
+   */
+  abstract void restoreShape(String id, K kept);
+
+  /**
+   * Puts the shapes of the model in the given order, because the edits that took shapes out are
+   * undone.
+   * @param order The ids of the shapes in their order, some may no longer exist.
+   */
+  abstract void restoreOrder(List<String> order);
+
+  /**
+   * Lets go of a shape kept to undo the edits made, because they are done. Nothing by default.
+   * @param kept  The shape as it was kept.
+   */
+  void discardKept(K kept) {
+    // Nothing to let go of.
+  }
+
+  // CANVAS METHODS
+
+  @Override
+  public void setCanvas(Point topLeftCorner, WidthHeight size) {
+    if (topLeftCorner == null || size == null) {
+      throw new IllegalArgumentException("Unable to set canvas with uninitialized parameters");
+    }
+    if (batch != null) {
+      batch.keepCanvas(canvasCorner, canvasSize);
+    }
+    this.canvasCorner = topLeftCorner;
+    this.canvasSize = size;
+    listeners.changed(ModelEvent.Kind.CANVAS_CHANGED);
+  }
+
+  @Override
+  public WidthHeight getCanvasSize() {
+    if (canvasSize == null) {
+      throw new IllegalStateException("Unable to request canvas size without setting it.");
+    }
+    return canvasSize;
+  }
+
+  @Override
+  public Point getCanvasPosition() {
+    if (canvasCorner == null) {
+      throw new IllegalStateException("Unable to request canvas size without setting it.");
+    }
+    return canvasCorner;
+  }
+
+  // SHAPES
+
+  @Override
+  public void addShape(String id, IShape shape) {
+    if (id == null || shape == null) {
+      throw new IllegalArgumentException("Unable to add shape with uninitialized parameters");
+    }
+    keep(id);
+    // Remember, they could be overriding the shape, which keeps its keyframes.
+    putShape(id, shape.freeze());
+    lifetimes.add(id);
+    // A new shape has no keyframes yet, a replaced one may look different all its life.
+    changedAllLife(ModelEvent.Kind.SHAPE_ADDED, id, getKeyframes(id));
+  }
+
+  @Override
+  public void removeShape(String id) {
+    if (id == null) {
+      throw new IllegalArgumentException("Unable to remove a shape with a null id");
+    } else if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to remove a shape that does not exist.");
+    }
+    keep(id);
+    if (batch != null) {
+      // The shape has to go back in its place if the edits are undone.
+      batch.keepOrder(getShapes().keySet());
+    }
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    int first = keyframes.isEmpty() ? 0 : keyframes.firstKey();
+    int last = keyframes.isEmpty() ? -1 : keyframes.lastKey();
+    deleteShape(id);
+    keyframesDropped(id);
+    lifetimes.remove(id);
+    changes = null;
+    listeners.changed(ModelEvent.Kind.SHAPE_REMOVED, id, first, last);
+  }
+
+  @Override
+  public boolean containsShape(String id) {
+    return getShapes().containsKey(id);
+  }
+
+  // OPERATIONS WITH SOME LOGIC
+
+  @Override
+  public void addKeyframe(String id, IShape state, int tick) {
+    // First we verify that the parameters are correct.
+    if (id == null || state == null) {
+      throw new IllegalArgumentException("Unable to add a keyframe with uninitialized parameters");
+    } else if (tick < 0) {
+      throw new IllegalArgumentException("Unable to add a keyframe with that illegal time (<0).");
+    } else if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to add a state for a shape that doesn't exist");
+    }
+    keep(id);
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    int from = affectedFrom(keyframes, tick);
+    int to = affectedTo(keyframes, tick);
+    putKeyframe(id, tick, state);
+    keyframesChanged(id, from, to);
+  }
+
+  @Override
+  public void addKeyframes(String id, SortedMap<Integer, IShape> states) {
+    if (id == null || states == null) {
+      throw new IllegalArgumentException("Unable to add keyframes with uninitialized parameters");
+    } else if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to add a state for a shape that doesn't exist");
+    } else if (states.isEmpty()) {
+      return;
+    } else if (states.containsValue(null)) {
+      throw new IllegalArgumentException("Unable to add a keyframe with uninitialized parameters");
+    }
+    int first;
+    int last;
+    if (states.comparator() == null) {
+      first = states.firstKey();
+      last = states.lastKey();
+    } else {
+      // The caller's order may not be the order of the ticks, so we look at every one.
+      first = Integer.MAX_VALUE;
+      last = Integer.MIN_VALUE;
+      for (Integer tick : states.keySet()) {
+        if (tick == null) {
+          throw new IllegalArgumentException("Unable to add a keyframe with uninitialized "
+                  + "parameters");
+        }
+        first = Math.min(first, tick);
+        last = Math.max(last, tick);
+      }
+    }
+    if (first < 0) {
+      throw new IllegalArgumentException("Unable to add a keyframe with that illegal time (<0).");
+    }
+    keep(id);
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    int from = affectedFrom(keyframes, first);
+    int to = affectedTo(keyframes, last);
+    putKeyframes(id, states);
+    // Only the one update to the lifetime, however many keyframes there are.
+    keyframesChanged(id, from, to);
+  }
+
+  @Override
+  public void removeKeyframe(String id, int tick) {
+    // First we verify that the parameters are correct.
+    if (id == null) {
+      throw new IllegalArgumentException("Unable to remove keyframe for null shape name.");
+    } else if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to remove keyframe for nonexistent shape.");
+    }
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    if (!keyframes.containsKey(tick)) {
+      throw new IllegalArgumentException("Unable to remove keyframe for nonexistent keyframe.");
+    }
+    keep(id);
+    int from = affectedFrom(keyframes, tick);
+    int to = affectedTo(keyframes, tick);
+    deleteKeyframe(id, tick);
+    keyframesChanged(id, from, to);
+  }
+
+  @Override
+  public void addMotion(String id, IMotion motion) {
+    // A motion is basically two keyframes.
+    // But we want to make sure we still follow the old invariants.
+    if (id == null || motion == null) {
+      throw new IllegalArgumentException("Unable to add motion with uninitialized parameters.");
+    } else if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to add motion with nonexistent shape.");
+    }
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    checkMotion(keyframes, motion);
+    keep(id);
+    // We passed our tests, lets add some keyframes.
+    int from = affectedFrom(keyframes, motion.getStartTime());
+    int to = affectedTo(keyframes, motion.getEndTime());
+    putKeyframe(id, motion.getStartTime(), motion.getPackedStartSize(),
+            motion.getPackedStartPosition(), motion.getStartRGB());
+    putKeyframe(id, motion.getEndTime(), motion.getPackedEndSize(),
+            motion.getPackedEndPosition(), motion.getEndRGB());
+    keyframesChanged(id, from, to);
+  }
+
+  @Override
+  public void removeMotion(String id, IMotion motion) {
+    // Check our parameters.
+    if (id == null || motion == null) {
+      throw new IllegalArgumentException("Unable to remove motion with uninitialized parameters.");
+    } else if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to remove motion for nonexistent shape.");
+    }
+    // Now we want to search for the motion.
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    // Do the keyframes exist?
+    if (!keyframes.containsKey(motion.getStartTime()) ||
+            !keyframes.containsKey(motion.getEndTime())) {
+      throw new IllegalArgumentException("Unable to remove this motion, it does not exist.");
+    }
+    // Finally, do we cause a state clash by removing this motion?
+    SortedMap<Integer, IShape> lower = keyframes.headMap(motion.getStartTime());
+    SortedMap<Integer, IShape> higher = after(keyframes, motion.getEndTime());
+    if (!lower.isEmpty() && !higher.isEmpty()
+            && !IShape.sameState(lower.get(lower.lastKey()), higher.get(higher.firstKey()))) {
+      throw new IllegalArgumentException("Removing this motion would cause a state mismatch.");
+    }
+
+    // We passed all the tests, let's do removal.
+    keep(id);
+    int from = affectedFrom(keyframes, motion.getStartTime());
+    int to = affectedTo(keyframes, motion.getEndTime());
+    deleteKeyframe(id, motion.getStartTime());
+    deleteKeyframe(id, motion.getEndTime());
+    keyframesChanged(id, from, to);
+  }
+
+  /**
+   * A private helper to check a motion agrees with the keyframes of its shape, that there are no
+   * keyframes in the middle of it and the keyframes around it are in the states it starts and ends
+   * in.
+   * @param keyframes The keyframes of the shape.
+   * @param motion    The motion.
+   * @throws IllegalArgumentException If it doesn't agree.
+   */
+  private static void checkMotion(SortedMap<Integer, IShape> keyframes, IMotion motion) {
+    SortedMap<Integer, IShape> left = upTo(keyframes, motion.getStartTime());
+    SortedMap<Integer, IShape> right = keyframes.tailMap(motion.getEndTime());
+    // First conflicting time. Is there a keyframe in the middle of the motion? That is one at or
+    // before the start but after the end, which we find without going through every keyframe.
+    if (motion.getStartTime() > motion.getEndTime() && !left.isEmpty()
+            && left.lastKey() > motion.getEndTime()) {
+      throw new IllegalArgumentException("Unable to add the motion, " +
+              "there exists keyframes in between the suggested start and end times.");
+    }
+    // Next does the state conflict?
+    if (!left.isEmpty() && !sameState(left.get(left.lastKey()), motion.getPackedStartSize(),
+            motion.getPackedStartPosition(), motion.getStartRGB())) {
+      throw new IllegalArgumentException("Unable to add the given motion, " +
+              "state mismatch on the left.");
+    } else if (!right.isEmpty() && !sameState(right.get(right.firstKey()),
+            motion.getPackedEndSize(), motion.getPackedEndPosition(), motion.getEndRGB())) {
+      throw new IllegalArgumentException("Unable to add the given motion, " +
+              "state mismatch on the right.");
+    }
+  }
+
+  /**
+   * A private helper to check whether a state is the given packed state.
+   */
+  private static boolean sameState(IShape state, long size, long position, int rgb) {
+    return state.getPackedSize() == size && state.getPackedPosition() == position
+            && state.getRGB() == rgb;
+  }
+
+  /**
+   * A private helper to give the keyframes at or before a tick.
+   */
+  private static SortedMap<Integer, IShape> upTo(SortedMap<Integer, IShape> keyframes, int tick) {
+    return tick == Integer.MAX_VALUE ? keyframes : keyframes.headMap(tick + 1);
+  }
+
+  /**
+   * A private helper to give the keyframes after a tick.
+   */
+  private static SortedMap<Integer, IShape> after(SortedMap<Integer, IShape> keyframes, int tick) {
+    return tick == Integer.MAX_VALUE ? keyframes.tailMap(tick).headMap(tick)
+            : keyframes.tailMap(tick + 1);
+  }
+
+  /**
+   * A private helper to find the first tick that may look different when a shape's keyframes
+   * change at the given tick, the keyframe before it on.
+   * @param keyframes The keyframes of the shape, before the change.
+   * @param tick      The first tick of the change.
+   * @return          The first tick affected.
+   */
+  private static int affectedFrom(SortedMap<Integer, IShape> keyframes, int tick) {
+    SortedMap<Integer, IShape> lower = keyframes.headMap(tick);
+    return lower.isEmpty() ? tick : lower.lastKey();
+  }
+
+  /**
+   * A private helper to find the last tick that may look different when a shape's keyframes
+   * change at the given tick, up to the keyframe after it.
+   * @param keyframes The keyframes of the shape, before the change.
+   * @param tick      The last tick of the change.
+   * @return          The last tick affected.
+   */
+  private static int affectedTo(SortedMap<Integer, IShape> keyframes, int tick) {
+    SortedMap<Integer, IShape> higher = after(keyframes, tick);
+    return higher.isEmpty() ? tick : higher.firstKey();
+  }
+
+  // SAMPLING
+
+  @Override
+  public IShape getShapeAtTick(String id, int tick) {
+    if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to get nonexistent shape at tick.");
+    }
+    FrameBuffer frame = new FrameBuffer(1);
+    if (!sample(id, tick, cornerX(), cornerY(), frame)) {
+      // We are outside motions and so we return null.
+      return null;
+    }
+    return frame.getShape(0);
+  }
+
+  @Override
+  public List<IShape> getShapesAtTick(int tick) {
+    FrameBuffer frame = new FrameBuffer(getShapes().size());
+    fillShapesAtTick(tick, frame);
+    return frame.toShapes();
+  }
+
+  @Override
+  public void fillShapesAtTick(int tick, FrameBuffer frame) {
+    if (frame == null) {
+      throw new IllegalArgumentException("Unable to sample into an uninitialized frame.");
+    }
+    int cornerX = cornerX();
+    int cornerY = cornerY();
+    // We only visit the shapes alive at this tick. Ordinals follow insertion order, so our frame
+    // will be in insertion order.
+    BitSet alive = lifetimes.activeAt(tick);
+    for (int i = alive.nextSetBit(0); i >= 0; i = alive.nextSetBit(i + 1)) {
+      sample(lifetimes.nameOf(i), tick, cornerX, cornerY, frame);
+    }
+  }
+
+  /**
+   * A private helper to give the x of the canvas corner, 0 if there is no canvas.
+   */
+  private int cornerX() {
+    return canvasCorner == null ? 0 : canvasCorner.getX();
+  }
+
+  /**
+   * A private helper to give the y of the canvas corner, 0 if there is no canvas.
+   */
+  private int cornerY() {
+    return canvasCorner == null ? 0 : canvasCorner.getY();
+  }
+
+  @Override
+  public int getMaxTick() {
+    // The lifetimes already know the last tick of every shape, so there is no need to copy every
+    // shape like the default does.
+    return lifetimes.lastTick();
+  }
+
+  @Override
+  public int getShapeMaxTick(String id) {
+    if (!containsShape(id)) {
+      throw new IllegalArgumentException("Unable to get max tick for nonexistent shape.");
+    }
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    if (keyframes.isEmpty()) {
+      return 0; // N.A
+    }
+    return keyframes.lastKey();
+  }
+
+  @Override
+  public int getLastStillTick(int tick) {
+    if (changes == null) {
+      ChangeIndex.Builder builder = new ChangeIndex.Builder();
+      buildChanges(builder);
+      changes = new ChangeIndex(builder);
+    }
+    return changes.lastStillTick(tick);
+  }
+
+  // LISTENERS
+
+  @Override
+  public long getVersion() {
+    return listeners.getVersion();
+  }
+
+  @Override
+  public void addModelListener(IModelListener listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(IModelListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * A private helper to tell listeners a shape may look different at any tick of its life.
+   */
+  private void changedAllLife(ModelEvent.Kind kind, String id,
+                              SortedMap<Integer, IShape> keyframes) {
+    changes = null;
+    if (keyframes.isEmpty()) {
+      listeners.changed(kind, id, 0, -1);
+    } else {
+      listeners.changed(kind, id, keyframes.firstKey(), keyframes.lastKey());
+    }
+  }
+
+  /**
+   * A private helper to drop what we worked out from a shape's keyframes, update its lifetime and
+   * tell our listeners, this has to be called whenever the keyframes of a shape change.
+   * @param id        The id of the shape, this is assumed to exist.
+   * @param fromTick  The first tick that may look different.
+   * @param toTick    The last tick that may look different.
+   */
+  private void keyframesChanged(String id, int fromTick, int toTick) {
+    keyframesDropped(id);
+    changes = null;
+    if (batch != null) {
+      // The lifetime is updated once, when the edits are done.
+      batch.keyframesChanged(id);
+    } else {
+      updateLifetime(id);
+    }
+    listeners.changed(ModelEvent.Kind.KEYFRAMES_CHANGED, id, fromTick, toTick);
+  }
+
+  /**
+   * A private helper to set the lifetime of a shape from its keyframes.
+   * @param id  The id of the shape, this is assumed to exist.
+   */
+  private void updateLifetime(String id) {
+    SortedMap<Integer, IShape> keyframes = getKeyframes(id);
+    if (keyframes.isEmpty()) {
+      lifetimes.clearLifetime(id);
+    } else {
+      lifetimes.setLifetime(id, keyframes.firstKey(), keyframes.lastKey());
+    }
+  }
+
+  // EDITS AS ONE
+
+  @Override
+  public void edit(Consumer<IAnimatorModel> edits) {
+    if (edits == null) {
+      throw new IllegalArgumentException("Unable to make uninitialized edits.");
+    } else if (batch != null) {
+      // These are part of the edits being made already.
+      edits.accept(this);
+      return;
+    }
+    batch = new EditBatch<>();
+    listeners.hold();
+    try {
+      edits.accept(this);
+    } catch (RuntimeException | Error e) {
+      undoEdit();
+      throw e;
+    }
+    // Only now do we update the lifetimes and tell our listeners, once for each shape.
+    EditBatch<K> done = batch;
+    batch = null;
+    for (String id : done.getChanged()) {
+      if (containsShape(id)) {
+        updateLifetime(id);
+      }
+    }
+    for (K kept : done.getOriginals().values()) {
+      if (kept != null) {
+        discardKept(kept);
+      }
+    }
+    listeners.release();
+  }
+
+  /**
+   * A private helper to keep a shape as it is, if we're making edits as one and it wasn't kept
+   * already, this has to be called before a shape is edited.
+   * @param id  The id of the shape, which may not exist yet.
+   */
+  private void keep(String id) {
+    if (batch == null || batch.isKept(id)) {
+      return;
+    }
+    batch.keep(id, containsShape(id) ? keepShape(id) : null);
+  }
+
+  /**
+   * A private helper to undo the edits being made, putting every shape kept back as it was.
+   */
+  private void undoEdit() {
+    EditBatch<K> undone = batch;
+    batch = null;
+    listeners.drop();
+    for (Map.Entry<String, K> entry : undone.getOriginals().entrySet()) {
+      String id = entry.getKey();
+      boolean present = containsShape(id);
+      restoreShape(id, entry.getValue());
+      keyframesDropped(id);
+      if (entry.getValue() == null) {
+        lifetimes.remove(id);
+      } else if (present) {
+        updateLifetime(id);
+      }
+    }
+    if (undone.getOrder() != null) {
+      // Shapes removed and put back were put at the end, so every shape goes back in its place.
+      restoreOrder(undone.getOrder());
+      for (String id : undone.getOrder()) {
+        lifetimes.remove(id);
+      }
+      for (String id : getShapes().keySet()) {
+        lifetimes.add(id);
+        updateLifetime(id);
+      }
+    }
+    if (undone.isCanvasKept()) {
+      canvasCorner = undone.getCanvasCorner();
+      canvasSize = undone.getCanvasSize();
+    }
+    changes = null;
+  }
+
+  /**
+   * Puts the entries of a map in the given order, for models keeping their shapes in insertion
+   * ordered maps.
+   * @param map   The map.
+   * @param order The keys in their order, those not in the map are skipped.
+   * @param <V>   The type of the values.
+   */
+  static <V> void putInOrder(LinkedHashMap<String, V> map, List<String> order) {
+    Map<String, V> entries = new LinkedHashMap<>(map);
+    map.clear();
+    for (String id : order) {
+      if (entries.containsKey(id)) {
+        map.put(id, entries.get(id));
+      }
+    }
+  }
+
+  // MOTIONS
+
+  /**
+   * Simulates the motions between the given keyframes of a shape, skipping keyframes that change
+   * nothing.
+   * @param keyframes The keyframes of the shape.
+   * @return          The motions, sorted by end time.
+   */
+  static SortedSet<IMotion> deriveMotions(SortedMap<Integer, IShape> keyframes) {
+    SortedSet<IMotion> motions = new TreeSet<>(Comparator.comparingInt(IMotion::getEndTime));
+    Map.Entry<Integer, IShape> previousKeyframe = null;
+    for (Map.Entry<Integer, IShape> keyframe : keyframes.entrySet()) {
+      if (previousKeyframe == null) {
+        previousKeyframe = keyframe;
+        continue;
+      } else {
+        // We only add a motion if it changes the value.
+        IShape prev = previousKeyframe.getValue();
+        IShape cur = keyframe.getValue();
+        if (!IShape.sameState(prev, cur)) {
+          motions.add(new BasicMotion(previousKeyframe.getKey(),
+                  keyframe.getKey(),
+                  prev.getPackedSize(), cur.getPackedSize(),
+                  prev.getPackedPosition(), cur.getPackedPosition(),
+                  prev.getRGB(), cur.getRGB()));
+          previousKeyframe = keyframe;
+        }
+      }
+    }
+    if (keyframes.size() == 1) {
+      // If there is only one keyframe then the above loop wouldn't create a motion.
+      IShape sole = previousKeyframe.getValue();
+      motions.add(new BasicMotion(previousKeyframe.getKey(), previousKeyframe.getKey(),
+              sole.getPackedSize(), sole.getPackedSize(),
+              sole.getPackedPosition(), sole.getPackedPosition(),
+              sole.getRGB(), sole.getRGB()));
+    }
+    return motions;
+  }
+}
@@ -0,0 +1,166 @@
+package cs3500.easyanimator.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+
+import cs3500.easyanimator.model.shapes.IShape;
+
+/**
+ * A ChangeIndex knows the ticks at which a model might look different from the tick before, so it
+ * can tell how long the model stays still from any tick. A shape changes the tick its first
+ * keyframe starts it, the tick after its last keyframe ends it, and every tick of a motion between
+ * two keyframes of different states. Everything else looks the same as the tick before.
+ *
+ * <p>The changing ticks are kept as sorted, merged runs, so asking is a binary search. The index
+ * is built once from the keyframes of every shape and thrown away when any of them change.</p>
+ */
+final class ChangeIndex {
+  // The first and last tick of each run of changing ticks, sorted and not overlapping.
+  private final int[] starts;
+  private final int[] ends;
+  private final int size;
+
+  /**
+   * Build the index of the keyframes given to a builder.
+   * @param builder The builder.
+   */
+  ChangeIndex(Builder builder) {
+    // Runs are packed with the start on top, so sorting them sorts by start.
+    long[] runs = builder.runs;
+    int count = builder.count;
+    Arrays.sort(runs, 0, count);
+
+    int[] starts = new int[count];
+    int[] ends = new int[count];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      int start = (int) (runs[i] >>> 32);
+      int end = (int) runs[i];
+      if (size > 0 && start <= ends[size - 1] + 1) {
+        ends[size - 1] = Math.max(ends[size - 1], end);
+      } else {
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+      }
+    }
+    this.starts = starts;
+    this.ends = ends;
+    this.size = size;
+  }
+
+  /**
+   * A Builder is told the keyframes of every shape in tick order, one shape after another, either
+   * as maps of shapes or one keyframe at a time for models that don't keep them that way.
+   */
+  static final class Builder {
+    private long[] runs;
+    private int count;
+    // The tick of the last keyframe of the shape being told.
+    private int previous;
+
+    /**
+     * Create a new builder without any shapes.
+     */
+    Builder() {
+      this.runs = new long[16];
+    }
+
+    /**
+     * Tells the keyframes of a shape kept as a map.
+     * @param keyframes The keyframes of the shape, by tick.
+     */
+    void addShape(SortedMap<Integer, IShape> keyframes) {
+      if (keyframes.isEmpty()) {
+        return;
+      }
+      Iterator<Map.Entry<Integer, IShape>> iterator = keyframes.entrySet().iterator();
+      Map.Entry<Integer, IShape> previous = iterator.next();
+      startShape(previous.getKey());
+      while (iterator.hasNext()) {
+        Map.Entry<Integer, IShape> next = iterator.next();
+        nextKeyframe(next.getKey(), IShape.sameState(previous.getValue(), next.getValue()));
+        previous = next;
+      }
+      endShape();
+    }
+
+    /**
+     * Starts a shape at its first keyframe.
+     * @param tick  The tick of the keyframe, never negative.
+     */
+    void startShape(int tick) {
+      add(run(tick, tick));
+      previous = tick;
+    }
+
+    /**
+     * Tells the next keyframe of the shape.
+     * @param tick      The tick of the keyframe.
+     * @param sameState Whether it's in the same state as the keyframe before it.
+     */
+    void nextKeyframe(int tick, boolean sameState) {
+      if (!sameState) {
+        add(run(previous + 1, tick));
+      }
+      previous = tick;
+    }
+
+    /**
+     * Ends the shape after its last keyframe.
+     */
+    void endShape() {
+      add(run(previous + 1, previous + 1));
+    }
+
+    /**
+     * A private helper to add a run, making room for it if necessary.
+     */
+    private void add(long run) {
+      if (count == runs.length) {
+        runs = Arrays.copyOf(runs, runs.length * 2);
+      }
+      runs[count++] = run;
+    }
+  }
+
+  /**
+   * A private helper to pack a run of ticks into a long.
+   * @param start The first tick of the run, never negative.
+   * @param end   The last tick of the run.
+   * @return      The run, packed.
+   */
+  private static long run(int start, int end) {
+    return ((long) start << 32) | (end & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gives the last tick, from the given one on, at which the model still looks as it does at the
+   * given tick.
+   * @param tick  The tick to start from.
+   * @return      The last tick before the next change, or Integer.MAX_VALUE if nothing changes
+   *              after the given tick.
+   */
+  int lastStillTick(int tick) {
+    if (tick == Integer.MAX_VALUE) {
+      return tick;
+    }
+    // The first run that ends after our tick holds the next change.
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (ends[middle] <= tick) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    if (low == size) {
+      return Integer.MAX_VALUE;
+    }
+    return Math.max(starts[low], tick + 1) - 1;
+  }
+}
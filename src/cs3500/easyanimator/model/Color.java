@@ -4,8 +4,15 @@ import java.util.Objects;
 
 /**
  * Class representing a color as a RGB value. All values must be in range of 0-255.
+ *
+ * <p>Scenes tend to reuse a small palette, so {@link #of} keeps recent colors in a fixed number of
+ * slots picked by a hash of their value. A color that lands on a taken slot replaces what was
+ * there. {@link Point#of} and {@link cs3500.easyanimator.model.shapes.WidthHeight#of} cache the
+ * same way.</p>
  */
 public final class Color {
+  private static final int CACHE_BITS = 12;
+  private static final Color[] CACHE = new Color[1 << CACHE_BITS];
 
   private final int red;
   private final int green;
@@ -32,6 +39,47 @@ public final class Color {
     this.blue = b;
   }
 
+  /**
+   * Gives the color with the given values. Colors are immutable, so the same instance is handed
+   * out for the same values rather than making a new one every time.
+   *
+   * @param r an int representing the level of red in the color.
+   * @param g an int representing the level of green in the color.
+   * @param b an int representing the level of blue in the color.
+   * @return the color.
+   *
+   * @throws IllegalArgumentException if any color value is not in range of 0-255.
+   */
+  public static Color of(int r, int g, int b) {
+    if (r < 0 || g < 0 || b < 0 || r > 255 || g > 255 || b > 255) {
+      throw new IllegalArgumentException("All color values must be in range of 0-255");
+    }
+
+    int slot = ((r << 16) | (g << 8) | b) * 0x9E3779B9 >>> (32 - CACHE_BITS);
+    // Colors are immutable, so a race on a slot at worst makes an extra color.
+    Color color = CACHE[slot];
+    if (color == null || color.red != r || color.green != g || color.blue != b) {
+      color = new Color(r, g, b);
+      CACHE[slot] = color;
+    }
+    return color;
+  }
+
+  /**
+   * Gives the color of a packed rgb value.
+   *
+   * @param rgb the color packed as 0xRRGGBB, as given by {@link #getRGB()}.
+   * @return the color.
+   *
+   * @throws IllegalArgumentException if any bits above the blue, green and red are set.
+   */
+  public static Color ofRGB(int rgb) {
+    if ((rgb & ~0xFFFFFF) != 0) {
+      throw new IllegalArgumentException("All color values must be in range of 0-255");
+    }
+    return of((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+  }
+
   /**
    * A useful override of toString to make debugging easier.
    * @return  The color in the format r g b
@@ -64,6 +112,15 @@ public final class Color {
     return this.blue;
   }
 
+  /**
+   * Packs the color into a single int as 0xRRGGBB. Two colors are equal exactly when their packed
+   * values are.
+   * @return the packed color.
+   */
+  public int getRGB() {
+    return (this.red << 16) | (this.green << 8) | this.blue;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,139 @@
+package cs3500.easyanimator.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+/**
+ * What a model keeps while edits are made as one (see {@link IAnimatorModel#edit}): how each shape
+ * was before its first edit, so the edits can be undone, and the shapes whose lifetimes are to be
+ * updated once they are done.
+ *
+ * <p>The models keep shapes their own way, so how a shape was is kept as whatever they give.</p>
+ *
+ * @param <T> How the model keeps a shape.
+ */
+final class EditBatch<T> {
+  // How each shape edited was before its first edit, null for shapes that didn't exist.
+  private final Map<String, T> originals;
+  // The order of the shapes before the first shape was removed, or null if none was.
+  private List<String> order;
+  // The canvas before it was first set, if it was.
+  private boolean canvasKept;
+  private Point canvasCorner;
+  private WidthHeight canvasSize;
+
+  // The shapes whose keyframes changed, their lifetimes are updated once we're done.
+  private final Set<String> changed;
+
+  /**
+   * Create a new batch, before any edits.
+   */
+  EditBatch() {
+    this.originals = new LinkedHashMap<>();
+    this.changed = new LinkedHashSet<>();
+  }
+
+  /**
+   * Gives whether a shape was edited already, so how it was is kept.
+   * @param id  The name of the shape.
+   * @return    True if it's kept.
+   */
+  boolean isKept(String id) {
+    return originals.containsKey(id);
+  }
+
+  /**
+   * Keeps how a shape was before its first edit.
+   * @param id        The name of the shape.
+   * @param original  How it was, or null if it didn't exist.
+   */
+  void keep(String id, T original) {
+    originals.put(id, original);
+  }
+
+  /**
+   * Gives how each shape edited was before its first edit.
+   * @return  The shapes by name, null for shapes that didn't exist.
+   */
+  Map<String, T> getOriginals() {
+    return originals;
+  }
+
+  /**
+   * Keeps the order of the shapes, before one is removed, if it wasn't kept already.
+   * @param names The names of the shapes in their order.
+   */
+  void keepOrder(Collection<String> names) {
+    if (order == null) {
+      order = new ArrayList<>(names);
+    }
+  }
+
+  /**
+   * Gives the order of the shapes from before the first was removed.
+   * @return  The names of the shapes, or null if no shape was removed.
+   */
+  List<String> getOrder() {
+    return order;
+  }
+
+  /**
+   * Keeps the canvas as it was before it was first set.
+   * @param corner  The corner of the canvas.
+   * @param size    The size of the canvas.
+   */
+  void keepCanvas(Point corner, WidthHeight size) {
+    if (!canvasKept) {
+      canvasKept = true;
+      canvasCorner = corner;
+      canvasSize = size;
+    }
+  }
+
+  /**
+   * Gives whether the canvas was set.
+   * @return  True if it was.
+   */
+  boolean isCanvasKept() {
+    return canvasKept;
+  }
+
+  /**
+   * Gives the corner of the canvas before it was set.
+   * @return  The corner, which may be null.
+   */
+  Point getCanvasCorner() {
+    return canvasCorner;
+  }
+
+  /**
+   * Gives the size of the canvas before it was set.
+   * @return  The size, which may be null.
+   */
+  WidthHeight getCanvasSize() {
+    return canvasSize;
+  }
+
+  /**
+   * Marks the keyframes of a shape as changed.
+   * @param id  The name of the shape.
+   */
+  void keyframesChanged(String id) {
+    changed.add(id);
+  }
+
+  /**
+   * Gives the shapes whose keyframes changed.
+   * @return  Their names, some of them may have been removed since.
+   */
+  Set<String> getChanged() {
+    return changed;
+  }
+}
@@ -0,0 +1,326 @@
+package cs3500.easyanimator.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.IShapeVisitor;
+import cs3500.easyanimator.model.shapes.Oval;
+import cs3500.easyanimator.model.shapes.Rectangle;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+/**
+ * A FrameBuffer is a reusable container for the shapes drawn in a single frame. Instead of a list
+ * of IShapes it keeps parallel arrays of primitives (type, x, y, width, height and a packed rgb
+ * color) so a view can sample frame after frame into the same buffer without producing garbage.
+ * The arrays only ever grow, so once a buffer has seen the largest frame of an animation, filling
+ * it again allocates nothing.
+ *
+ * <p>Shapes are kept in the order they were added, which is the order they should be drawn in.</p>
+ */
+public final class FrameBuffer {
+  /**
+   * The type code of a rectangle.
+   */
+  public static final int RECTANGLE = 0;
+
+  /**
+   * The type code of an oval.
+   */
+  public static final int OVAL = 1;
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private int size;
+  private int[] type;
+  private int[] x;
+  private int[] y;
+  private int[] width;
+  private int[] height;
+  private int[] color;
+
+  /**
+   * Create a new empty FrameBuffer with a default capacity.
+   */
+  public FrameBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create a new empty FrameBuffer with room for the given number of shapes before it grows.
+   * @param capacity  The initial number of shapes this buffer can hold.
+   * @throws IllegalArgumentException If the capacity is negative.
+   */
+  public FrameBuffer(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Unable to create a frame buffer of negative capacity.");
+    }
+    this.size = 0;
+    this.type = new int[capacity];
+    this.x = new int[capacity];
+    this.y = new int[capacity];
+    this.width = new int[capacity];
+    this.height = new int[capacity];
+    this.color = new int[capacity];
+  }
+
+  /**
+   * Removes every shape from this buffer. The capacity is kept for the next frame.
+   */
+  public void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * Gives the number of shapes in this buffer.
+   * @return  The number of shapes in this frame.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * A private helper to make sure there is room for the given number of shapes.
+   * @param capacity  The number of shapes we need room for.
+   */
+  private void ensureCapacity(int capacity) {
+    if (capacity <= type.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, type.length * 2));
+    type = Arrays.copyOf(type, newCapacity);
+    x = Arrays.copyOf(x, newCapacity);
+    y = Arrays.copyOf(y, newCapacity);
+    width = Arrays.copyOf(width, newCapacity);
+    height = Arrays.copyOf(height, newCapacity);
+    color = Arrays.copyOf(color, newCapacity);
+  }
+
+  /**
+   * Appends a shape to the end of this buffer (on top of everything before it).
+   * @param type    The type code of the shape, RECTANGLE or OVAL.
+   * @param x       The x position of the shape.
+   * @param y       The y position of the shape.
+   * @param width   The width of the shape.
+   * @param height  The height of the shape.
+   * @param red     The red component of the shape's color.
+   * @param green   The green component of the shape's color.
+   * @param blue    The blue component of the shape's color.
+   */
+  public void add(int type, int x, int y, int width, int height, int red, int green, int blue) {
+    ensureCapacity(size + 1);
+    this.type[size] = type;
+    this.x[size] = x;
+    this.y[size] = y;
+    this.width[size] = width;
+    this.height[size] = height;
+    this.color[size] = (red << 16) | (green << 8) | blue;
+    size++;
+  }
+
+  /**
+   * Appends the state of the given shape to the end of this buffer.
+   * @param shape The shape to add.
+   * @throws IllegalArgumentException If the shape is uninitialized.
+   */
+  public void add(IShape shape) {
+    if (shape == null) {
+      throw new IllegalArgumentException("Unable to add an uninitialized shape to a frame.");
+    }
+    long position = shape.getPackedPosition();
+    long packedSize = shape.getPackedSize();
+    int rgb = shape.getRGB();
+    add(typeOf(shape),
+            Point.unpackX(position), Point.unpackY(position),
+            WidthHeight.unpackWidth(packedSize), WidthHeight.unpackHeight(packedSize),
+            (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+  }
+
+  /**
+   * Replaces the contents of this buffer with a copy of the given buffer.
+   * @param other The buffer to copy from.
+   * @throws IllegalArgumentException If the other buffer is uninitialized.
+   */
+  public void copyFrom(FrameBuffer other) {
+    if (other == null) {
+      throw new IllegalArgumentException("Unable to copy an uninitialized frame.");
+    }
+    if (other == this) {
+      return;
+    }
+    ensureCapacity(other.size);
+    System.arraycopy(other.type, 0, type, 0, other.size);
+    System.arraycopy(other.x, 0, x, 0, other.size);
+    System.arraycopy(other.y, 0, y, 0, other.size);
+    System.arraycopy(other.width, 0, width, 0, other.size);
+    System.arraycopy(other.height, 0, height, 0, other.size);
+    System.arraycopy(other.color, 0, color, 0, other.size);
+    this.size = other.size;
+  }
+
+  /**
+   * Appends every shape of the given buffer to the end of this one, moved by the given offset.
+   * This is how frames sampled separately, like the layers of a model, are put back together.
+   * @param other The buffer to append.
+   * @param dx    The amount to move the appended shapes along x.
+   * @param dy    The amount to move the appended shapes along y.
+   * @throws IllegalArgumentException If the other buffer is uninitialized or this one.
+   */
+  public void append(FrameBuffer other, int dx, int dy) {
+    if (other == null || other == this) {
+      throw new IllegalArgumentException("Unable to append an uninitialized frame or itself.");
+    }
+    ensureCapacity(size + other.size);
+    System.arraycopy(other.type, 0, type, size, other.size);
+    System.arraycopy(other.width, 0, width, size, other.size);
+    System.arraycopy(other.height, 0, height, size, other.size);
+    System.arraycopy(other.color, 0, color, size, other.size);
+    for (int i = 0; i < other.size; i++) {
+      x[size + i] = other.x[i] + dx;
+      y[size + i] = other.y[i] + dy;
+    }
+    size += other.size;
+  }
+
+  /**
+   * Moves every shape from the given index onwards by the given offset. This is useful when
+   * several sources are sampled into one buffer but need to be lined up differently.
+   * @param from  The index of the first shape to move.
+   * @param dx    The amount to move along x.
+   * @param dy    The amount to move along y.
+   */
+  public void translate(int from, int dx, int dy) {
+    if (dx == 0 && dy == 0) {
+      return;
+    }
+    for (int i = Math.max(from, 0); i < size; i++) {
+      x[i] += dx;
+      y[i] += dy;
+    }
+  }
+
+  /**
+   * A private helper to refuse indices outside this frame.
+   * @param i The index to check.
+   */
+  private void checkIndex(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("No shape at index " + i + " of this frame.");
+    }
+  }
+
+  /**
+   * Gives the type code of the shape at the given index.
+   * @param i The index of the shape.
+   * @return  RECTANGLE or OVAL.
+   */
+  public int getType(int i) {
+    checkIndex(i);
+    return type[i];
+  }
+
+  /**
+   * Gives the x position of the shape at the given index.
+   * @param i The index of the shape.
+   * @return  The x position.
+   */
+  public int getX(int i) {
+    checkIndex(i);
+    return x[i];
+  }
+
+  /**
+   * Gives the y position of the shape at the given index.
+   * @param i The index of the shape.
+   * @return  The y position.
+   */
+  public int getY(int i) {
+    checkIndex(i);
+    return y[i];
+  }
+
+  /**
+   * Gives the width of the shape at the given index.
+   * @param i The index of the shape.
+   * @return  The width.
+   */
+  public int getWidth(int i) {
+    checkIndex(i);
+    return width[i];
+  }
+
+  /**
+   * Gives the height of the shape at the given index.
+   * @param i The index of the shape.
+   * @return  The height.
+   */
+  public int getHeight(int i) {
+    checkIndex(i);
+    return height[i];
+  }
+
+  /**
+   * Gives the color of the shape at the given index packed as 0xRRGGBB.
+   * @param i The index of the shape.
+   * @return  The packed rgb color.
+   */
+  public int getRGB(int i) {
+    checkIndex(i);
+    return color[i];
+  }
+
+  /**
+   * Builds a new IShape for the shape at the given index. This allocates, so it is meant for
+   * callers that still want the list based API.
+   * @param i The index of the shape.
+   * @return  A new shape with the state at that index.
+   */
+  public IShape getShape(int i) {
+    checkIndex(i);
+    long packedSize = WidthHeight.pack(width[i], height[i]);
+    long position = Point.pack(x[i], y[i]);
+    if (type[i] == OVAL) {
+      return new Oval(packedSize, position, color[i]);
+    }
+    return new Rectangle(packedSize, position, color[i]);
+  }
+
+  /**
+   * Builds a list of new IShapes for everything in this frame, in drawing order.
+   * @return  A list of new shapes.
+   */
+  public List<IShape> toShapes() {
+    List<IShape> shapes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      shapes.add(getShape(i));
+    }
+    return shapes;
+  }
+
+  private static final IShapeVisitor<Integer> TYPE_CODE = new TypeCodeVisitor();
+
+  /**
+   * Gives the type code to use in a frame for the given shape.
+   * @param shape The shape to find the type code of.
+   * @return      RECTANGLE or OVAL.
+   */
+  public static int typeOf(IShape shape) {
+    return shape.accept(TYPE_CODE);
+  }
+
+  /**
+   * A small visitor to give the type code of a shape.
+   */
+  private static class TypeCodeVisitor implements IShapeVisitor<Integer> {
+    @Override
+    public Integer applyToRectangle(Rectangle r) {
+      return RECTANGLE;
+    }
+
+    @Override
+    public Integer applyToOval(Oval o) {
+      return OVAL;
+    }
+  }
+}
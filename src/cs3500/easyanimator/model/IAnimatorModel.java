@@ -1,5 +1,9 @@
 package cs3500.easyanimator.model;
 
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
 import cs3500.easyanimator.model.motions.IMotion;
 import cs3500.easyanimator.model.shapes.IShape;
 import cs3500.easyanimator.model.shapes.WidthHeight;
@@ -66,6 +70,23 @@ public interface IAnimatorModel extends IAnimatorModelViewOnly {
    */
   void addKeyframe(String id, IShape state, int tick);
 
+  /**
+   * Adds many keyframes to a shape at once. This is the same as adding each of them with
+   * addKeyframe, but implementations can do it faster, which helps when loading whole animations.
+   * @param id      The id of the shape to add keyframes to.
+   * @param states  The states of the shape by the ticks to add them at.
+   * @throws IllegalArgumentException If the id is invalid, the id or states are uninitialized, or
+   *                                  any of the keyframes is invalid.
+   */
+  default void addKeyframes(String id, SortedMap<Integer, IShape> states) {
+    if (states == null) {
+      throw new IllegalArgumentException("Unable to add keyframes with uninitialized parameters");
+    }
+    for (Map.Entry<Integer, IShape> state : states.entrySet()) {
+      addKeyframe(id, state.getValue(), state.getKey());
+    }
+  }
+
   /**
    * Deletes the keyframe in the model at the given time (joining motions if necessary).
    * @param id      The id of the shape to remove a keyframe from.
@@ -73,4 +94,19 @@ public interface IAnimatorModel extends IAnimatorModelViewOnly {
    * @throws IllegalArgumentException If the id is invalid, or the id and state are uninitialized.
    */
   void removeKeyframe(String id, int tick);
+
+  /**
+   * Makes the given edits to this model as one. Each edit is checked as it is made, just as it
+   * would be on its own, but updating what the model works out from its keyframes is done once
+   * for all the edits when they are done, so editing many keyframes at once costs about as much as
+   * the edits themselves. Listeners are told about the edits once they are done, once for each
+   * shape edited.
+   *
+   * <p>If any edit fails, every edit is undone and the exception is thrown on as it was. Until the
+   * edits are done, the shapes and keyframes read from the model are up to date but sampling it
+   * may not be. Edits made inside other edits are part of those.</p>
+   * @param edits Makes the edits, given this model.
+   * @throws IllegalArgumentException If the edits are uninitialized.
+   */
+  void edit(Consumer<IAnimatorModel> edits);
 }
@@ -32,11 +32,21 @@ public interface IAnimatorModelViewOnly {
   /**
    * Gets all the shapes in this model.
    * @returns A map between the names of shapes and their instances.
-   *          This will be a copy to disallow outside mutation.
+   *          Neither the map nor the shapes can be modified, copy a shape to change it. The map
+   *          may be a view of the model that follows later edits.
    *          The keyset is guaranteed to follow insertion order.
    */
   Map<String, IShape> getShapes();
 
+  /**
+   * Tests if there is a shape of the given name in this model, without gathering every shape.
+   * @param id  The name of the shape to look for.
+   * @returns True if there is a shape of that name, false otherwise.
+   */
+  default boolean containsShape(String id) {
+    return getShapes().containsKey(id);
+  }
+
   /**
    * Gets the names of shapes in this model.
    * @returns A list (that happens to be sorted by the insertion order) of the shapes contained in
@@ -59,7 +69,9 @@ public interface IAnimatorModelViewOnly {
    * Returns the map containing all of the ids of the IShapes and their respective list of motions.
    * These motions will be sorted by IMotion endTime.
    *
-   * @return the map of shape id's to their motions. This will be a copy to disallow mutation.
+   * @return the map of shape id's to their motions. Neither the map nor the sets can be modified,
+   *         and they may be a view of the model that follows later edits, so copy them to keep
+   *         the motions of a moment.
    */
   Map<String, SortedSet<IMotion>> getSortedMotions();
 
@@ -97,6 +109,36 @@ public interface IAnimatorModelViewOnly {
    */
   List<IShape> getShapesAtTick(int tick);
 
+  /**
+   * Samples the shapes at the desired tick and appends their states to the given frame. This is
+   * the same as getShapesAtTick, but lets a view reuse one buffer frame after frame instead of
+   * allocating a new list of shapes. The frame is NOT cleared first.
+   *
+   * @param tick  the tick to get the shapes at.
+   * @param frame the frame to append the shapes to, these are appended in insertion order.
+   * @throws IllegalArgumentException if the frame is uninitialized.
+   */
+  default void fillShapesAtTick(int tick, FrameBuffer frame) {
+    if (frame == null) {
+      throw new IllegalArgumentException("Unable to sample into an uninitialized frame.");
+    }
+    for (IShape shape : getShapesAtTick(tick)) {
+      frame.add(shape);
+    }
+  }
+
+  /**
+   * Gives the last tick, from the given one on, at which every shape of the model still looks as
+   * it does at the given tick. Views can use this to keep what they drew for a tick until then.
+   * Models that can't tell give the given tick, which is always true.
+   *
+   * @param tick the tick to start from.
+   * @return the last tick before anything changes, or Integer.MAX_VALUE if nothing ever does.
+   */
+  default int getLastStillTick(int tick) {
+    return tick;
+  }
+
   /**
    * Gets the last tick used by any motion in the model.
    * @return the max tick of the model. 0 if not applicable.
@@ -125,8 +167,30 @@ public interface IAnimatorModelViewOnly {
    * Gets a list of keyframes from the model for the given shape. These keyframes will in the form
    * of IShapes. The map is orderered so that the ticks match natural ascending order.
    * @param id  The id of the shape to lookup.
-   * @return    A sorted map from integer ticks to states in the form of IShapes.
+   * @return    A sorted map from integer ticks to states in the form of IShapes. Neither the map
+   *            nor the states can be modified, and the map may be a view of the model that
+   *            follows later edits to the shape.
    */
   SortedMap<Integer, IShape> getKeyframes(String id);
 
+  /**
+   * Gives the version of the model, which goes up with every change to it. Anything derived from
+   * the model at one version is still good as long as the version is the same.
+   * @return  The version of the model.
+   */
+  long getVersion();
+
+  /**
+   * Adds a listener to be told about every change to the model from now on.
+   * @param listener  The listener to add.
+   * @throws IllegalArgumentException If the listener is uninitialized.
+   */
+  void addModelListener(IModelListener listener);
+
+  /**
+   * Removes a listener, so it isn't told about changes anymore. Nothing happens if it wasn't added.
+   * @param listener  The listener to remove.
+   */
+  void removeModelListener(IModelListener listener);
+
 }
@@ -0,0 +1,13 @@
+package cs3500.easyanimator.model;
+
+/**
+ * An IModelListener is told about every change to a model it listens to, right after the change
+ * is made and on the thread that made it.
+ */
+public interface IModelListener {
+  /**
+   * Called when the model changed.
+   * @param event What changed, and the version of the model after the change.
+   */
+  void modelChanged(ModelEvent event);
+}
@@ -0,0 +1,111 @@
+package cs3500.easyanimator.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import cs3500.easyanimator.model.motions.IMotion;
+import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+/**
+ * A KeyframeTrack is a compiled, read-only copy of the keyframes of a single shape. The keyframes
+ * are stored as parallel primitive arrays (ticks, x, y, width, height, red, green, blue) sorted by
+ * tick, so finding the surrounding keyframes of a tick is a binary search and tweening between
+ * them is done on ints without touching any IShape, Point, WidthHeight or Color.
+ *
+ * <p>Tracks are cheap to throw away. The model compiles one the first time a shape is sampled and
+ * drops it whenever that shape's keyframes change.</p>
+ */
+final class KeyframeTrack {
+
+  private final int size;
+  private final int[] ticks;
+  private final int[] x;
+  private final int[] y;
+  private final int[] width;
+  private final int[] height;
+  private final int[] red;
+  private final int[] green;
+  private final int[] blue;
+
+  /**
+   * Compile the given keyframes into a new track.
+   * @param keyframes The keyframes of a shape, in ascending tick order.
+   */
+  KeyframeTrack(NavigableMap<Integer, IShape> keyframes) {
+    this.size = keyframes.size();
+    this.ticks = new int[size];
+    this.x = new int[size];
+    this.y = new int[size];
+    this.width = new int[size];
+    this.height = new int[size];
+    this.red = new int[size];
+    this.green = new int[size];
+    this.blue = new int[size];
+    int i = 0;
+    for (Map.Entry<Integer, IShape> keyframe : keyframes.entrySet()) {
+      IShape state = keyframe.getValue();
+      ticks[i] = keyframe.getKey();
+      long position = state.getPackedPosition();
+      long packedSize = state.getPackedSize();
+      int rgb = state.getRGB();
+      x[i] = Point.unpackX(position);
+      y[i] = Point.unpackY(position);
+      width[i] = WidthHeight.unpackWidth(packedSize);
+      height[i] = WidthHeight.unpackHeight(packedSize);
+      red[i] = (rgb >> 16) & 0xFF;
+      green[i] = (rgb >> 8) & 0xFF;
+      blue[i] = rgb & 0xFF;
+      i++;
+    }
+  }
+
+  /**
+   * Finds the index of the last keyframe at or before the given tick.
+   * @param tick  The tick to search for.
+   * @return      The index of the floor keyframe, or -1 if every keyframe is after the tick.
+   */
+  int floorIndex(int tick) {
+    int index = Arrays.binarySearch(ticks, 0, size, tick);
+    if (index >= 0) {
+      return index;
+    }
+    // binarySearch gives -(insertion point) - 1 on a miss, the floor is one before that.
+    return -index - 2;
+  }
+
+  /**
+   * Samples the state of the shape at the given tick, relative to the given canvas corner, and
+   * appends it to the given frame. Interpolation matches the tweening done by
+   * {@link IMotion#tween}.
+   * @param tick    The tick to sample.
+   * @param cornerX The x coordinate of the canvas corner to offset positions by.
+   * @param cornerY The y coordinate of the canvas corner to offset positions by.
+   * @param type    The frame type code of the shape.
+   * @param out     The frame to append the sampled state to.
+   * @return        True if the shape is visible at the tick and was appended, false otherwise.
+   */
+  boolean sample(int tick, int cornerX, int cornerY, int type, FrameBuffer out) {
+    int left = floorIndex(tick);
+    if (left < 0) {
+      return false;
+    }
+    // If we are not exactly on a keyframe we need one after us to tween towards.
+    int right = ticks[left] == tick ? left : left + 1;
+    if (right >= size) {
+      return false;
+    }
+    int leftT = ticks[left];
+    int rightT = ticks[right];
+    out.add(type,
+            IMotion.tween(x[left] - cornerX, leftT, x[right] - cornerX, rightT, tick),
+            IMotion.tween(y[left] - cornerY, leftT, y[right] - cornerY, rightT, tick),
+            IMotion.tween(width[left], leftT, width[right], rightT, tick),
+            IMotion.tween(height[left], leftT, height[right], rightT, tick),
+            Math.min(IMotion.tween(red[left], leftT, red[right], rightT, tick), 255),
+            Math.min(IMotion.tween(green[left], leftT, green[right], rightT, tick), 255),
+            Math.min(IMotion.tween(blue[left], leftT, blue[right], rightT, tick), 255));
+    return true;
+  }
+}
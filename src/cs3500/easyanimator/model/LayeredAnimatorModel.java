@@ -3,11 +3,14 @@ package cs3500.easyanimator.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 import cs3500.easyanimator.model.layers.ILayer;
@@ -18,16 +21,87 @@ import cs3500.easyanimator.model.shapes.WidthHeight;
 /**
  * A LayeredAnimatorModel is a model that implements layers by stacking together IAnimatorModels
  * contained within Layerss.
+ *
+ * <p>Given a fork join pool, it samples the models of its layers at the same time on the pool and
+ * puts their frames together in layer order. Each model is only ever sampled by one thread at a
+ * time, even if it's in more than one layer, so models don't need to be thread safe. Frames with
+ * few shapes are still sampled one layer after another, since forking would cost more.</p>
+ *
+ * <p>Changes to the models of its layers are passed on to its own listeners, as changes to the
+ * layered model at the same ticks. What it works out from all its layers, the global canvas, the
+ * max tick and how many shapes each layer has, is kept until it hears of a change to it.</p>
  */
 public class LayeredAnimatorModel implements ILayeredAnimatorModel {
 
   private final List<ILayer> layers;
+  // Which layer each shape was last found in, so looking a shape up doesn't go through every layer.
+  // Shapes get added to and removed from the layer models directly, we hear about it from them and
+  // drop the entry, so an entry can be trusted and a shape missing from here is searched for.
+  private final Map<String, ILayer> shapeIndex;
+
+  // Who to tell about our changes, and our version.
+  private final ModelListeners listeners;
+  // How many of our layers have each model, we listen to each model once while any layer has it.
+  private final Map<IAnimatorModel, Integer> watched;
+  private final IModelListener forwarder;
+
+  // What we worked out from our layers, or null until we work it out again after a change.
+  private Point canvasPosition;
+  private WidthHeight canvasSize;
+  private Integer maxTick;
+  // How many shapes each layer model has, for deciding how to sample.
+  private final Map<IAnimatorModel, Integer> shapeCounts;
+
+  // Below this many shapes over all visible layers, a frame is sampled one layer at a time.
+  private static final int MIN_PARALLEL_SHAPES = 1024;
+  private final int minParallelShapes;
+
+  private final ForkJoinPool pool; // Or null to always sample one layer at a time.
+  // The frame each layer model was last sampled into on the pool, reused from frame to frame.
+  private final Map<IAnimatorModel, FrameBuffer> layerFrames;
 
   /**
-   * Create a new LayeredAnimatorModel.
+   * Create a new LayeredAnimatorModel, sampling its layers one at a time.
    */
   public LayeredAnimatorModel() {
+    this(null, MIN_PARALLEL_SHAPES);
+  }
+
+  /**
+   * Create a new LayeredAnimatorModel, sampling its layers at the same time on the given pool.
+   * @param pool  The pool to sample layers on.
+   * @throws IllegalArgumentException If the pool is uninitialized.
+   */
+  public LayeredAnimatorModel(ForkJoinPool pool) {
+    this(requirePool(pool), MIN_PARALLEL_SHAPES);
+  }
+
+  /**
+   * Create a new LayeredAnimatorModel.
+   * @param pool              The pool to sample layers on, or null to sample them one at a time.
+   * @param minParallelShapes Below this many shapes over all visible layers, a frame is sampled
+   *                          one layer at a time.
+   */
+  private LayeredAnimatorModel(ForkJoinPool pool, int minParallelShapes) {
     layers = new ArrayList<>();
+    shapeIndex = new HashMap<>();
+    this.pool = pool;
+    this.minParallelShapes = minParallelShapes;
+    layerFrames = new IdentityHashMap<>();
+    listeners = new ModelListeners();
+    watched = new IdentityHashMap<>();
+    forwarder = this::layerChanged;
+    shapeCounts = new IdentityHashMap<>();
+  }
+
+  /**
+   * A private helper to reject an uninitialized pool before it's handed on.
+   */
+  private static ForkJoinPool requirePool(ForkJoinPool pool) {
+    if (pool == null) {
+      throw new IllegalArgumentException("Unable to sample layers on an uninitialized pool.");
+    }
+    return pool;
   }
 
   @Override
@@ -36,6 +110,7 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
       throw new IllegalArgumentException("Unable to add uninitialized layer.");
     }
     layers.add(layer); // This will append it to the end.
+    layerAdded(layer);
   }
 
   @Override
@@ -47,6 +122,7 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
       throw new IllegalArgumentException("The given index to add a layer is out of bounds.");
     }
     layers.add(index, layer); // BOOM! Does the shifting for me.
+    layerAdded(layer);
   }
 
   @Override
@@ -55,6 +131,7 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
       throw new IllegalArgumentException("Unable to remove layer that is not in the model.");
     }
     layers.remove(layer);
+    forgetLayer(layer);
   }
 
   @Override
@@ -62,7 +139,91 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
     if (!indexCheck(index)) {
       throw new IllegalArgumentException("Unable to remove layer out of index.");
     }
-    layers.remove(index);
+    forgetLayer(layers.remove(index));
+  }
+
+  /**
+   * A private helper to drop the shapes of a removed layer from the index, stop listening to its
+   * model if no other layer has it, and tell our listeners. If the layer is still in the model
+   * elsewhere, its shapes are just found again when next looked up.
+   * @param layer The layer that was removed.
+   */
+  private void forgetLayer(ILayer layer) {
+    shapeIndex.values().removeIf(indexed -> indexed == layer);
+    IAnimatorModel model = layer.getModel();
+    int count = watched.get(model);
+    if (count == 1) {
+      watched.remove(model);
+      model.removeModelListener(forwarder);
+    } else {
+      watched.put(model, count - 1);
+    }
+    changed(ModelEvent.Kind.LAYERS_CHANGED, null, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * A private helper to listen to the model of an added layer, if no other layer has it, and tell
+   * our listeners. A shape of the new layer may now be found before one of the same name further
+   * down, so the index is dropped.
+   * @param layer The layer that was added.
+   */
+  private void layerAdded(ILayer layer) {
+    shapeIndex.clear();
+    IAnimatorModel model = layer.getModel();
+    Integer count = watched.get(model);
+    if (count == null) {
+      watched.put(model, 1);
+      model.addModelListener(forwarder);
+    } else {
+      watched.put(model, count + 1);
+    }
+    changed(ModelEvent.Kind.LAYERS_CHANGED, null, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * A private helper to pass on a change to the model of one of our layers, as a change to us.
+   * @param event The change to the layer's model.
+   */
+  private void layerChanged(ModelEvent event) {
+    if (event.getKind() == ModelEvent.Kind.SHAPE_ADDED
+            || event.getKind() == ModelEvent.Kind.SHAPE_REMOVED) {
+      // The shape may now be found in another layer, or not at all.
+      shapeIndex.remove(event.getShape());
+    }
+    changed(event.getKind(), event.getShape(), event.getFromTick(), event.getToTick());
+  }
+
+  /**
+   * A private helper to drop what we worked out from our layers that a change may affect, then
+   * tell our listeners about it.
+   * @param kind      The kind of change.
+   * @param shape     The shape changed, or null if it's not about one shape.
+   * @param fromTick  The first tick affected.
+   * @param toTick    The last tick affected.
+   */
+  private void changed(ModelEvent.Kind kind, String shape, int fromTick, int toTick) {
+    switch (kind) {
+      case CANVAS_CHANGED:
+        canvasPosition = null;
+        canvasSize = null;
+        break;
+      case LAYERS_CHANGED:
+        canvasPosition = null;
+        canvasSize = null;
+        maxTick = null;
+        shapeCounts.clear();
+        break;
+      case SHAPE_ADDED:
+      case SHAPE_REMOVED:
+        // We don't know which model the shape is in, they're counted again as needed.
+        shapeCounts.clear();
+        maxTick = null;
+        break;
+      default:
+        maxTick = null;
+        break;
+    }
+    listeners.changed(kind, shape, fromTick, toTick);
   }
 
   /**
@@ -81,6 +242,9 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
     }
     // I prefer to use a library that already does this since this is such a common piece of code.
     Collections.swap(layers, i, j);
+    // Which of two shapes of the same name is found first may have changed.
+    shapeIndex.clear();
+    changed(ModelEvent.Kind.LAYERS_CHANGED, null, 0, Integer.MAX_VALUE);
   }
 
   @Override
@@ -106,7 +270,9 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
     // We can re-use getCanvasPosition for that top-left most point.
     if (layers.size() == 0) {
       // Hotfixed default.
-      return new WidthHeight(800, 600);
+      return WidthHeight.of(800, 600);
+    } else if (canvasSize != null) {
+      return canvasSize;
     }
 
     Point topLeft = getCanvasPosition();
@@ -117,17 +283,20 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
       Point offset = model.getCanvasPosition();
       WidthHeight size = model.getCanvasSize();
       bottomRightX = Math.max(bottomRightX, offset.getX() + size.getWidth());
-      bottomRightY = Math.max(bottomRightY, offset.getX() + size.getWidth());
+      bottomRightY = Math.max(bottomRightY, offset.getY() + size.getHeight());
     }
-    return new WidthHeight(bottomRightX - topLeft.getX(),
+    canvasSize = WidthHeight.of(bottomRightX - topLeft.getX(),
             bottomRightY - topLeft.getY());
+    return canvasSize;
   }
 
   @Override
   public Point getCanvasPosition() {
     if (layers.size() == 0) {
       // Hotfixed default.
-      return new Point(0, 0);
+      return Point.of(0, 0);
+    } else if (canvasPosition != null) {
+      return canvasPosition;
     }
 
     // We get the top-left most offset.
@@ -139,7 +308,8 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
       topLeftX = Math.min(topLeftX, offset.getX());
       topLeftY = Math.min(topLeftY, offset.getY());
     }
-    return new Point(topLeftX, topLeftY);
+    canvasPosition = Point.of(topLeftX, topLeftY);
+    return canvasPosition;
   }
 
   @Override
@@ -156,6 +326,11 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
                     LinkedHashMap::new)); // collect.
   }
 
+  @Override
+  public boolean containsShape(String id) {
+    return shapeLookup(id) != null;
+  }
+
   @Override
   public Map<String, SortedSet<IMotion>> getSortedMotions() {
     Map<String, SortedSet<IMotion>> map = new HashMap<>();
@@ -172,11 +347,18 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
    * @return    The layer containing the named shape, or null if not found.
    */
   private ILayer shapeLookup(String id) {
+    ILayer indexed = shapeIndex.get(id);
+    if (indexed != null) {
+      return indexed;
+    }
+    // The shape is new, or was removed or moved since we last found it.
     for (ILayer layer: layers) {
-      if (layer.getModel().getShapeNames().contains(id)) {
+      if (layer.getModel().containsShape(id)) {
+        shapeIndex.put(id, layer);
         return layer;
       }
     }
+    shapeIndex.remove(id);
     return null;
   }
 
@@ -213,29 +395,157 @@ public class LayeredAnimatorModel implements ILayeredAnimatorModel {
     int diffX = layerOffset.getX() - globalOffset.getX();
     int diffY = layerOffset.getY() - globalOffset.getY();
     Point originalPos = shape.getPosition();
-    shape.setPosition(new Point(originalPos.getX() + diffX, originalPos.getY() + diffY));
+    shape.setPosition(Point.of(originalPos.getX() + diffX, originalPos.getY() + diffY));
     return shape;
   }
 
   @Override
   public List<IShape> getShapesAtTick(int tick) {
-    List<IShape> shapes = new ArrayList<>();
-    Point globalOffset = getCanvasPosition();
+    FrameBuffer frame = new FrameBuffer();
+    fillShapesAtTick(tick, frame);
+    return frame.toShapes();
+  }
+
+  @Override
+  public void fillShapesAtTick(int tick, FrameBuffer frame) {
+    if (frame == null) {
+      throw new IllegalArgumentException("Unable to sample into an uninitialized frame.");
+    }
+    if (layers.size() == 0) {
+      return;
+    }
+    Point global = getCanvasPosition();
+    int globalX = global.getX();
+    int globalY = global.getY();
+    if (sampleInParallel()) {
+      fillInParallel(tick, frame, globalX, globalY);
+      return;
+    }
     for (ILayer layer: layers) {
       if (!layer.getVisibility()) {
         continue; // Next loop.
       }
       Point layerOffset = layer.getModel().getCanvasPosition();
-      int diffX = layerOffset.getX() - globalOffset.getX();
-      int diffY = layerOffset.getY() - globalOffset.getY();
-      for (IShape shape: layer.getModel().getShapesAtTick(tick)) {
-        Point originalPosition = shape.getPosition();
-        shape.setPosition(new Point(originalPosition.getX() + diffX,
-                originalPosition.getY() + diffY));
-        shapes.add(shape);
+      int start = frame.size();
+      layer.getModel().fillShapesAtTick(tick, frame);
+      // The layer sampled relative to its own canvas, we line it up with the global one.
+      frame.translate(start, layerOffset.getX() - globalX, layerOffset.getY() - globalY);
+    }
+  }
+
+  /**
+   * A private helper to decide if the next frame is worth sampling on the pool. That takes a pool
+   * with threads, more than one visible layer, and enough shapes to share out.
+   * @return  True if the layers should be sampled in parallel, false otherwise.
+   */
+  private boolean sampleInParallel() {
+    if (pool == null || pool.getParallelism() < 2) {
+      return false;
+    }
+    int visible = 0;
+    int shapes = 0;
+    for (ILayer layer: layers) {
+      if (layer.getVisibility()) {
+        visible++;
+        shapes += shapeCount(layer.getModel());
       }
     }
-    return shapes;
+    return visible > 1 && shapes >= minParallelShapes;
+  }
+
+  /**
+   * A private helper to give how many shapes a layer model has, counting them only once after
+   * each change to them.
+   * @param model The model of a layer.
+   * @return      How many shapes it has.
+   */
+  private int shapeCount(IAnimatorModel model) {
+    Integer count = shapeCounts.get(model);
+    if (count == null) {
+      count = model.getShapes().size();
+      shapeCounts.put(model, count);
+    }
+    return count;
+  }
+
+  /**
+   * A private helper to sample every visible layer on the pool into a frame of its own, then
+   * append those frames to the given one in layer order, lined up with the global canvas.
+   * @param tick    The tick to sample.
+   * @param frame   The frame to append to.
+   * @param globalX The x of the global canvas.
+   * @param globalY The y of the global canvas.
+   */
+  private void fillInParallel(int tick, FrameBuffer frame, int globalX, int globalY) {
+    // A model in more than one layer is sampled once, the same frame is used for each.
+    Map<IAnimatorModel, ForkJoinTask<FrameBuffer>> tasks = new IdentityHashMap<>();
+    for (ILayer layer: layers) {
+      IAnimatorModel model = layer.getModel();
+      if (layer.getVisibility() && !tasks.containsKey(model)) {
+        FrameBuffer layerFrame = layerFrames.computeIfAbsent(model, m -> new FrameBuffer());
+        tasks.put(model, pool.submit(() -> {
+          layerFrame.clear();
+          model.fillShapesAtTick(tick, layerFrame);
+          return layerFrame;
+        }));
+      }
+    }
+    // Every task finishes before we go on, even if one fails, so none is left writing to a frame
+    // we reuse next time.
+    for (ForkJoinTask<FrameBuffer> task : tasks.values()) {
+      task.quietlyJoin();
+    }
+    layerFrames.keySet().retainAll(tasks.keySet());
+    for (ILayer layer: layers) {
+      if (!layer.getVisibility()) {
+        continue;
+      }
+      Point layerOffset = layer.getModel().getCanvasPosition();
+      frame.append(tasks.get(layer.getModel()).join(),
+              layerOffset.getX() - globalX, layerOffset.getY() - globalY);
+    }
+  }
+
+  @Override
+  public int getMaxTick() {
+    if (maxTick != null) {
+      return maxTick;
+    }
+    // Each layer's model keeps its own max tick, so we only need the largest of those rather than
+    // going through every shape.
+    int max = 0;
+    for (ILayer layer: layers) {
+      max = Math.max(max, layer.getModel().getMaxTick());
+    }
+    maxTick = max;
+    return max;
+  }
+
+  @Override
+  public int getLastStillTick(int tick) {
+    // Hidden layers aren't drawn, so they can change all they like.
+    int still = Integer.MAX_VALUE;
+    for (ILayer layer: layers) {
+      if (layer.getVisibility()) {
+        still = Math.min(still, layer.getModel().getLastStillTick(tick));
+      }
+    }
+    return still;
+  }
+
+  @Override
+  public long getVersion() {
+    return listeners.getVersion();
+  }
+
+  @Override
+  public void addModelListener(IModelListener listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(IModelListener listener) {
+    listeners.remove(listener);
   }
 
   @Override
@@ -0,0 +1,78 @@
+package cs3500.easyanimator.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A LookupView is a read-only map a model hands out in place of a copy. Its keys are the model's
+ * own set of shape names and each value is asked of the model when it's looked up, so getting one
+ * doesn't copy anything. This lets a model derive something for a shape once, like its motions,
+ * cache it, and only derive it again when that shape changes.
+ *
+ * <p>The view follows later edits to the model. Like any view of a map, editing the model while
+ * iterating over it is not allowed.</p>
+ *
+ * @param <V> The type of the values, which should not be modifiable.
+ */
+final class LookupView<V> extends AbstractMap<String, V> {
+  private final Set<String> ids;
+  private final Function<String, V> values;
+
+  /**
+   * Create a view of the given shapes.
+   * @param ids     The names of the shapes, in the order to iterate them.
+   * @param values  Gives the value of a shape in the set.
+   */
+  LookupView(Set<String> ids, Function<String, V> values) {
+    this.ids = ids;
+    this.values = values;
+  }
+
+  @Override
+  public int size() {
+    return ids.size();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return ids.contains(key);
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!ids.contains(key)) {
+      return null;
+    }
+    return values.apply((String) key);
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<Entry<String, V>>() {
+      @Override
+      public int size() {
+        return ids.size();
+      }
+
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        Iterator<String> names = ids.iterator();
+        return new Iterator<Entry<String, V>>() {
+          @Override
+          public boolean hasNext() {
+            return names.hasNext();
+          }
+
+          @Override
+          public Entry<String, V> next() {
+            String id = names.next();
+            return new SimpleImmutableEntry<>(id, values.apply(id));
+          }
+        };
+      }
+    };
+  }
+}
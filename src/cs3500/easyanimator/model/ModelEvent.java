@@ -0,0 +1,100 @@
+package cs3500.easyanimator.model;
+
+/**
+ * A ModelEvent tells what changed in a model, and which ticks of it may look different because of
+ * it, so whoever keeps something derived from the model only has to drop what was affected.
+ */
+public final class ModelEvent {
+
+  /**
+   * The kinds of changes to a model.
+   */
+  public enum Kind {
+    // A shape was added, or replaced by one of another type.
+    SHAPE_ADDED,
+    // A shape and its keyframes were removed.
+    SHAPE_REMOVED,
+    // Keyframes or motions of a shape were added or removed.
+    KEYFRAMES_CHANGED,
+    // Layers were added, removed, reordered, or shown or hidden.
+    LAYERS_CHANGED,
+    // The canvas was moved or resized.
+    CANVAS_CHANGED
+  }
+
+  private final Kind kind;
+  private final String shape;
+  private final int fromTick;
+  private final int toTick;
+  private final long version;
+
+  /**
+   * Create a new event. The ticks affected are those from the first to the last given, none if
+   * the last is before the first.
+   * @param kind      What kind of change it was.
+   * @param shape     The shape changed, or null if the change isn't to one shape.
+   * @param fromTick  The first tick that may look different.
+   * @param toTick    The last tick that may look different.
+   * @param version   The version of the model after the change.
+   * @throws IllegalArgumentException If the kind is uninitialized.
+   */
+  public ModelEvent(Kind kind, String shape, int fromTick, int toTick, long version) {
+    if (kind == null) {
+      throw new IllegalArgumentException("Unable to make an event of an uninitialized kind.");
+    }
+    this.kind = kind;
+    this.shape = shape;
+    this.fromTick = fromTick;
+    this.toTick = toTick;
+    this.version = version;
+  }
+
+  /**
+   * Gives the kind of change.
+   * @return  The kind.
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gives the name of the shape changed.
+   * @return  The shape's name, or null if the change isn't to one shape.
+   */
+  public String getShape() {
+    return shape;
+  }
+
+  /**
+   * Gives the first tick that may look different after the change.
+   * @return  The first tick affected.
+   */
+  public int getFromTick() {
+    return fromTick;
+  }
+
+  /**
+   * Gives the last tick that may look different after the change, before the first if none do.
+   * @return  The last tick affected.
+   */
+  public int getToTick() {
+    return toTick;
+  }
+
+  /**
+   * Gives the version of the model right after this change.
+   * @return  The version.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gives whether the given tick may look different after the change.
+   * @param tick  The tick.
+   * @return      True if the tick is affected.
+   */
+  public boolean affects(int tick) {
+    return tick >= fromTick && tick <= toTick;
+  }
+}
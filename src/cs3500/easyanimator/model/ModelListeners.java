@@ -0,0 +1,148 @@
+package cs3500.easyanimator.model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The listeners of a model and its version, which goes up by one with every change. Models tell
+ * this about each change and it passes the change on.
+ *
+ * <p>While changes are held, they are put together instead, one for each shape and one for each
+ * kind of change that isn't to a shape, and only passed on when they are released.</p>
+ */
+final class ModelListeners {
+  // Listeners may add or remove listeners as they are told, so we iterate over a snapshot.
+  private final List<IModelListener> listeners;
+  private long version;
+
+  // The changes held by shape, and those not to a shape by kind, or null if we aren't holding.
+  private Map<String, ModelEvent> heldShapes;
+  private Map<ModelEvent.Kind, ModelEvent> heldOthers;
+
+  /**
+   * Create a new set of listeners, at version 0.
+   */
+  ModelListeners() {
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Adds a listener, to be told about changes in the order listeners were added.
+   * @param listener  The listener.
+   * @throws IllegalArgumentException If the listener is uninitialized.
+   */
+  void add(IModelListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Unable to add an uninitialized listener.");
+    }
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener, if it was added.
+   * @param listener  The listener.
+   */
+  void remove(IModelListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Gives the current version.
+   * @return  The version.
+   */
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * Moves to the next version and tells every listener about the change.
+   * @param kind      What kind of change it was.
+   * @param shape     The shape changed, or null if the change isn't to one shape.
+   * @param fromTick  The first tick that may look different.
+   * @param toTick    The last tick that may look different.
+   */
+  void changed(ModelEvent.Kind kind, String shape, int fromTick, int toTick) {
+    if (heldShapes != null) {
+      hold(kind, shape, fromTick, toTick);
+      return;
+    }
+    version++;
+    if (listeners.isEmpty()) {
+      return;
+    }
+    ModelEvent event = new ModelEvent(kind, shape, fromTick, toTick, version);
+    for (IModelListener listener : listeners) {
+      listener.modelChanged(event);
+    }
+  }
+
+  /**
+   * Moves to the next version and tells every listener about a change that may affect any tick.
+   * @param kind  What kind of change it was.
+   */
+  void changed(ModelEvent.Kind kind) {
+    changed(kind, null, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Starts holding changes rather than passing them on, the version stays where it is until they
+   * are released.
+   */
+  void hold() {
+    heldShapes = new LinkedHashMap<>();
+    heldOthers = new EnumMap<>(ModelEvent.Kind.class);
+  }
+
+  /**
+   * Stops holding changes and passes on the ones held, each moving to the next version.
+   */
+  void release() {
+    List<ModelEvent> held = new ArrayList<>(heldOthers.values());
+    held.addAll(heldShapes.values());
+    heldShapes = null;
+    heldOthers = null;
+    for (ModelEvent event : held) {
+      changed(event.getKind(), event.getShape(), event.getFromTick(), event.getToTick());
+    }
+  }
+
+  /**
+   * Stops holding changes and forgets the ones held, for when they were undone.
+   */
+  void drop() {
+    heldShapes = null;
+    heldOthers = null;
+  }
+
+  /**
+   * A private helper to put a change together with those held for the same shape, or of the same
+   * kind if it isn't to a shape. The ticks affected are those of either, and adding or removing a
+   * shape says more than changing its keyframes, so the last of those is kept.
+   */
+  private void hold(ModelEvent.Kind kind, String shape, int fromTick, int toTick) {
+    ModelEvent held = shape == null ? heldOthers.get(kind) : heldShapes.get(shape);
+    if (held != null) {
+      if (kind == ModelEvent.Kind.KEYFRAMES_CHANGED) {
+        kind = held.getKind();
+      }
+      // A change affecting no ticks doesn't widen the other.
+      if (toTick < fromTick) {
+        fromTick = held.getFromTick();
+        toTick = held.getToTick();
+      } else if (held.getFromTick() <= held.getToTick()) {
+        fromTick = Math.min(fromTick, held.getFromTick());
+        toTick = Math.max(toTick, held.getToTick());
+      }
+    }
+    ModelEvent event = new ModelEvent(kind, shape, fromTick, toTick, version);
+    if (shape == null) {
+      heldOthers.put(kind, event);
+    } else {
+      heldShapes.put(shape, event);
+    }
+  }
+}
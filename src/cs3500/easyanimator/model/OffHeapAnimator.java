@@ -0,0 +1,685 @@
+package cs3500.easyanimator.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import cs3500.easyanimator.model.motions.IMotion;
+import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.ShapeF;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.BLUE;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.COLUMNS;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.GREEN;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.HEIGHT;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.RED;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.TICK;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.WIDTH;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.X;
+import static cs3500.easyanimator.model.OffHeapKeyframeStore.Y;
+
+/**
+ * An OffHeapAnimator is an implementation of the animator model for scenes too big for the heap.
+ * It behaves exactly like an EasyAnimator, but keeps the keyframes of every shape outside the heap
+ * as columns of ints sorted by tick (see {@link OffHeapKeyframeStore}), rather than as a TreeMap of
+ * shapes that each hold a size, a position and a color. Only a small record per shape stays on the
+ * heap, so the heap doesn't grow with the number of keyframes.
+ *
+ * <p>The keyframes are either in direct buffers, which still take memory but not heap, or in a
+ * temporary file mapped into memory, which lets the operating system page them out so scenes
+ * bigger than memory can still be played and exported. Close the model to give the memory or file
+ * back, after which it can't be used.</p>
+ *
+ * <p>Adding keyframes in tick order, which is how the readers do it, only ever appends to a
+ * shape's columns. Adding one in the middle shifts the keyframes after it. Only the state of a
+ * keyframe is kept, so getKeyframes gives states of the shape's type, whatever type of shape they
+ * were given as.</p>
+ */
+public class OffHeapAnimator extends AbstractAnimatorModel<OffHeapAnimator.KeptTrack>
+        implements Closeable {
+
+  /**
+   * A Track is what stays on the heap for each shape: the shape given for it, which decides its
+   * type, and where its keyframes are.
+   */
+  private static final class Track {
+    private IShape shape;
+    private long block;
+    private int capacity;
+    private int size;
+    // The motions derived from the keyframes, made when asked for and dropped when they change.
+    private SortedSet<IMotion> motions;
+
+    /**
+     * Create a new track without any keyframes.
+     * @param shape The shape it's for.
+     */
+    Track(IShape shape) {
+      this.shape = shape;
+    }
+  }
+
+  /**
+   * A track as it was before it was first edited in an edit, kept to undo the edit: the track
+   * itself, so views of it handed out see it put back, and a copy of its keyframes.
+   */
+  static final class KeptTrack {
+    private final Track track;
+    private final Track copy;
+
+    KeptTrack(Track track, Track copy) {
+      this.track = track;
+      this.copy = copy;
+    }
+  }
+
+  private final OffHeapKeyframeStore store;
+  // We keep insertion order for z-ordering, like EasyAnimator.
+  private final LinkedHashMap<String, Track> tracks;
+  private final Map<String, IShape> shapes;
+  private final Map<String, SortedSet<IMotion>> sortedMotions;
+
+  /**
+   * Create a new model keeping its keyframes in direct buffers.
+   */
+  public OffHeapAnimator() {
+    this(new OffHeapKeyframeStore());
+  }
+
+  /**
+   * Create a new model keeping its keyframes in a temporary file in the given directory, mapped
+   * into memory. The file is deleted when the model is closed, if not sooner.
+   * @param directory The directory to keep the file in.
+   * @throws IllegalArgumentException If the directory is uninitialized.
+   * @throws IllegalStateException If the file can't be made.
+   */
+  public OffHeapAnimator(Path directory) {
+    this(mappedStore(directory));
+  }
+
+  /**
+   * Create a new model keeping its keyframes in the given store.
+   * @param store The store.
+   */
+  private OffHeapAnimator(OffHeapKeyframeStore store) {
+    this.store = store;
+    this.tracks = new LinkedHashMap<>();
+    this.shapes = new LookupView<>(tracks.keySet(), id -> tracks.get(id).shape);
+    this.sortedMotions = new LookupView<>(tracks.keySet(), this::motions);
+  }
+
+  /**
+   * A private helper to make a store mapped from a temporary file in the given directory.
+   */
+  private static OffHeapKeyframeStore mappedStore(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Unable to keep keyframes in an uninitialized directory.");
+    }
+    try {
+      return new OffHeapKeyframeStore(directory);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to make a file to keep keyframes in.", e);
+    }
+  }
+
+  // ANIMATION DATA SPECIFIC
+
+  @Override
+  void putShape(String id, IShape shape) {
+    Track track = tracks.get(id);
+    if (track == null) {
+      tracks.put(id, new Track(shape));
+    } else {
+      // Like EasyAnimator, replacing a shape keeps its keyframes.
+      track.shape = shape;
+    }
+  }
+
+  @Override
+  void deleteShape(String id) {
+    free(tracks.remove(id));
+  }
+
+  @Override
+  public Map<String, IShape> getShapes() {
+    // The shapes are frozen, so we can hand out a view of them instead of copies.
+    return shapes;
+  }
+
+  @Override
+  public boolean containsShape(String id) {
+    return tracks.containsKey(id);
+  }
+
+  @Override
+  void putKeyframe(String id, int tick, IShape state) {
+    put(tracks.get(id), tick, state.getPackedSize(), state.getPackedPosition(), state.getRGB());
+  }
+
+  @Override
+  void putKeyframe(String id, int tick, long size, long position, int rgb) {
+    put(tracks.get(id), tick, size, position, rgb);
+  }
+
+  @Override
+  void putKeyframes(String id, SortedMap<Integer, IShape> states) {
+    Track track = tracks.get(id);
+    // Room for all of them up front, so a shape loaded at once is copied at most once.
+    reserve(track, track.size + states.size());
+    for (Map.Entry<Integer, IShape> state : states.entrySet()) {
+      IShape shape = state.getValue();
+      put(track, state.getKey(), shape.getPackedSize(), shape.getPackedPosition(),
+              shape.getRGB());
+    }
+  }
+
+  @Override
+  void deleteKeyframe(String id, int tick) {
+    Track track = tracks.get(id);
+    int index = indexOf(track, tick);
+    if (index >= 0) {
+      store.move(track.block, track.capacity, index + 1, index, track.size - index - 1);
+      track.size--;
+    }
+  }
+
+  @Override
+  void keyframesDropped(String id) {
+    Track track = tracks.get(id);
+    if (track != null) {
+      track.motions = null;
+    }
+  }
+
+  @Override
+  public SortedMap<Integer, IShape> getKeyframes(String id) {
+    if (!tracks.containsKey(id)) {
+      throw new IllegalArgumentException("Unable to get keyframes for nonexistent shape.");
+    }
+    // A view reading the columns as it's used, rather than a copy of every keyframe on the heap.
+    return new KeyframesView(tracks.get(id), Integer.MIN_VALUE, Integer.MAX_VALUE + 1L);
+  }
+
+  @Override
+  boolean sample(String id, int tick, int cornerX, int cornerY, FrameBuffer frame) {
+    return sample(tracks.get(id), tick, cornerX, cornerY, frame);
+  }
+
+  @Override
+  void buildChanges(ChangeIndex.Builder builder) {
+    // Read straight from the columns, so no keyframe is made into a shape on the heap.
+    for (Track track : tracks.values()) {
+      if (track.size == 0) {
+        continue;
+      }
+      builder.startShape(get(track, TICK, 0));
+      for (int i = 1; i < track.size; i++) {
+        builder.nextKeyframe(get(track, TICK, i), sameState(track, i - 1, i));
+      }
+      builder.endShape();
+    }
+  }
+
+  @Override
+  KeptTrack keepShape(String id) {
+    Track track = tracks.get(id);
+    Track copy = new Track(track.shape);
+    if (track.size > 0) {
+      copy.capacity = OffHeapKeyframeStore.capacityFor(track.size);
+      copy.block = store.allocate(copy.capacity);
+      store.copy(track.block, track.capacity, copy.block, copy.capacity, track.size);
+      copy.size = track.size;
+    }
+    return new KeptTrack(track, copy);
+  }
+
+  @Override
+  void restoreShape(String id, KeptTrack kept) {
+    // The track there now is thrown away, removed tracks were freed already.
+    free(tracks.get(id));
+    if (kept == null) {
+      tracks.remove(id);
+      return;
+    }
+    // We fill the track we had so views of it handed out already see the keyframes.
+    free(kept.track);
+    kept.track.shape = kept.copy.shape;
+    kept.track.block = kept.copy.block;
+    kept.track.capacity = kept.copy.capacity;
+    kept.track.size = kept.copy.size;
+    tracks.put(id, kept.track);
+  }
+
+  @Override
+  void restoreOrder(List<String> order) {
+    putInOrder(tracks, order);
+  }
+
+  @Override
+  void discardKept(KeptTrack kept) {
+    free(kept.copy);
+  }
+
+  /**
+   * A private helper to give the keyframes of a track back to the store, leaving it empty so views
+   * of it handed out already don't read memory that's reused.
+   */
+  private void free(Track track) {
+    if (track != null && track.capacity > 0) {
+      store.free(track.block, track.capacity);
+      track.block = 0;
+      track.capacity = 0;
+      track.size = 0;
+      track.motions = null;
+    }
+  }
+
+  @Override
+  public Map<String, SortedSet<IMotion>> getSortedMotions() {
+    return sortedMotions;
+  }
+
+  /**
+   * A private helper to give the motions of a shape, deriving them if necessary.
+   */
+  private SortedSet<IMotion> motions(String id) {
+    Track track = tracks.get(id);
+    if (track.motions == null) {
+      track.motions = Collections.unmodifiableSortedSet(deriveMotions(getKeyframes(id)));
+    }
+    return track.motions;
+  }
+
+  /**
+   * A KeyframesView is the keyframes of a shape between two ticks as a sorted map, read from the
+   * columns as it's used, so only the keyframes looked at are made into shapes. It follows later
+   * edits to the shape.
+   */
+  private final class KeyframesView extends AbstractMap<Integer, IShape>
+          implements SortedMap<Integer, IShape> {
+    private final Track track;
+    // The ticks the view covers, from the first up to but not including the second.
+    private final long from;
+    private final long to;
+
+    /**
+     * Create a view of the keyframes of a track between two ticks.
+     * @param track The track of the shape.
+     * @param from  The first tick covered.
+     * @param to    The tick after the last tick covered.
+     */
+    KeyframesView(Track track, long from, long to) {
+      this.track = track;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public int size() {
+      return end() - start();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return covers(key) && indexOf(track, (Integer) key) >= 0;
+    }
+
+    @Override
+    public IShape get(Object key) {
+      if (!covers(key)) {
+        return null;
+      }
+      int index = indexOf(track, (Integer) key);
+      return index < 0 ? null : state(track, index);
+    }
+
+    @Override
+    public Comparator<? super Integer> comparator() {
+      return null;
+    }
+
+    @Override
+    public SortedMap<Integer, IShape> subMap(Integer fromKey, Integer toKey) {
+      if (bound(fromKey) > bound(toKey)) {
+        throw new IllegalArgumentException("The start of the range is after its end.");
+      }
+      return new KeyframesView(track, fromKey, toKey);
+    }
+
+    @Override
+    public SortedMap<Integer, IShape> headMap(Integer toKey) {
+      return new KeyframesView(track, from, bound(toKey));
+    }
+
+    @Override
+    public SortedMap<Integer, IShape> tailMap(Integer fromKey) {
+      return new KeyframesView(track, bound(fromKey), to);
+    }
+
+    @Override
+    public Integer firstKey() {
+      int start = start();
+      if (start >= end()) {
+        throw new NoSuchElementException();
+      }
+      return tick(start);
+    }
+
+    @Override
+    public Integer lastKey() {
+      int end = end();
+      if (start() >= end) {
+        throw new NoSuchElementException();
+      }
+      return tick(end - 1);
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+      // The ticks alone, without making a shape for each keyframe.
+      return new AbstractSet<Integer>() {
+        @Override
+        public int size() {
+          return KeyframesView.this.size();
+        }
+
+        @Override
+        public boolean contains(Object key) {
+          return containsKey(key);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+          return new Indices<Integer>() {
+            @Override
+            Integer at(int index) {
+              return tick(index);
+            }
+          };
+        }
+      };
+    }
+
+    @Override
+    public Set<Entry<Integer, IShape>> entrySet() {
+      return new AbstractSet<Entry<Integer, IShape>>() {
+        @Override
+        public int size() {
+          return KeyframesView.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<Integer, IShape>> iterator() {
+          return new Indices<Entry<Integer, IShape>>() {
+            @Override
+            Entry<Integer, IShape> at(int index) {
+              return new SimpleImmutableEntry<>(tick(index), state(track, index));
+            }
+          };
+        }
+      };
+    }
+
+    /**
+     * An iterator over the indices of the keyframes in the view, giving something read from each.
+     * @param <T> What it gives for a keyframe.
+     */
+    private abstract class Indices<T> implements Iterator<T> {
+      private int next = start();
+      private final int end = end();
+
+      @Override
+      public boolean hasNext() {
+        return next < end;
+      }
+
+      @Override
+      public T next() {
+        if (next >= end) {
+          throw new NoSuchElementException();
+        }
+        return at(next++);
+      }
+
+      /**
+       * Reads what to give for the keyframe at an index.
+       * @param index The index of the keyframe.
+       * @return      What to give.
+       */
+      abstract T at(int index);
+    }
+
+    /**
+     * A private helper to read the tick of a keyframe, our own get being the map's.
+     */
+    private int tick(int index) {
+      return OffHeapAnimator.this.get(track, TICK, index);
+    }
+
+    /**
+     * A private helper to give the index of the first keyframe in the view.
+     */
+    private int start() {
+      return index(from);
+    }
+
+    /**
+     * A private helper to give the index after the last keyframe in the view.
+     */
+    private int end() {
+      return index(to);
+    }
+
+    /**
+     * A private helper to give the index of the first keyframe at or after a tick.
+     */
+    private int index(long tick) {
+      return tick > Integer.MAX_VALUE ? track.size : ceilingIndex(track, (int) tick);
+    }
+
+    /**
+     * A private helper to check whether a key is a tick covered by the view.
+     */
+    private boolean covers(Object key) {
+      return key instanceof Integer && (Integer) key >= from && (Integer) key < to;
+    }
+
+    /**
+     * A private helper to check a tick can bound a view of this one, like the views of a TreeMap.
+     * @throws IllegalArgumentException If the tick is outside this view.
+     */
+    private long bound(Integer tick) {
+      if (tick == null) {
+        throw new NullPointerException();
+      } else if (tick < from || tick > to) {
+        throw new IllegalArgumentException("The tick is out of the range of this view.");
+      }
+      return tick;
+    }
+  }
+
+  /**
+   * Gives the number of bytes this model has reserved outside the heap for keyframes.
+   * @return  The bytes reserved.
+   */
+  public long getReservedBytes() {
+    return store.reservedBytes();
+  }
+
+  @Override
+  public void close() throws IOException {
+    tracks.clear();
+    store.close();
+  }
+
+  /**
+   * Samples a shape the way {@link #sample(String, int, int, int, FrameBuffer)} does, tweening
+   * just like KeyframeTrack does.
+   */
+  private boolean sample(Track track, int tick, int cornerX, int cornerY, FrameBuffer frame) {
+    int left = floorIndex(track, tick);
+    if (left < 0) {
+      return false;
+    }
+    int leftT = get(track, TICK, left);
+    // If we are not exactly on a keyframe we need one after us to tween towards.
+    int right = leftT == tick ? left : left + 1;
+    if (right >= track.size) {
+      return false;
+    }
+    int rightT = get(track, TICK, right);
+    frame.add(FrameBuffer.typeOf(track.shape),
+            IMotion.tween(get(track, X, left) - cornerX, leftT,
+                    get(track, X, right) - cornerX, rightT, tick),
+            IMotion.tween(get(track, Y, left) - cornerY, leftT,
+                    get(track, Y, right) - cornerY, rightT, tick),
+            tween(track, WIDTH, left, right, leftT, rightT, tick),
+            tween(track, HEIGHT, left, right, leftT, rightT, tick),
+            Math.min(tween(track, RED, left, right, leftT, rightT, tick), 255),
+            Math.min(tween(track, GREEN, left, right, leftT, rightT, tick), 255),
+            Math.min(tween(track, BLUE, left, right, leftT, rightT, tick), 255));
+    return true;
+  }
+
+  /**
+   * A private helper to tween one column between two keyframes.
+   */
+  private int tween(Track track, int column, int left, int right, int leftT, int rightT,
+                    int tick) {
+    return IMotion.tween(get(track, column, left), leftT, get(track, column, right), rightT, tick);
+  }
+
+  /**
+   * A private helper to read a value of a shape's keyframes.
+   */
+  private int get(Track track, int column, int index) {
+    return store.get(track.block, track.capacity, column, index);
+  }
+
+  /**
+   * A private helper to find the keyframe at a tick, in the way of Arrays.binarySearch.
+   * @return  The index of the keyframe, or -(where it would go) - 1 if there isn't one.
+   */
+  private int indexOf(Track track, int tick) {
+    int low = 0;
+    int high = track.size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midTick = get(track, TICK, mid);
+      if (midTick < tick) {
+        low = mid + 1;
+      } else if (midTick > tick) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * A private helper to find the last keyframe at or before a tick, -1 if there isn't one.
+   */
+  private int floorIndex(Track track, int tick) {
+    int index = indexOf(track, tick);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /**
+   * A private helper to find the first keyframe at or after a tick, the size if there isn't one.
+   */
+  private int ceilingIndex(Track track, int tick) {
+    int index = indexOf(track, tick);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * A private helper to make sure a shape has room for the given number of keyframes.
+   */
+  private void reserve(Track track, int count) {
+    if (count <= track.capacity) {
+      return;
+    }
+    int capacity = OffHeapKeyframeStore.capacityFor(Math.max(count, track.capacity * 2));
+    long block = store.allocate(capacity);
+    if (track.capacity > 0) {
+      store.copy(track.block, track.capacity, block, capacity, track.size);
+      store.free(track.block, track.capacity);
+    }
+    track.block = block;
+    track.capacity = capacity;
+  }
+
+  /**
+   * A private helper to put a keyframe into a shape, replacing one at the same tick.
+   */
+  private void put(Track track, int tick, long size, long position, int rgb) {
+    int index = indexOf(track, tick);
+    if (index < 0) {
+      index = -index - 1;
+      reserve(track, track.size + 1);
+      if (index < track.size) {
+        store.move(track.block, track.capacity, index, index + 1, track.size - index);
+      }
+      track.size++;
+    }
+    set(track, TICK, index, tick);
+    set(track, X, index, Point.unpackX(position));
+    set(track, Y, index, Point.unpackY(position));
+    set(track, WIDTH, index, WidthHeight.unpackWidth(size));
+    set(track, HEIGHT, index, WidthHeight.unpackHeight(size));
+    set(track, RED, index, (rgb >> 16) & 0xFF);
+    set(track, GREEN, index, (rgb >> 8) & 0xFF);
+    set(track, BLUE, index, rgb & 0xFF);
+  }
+
+  /**
+   * A private helper to write a value of a shape's keyframes.
+   */
+  private void set(Track track, int column, int index, int value) {
+    store.set(track.block, track.capacity, column, index, value);
+  }
+
+  /**
+   * A private helper to make the state of a keyframe as a shape of the track's type.
+   */
+  private IShape state(Track track, int index) {
+    return track.shape.accept(new ShapeF(
+            WidthHeight.pack(get(track, WIDTH, index), get(track, HEIGHT, index)),
+            Point.pack(get(track, X, index), get(track, Y, index)),
+            rgb(track, index)));
+  }
+
+  /**
+   * A private helper to read the color of a keyframe packed as 0xRRGGBB.
+   */
+  private int rgb(Track track, int index) {
+    return (get(track, RED, index) << 16) | (get(track, GREEN, index) << 8)
+            | get(track, BLUE, index);
+  }
+
+  /**
+   * A private helper to check whether two keyframes have the same state.
+   */
+  private boolean sameState(Track track, int first, int second) {
+    for (int column = X; column < COLUMNS; column++) {
+      if (get(track, column, first) != get(track, column, second)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
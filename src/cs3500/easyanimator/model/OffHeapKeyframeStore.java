@@ -0,0 +1,271 @@
+package cs3500.easyanimator.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An OffHeapKeyframeStore hands out blocks of memory outside the Java heap to keep keyframes in,
+ * either direct buffers or pages of a temporary file mapped into memory. A block holds up to its
+ * capacity of keyframes as {@link #COLUMNS} columns of ints, one column after another, so a column
+ * of a block is contiguous.
+ *
+ * <p>Blocks are carved out of large slabs. Capacities are always powers of two, so a freed block
+ * is kept on a free list for its capacity and handed out again to the next block of that
+ * capacity. A block too big for a shared slab gets a slab of its own.</p>
+ *
+ * <p>A block is named by a handle, its slab in the high 32 bits and its byte offset in the slab in
+ * the low 32 bits.</p>
+ */
+final class OffHeapKeyframeStore implements Closeable {
+  /**
+   * The columns of every block: tick, x, y, width, height, red, green and blue.
+   */
+  static final int COLUMNS = 8;
+  static final int TICK = 0;
+  static final int X = 1;
+  static final int Y = 2;
+  static final int WIDTH = 3;
+  static final int HEIGHT = 4;
+  static final int RED = 5;
+  static final int GREEN = 6;
+  static final int BLUE = 7;
+
+  /**
+   * The smallest capacity of a block.
+   */
+  static final int MIN_CAPACITY = 4;
+
+  // Shared slabs are this big, which is plenty of small blocks without mapping too much at once.
+  private static final int SLAB_SIZE = 1 << 26;
+  // A block needs its own slab past this capacity.
+  private static final int MAX_SHARED_CAPACITY = SLAB_SIZE / (COLUMNS * Integer.BYTES);
+  // The biggest block a ByteBuffer can address.
+  private static final int MAX_CAPACITY = Integer.highestOneBit(
+          Integer.MAX_VALUE / (COLUMNS * Integer.BYTES));
+
+  // The file slabs are mapped from, or null to use direct buffers.
+  private final FileChannel file;
+  private long fileLength;
+
+  private final List<ByteBuffer> slabs;
+  // The slab small blocks are being carved out of and how much of it is used.
+  private ByteBuffer shared;
+  private int sharedIndex;
+  private int sharedUsed;
+  private final Map<Integer, ArrayDeque<Long>> free;
+
+  /**
+   * Create a new store of direct buffers.
+   */
+  OffHeapKeyframeStore() {
+    this.file = null;
+    this.slabs = new ArrayList<>();
+    this.free = new HashMap<>();
+  }
+
+  /**
+   * Create a new store mapped from a temporary file in the given directory. The file is deleted
+   * when the store is closed, or sooner where the file system allows it.
+   * @param directory The directory to make the file in.
+   * @throws IOException If the file can't be made.
+   */
+  OffHeapKeyframeStore(Path directory) throws IOException {
+    Path path = Files.createTempFile(directory, "keyframes", ".bin");
+    this.file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE);
+    this.slabs = new ArrayList<>();
+    this.free = new HashMap<>();
+  }
+
+  /**
+   * Gives the capacity to use for a block that has to hold the given number of keyframes.
+   * @param count The number of keyframes.
+   * @return      The smallest allowed capacity that fits them.
+   * @throws IllegalArgumentException If no block can be that big.
+   */
+  static int capacityFor(int count) {
+    if (count > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Unable to keep that many keyframes for one shape.");
+    }
+    return Math.max(MIN_CAPACITY, count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1);
+  }
+
+  /**
+   * Allocates a block with the given capacity, its contents are unspecified.
+   * @param capacity  The capacity of the block, from capacityFor.
+   * @return          The handle of the block.
+   * @throws IllegalStateException If the memory can't be had.
+   */
+  long allocate(int capacity) {
+    ArrayDeque<Long> blocks = free.get(capacity);
+    if (blocks != null && !blocks.isEmpty()) {
+      return blocks.pop();
+    }
+    int bytes = capacity * COLUMNS * Integer.BYTES;
+    if (capacity > MAX_SHARED_CAPACITY) {
+      slabs.add(newSlab(bytes));
+      return handle(slabs.size() - 1, 0);
+    }
+    if (shared == null || sharedUsed + bytes > SLAB_SIZE) {
+      shared = newSlab(SLAB_SIZE);
+      slabs.add(shared);
+      sharedIndex = slabs.size() - 1;
+      sharedUsed = 0;
+    }
+    long block = handle(sharedIndex, sharedUsed);
+    sharedUsed += bytes;
+    return block;
+  }
+
+  /**
+   * Gives a block back to be reused.
+   * @param block     The handle of the block.
+   * @param capacity  The capacity it was allocated with.
+   */
+  void free(long block, int capacity) {
+    free.computeIfAbsent(capacity, c -> new ArrayDeque<>()).push(block);
+  }
+
+  /**
+   * Reads a value of a block.
+   * @param block     The handle of the block.
+   * @param capacity  The capacity of the block.
+   * @param column    The column to read.
+   * @param index     The index of the keyframe.
+   * @return          The value.
+   */
+  int get(long block, int capacity, int column, int index) {
+    return slabs.get(slab(block)).getInt(offset(block, capacity, column, index));
+  }
+
+  /**
+   * Writes a value of a block.
+   * @param block     The handle of the block.
+   * @param capacity  The capacity of the block.
+   * @param column    The column to write.
+   * @param index     The index of the keyframe.
+   * @param value     The value.
+   */
+  void set(long block, int capacity, int column, int index, int value) {
+    slabs.get(slab(block)).putInt(offset(block, capacity, column, index), value);
+  }
+
+  /**
+   * Moves a run of keyframes within a block, in every column. The run and where it's moved to can
+   * overlap.
+   * @param block     The handle of the block.
+   * @param capacity  The capacity of the block.
+   * @param from      The index of the first keyframe of the run.
+   * @param to        The index to move it to.
+   * @param count     The number of keyframes in the run.
+   */
+  void move(long block, int capacity, int from, int to, int count) {
+    ByteBuffer slab = slabs.get(slab(block));
+    for (int column = 0; column < COLUMNS; column++) {
+      int source = offset(block, capacity, column, from);
+      int target = offset(block, capacity, column, to);
+      if (to > from) {
+        for (int i = count - 1; i >= 0; i--) {
+          slab.putInt(target + i * Integer.BYTES, slab.getInt(source + i * Integer.BYTES));
+        }
+      } else {
+        for (int i = 0; i < count; i++) {
+          slab.putInt(target + i * Integer.BYTES, slab.getInt(source + i * Integer.BYTES));
+        }
+      }
+    }
+  }
+
+  /**
+   * Copies the first keyframes of a block into another block, in every column.
+   * @param from          The handle of the block to copy from.
+   * @param fromCapacity  Its capacity.
+   * @param to            The handle of the block to copy to.
+   * @param toCapacity    Its capacity.
+   * @param count         The number of keyframes to copy.
+   */
+  void copy(long from, int fromCapacity, long to, int toCapacity, int count) {
+    // Relative puts through duplicates, so the slabs' own positions and limits are never touched.
+    ByteBuffer source = slabs.get(slab(from)).duplicate();
+    ByteBuffer target = slabs.get(slab(to)).duplicate();
+    for (int column = 0; column < COLUMNS; column++) {
+      int start = offset(from, fromCapacity, column, 0);
+      source.limit(start + count * Integer.BYTES);
+      source.position(start);
+      target.position(offset(to, toCapacity, column, 0));
+      target.put(source);
+    }
+  }
+
+  /**
+   * Gives the number of bytes taken from outside the heap, used or not.
+   * @return  The bytes reserved by the store.
+   */
+  long reservedBytes() {
+    long bytes = 0;
+    for (ByteBuffer slab : slabs) {
+      bytes += slab.capacity();
+    }
+    return bytes;
+  }
+
+  @Override
+  public void close() throws IOException {
+    slabs.clear();
+    free.clear();
+    shared = null;
+    if (file != null) {
+      file.close();
+    }
+  }
+
+  /**
+   * A private helper to get a new slab of the given size.
+   */
+  private ByteBuffer newSlab(int bytes) {
+    ByteBuffer slab;
+    try {
+      if (file == null) {
+        slab = ByteBuffer.allocateDirect(bytes);
+      } else {
+        slab = file.map(FileChannel.MapMode.READ_WRITE, fileLength, bytes);
+        fileLength += bytes;
+      }
+    } catch (IOException | OutOfMemoryError e) {
+      throw new IllegalStateException("Unable to reserve memory for more keyframes.", e);
+    }
+    return slab.order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * A private helper to make the handle of a block.
+   */
+  private static long handle(int slab, int offset) {
+    return ((long) slab << 32) | offset;
+  }
+
+  /**
+   * A private helper to get the slab of a handle.
+   */
+  private static int slab(long block) {
+    return (int) (block >>> 32);
+  }
+
+  /**
+   * A private helper to get the byte offset of a value of a block in its slab.
+   */
+  private static int offset(long block, int capacity, int column, int index) {
+    return (int) block + (column * capacity + index) * Integer.BYTES;
+  }
+}
@@ -3,9 +3,13 @@ package cs3500.easyanimator.model;
 import java.util.Objects;
 
 /**
- * Represents a point that has an x and a y coordinate.
+ * Represents a point that has an x and a y coordinate. Recent points are cached by
+ * {@link #of}, the way {@link Color} caches its colors.
  */
 public final class Point {
+  private static final int CACHE_BITS = 13;
+  private static final Point[] CACHE = new Point[1 << CACHE_BITS];
+
   private final int xCoordinate;
   private final int yCoordinate;
 
@@ -20,6 +24,24 @@ public final class Point {
     this.yCoordinate = y;
   }
 
+  /**
+   * Gives a point with the given coordinates, reusing a recent one at the same spot when there is
+   * one.
+   *
+   * @param x the x coordinate.
+   * @param y the y coordinate.
+   * @return the point.
+   */
+  public static Point of(int x, int y) {
+    int slot = (x * 0x9E3779B9 + y) * 0x85EBCA6B >>> (32 - CACHE_BITS);
+    Point point = CACHE[slot];
+    if (point == null || point.xCoordinate != x || point.yCoordinate != y) {
+      point = new Point(x, y);
+      CACHE[slot] = point;
+    }
+    return point;
+  }
+
   /**
    * Gets the x coordinate of the Point.
    *
@@ -38,6 +60,57 @@ public final class Point {
     return this.yCoordinate;
   }
 
+  /**
+   * Packs the point into a single long, the x coordinate in the high 32 bits and the y coordinate
+   * in the low 32 bits. Two points are equal exactly when their packed values are.
+   *
+   * @return the packed point.
+   */
+  public long pack() {
+    return pack(this.xCoordinate, this.yCoordinate);
+  }
+
+  /**
+   * Packs the given coordinates the same way as {@link #pack()}.
+   *
+   * @param x the x coordinate.
+   * @param y the y coordinate.
+   * @return the packed coordinates.
+   */
+  public static long pack(int x, int y) {
+    return ((long) x << 32) | (y & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gets the x coordinate of a packed point.
+   *
+   * @param packed the packed point.
+   * @return the x coordinate.
+   */
+  public static int unpackX(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  /**
+   * Gets the y coordinate of a packed point.
+   *
+   * @param packed the packed point.
+   * @return the y coordinate.
+   */
+  public static int unpackY(long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * Gives the point of a packed point.
+   *
+   * @param packed the packed point.
+   * @return the point.
+   */
+  public static Point unpack(long packed) {
+    return of(unpackX(packed), unpackY(packed));
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,257 @@
+package cs3500.easyanimator.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A ShapeLifetimeIndex keeps track of when each shape of a model is alive, that is the ticks from
+ * its first keyframe to its last keyframe, so sampling a tick only has to visit the shapes alive at
+ * that tick.
+ *
+ * <p>Every shape gets an ordinal in the order it was added, so walking the set bits of
+ * {@link #activeAt(int)} gives the alive shapes in insertion (z) order. The lifetimes are kept as
+ * two sorted sweep maps, one of start ticks and one of end ticks. We remember the set of alive
+ * shapes at the last tick asked for and move it to the next tick by only applying the starts and
+ * ends in between, which during playback is a handful of events per tick.</p>
+ */
+final class ShapeLifetimeIndex {
+  // A lifetime bound for shapes without keyframes, ticks are never negative.
+  private static final int NONE = -1;
+
+  // Ordinal to name, a removed shape leaves a null hole until we compact.
+  private String[] names;
+  private int[] first;
+  private int[] last;
+  private int size;
+  private int holes;
+  private final Map<String, Integer> ordinals;
+
+  // Tick to the ordinals of the shapes whose lifetime starts (or ends) at that tick.
+  private final NavigableMap<Integer, BitSet> starts;
+  private final NavigableMap<Integer, BitSet> ends;
+
+  // The shapes alive at the cursor tick, only meaningful while the cursor is valid.
+  private final BitSet active;
+  private int cursor;
+  private boolean cursorValid;
+
+  // The last tick any shape is alive at, recomputed only after the end ticks change.
+  private int lastTick;
+  private boolean lastTickValid;
+
+  /**
+   * Create a new empty index.
+   */
+  ShapeLifetimeIndex() {
+    this.names = new String[16];
+    this.first = new int[16];
+    this.last = new int[16];
+    this.size = 0;
+    this.holes = 0;
+    this.ordinals = new HashMap<>();
+    this.starts = new TreeMap<>();
+    this.ends = new TreeMap<>();
+    this.active = new BitSet();
+    this.cursorValid = false;
+    this.lastTick = 0;
+    this.lastTickValid = true;
+  }
+
+  /**
+   * Adds a shape to the end of the index, without a lifetime. Adding a shape that is already in
+   * the index does nothing, it keeps its place.
+   * @param id  The name of the shape.
+   */
+  void add(String id) {
+    if (ordinals.containsKey(id)) {
+      return;
+    }
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size * 2);
+      first = Arrays.copyOf(first, size * 2);
+      last = Arrays.copyOf(last, size * 2);
+    }
+    names[size] = id;
+    first[size] = NONE;
+    last[size] = NONE;
+    ordinals.put(id, size);
+    size++;
+  }
+
+  /**
+   * Removes a shape from the index.
+   * @param id  The name of the shape, does nothing if it is not in the index.
+   */
+  void remove(String id) {
+    Integer ordinal = ordinals.remove(id);
+    if (ordinal == null) {
+      return;
+    }
+    unlink(ordinal);
+    names[ordinal] = null;
+    holes++;
+    if (holes > 16 && holes > size / 2) {
+      compact();
+    }
+  }
+
+  /**
+   * Sets the lifetime of a shape to the given (inclusive) range of ticks.
+   * @param id        The name of the shape, this is assumed to be in the index.
+   * @param firstTick The tick of the first keyframe of the shape.
+   * @param lastTick  The tick of the last keyframe of the shape.
+   */
+  void setLifetime(String id, int firstTick, int lastTick) {
+    int ordinal = ordinals.get(id);
+    if (first[ordinal] == firstTick && last[ordinal] == lastTick) {
+      return;
+    }
+    unlink(ordinal);
+    first[ordinal] = firstTick;
+    last[ordinal] = lastTick;
+    starts.computeIfAbsent(firstTick, t -> new BitSet()).set(ordinal);
+    ends.computeIfAbsent(lastTick, t -> new BitSet()).set(ordinal);
+    lastTickValid = false;
+    if (cursorValid && firstTick <= cursor && cursor <= lastTick) {
+      active.set(ordinal);
+    }
+  }
+
+  /**
+   * Clears the lifetime of a shape, it is no longer alive at any tick.
+   * @param id  The name of the shape, this is assumed to be in the index.
+   */
+  void clearLifetime(String id) {
+    unlink(ordinals.get(id));
+  }
+
+  /**
+   * A private helper to take a shape out of the sweep maps and the active set.
+   * @param ordinal The ordinal of the shape.
+   */
+  private void unlink(int ordinal) {
+    if (first[ordinal] != NONE) {
+      clearBit(starts, first[ordinal], ordinal);
+      clearBit(ends, last[ordinal], ordinal);
+      lastTickValid = false;
+    }
+    first[ordinal] = NONE;
+    last[ordinal] = NONE;
+    active.clear(ordinal);
+  }
+
+  /**
+   * A private helper to clear an ordinal out of a sweep map, dropping empty ticks.
+   * @param sweep   The sweep map.
+   * @param tick    The tick the ordinal is stored at.
+   * @param ordinal The ordinal to clear.
+   */
+  private static void clearBit(NavigableMap<Integer, BitSet> sweep, int tick, int ordinal) {
+    BitSet bits = sweep.get(tick);
+    bits.clear(ordinal);
+    if (bits.isEmpty()) {
+      sweep.remove(tick);
+    }
+  }
+
+  /**
+   * A private helper to renumber the shapes without the holes left by removed shapes. The relative
+   * order of the shapes is kept.
+   */
+  private void compact() {
+    int next = 0;
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      if (names[ordinal] == null) {
+        continue; // Next loop.
+      }
+      names[next] = names[ordinal];
+      first[next] = first[ordinal];
+      last[next] = last[ordinal];
+      ordinals.put(names[next], next);
+      next++;
+    }
+    Arrays.fill(names, next, size, null);
+    size = next;
+    holes = 0;
+    starts.clear();
+    ends.clear();
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      if (first[ordinal] != NONE) {
+        starts.computeIfAbsent(first[ordinal], t -> new BitSet()).set(ordinal);
+        ends.computeIfAbsent(last[ordinal], t -> new BitSet()).set(ordinal);
+      }
+    }
+    cursorValid = false;
+  }
+
+  /**
+   * Gives the ordinals of the shapes alive at the given tick. The returned set belongs to this
+   * index, it must not be modified and is only valid until the next call on this index.
+   * @param tick  The tick to find the alive shapes at.
+   * @return      The set of ordinals alive at that tick, in insertion order.
+   */
+  BitSet activeAt(int tick) {
+    if (!cursorValid) {
+      rebuild(tick);
+    } else if (tick > cursor) {
+      // Going forwards, shapes that start after the old tick come in and shapes that end before
+      // the new tick go away. A shape can do both, so starts go first.
+      for (BitSet bits : starts.subMap(cursor, false, tick, true).values()) {
+        active.or(bits);
+      }
+      for (BitSet bits : ends.subMap(cursor, true, tick, false).values()) {
+        active.andNot(bits);
+      }
+    } else if (tick < cursor) {
+      // Going backwards is the mirror image, shapes that end after the new tick come back and
+      // shapes that start after the new tick go away. Again a shape can do both, so ends go first.
+      for (BitSet bits : ends.subMap(tick, true, cursor, false).values()) {
+        active.or(bits);
+      }
+      for (BitSet bits : starts.subMap(tick, false, cursor, true).values()) {
+        active.andNot(bits);
+      }
+    }
+    cursor = tick;
+    cursorValid = true;
+    return active;
+  }
+
+  /**
+   * A private helper to build the active set at the given tick from scratch.
+   * @param tick  The tick to build the set at.
+   */
+  private void rebuild(int tick) {
+    active.clear();
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      if (first[ordinal] != NONE && first[ordinal] <= tick && tick <= last[ordinal]) {
+        active.set(ordinal);
+      }
+    }
+  }
+
+  /**
+   * Gives the last tick any shape in the index is alive at.
+   * @return  The last tick of all the lifetimes, or 0 if there are none.
+   */
+  int lastTick() {
+    if (!lastTickValid) {
+      lastTick = ends.isEmpty() ? 0 : Math.max(0, ends.lastKey());
+      lastTickValid = true;
+    }
+    return lastTick;
+  }
+
+  /**
+   * Gives the name of the shape with the given ordinal.
+   * @param ordinal The ordinal of a shape, as given by activeAt.
+   * @return        The name of the shape.
+   */
+  String nameOf(int ordinal) {
+    return names[ordinal];
+  }
+}
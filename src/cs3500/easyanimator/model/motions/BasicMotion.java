@@ -16,14 +16,15 @@ public final class BasicMotion implements IMotion {
   private final int startTime;
   private final int endTime;
 
-  private final WidthHeight startSize;
-  private final WidthHeight endSize;
+  // The state is kept packed, see WidthHeight#pack, Point#pack and Color#getRGB.
+  private final long startSize;
+  private final long endSize;
 
-  private final Point startPosition;
-  private final Point endPosition;
+  private final long startPosition;
+  private final long endPosition;
 
-  private final Color startColor;
-  private final Color endColor;
+  private final int startColor;
+  private final int endColor;
 
   /**
    * Basic Constructor for a BasicMotion.
@@ -36,11 +37,49 @@ public final class BasicMotion implements IMotion {
    * @param endPosition the end position of the Motion.
    * @param startColor the start color of the Motion.
    * @param endColor the end color of the Motion.
+   *
+   * @throws IllegalArgumentException if any of the states are null.
    */
   public BasicMotion(int startTime, int endTime,
                      WidthHeight startSize, WidthHeight endSize,
                      Point startPosition, Point endPosition,
                      Color startColor, Color endColor) {
+    if (startSize == null || endSize == null || startPosition == null || endPosition == null
+            || startColor == null || endColor == null) {
+      throw new IllegalArgumentException("Unable to create a motion with uninitialized values.");
+    }
+
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.startSize = startSize.pack();
+    this.endSize = endSize.pack();
+    this.startPosition = startPosition.pack();
+    this.endPosition = endPosition.pack();
+    this.startColor = startColor.getRGB();
+    this.endColor = endColor.getRGB();
+  }
+
+  /**
+   * Constructor for a BasicMotion from packed states, as given by the packed getters of a shape.
+   *
+   * @param startTime the start time of the Motion.
+   * @param endTime the end time of the Motion.
+   * @param startSize the packed start size of the Motion.
+   * @param endSize the packed end size of the Motion.
+   * @param startPosition the packed start position of the Motion.
+   * @param endPosition the packed end position of the Motion.
+   * @param startColor the packed start color of the Motion.
+   * @param endColor the packed end color of the Motion.
+   *
+   * @throws IllegalArgumentException if either color is not a packed rgb value.
+   */
+  public BasicMotion(int startTime, int endTime,
+                     long startSize, long endSize,
+                     long startPosition, long endPosition,
+                     int startColor, int endColor) {
+    if (((startColor | endColor) & ~0xFFFFFF) != 0) {
+      throw new IllegalArgumentException("All color values must be in range of 0-255");
+    }
 
     this.startTime = startTime;
     this.endTime = endTime;
@@ -64,53 +103,82 @@ public final class BasicMotion implements IMotion {
 
   @Override
   public Point getStartPosition() {
-    return this.startPosition;
+    return Point.unpack(this.startPosition);
   }
 
   @Override
   public Point getEndPosition() {
-    return this.endPosition;
+    return Point.unpack(this.endPosition);
   }
 
   @Override
   public WidthHeight getStartSize() {
-    return this.startSize;
+    return WidthHeight.unpack(this.startSize);
   }
 
   @Override
   public WidthHeight getEndSize() {
-    return this.endSize;
+    return WidthHeight.unpack(this.endSize);
   }
 
   @Override
   public Color getStartColor() {
-    return this.startColor;
+    return Color.ofRGB(this.startColor);
   }
 
   @Override
   public Color getEndColor() {
+    return Color.ofRGB(this.endColor);
+  }
+
+  @Override
+  public long getPackedStartSize() {
+    return this.startSize;
+  }
+
+  @Override
+  public long getPackedEndSize() {
+    return this.endSize;
+  }
+
+  @Override
+  public long getPackedStartPosition() {
+    return this.startPosition;
+  }
+
+  @Override
+  public long getPackedEndPosition() {
+    return this.endPosition;
+  }
+
+  @Override
+  public int getStartRGB() {
+    return this.startColor;
+  }
+
+  @Override
+  public int getEndRGB() {
     return this.endColor;
   }
 
   @Override
   public String toString() {
-    //TODO compile a list of ints and use deliminator instead of this monstrosity. or visitor
     return this.startTime + " "
-            + this.startPosition.getX() + " "
-            + this.startPosition.getY() + " "
-            + this.startSize.getWidth() + " "
-            + this.startSize.getHeight() + " "
-            + this.startColor.getRed() + " "
-            + this.startColor.getGreen() + " "
-            + this.startColor.getBlue() + " "
+            + Point.unpackX(this.startPosition) + " "
+            + Point.unpackY(this.startPosition) + " "
+            + WidthHeight.unpackWidth(this.startSize) + " "
+            + WidthHeight.unpackHeight(this.startSize) + " "
+            + ((this.startColor >> 16) & 0xFF) + " "
+            + ((this.startColor >> 8) & 0xFF) + " "
+            + (this.startColor & 0xFF) + " "
             + this.endTime + " "
-            + this.endPosition.getX() + " "
-            + this.endPosition.getY() + " "
-            + this.endSize.getWidth() + " "
-            + this.endSize.getHeight() + " "
-            + this.endColor.getRed() + " "
-            + this.endColor.getGreen() + " "
-            + this.endColor.getBlue();
+            + Point.unpackX(this.endPosition) + " "
+            + Point.unpackY(this.endPosition) + " "
+            + WidthHeight.unpackWidth(this.endSize) + " "
+            + WidthHeight.unpackHeight(this.endSize) + " "
+            + ((this.endColor >> 16) & 0xFF) + " "
+            + ((this.endColor >> 8) & 0xFF) + " "
+            + (this.endColor & 0xFF);
   }
 
   @Override
@@ -122,29 +190,17 @@ public final class BasicMotion implements IMotion {
 
   @Override
   public Point getPosition(int tick) {
-    return new Point(IMotion.tween(startPosition.getX(), startTime,
-            endPosition.getX(), endTime, tick),
-            IMotion.tween(startPosition.getY(), startTime,
-                    endPosition.getY(), endTime, tick));
+    return Point.unpack(getPackedPosition(tick));
   }
 
   @Override
   public WidthHeight getSize(int tick) {
-    return new WidthHeight(IMotion.tween(startSize.getWidth(), startTime,
-            endSize.getWidth(), endTime, tick),
-            IMotion.tween(startSize.getHeight(), startTime,
-                    endSize.getHeight(), endTime, tick));
+    return WidthHeight.unpack(getPackedSize(tick));
   }
 
   @Override
   public Color getColor(int tick) {
-    // Renaming just to make the next a little smaller.
-    return new Color(IMotion.tween(startColor.getRed(), startTime,
-            endColor.getRed(), endTime, tick),
-            IMotion.tween(startColor.getGreen(), startTime,
-                    endColor.getGreen(), endTime, tick),
-            IMotion.tween(startColor.getBlue(), startTime,
-                    endColor.getBlue(), endTime, tick));
+    return Color.ofRGB(getRGB(tick));
   }
 
   /**
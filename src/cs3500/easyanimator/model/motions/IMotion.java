@@ -59,6 +59,54 @@ public interface IMotion {
    */
   Color getEndColor();
 
+  /**
+   * Gets the start size of the Motion packed as by {@link WidthHeight#pack()}.
+   * @return the packed start size of the Motion.
+   */
+  default long getPackedStartSize() {
+    return getStartSize().pack();
+  }
+
+  /**
+   * Gets the end size of the Motion packed as by {@link WidthHeight#pack()}.
+   * @return the packed end size of the Motion.
+   */
+  default long getPackedEndSize() {
+    return getEndSize().pack();
+  }
+
+  /**
+   * Gets the start position of the Motion packed as by {@link Point#pack()}.
+   * @return the packed start position of the Motion.
+   */
+  default long getPackedStartPosition() {
+    return getStartPosition().pack();
+  }
+
+  /**
+   * Gets the end position of the Motion packed as by {@link Point#pack()}.
+   * @return the packed end position of the Motion.
+   */
+  default long getPackedEndPosition() {
+    return getEndPosition().pack();
+  }
+
+  /**
+   * Gets the start color of the Motion packed as by {@link Color#getRGB()}.
+   * @return the packed start color of the Motion.
+   */
+  default int getStartRGB() {
+    return getStartColor().getRGB();
+  }
+
+  /**
+   * Gets the end color of the Motion packed as by {@link Color#getRGB()}.
+   * @return the packed end color of the Motion.
+   */
+  default int getEndRGB() {
+    return getEndColor().getRGB();
+  }
+
   /**
    * Returns a string representation of the motion, which includes all of its fields.
    * @return a string representing the motion.
@@ -97,6 +145,42 @@ public interface IMotion {
    */
   Color getColor(int tick);
 
+  /**
+   * Gives the position at the given tick packed as by {@link Point#pack()}, tweened without making
+   * any Points along the way.
+   * @param tick  The tick to fetch the position frame of.
+   * @return      The packed position tweened between the start and endTime.
+   *              The behavior outside those bounds is undefined.
+   */
+  default long getPackedPosition(int tick) {
+    return tween(getPackedStartPosition(), getStartTime(),
+            getPackedEndPosition(), getEndTime(), tick);
+  }
+
+  /**
+   * Gives the size at the given tick packed as by {@link WidthHeight#pack()}, tweened without
+   * making any WidthHeights along the way.
+   * @param tick  The tick to fetch the size frame of.
+   * @return      The packed size tweened between the start and endTime.
+   *              The behavior outside those bounds is undefined.
+   */
+  default long getPackedSize(int tick) {
+    return tween(getPackedStartSize(), getStartTime(),
+            getPackedEndSize(), getEndTime(), tick);
+  }
+
+  /**
+   * Gives the color at the given tick packed as by {@link Color#getRGB()}, tweened without making
+   * any Colors along the way.
+   * @param tick  The tick to fetch the color frame of.
+   * @return      The packed color tweened between the start and endTime.
+   *              The behavior outside those bounds is undefined.
+   */
+  default int getRGB(int tick) {
+    return tweenRGB(getStartRGB(), getStartTime(),
+            getEndRGB(), getEndTime(), tick);
+  }
+
   /**
    * Returns if there is a time conflict between two motions.
    * @param motion      The first motion to compare.
@@ -121,9 +205,9 @@ public interface IMotion {
    * @return  True if the end state and start state match, false otherwise.
    */
   static boolean endStartStateMatch(IMotion first, IMotion second) {
-    return (first.getEndSize().equals(second.getStartSize())
-            && first.getEndPosition().equals(second.getStartPosition())
-            && first.getEndColor().equals(second.getStartColor()));
+    return (first.getPackedEndSize() == second.getPackedStartSize()
+            && first.getPackedEndPosition() == second.getPackedStartPosition()
+            && first.getEndRGB() == second.getStartRGB());
   }
 
   /**
@@ -145,6 +229,10 @@ public interface IMotion {
     if (val1T == val2T) {
       return val2;
     }
+    // Rounding the sum below could otherwise move a value that isn't changing by one.
+    if (val1 == val2) {
+      return val1;
+    }
 
     double f1 = (bT - t) / (bT - aT);
     double f2 = a * f1;
@@ -153,4 +241,44 @@ public interface IMotion {
     double g2 = b * g1;
     return (int) Math.ceil(f2 + g2);
   }
+
+  /**
+   * Finds the tweened value between two packed points or sizes at the desired tick, tweening the
+   * high and low halves separately just like {@link #tween(int, int, int, int, int)}.
+   * @param val1 the first packed value.
+   * @param val1T the tick time for a.
+   * @param val2 the second packed value.
+   * @param val2T the tick time for b.
+   * @param tick the desired tick time.
+   * @return the packed value at the desired tick.
+   */
+  static long tween(long val1, int val1T, long val2, int val2T, int tick) {
+    if (val1T == val2T) {
+      return val2;
+    }
+    int high = tween((int) (val1 >> 32), val1T, (int) (val2 >> 32), val2T, tick);
+    int low = tween((int) val1, val1T, (int) val2, val2T, tick);
+    return ((long) high << 32) | (low & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Finds the tweened color between two packed 0xRRGGBB colors at the desired tick, tweening each
+   * channel just like {@link #tween(int, int, int, int, int)}. Channels are kept to at most 255,
+   * as rounding up can otherwise push a channel already at 255 over it.
+   * @param rgb1 the first packed color.
+   * @param rgb1T the tick time for a.
+   * @param rgb2 the second packed color.
+   * @param rgb2T the tick time for b.
+   * @param tick the desired tick time.
+   * @return the packed color at the desired tick.
+   */
+  static int tweenRGB(int rgb1, int rgb1T, int rgb2, int rgb2T, int tick) {
+    if (rgb1T == rgb2T) {
+      return rgb2;
+    }
+    int red = Math.min(tween((rgb1 >> 16) & 0xFF, rgb1T, (rgb2 >> 16) & 0xFF, rgb2T, tick), 255);
+    int green = Math.min(tween((rgb1 >> 8) & 0xFF, rgb1T, (rgb2 >> 8) & 0xFF, rgb2T, tick), 255);
+    int blue = Math.min(tween(rgb1 & 0xFF, rgb1T, rgb2 & 0xFF, rgb2T, tick), 255);
+    return (red << 16) | (green << 8) | blue;
+  }
 }
@@ -5,21 +5,47 @@ import cs3500.easyanimator.model.Point;
 
 /**
  * Abstract base class for implementation of {@link IShape}. It includes three properties size,
- * color, and position.
+ * color, and position. They are kept packed, so comparing and copying shapes, which the model does
+ * for every keyframe, never has to look through the value objects. Subclasses reach the packed
+ * values through {@link #getPackedSize()}, {@link #getPackedPosition()} and {@link #getRGB()}.
+ *
+ * <p>A shape can be frozen, after which its setters throw. Models freeze the shapes they hold so
+ * they can hand them out without copying them.</p>
  */
 public abstract class AbstractShape implements IShape {
 
-  protected WidthHeight size;
-  protected Color color;
-  protected Point position;
+  private long size;
+  private int color;
+  private long position;
+  private boolean frozen;
 
   /**
    * Abstract constructor for a Shape.
    *  @param size the size of the Shape.
    * @param position the position of the Shape.
    * @param color the color of the Shape.
+   * @throws IllegalArgumentException if any of them are null.
    */
   AbstractShape(WidthHeight size, Point position, Color color) {
+    if (size == null || position == null || color == null) {
+      throw new IllegalArgumentException("Unable to create a shape with uninitialized values.");
+    }
+    this.size = size.pack();
+    this.color = color.getRGB();
+    this.position = position.pack();
+  }
+
+  /**
+   * Abstract constructor for a Shape from packed values.
+   * @param size the packed size of the Shape.
+   * @param position the packed position of the Shape.
+   * @param color the packed color of the Shape.
+   * @throws IllegalArgumentException if the color is not a packed rgb value.
+   */
+  AbstractShape(long size, long position, int color) {
+    if ((color & ~0xFFFFFF) != 0) {
+      throw new IllegalArgumentException("All color values must be in range of 0-255");
+    }
     this.size = size;
     this.color = color;
     this.position = position;
@@ -27,35 +53,78 @@ public abstract class AbstractShape implements IShape {
 
   @Override
   public WidthHeight getSize() {
-    return this.size;
+    return WidthHeight.unpack(this.size);
   }
 
   @Override
   public Color getColor() {
-    return this.color;
+    return Color.ofRGB(this.color);
   }
 
   @Override
   public Point getPosition() {
+    return Point.unpack(this.position);
+  }
+
+  @Override
+  public long getPackedSize() {
+    return this.size;
+  }
+
+  @Override
+  public long getPackedPosition() {
     return this.position;
   }
 
+  @Override
+  public int getRGB() {
+    return this.color;
+  }
+
+  @Override
+  public IShape freeze() {
+    if (this.frozen) {
+      return this;
+    }
+    AbstractShape copy = (AbstractShape) copy();
+    copy.frozen = true;
+    return copy;
+  }
+
+  /**
+   * A private helper to refuse changes to a frozen shape.
+   * @throws IllegalStateException if the shape is frozen.
+   */
+  private void changeCheck() {
+    if (this.frozen) {
+      throw new IllegalStateException("Unable to change a shape held by a model, copy it first.");
+    }
+  }
+
   @Override
   public void setSize(WidthHeight size) {
+    changeCheck();
     if (size.getWidth() <= 0 || size.getHeight() <= 0) {
       throw new IllegalArgumentException("Width and Height of a shape cannot be zero or below.");
     }
-    this.size = size;
+    this.size = size.pack();
   }
 
   @Override
   public void setColor(Color color) {
-    this.color = color;
-
+    changeCheck();
+    if (color == null) {
+      throw new IllegalArgumentException("Unable to set the color of a shape to null.");
+    }
+    this.color = color.getRGB();
   }
 
   @Override
   public void setPosition(Point position) {
-    this.position = position;
+    changeCheck();
+    if (position == null) {
+      throw new IllegalArgumentException("Unable to set the position of a shape to null.");
+    }
+    this.position = position.pack();
   }
 }
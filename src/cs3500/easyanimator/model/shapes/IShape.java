@@ -32,12 +32,54 @@ public interface IShape {
    */
   Point getPosition();
 
+  /**
+   * Gets the size of the Shape packed as by {@link WidthHeight#pack()}, so it can be compared
+   * without looking through the WidthHeight.
+   *
+   * @return the packed size of the Shape.
+   */
+  default long getPackedSize() {
+    return getSize().pack();
+  }
+
+  /**
+   * Gets the position of the Shape packed as by {@link Point#pack()}, so it can be compared
+   * without looking through the Point.
+   *
+   * @return the packed position of the Shape.
+   */
+  default long getPackedPosition() {
+    return getPosition().pack();
+  }
+
+  /**
+   * Gets the color of the Shape packed as by {@link Color#getRGB()}.
+   *
+   * @return the packed color of the Shape.
+   */
+  default int getRGB() {
+    return getColor().getRGB();
+  }
+
+  /**
+   * Tests if two shapes have the same size, position and color, regardless of their type.
+   * @param first   The first shape.
+   * @param second  The second shape.
+   * @return  True if the states match, false otherwise.
+   */
+  static boolean sameState(IShape first, IShape second) {
+    return first.getPackedSize() == second.getPackedSize()
+            && first.getPackedPosition() == second.getPackedPosition()
+            && first.getRGB() == second.getRGB();
+  }
+
   /**
    * Sets the size of the Shape.
    *
    * @param size a widthHeight to set as the Shape's size.
    *
    * @throws IllegalArgumentException if the width or height is set to equal or below zero.
+   * @throws IllegalStateException if the shape is frozen.
    */
   void setSize(WidthHeight size);
 
@@ -47,6 +89,7 @@ public interface IShape {
    * @param color the Color to set as the Shapes color.
    *
    * @throws IllegalArgumentException if the Color is invalid or null.
+   * @throws IllegalStateException if the shape is frozen.
    */
   void setColor(Color color);
 
@@ -56,6 +99,7 @@ public interface IShape {
    * @param position the position of the Shape represented as a Point.
    *
    * @throws IllegalArgumentException  if the Point is invalid or null.
+   * @throws IllegalStateException if the shape is frozen.
    */
   void setPosition(Point position);
 
@@ -72,4 +116,14 @@ public interface IShape {
    * @return  Returns a copy of this object, deep-copied.
    */
   IShape copy();
+
+  /**
+   * Returns a copy of this shape that can't be changed, so it can be shared instead of copied
+   * again. A shape that already can't be changed gives itself. Shapes that can't refuse changes
+   * just give a plain copy.
+   * @return  Returns a copy of this object whose setters throw, or this object if it's one already.
+   */
+  default IShape freeze() {
+    return copy();
+  }
 }
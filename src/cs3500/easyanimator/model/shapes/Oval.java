@@ -20,6 +20,17 @@ public class Oval extends AbstractShape {
     super(size, position, color);
   }
 
+  /**
+   * Constructor for a Oval from packed values, as given by the packed getters of a shape.
+   * @param size     the packed size of the Shape.
+   * @param position the packed position of the Shape.
+   * @param color    the packed color of the Shape.
+   * @throws IllegalArgumentException if the color is not a packed rgb value.
+   */
+  public Oval(long size, long position, int color) {
+    super(size, position, color);
+  }
+
   @Override
   public <T> T accept(IShapeVisitor<T> visitor) {
     return visitor.applyToOval(this);
@@ -27,7 +38,7 @@ public class Oval extends AbstractShape {
 
   @Override
   public IShape copy() {
-    return new Oval(this.size, this.position, this.color);
+    return new Oval(this.getPackedSize(), this.getPackedPosition(), this.getRGB());
   }
 
   /**
@@ -42,8 +53,9 @@ public class Oval extends AbstractShape {
       return false;
     } else {
       Oval otherOval = (Oval) o;
-      return this.size.equals(otherOval.size) && this.position.equals(otherOval.position)
-              && this.color.equals(otherOval.color);
+      return this.getPackedSize() == otherOval.getPackedSize()
+              && this.getPackedPosition() == otherOval.getPackedPosition()
+              && this.getRGB() == otherOval.getRGB();
     }
   }
 
@@ -52,6 +64,6 @@ public class Oval extends AbstractShape {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(this.size, this.position, this.color);
+    return Objects.hash(this.getPackedSize(), this.getPackedPosition(), this.getRGB());
   }
 }
@@ -20,6 +20,17 @@ public class Rectangle extends AbstractShape {
     super(size, position, color);
   }
 
+  /**
+   * Constructor for a Rectangle from packed values, as given by the packed getters of a shape.
+   * @param size     the packed size of the Shape.
+   * @param position the packed position of the Shape.
+   * @param color    the packed color of the Shape.
+   * @throws IllegalArgumentException if the color is not a packed rgb value.
+   */
+  public Rectangle(long size, long position, int color) {
+    super(size, position, color);
+  }
+
   @Override
   public <T> T accept(IShapeVisitor<T> visitor) {
     return visitor.applyToRectangle(this);
@@ -27,7 +38,7 @@ public class Rectangle extends AbstractShape {
 
   @Override
   public IShape copy() {
-    return new Rectangle(this.size, this.position, this.color);
+    return new Rectangle(this.getPackedSize(), this.getPackedPosition(), this.getRGB());
   }
 
   /**
@@ -42,8 +53,9 @@ public class Rectangle extends AbstractShape {
       return false;
     } else {
       Rectangle otherRectangle = (Rectangle) o;
-      return this.size.equals(otherRectangle.size) && this.position.equals(otherRectangle.position)
-              && this.color.equals(otherRectangle.color);
+      return this.getPackedSize() == otherRectangle.getPackedSize()
+              && this.getPackedPosition() == otherRectangle.getPackedPosition()
+              && this.getRGB() == otherRectangle.getRGB();
     }
   }
 
@@ -52,6 +64,6 @@ public class Rectangle extends AbstractShape {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(this.size, this.position, this.color);
+    return Objects.hash(this.getPackedSize(), this.getPackedPosition(), this.getRGB());
   }
 }
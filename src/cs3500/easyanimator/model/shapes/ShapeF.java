@@ -12,9 +12,9 @@ import cs3500.easyanimator.model.shapes.WidthHeight;
  * A shape factory produces a shape instance for the given IShape parameters.
  */
 public class ShapeF implements IShapeVisitor<IShape> {
-  private WidthHeight size;
-  private Point position;
-  private Color color;
+  private final long size;
+  private final long position;
+  private final int color;
 
   /**
    * Create a new shape.
@@ -23,6 +23,21 @@ public class ShapeF implements IShapeVisitor<IShape> {
    * @param color     The color to construct with.
    */
   public ShapeF(WidthHeight size, Point position, Color color) {
+    if (size == null || position == null || color == null) {
+      throw new IllegalArgumentException("Unable to create a shape with uninitialized values.");
+    }
+    this.size = size.pack();
+    this.position = position.pack();
+    this.color = color.getRGB();
+  }
+
+  /**
+   * Create a new shape from packed values.
+   * @param size      The packed size to use.
+   * @param position  The packed position to use.
+   * @param color     The packed color to construct with.
+   */
+  public ShapeF(long size, long position, int color) {
     this.size = size;
     this.position = position;
     this.color = color;
@@ -4,8 +4,13 @@ import java.util.Objects;
 
 /**
  * A class representing a WidthHeight, which has two fields, one for a width, and one for a height.
+ * Recent sizes are cached by {@link #of}, the way {@link cs3500.easyanimator.model.Color} caches
+ * its colors.
  */
 public class WidthHeight {
+  private static final int CACHE_BITS = 12;
+  private static final WidthHeight[] CACHE = new WidthHeight[1 << CACHE_BITS];
+
   private final int width;
   private final int height;
 
@@ -19,6 +24,24 @@ public class WidthHeight {
     this.height = height;
   }
 
+  /**
+   * Gives a WidthHeight with the given width and height, reusing a recent one with the same
+   * dimensions when there is one.
+   * @param width an int representing the width.
+   * @param height an int representing the height.
+   * @return the WidthHeight.
+   */
+  public static WidthHeight of(int width, int height) {
+    int slot = (width * 0x9E3779B9 + height) * 0x85EBCA6B >>> (32 - CACHE_BITS);
+    // Two threads racing on a slot just both make a size, one of which is dropped from the cache.
+    WidthHeight size = CACHE[slot];
+    if (size == null || size.width != width || size.height != height) {
+      size = new WidthHeight(width, height);
+      CACHE[slot] = size;
+    }
+    return size;
+  }
+
   public int getWidth() {
     return this.width;
   }
@@ -27,6 +50,52 @@ public class WidthHeight {
     return this.height;
   }
 
+  /**
+   * Packs the size into a single long, the width in the high 32 bits and the height in the low 32
+   * bits. Two sizes are equal exactly when their packed values are.
+   * @return the packed size.
+   */
+  public long pack() {
+    return pack(this.width, this.height);
+  }
+
+  /**
+   * Packs the given width and height the same way as {@link #pack()}.
+   * @param width an int representing the width.
+   * @param height an int representing the height.
+   * @return the packed size.
+   */
+  public static long pack(int width, int height) {
+    return ((long) width << 32) | (height & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gets the width of a packed size.
+   * @param packed the packed size.
+   * @return the width.
+   */
+  public static int unpackWidth(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  /**
+   * Gets the height of a packed size.
+   * @param packed the packed size.
+   * @return the height.
+   */
+  public static int unpackHeight(long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * Gives the WidthHeight of a packed size.
+   * @param packed the packed size.
+   * @return the WidthHeight.
+   */
+  public static WidthHeight unpack(long packed) {
+    return of(unpackWidth(packed), unpackHeight(packed));
+  }
+
   @Override
   public boolean equals(Object other) {
     //if they are same exact object they are equal
@@ -1,8 +1,6 @@
 package cs3500.easyanimator.util;
 
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Pattern;
 
 /**
  * A helper to read animation data and construct an animation from it.
@@ -37,41 +35,51 @@ public class AdvancedAnimationReader {
   public static <Doc> Doc parseFile(Readable readable, AdvancedAnimationBuilder<Doc> builder) {
     Objects.requireNonNull(readable, "Must have non-null readable source");
     Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
-    Scanner s = new Scanner(readable);
-    // Split at whitespace, and ignore # comment lines
-    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+")); 
-    while (s.hasNextLine()) {
-      String line = s.nextLine();
-      Scanner lineScanner = new Scanner(line.trim());
-      if (!lineScanner.hasNext()) {
-        continue;
+    return parse(new ReadableAnimationLexer(readable, true), builder);
+  }
+
+  /**
+   * Reads an animation from the lines of the given lexer, see
+   * {@link #parseFile(Readable, AdvancedAnimationBuilder)} for the format. The lexer must be in
+   * line mode, since how many fields a line has matters for shapes and motions.
+   *
+   * @param s        The lexer to read lines from.
+   * @param builder  A builder for helping to construct a new animation
+   * @param <Doc>    The main model interface type describing animations
+   * @return         The animation the builder built.
+   */
+  public static <Doc> Doc parse(AnimationLexer s, AdvancedAnimationBuilder<Doc> builder) {
+    Objects.requireNonNull(s, "Must have non-null lexer source");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    // The lexer splits at whitespace, and ignores # comments. We go a line at a time.
+    do {
+      if (!s.hasNext()) {
+        continue; // A blank or comment line.
       }
-      String word = lineScanner.next();
+      String word = s.next();
       switch (word) {
         case "canvas":
-          readCanvas(lineScanner, builder);
+          readCanvas(s, builder);
           break;
         case "layer":
-          readLayer(lineScanner, builder);
+          readLayer(s, builder);
           break;
         case "shape":
-          readShape(lineScanner, builder);
+          readShape(s, builder);
           break;
         case "motion":
-          readMotion(lineScanner, builder);
+          readMotion(s, builder);
           break;
-        case "#": // This was supposed to be caught by their scanner,
-          // but I guess I messed it up with lines.
-          continue;
         // I'm scared to do keyframes away from their code.
         default:
-          throw new IllegalStateException("Unexpected keyword: " + word + lineScanner.nextLine());
+          throw new IllegalStateException("Unexpected keyword: " + word
+                  + s.restOfLine().trim());
       }
-    }
+    } while (s.nextLine());
     return builder.build();
   }
 
-  private static <Doc> void readCanvas(Scanner s, AdvancedAnimationBuilder<Doc> builder) {
+  private static <Doc> void readCanvas(AnimationLexer s, AdvancedAnimationBuilder<Doc> builder) {
     int[] vals = new int[4];
     String[] fieldNames = {"left", "top", "width", "height"};
     for (int i = 0; i < 4; i++) {
@@ -80,7 +88,7 @@ public class AdvancedAnimationReader {
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <Doc> void readShape(Scanner s, AdvancedAnimationBuilder<Doc> builder) {
+  private static <Doc> void readShape(AnimationLexer s, AdvancedAnimationBuilder<Doc> builder) {
     // We have to limit ourselves to scanning only a line
     // since we don't know how many tokens there are.
 
@@ -105,8 +113,7 @@ public class AdvancedAnimationReader {
     }
   }
 
-  private static <Doc> void readMotion(Scanner s, AdvancedAnimationBuilder<Doc> builder) {
-    String[] fieldNames = new String[]{
+  private static final String[] MOTION_FIELD_NAMES = new String[]{
       "initial time",
       "initial x-coordinate", "initial y-coordinate",
       "initial width", "initial height",
@@ -115,9 +122,9 @@ public class AdvancedAnimationReader {
       "final x-coordinate", "final y-coordinate",
       "final width", "final height",
       "final red value", "final green value", "final blue value",
-    };
+  };
 
-    String[] fieldNamesAlternative = new String[]{
+  private static final String[] ROTATION_MOTION_FIELD_NAMES = new String[]{
       "initial time",
       "initial x-coordinate", "initial y-coordinate",
       "initial width", "initial height",
@@ -128,8 +135,9 @@ public class AdvancedAnimationReader {
       "final width", "final height",
       "final red value", "final green value", "final blue value",
       "final rotation",
-    };
+  };
 
+  private static <Doc> void readMotion(AnimationLexer s, AdvancedAnimationBuilder<Doc> builder) {
     int[] vals = new int[18];
     String name;
     if (s.hasNext()) {
@@ -146,9 +154,9 @@ public class AdvancedAnimationReader {
         break; // We leave the last 2 null. We probably didn't have more.
       }
       if (rot) {
-        vals[i] = getInt(s, "Motion", fieldNamesAlternative[i]);
+        vals[i] = getInt(s, "Motion", ROTATION_MOTION_FIELD_NAMES[i]);
       } else {
-        vals[i] = getInt(s, "Motion", fieldNames[i]);
+        vals[i] = getInt(s, "Motion", MOTION_FIELD_NAMES[i]);
       }
     }
     if (!rot) {
@@ -165,7 +173,7 @@ public class AdvancedAnimationReader {
     }
   }
 
-  private static <Doc> void readLayer(Scanner s, AdvancedAnimationBuilder<Doc> builder) {
+  private static <Doc> void readLayer(AnimationLexer s, AdvancedAnimationBuilder<Doc> builder) {
     String name;
     boolean visibility;
     if (s.hasNext()) {
@@ -183,7 +191,7 @@ public class AdvancedAnimationReader {
     builder.declareLayer(name, visibility);
   }
   
-  private static int getInt(Scanner s, String label, String fieldName) {
+  private static int getInt(AnimationLexer s, String label, String fieldName) {
     if (s.hasNextInt()) {
       return s.nextInt();
     } else if (s.hasNext()) {
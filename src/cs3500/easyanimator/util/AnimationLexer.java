@@ -0,0 +1,379 @@
+package cs3500.easyanimator.util;
+
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * An AnimationLexer splits animation input into whitespace separated tokens, one character at a
+ * time and without any regular expressions. A '#' starts a comment that runs to the end of the
+ * line. Integers are parsed straight from the characters of a token, so reading a motion line
+ * doesn't build a String for every number on it.
+ *
+ * <p>It works like the small part of {@link java.util.Scanner} that the animation readers used:
+ * hasNext/next, hasNextInt/nextInt and hasNextBoolean/nextBoolean all look at the same upcoming
+ * token, and a token is only used up by one of the next methods.</p>
+ *
+ * <p>A lexer in line mode never looks past the end of the current line for a token. Call
+ * {@link #nextLine()} to move on to the next one. This is how the advanced format knows how many
+ * fields a line has.</p>
+ *
+ * <p>Subclasses only need to say where the characters come from, see {@link #read()}.</p>
+ */
+public abstract class AnimationLexer {
+  // Marks that there is no character pushed back.
+  private static final int NONE = -2;
+  // Repeated names and keywords are handed out as the same String, from a small cache.
+  private static final int STRING_CACHE_SIZE = 256;
+
+  private final boolean lineMode;
+  private int pushback;
+  private int line;
+
+  // The upcoming token, loaded by a has method and used up by a next method.
+  private char[] token;
+  private int tokenLength;
+  private boolean tokenLoaded;
+  private int tokenLine;
+  private boolean tokenParsed;
+  private boolean tokenIsInt;
+  private int tokenInt;
+
+  private final String[] strings;
+
+  /**
+   * Create a new lexer.
+   * @param lineMode  Whether to keep to one line at a time (true) or read tokens across lines.
+   */
+  protected AnimationLexer(boolean lineMode) {
+    this.lineMode = lineMode;
+    this.pushback = NONE;
+    this.line = 1;
+    this.token = new char[64];
+    this.tokenLength = 0;
+    this.tokenLoaded = false;
+    this.strings = new String[STRING_CACHE_SIZE];
+  }
+
+  /**
+   * Reads the next character of the input.
+   * @return  The next character, or -1 at the end of the input.
+   * @throws IllegalStateException If the input could not be read.
+   */
+  protected abstract int read();
+
+  /**
+   * A private helper to give the next character, taking any pushed back character first.
+   * @return  The next character, or -1 at the end of the input.
+   */
+  private int nextChar() {
+    int c;
+    if (pushback != NONE) {
+      c = pushback;
+      pushback = NONE;
+    } else {
+      c = read();
+    }
+    if (c == '\n') {
+      line++;
+    }
+    return c;
+  }
+
+  /**
+   * A private helper to push back a character so it is read again next.
+   * @param c The character to push back.
+   */
+  private void unread(int c) {
+    if (c == '\n') {
+      line--;
+    }
+    pushback = c;
+  }
+
+  /**
+   * A private helper to skip whitespace and comments.
+   * @param acrossLines Whether we may skip past the end of the line.
+   */
+  private void skipSpace(boolean acrossLines) {
+    while (true) {
+      int c = nextChar();
+      if (c == -1) {
+        return;
+      } else if (c == '#') {
+        // Skip the comment, but not the end of the line.
+        do {
+          c = nextChar();
+        } while (c != -1 && c != '\n' && c != '\r');
+        if (c != -1) {
+          unread(c);
+        }
+      } else if (c == '\n' || c == '\r') {
+        if (!acrossLines) {
+          unread(c);
+          return;
+        }
+      } else if (c > ' ') {
+        unread(c);
+        return;
+      }
+    }
+  }
+
+  /**
+   * A private helper to load the upcoming token, if it isn't already.
+   * @return  True if there is a token, false if the input (or line, in line mode) is done.
+   */
+  private boolean loadToken() {
+    if (tokenLoaded) {
+      return true;
+    }
+    skipSpace(!lineMode);
+    tokenLength = 0;
+    tokenParsed = false;
+    int start = line;
+    while (true) {
+      int c = nextChar();
+      if (c == -1) {
+        break;
+      } else if (c <= ' ' || c == '#') {
+        unread(c);
+        break;
+      }
+      if (tokenLength == token.length) {
+        char[] bigger = new char[token.length * 2];
+        System.arraycopy(token, 0, bigger, 0, tokenLength);
+        token = bigger;
+      }
+      token[tokenLength++] = (char) c;
+    }
+    tokenLoaded = tokenLength > 0;
+    if (tokenLoaded) {
+      tokenLine = start;
+    }
+    return tokenLoaded;
+  }
+
+  /**
+   * Whether there is another token.
+   * @return  True if there is another token (on this line, in line mode).
+   */
+  public boolean hasNext() {
+    return loadToken();
+  }
+
+  /**
+   * Gives the next token.
+   * @return  The next token.
+   * @throws NoSuchElementException If there are no more tokens.
+   */
+  public String next() {
+    if (!loadToken()) {
+      throw new NoSuchElementException("No more tokens available.");
+    }
+    tokenLoaded = false;
+    int hash = 0;
+    for (int i = 0; i < tokenLength; i++) {
+      hash = 31 * hash + token[i];
+    }
+    int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+    String cached = strings[slot];
+    if (cached != null && tokenEquals(cached)) {
+      return cached;
+    }
+    String s = makeString(token, tokenLength);
+    strings[slot] = s;
+    return s;
+  }
+
+  /**
+   * Makes a String out of the characters of a token. Subclasses reading bytes rather than
+   * characters can use this to decode tokens that aren't plain ASCII.
+   * @param chars   The characters of the token.
+   * @param length  The number of characters in the token.
+   * @return        The token as a String.
+   */
+  protected String makeString(char[] chars, int length) {
+    return new String(chars, 0, length);
+  }
+
+  /**
+   * A private helper to check if the loaded token is the given string.
+   * @param s The string to compare to.
+   * @return  True if they are the same.
+   */
+  private boolean tokenEquals(String s) {
+    if (s.length() != tokenLength) {
+      return false;
+    }
+    for (int i = 0; i < tokenLength; i++) {
+      if (s.charAt(i) != token[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether the next token is an integer, an optional sign followed by decimal digits that fit in
+   * an int.
+   * @return  True if the next token is an integer.
+   */
+  public boolean hasNextInt() {
+    if (!loadToken()) {
+      return false;
+    }
+    if (!tokenParsed) {
+      parseInt();
+      tokenParsed = true;
+    }
+    return tokenIsInt;
+  }
+
+  /**
+   * A private helper to parse the loaded token as an integer.
+   */
+  private void parseInt() {
+    tokenIsInt = false;
+    int i = 0;
+    boolean negative = false;
+    if (token[0] == '-' || token[0] == '+') {
+      negative = token[0] == '-';
+      i = 1;
+    }
+    if (i == tokenLength) {
+      return;
+    }
+    // We build the number negatively since there is one more negative int than positive.
+    long value = 0;
+    for (; i < tokenLength; i++) {
+      char c = token[i];
+      if (c < '0' || c > '9') {
+        return;
+      }
+      value = value * 10 - (c - '0');
+      if (value < Integer.MIN_VALUE) {
+        return;
+      }
+    }
+    if (!negative) {
+      value = -value;
+      if (value > Integer.MAX_VALUE) {
+        return;
+      }
+    }
+    tokenInt = (int) value;
+    tokenIsInt = true;
+  }
+
+  /**
+   * Gives the next token as an integer.
+   * @return  The integer value of the next token.
+   * @throws InputMismatchException If the next token isn't an integer.
+   * @throws NoSuchElementException If there are no more tokens.
+   */
+  public int nextInt() {
+    if (!loadToken()) {
+      throw new NoSuchElementException("No more tokens available.");
+    } else if (!hasNextInt()) {
+      throw new InputMismatchException("The next token is not an integer.");
+    }
+    tokenLoaded = false;
+    return tokenInt;
+  }
+
+  /**
+   * Whether the next token is a boolean, true or false in any case.
+   * @return  True if the next token is a boolean.
+   */
+  public boolean hasNextBoolean() {
+    return loadToken() && (tokenEqualsIgnoreCase("true") || tokenEqualsIgnoreCase("false"));
+  }
+
+  /**
+   * Gives the next token as a boolean.
+   * @return  The boolean value of the next token.
+   * @throws InputMismatchException If the next token isn't a boolean.
+   * @throws NoSuchElementException If there are no more tokens.
+   */
+  public boolean nextBoolean() {
+    if (!loadToken()) {
+      throw new NoSuchElementException("No more tokens available.");
+    } else if (!hasNextBoolean()) {
+      throw new InputMismatchException("The next token is not a boolean.");
+    }
+    tokenLoaded = false;
+    return tokenEqualsIgnoreCase("true");
+  }
+
+  /**
+   * A private helper to check if the loaded token is the given lower case string in any case.
+   * @param s The lower case string to compare to.
+   * @return  True if they are the same ignoring case.
+   */
+  private boolean tokenEqualsIgnoreCase(String s) {
+    if (s.length() != tokenLength) {
+      return false;
+    }
+    for (int i = 0; i < tokenLength; i++) {
+      if (Character.toLowerCase(token[i]) != s.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gives the rest of the current line as is, comments included, without the line ending.
+   * @return  The rest of the line, this can be empty.
+   */
+  public String restOfLine() {
+    StringBuilder rest = new StringBuilder();
+    if (tokenLoaded) {
+      rest.append(token, 0, tokenLength);
+      tokenLoaded = false;
+    }
+    while (true) {
+      int c = nextChar();
+      if (c == -1) {
+        break;
+      } else if (c == '\n' || c == '\r') {
+        unread(c);
+        break;
+      }
+      rest.append((char) c);
+    }
+    return rest.toString();
+  }
+
+  /**
+   * Skips whatever is left of the current line and moves to the start of the next one.
+   * @return  True if there is a next line, false if this was the last line of the input.
+   */
+  public boolean nextLine() {
+    tokenLoaded = false;
+    while (true) {
+      int c = nextChar();
+      if (c == -1) {
+        return false;
+      } else if (c == '\r') {
+        // A \r\n line ending counts as one.
+        int n = nextChar();
+        if (n != '\n' && n != -1) {
+          unread(n);
+        }
+        return true;
+      } else if (c == '\n') {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Gives the line number of the upcoming token, or of the last token if it has been used up.
+   * Lines are numbered from 1.
+   * @return  The line number.
+   */
+  public int getLine() {
+    return tokenLine;
+  }
+}
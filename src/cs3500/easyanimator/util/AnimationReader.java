@@ -3,8 +3,6 @@ package cs3500.easyanimator.util;
 import cs3500.easyanimator.util.AnimationBuilder;
 
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Pattern;
 
 /**
  * A helper to read animation data and construct an animation from it.
@@ -36,9 +34,23 @@ public class AnimationReader {
   public static <Doc> Doc parseFile(Readable readable, AnimationBuilder<Doc> builder) {
     Objects.requireNonNull(readable, "Must have non-null readable source");
     Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
-    Scanner s = new Scanner(readable);
-    // Split at whitespace, and ignore # comment lines
-    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+")); 
+    return parse(new ReadableAnimationLexer(readable, false), builder);
+  }
+
+  /**
+   * Reads an animation from the tokens of the given lexer, see
+   * {@link #parseFile(Readable, AnimationBuilder)} for the format. The lexer should not be in
+   * line mode, this format doesn't care about lines.
+   *
+   * @param s        The lexer to read tokens from.
+   * @param builder  A builder for helping to construct a new animation
+   * @param <Doc>    The main model interface type describing animations
+   * @return         The animation the builder built.
+   */
+  public static <Doc> Doc parse(AnimationLexer s, AnimationBuilder<Doc> builder) {
+    Objects.requireNonNull(s, "Must have non-null lexer source");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    // The lexer splits at whitespace, and ignores # comments.
     while (s.hasNext()) {
       String word = s.next();
       switch (word) {
@@ -52,13 +64,13 @@ public class AnimationReader {
           readMotion(s, builder);
           break;
         default:
-          throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
+          throw new IllegalStateException("Unexpected keyword: " + word + s.restOfLine());
       }
     }
     return builder.build();
   }
 
-  private static <Doc> void readCanvas(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readCanvas(AnimationLexer s, AnimationBuilder<Doc> builder) {
     int[] vals = new int[4];
     String[] fieldNames = {"left", "top", "width", "height"};
     for (int i = 0; i < 4; i++) {
@@ -67,7 +79,7 @@ public class AnimationReader {
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <Doc> void readShape(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readShape(AnimationLexer s, AnimationBuilder<Doc> builder) {
     String name;
     String type;
     if (s.hasNext()) {
@@ -83,8 +95,7 @@ public class AnimationReader {
     builder.declareShape(name, type);
   }
 
-  private static <Doc> void readMotion(Scanner s, AnimationBuilder<Doc> builder) {
-    String[] fieldNames = new String[]{
+  private static final String[] MOTION_FIELD_NAMES = new String[]{
       "initial time",
       "initial x-coordinate", "initial y-coordinate",
       "initial width", "initial height",
@@ -93,7 +104,9 @@ public class AnimationReader {
       "final x-coordinate", "final y-coordinate",
       "final width", "final height",
       "final red value", "final green value", "final blue value",
-    };
+  };
+
+  private static <Doc> void readMotion(AnimationLexer s, AnimationBuilder<Doc> builder) {
     int[] vals = new int[16];
     String name;
     if (s.hasNext()) {
@@ -102,14 +115,14 @@ public class AnimationReader {
       throw new IllegalStateException("Motion: Expected a shape name, but no more input available");
     }
     for (int i = 0; i < 16; i++) {
-      vals[i] = getInt(s, "Motion", fieldNames[i]);
+      vals[i] = getInt(s, "Motion", MOTION_FIELD_NAMES[i]);
     }
     builder.addMotion(name,
             vals[0], vals[1], vals[2 ], vals[3 ], vals[4 ], vals[5 ], vals[6 ], vals[7 ],
             vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15]);
   }
   
-  private static int getInt(Scanner s, String label, String fieldName) {
+  private static int getInt(AnimationLexer s, String label, String fieldName) {
     if (s.hasNextInt()) {
       return s.nextInt();
     } else if (s.hasNext()) {
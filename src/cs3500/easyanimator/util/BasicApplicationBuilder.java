@@ -1,9 +1,16 @@
 package cs3500.easyanimator.util;
 
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import cs3500.easyanimator.controller.MVCController;
 import cs3500.easyanimator.layersimplementation.controller.LayerMVCController;
@@ -13,12 +20,15 @@ import cs3500.easyanimator.model.EasyAnimator;
 import cs3500.easyanimator.model.IAnimatorModel;
 import cs3500.easyanimator.model.ILayeredAnimatorModel;
 import cs3500.easyanimator.model.LayeredAnimatorModel;
+import cs3500.easyanimator.model.OffHeapAnimator;
 import cs3500.easyanimator.model.Point;
 import cs3500.easyanimator.model.layers.BasicLayer;
 import cs3500.easyanimator.model.layers.ILayer;
 import cs3500.easyanimator.model.shapes.WidthHeight;
 import cs3500.easyanimator.view.BasicViewFactory;
+import cs3500.easyanimator.view.BinaryAnimationView;
 import cs3500.easyanimator.view.EditorSwingView;
+import cs3500.easyanimator.view.FrameExportView;
 import cs3500.easyanimator.view.IAnimatorView;
 
 /**
@@ -27,25 +37,109 @@ import cs3500.easyanimator.view.IAnimatorView;
  * the output when going to the factory.
  */
 public class BasicApplicationBuilder implements IApplicationBuilder {
-  private FileReader inputReader; // Necessary to close.
-  private Readable input;
-  private FileWriter outputWriter; // This is necessary to close it. I'd love to not keep it.
+  private FileChannel input; // Mapped into memory and read once we know which format it is.
+  private Writer outputWriter; // This is necessary to close it. I'd love to not keep it.
   private Appendable output = System.out; // These parameters have defaults.
+  private OutputStream outputStream = System.out; // The same output, for the binary view.
+  private Path outputDirectory; // Set instead of the above when the output is a directory.
   private double speed = 1; // These parameters have defaults.
+  private String store = "heap";
   private String viewType;
 
   @Override
   public void setInput(String pathname) throws FileNotFoundException {
-    this.inputReader = new FileReader(pathname);
-    this.input = this.inputReader;
+    if (this.input != null) {
+      try {
+        this.input.close(); // Like the output, we don't forget a file we opened here.
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+    this.input = new FileInputStream(pathname).getChannel();
+  }
+
+  /**
+   * A private helper to close the input file once it's been read.
+   */
+  private void closeInput() {
+    try {
+      input.close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * A private helper to read the input file, in the binary or text format, as a layered model.
+   * @return  The model of the input file.
+   * @throws IllegalStateException If the input file can't be read.
+   */
+  private ILayeredAnimatorModel readLayeredInput() throws IllegalStateException {
+    try {
+      if (BinaryAnimationReader.isBinary(input)) {
+        return BinaryAnimationReader.readFile(input, this::newModel);
+      }
+      AdvancedAnimationBuilder<ILayeredAnimatorModel> builder =
+              new LayeredAnimatorModelBuilder("Base", this::newModel);
+      return new ParallelAnimationLoader().loadAdvanced(input, builder);
+    } finally {
+      closeInput();
+    }
+  }
+
+  /**
+   * A private helper to read the input file, in the binary or text format, as a single model.
+   * @return  The model of the input file.
+   * @throws IllegalStateException If the input file can't be read, or has more than one layer.
+   */
+  private IAnimatorModel readInput() throws IllegalStateException {
+    try {
+      if (BinaryAnimationReader.isBinary(input)) {
+        ILayeredAnimatorModel layered = BinaryAnimationReader.readFile(input, this::newModel);
+        if (layered.getLayers().size() != 1) {
+          throw new IllegalStateException("Unable to show an animation with layers in the "
+                  + viewType + " view, use the edit view.");
+        }
+        return layered.getLayer(0).getModel();
+      }
+      AnimationBuilder<IAnimatorModel> modelBuilder = new EasyAnimatorModelBuilder(newModel());
+      return new ParallelAnimationLoader().load(input, modelBuilder);
+    } finally {
+      closeInput();
+    }
+  }
+
+  /**
+   * A private helper to make an empty model for the input, keeping its keyframes in the store.
+   * @return  The new model.
+   */
+  private IAnimatorModel newModel() {
+    switch (store) {
+      case "heap":
+        return new EasyAnimator();
+      case "direct":
+        return new OffHeapAnimator();
+      default:
+        return new OffHeapAnimator(Paths.get(store));
+    }
   }
 
   @Override
   public void setOutput(String pathname) throws IOException {
     if (this.outputWriter != null) {
       this.outputWriter.close(); // We don't forget to close the writer we opened here.
+      this.outputWriter = null;
+    }
+    Path path = Paths.get(pathname);
+    if (Files.isDirectory(path)) {
+      // Only the frames view can write into a directory, we find out if it's that one at launch.
+      this.outputDirectory = path;
+      return;
     }
-    this.outputWriter = new FileWriter(pathname, false);
+    this.outputDirectory = null;
+    FileOutputStream stream = new FileOutputStream(pathname, false);
+    this.outputStream = stream;
+    this.outputWriter = new OutputStreamWriter(stream);
     this.output = this.outputWriter; // This does the needed cast to appendable.
   }
 
@@ -66,6 +160,15 @@ public class BasicApplicationBuilder implements IApplicationBuilder {
     this.speed = s;
   }
 
+  @Override
+  public void setStore(String store) throws IllegalArgumentException {
+    if (!store.equals("heap") && !store.equals("direct") && !Files.isDirectory(Paths.get(store))) {
+      throw new IllegalArgumentException("Unable to keep keyframes in " + store
+              + ", it should be heap, direct or a directory.");
+    }
+    this.store = store;
+  }
+
   @Override
   public void launch() throws IllegalStateException {
     // We need the output for the text views. So it is supplied to the factory.
@@ -82,15 +185,11 @@ public class BasicApplicationBuilder implements IApplicationBuilder {
       ILayeredAnimatorModel model;
       if (input == null) {
         model = new LayeredAnimatorModel();
-        ILayer base = new BasicLayer("Base", true, new EasyAnimator());
-        base.getModel().setCanvas(new Point(0, 0), new WidthHeight(800, 600));
+        ILayer base = new BasicLayer("Base", true, newModel());
+        base.getModel().setCanvas(Point.of(0, 0), WidthHeight.of(800, 600));
         model.addLayer(base);
       } else {
-        AdvancedAnimationBuilder<ILayeredAnimatorModel> builder =
-                new LayeredAnimatorModelBuilder("Base");
-        new AdvancedAnimationReader().parseFile(input, builder);
-        model = builder.build();
-
+        model = readLayeredInput();
       }
       int canvasX = model.getCanvasSize().getWidth();
       int canvasY = model.getCanvasSize().getHeight();
@@ -102,16 +201,28 @@ public class BasicApplicationBuilder implements IApplicationBuilder {
       return;
     }
 
+    if (outputDirectory != null && !viewType.equals("frames")) {
+      throw new IllegalStateException("Unable to write the " + viewType
+              + " view into a directory.");
+    }
+
+    // The binary format keeps layers, so we read the input like the edit view does.
+    if (viewType.equals("binary")) {
+      IAnimatorView view = new BinaryAnimationView(outputStream);
+      view.setModel(readLayeredInput());
+      view.makeVisible();
+      closeOutput();
+      return;
+    }
+
     IAnimatorModel model;
     if (input == null) {
       // If we start without an input, for the edit view, then we wish to spin up a new model.
-      model = new EasyAnimator();
-      model.setCanvas(new Point(0, 0), new WidthHeight(800, 600));
+      model = newModel();
+      model.setCanvas(Point.of(0, 0), WidthHeight.of(800, 600));
     } else {
       // Let's prepare the model wherever its going.
-      AnimationBuilder<IAnimatorModel> modelBuilder = new EasyAnimatorModelBuilder();
-      new AnimationReader().parseFile(input, modelBuilder);
-      model = modelBuilder.build();
+      model = readInput();
     }
 
     if (viewType.equals("oldedit")) {
@@ -122,7 +233,12 @@ public class BasicApplicationBuilder implements IApplicationBuilder {
     } else {
       IAnimatorView view;
       try {
-        view = new BasicViewFactory().getView(this.viewType, this.output);
+        if (outputDirectory != null) {
+          // The frames view writes a PNG for each frame when given a directory.
+          view = new FrameExportView(FrameExportView.pngSequence(outputDirectory));
+        } else {
+          view = new BasicViewFactory().getView(this.viewType, this.output, this.outputStream);
+        }
       } catch (IllegalArgumentException iae) {
         throw new IllegalStateException("Unable to use the set view type " + this.viewType);
       }
@@ -134,7 +250,13 @@ public class BasicApplicationBuilder implements IApplicationBuilder {
       view.makeVisible();
     }
 
-    // If we opened a file writer we have to close it to get those writes out.
+    closeOutput();
+  }
+
+  /**
+   * A private helper to close the output file, if we opened one, to get the writes out.
+   */
+  private void closeOutput() {
     if (outputWriter != null) {
       try {
         outputWriter.close();
@@ -142,13 +264,5 @@ public class BasicApplicationBuilder implements IApplicationBuilder {
         e.printStackTrace();
       }
     }
-
-    if (inputReader != null) {
-      try {
-        inputReader.close();
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
-    }
   }
 }
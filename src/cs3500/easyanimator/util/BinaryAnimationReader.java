@@ -0,0 +1,253 @@
+package cs3500.easyanimator.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import cs3500.easyanimator.model.Color;
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.model.LayeredAnimatorModel;
+import cs3500.easyanimator.model.Point;
+import cs3500.easyanimator.model.layers.BasicLayer;
+import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.Oval;
+import cs3500.easyanimator.model.shapes.Rectangle;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.view.BinaryAnimationView;
+
+/**
+ * A helper to read animations in the binary format written by {@link BinaryAnimationView}. Unlike
+ * the text readers this doesn't go through a builder, the models are filled in straight from the
+ * keyframes in the file.
+ */
+public class BinaryAnimationReader {
+
+  // The same stand in state the builders give shapes, only their type matters.
+  private static final WidthHeight DEFAULT_SIZE = WidthHeight.of(100, 100);
+  private static final Color DEFAULT_COLOR = Color.of(100, 100, 100);
+  private static final Point DEFAULT_POSITION = Point.of(-100, -100);
+
+  /**
+   * Checks whether the given file is a binary animation, by its first bytes. The position of the
+   * file is left where it was.
+   * @param input The file to check.
+   * @return      True if the file starts like a binary animation.
+   * @throws IllegalStateException If the file can't be read.
+   */
+  public static boolean isBinary(FileChannel input) throws IllegalStateException {
+    Objects.requireNonNull(input, "Must have non-null file source");
+    ByteBuffer start = ByteBuffer.allocate(BinaryAnimationView.MAGIC.length);
+    try {
+      while (start.hasRemaining() && input.read(start, start.position()) > 0) {
+        // Keep reading until we have enough bytes, or the file runs out.
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read the animation input.", e);
+    }
+    return !start.hasRemaining() && start.flip().equals(ByteBuffer.wrap(BinaryAnimationView.MAGIC));
+  }
+
+  /**
+   * Reads a whole binary animation file.
+   * @param input The file to read, it's left open.
+   * @return      The animation, with a layer for each layer of the file.
+   * @throws IllegalStateException If the file can't be read or isn't a binary animation.
+   */
+  public static ILayeredAnimatorModel readFile(FileChannel input) throws IllegalStateException {
+    return readFile(input, EasyAnimator::new);
+  }
+
+  /**
+   * Reads a whole binary animation file, into layers made by the given supplier.
+   * @param input   The file to read, it's left open.
+   * @param models  Makes an empty model for each layer.
+   * @return        The animation, with a layer for each layer of the file.
+   * @throws IllegalStateException If the file can't be read or isn't a binary animation.
+   */
+  public static ILayeredAnimatorModel readFile(FileChannel input,
+                                               Supplier<? extends IAnimatorModel> models)
+          throws IllegalStateException {
+    Objects.requireNonNull(input, "Must have non-null file source");
+    ByteBuffer bytes;
+    try {
+      if (input.size() > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Unable to read a binary animation over 2GB.");
+      }
+      bytes = input.map(FileChannel.MapMode.READ_ONLY, 0, input.size());
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read the animation input.", e);
+    }
+    return read(bytes, models);
+  }
+
+  /**
+   * Reads a binary animation from the remaining bytes of the given buffer.
+   * @param bytes The bytes of the animation.
+   * @return      The animation, with a layer for each layer of the file.
+   * @throws IllegalStateException If the bytes aren't a binary animation.
+   */
+  public static ILayeredAnimatorModel read(ByteBuffer bytes) throws IllegalStateException {
+    return read(bytes, EasyAnimator::new);
+  }
+
+  /**
+   * Reads a binary animation from the remaining bytes of the given buffer, into layers made by the
+   * given supplier.
+   * @param bytes   The bytes of the animation.
+   * @param models  Makes an empty model for each layer.
+   * @return        The animation, with a layer for each layer of the file.
+   * @throws IllegalStateException If the bytes aren't a binary animation.
+   */
+  public static ILayeredAnimatorModel read(ByteBuffer bytes,
+                                           Supplier<? extends IAnimatorModel> models)
+          throws IllegalStateException {
+    Objects.requireNonNull(bytes, "Must have non-null buffer source");
+    Objects.requireNonNull(models, "Must have non-null model source");
+    try {
+      return readLayers(bytes, models);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalStateException("Unable to read a binary animation that ends early.");
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IllegalStateException("Unable to read a malformed binary animation.", e);
+    }
+  }
+
+  /**
+   * A private helper doing the actual reading, any exception it lets out means a bad file.
+   */
+  private static ILayeredAnimatorModel readLayers(ByteBuffer bytes,
+                                                  Supplier<? extends IAnimatorModel> models) {
+    for (byte magic : BinaryAnimationView.MAGIC) {
+      if (bytes.get() != magic) {
+        throw new IllegalStateException("Unable to read a file that isn't a binary animation.");
+      }
+    }
+    int version = single(bytes);
+    if (version != BinaryAnimationView.VERSION) {
+      throw new IllegalStateException("Unable to read version " + version
+              + " of the binary animation format.");
+    }
+
+    String[] strings = new String[count(bytes)];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] string = new byte[count(bytes)];
+      bytes.get(string);
+      strings[i] = new String(string, StandardCharsets.UTF_8);
+    }
+
+    int layerCount = count(bytes);
+    IAnimatorModel[] layerModels = new IAnimatorModel[layerCount];
+    int[] shapeCounts = new int[layerCount];
+    ILayeredAnimatorModel model = new LayeredAnimatorModel();
+    for (int i = 0; i < layerCount; i++) {
+      String name = strings[varint(bytes)];
+      boolean visibility = single(bytes) != 0;
+      Point corner = Point.of(signed(bytes), signed(bytes));
+      WidthHeight size = WidthHeight.of(signed(bytes), signed(bytes));
+      shapeCounts[i] = count(bytes);
+      layerModels[i] = models.get();
+      layerModels[i].setCanvas(corner, size);
+      model.addLayer(new BasicLayer(name, visibility, layerModels[i]));
+    }
+
+    // We reuse the columns between shapes, growing them when a shape has more keyframes.
+    int[][] columns = new int[8][16];
+    for (int i = 0; i < layerCount; i++) {
+      for (int s = 0; s < shapeCounts[i]; s++) {
+        String name = strings[varint(bytes)];
+        int type = single(bytes);
+        layerModels[i].addShape(name, makeShape(type, DEFAULT_SIZE, DEFAULT_POSITION,
+                DEFAULT_COLOR));
+        int count = count(bytes);
+        if (count > columns[0].length) {
+          columns = new int[8][count];
+        }
+        for (int column = 0; column < 8; column++) {
+          int[] values = columns[column];
+          int value = 0;
+          for (int k = 0; k < count; k++) {
+            // Ticks only go up so they aren't zigzag encoded like the rest.
+            value += column == 0 ? varint(bytes) : signed(bytes);
+            values[k] = value;
+          }
+        }
+        SortedMap<Integer, IShape> keyframes = new TreeMap<>();
+        for (int k = 0; k < count; k++) {
+          keyframes.put(columns[0][k], makeShape(type,
+                  WidthHeight.of(columns[3][k], columns[4][k]),
+                  Point.of(columns[1][k], columns[2][k]),
+                  Color.of(columns[5][k], columns[6][k], columns[7][k])));
+        }
+        layerModels[i].addKeyframes(name, keyframes);
+      }
+    }
+    if (bytes.hasRemaining()) {
+      throw new IllegalStateException("Unable to read a binary animation with trailing bytes.");
+    }
+    return model;
+  }
+
+  /**
+   * A private helper to make a shape of the given type from the file.
+   */
+  private static IShape makeShape(int type, WidthHeight size, Point position, Color color) {
+    switch (type) {
+      case FrameBuffer.RECTANGLE:
+        return new Rectangle(size, position, color);
+      case FrameBuffer.OVAL:
+        return new Oval(size, position, color);
+      default:
+        throw new IllegalStateException("Unable to read a shape of unknown type " + type + ".");
+    }
+  }
+
+  /**
+   * A private helper to read a single unsigned byte.
+   */
+  private static int single(ByteBuffer bytes) {
+    return bytes.get() & 0xFF;
+  }
+
+  /**
+   * A private helper to read an unsigned varint.
+   */
+  private static int varint(ByteBuffer bytes) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = bytes.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("Unable to read a malformed binary animation.");
+  }
+
+  /**
+   * A private helper to read a zigzag encoded signed varint.
+   */
+  private static int signed(ByteBuffer bytes) {
+    int value = varint(bytes);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * A private helper to read a count, which can't be more than there are bytes left.
+   */
+  private static int count(ByteBuffer bytes) {
+    int count = varint(bytes);
+    if (count < 0 || count > bytes.remaining()) {
+      throw new IllegalStateException("Unable to read a malformed binary animation.");
+    }
+    return count;
+  }
+}
@@ -0,0 +1,64 @@
+package cs3500.easyanimator.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A ByteBufferAnimationLexer is an AnimationLexer reading bytes straight out of ByteBuffers, with
+ * no character decoding. The animation format is ASCII, so each byte is taken as a character.
+ * Names that do use other bytes are decoded as UTF-8 when they are turned into Strings.
+ *
+ * <p>The input can be split over several buffers, see {@link #nextBuffer()}. A token may run
+ * across the end of one buffer into the next.</p>
+ */
+public class ByteBufferAnimationLexer extends AnimationLexer {
+  private ByteBuffer buffer;
+
+  /**
+   * Create a new lexer reading the remaining bytes of the given buffer. The buffer's position is
+   * moved as it is read.
+   * @param buffer    The bytes of the animation.
+   * @param lineMode  Whether to keep to one line at a time (true) or read tokens across lines.
+   */
+  public ByteBufferAnimationLexer(ByteBuffer buffer, boolean lineMode) {
+    super(lineMode);
+    this.buffer = Objects.requireNonNull(buffer, "Must have non-null buffer source");
+  }
+
+  @Override
+  protected int read() {
+    while (!buffer.hasRemaining()) {
+      ByteBuffer next = nextBuffer();
+      if (next == null) {
+        return -1;
+      }
+      buffer = next;
+    }
+    return buffer.get() & 0xFF;
+  }
+
+  /**
+   * Gives the buffer to read once the current one is used up. By default there is only the one
+   * buffer given to the constructor.
+   * @return  The next buffer of the input, or null if there is no more input.
+   */
+  protected ByteBuffer nextBuffer() {
+    return null;
+  }
+
+  @Override
+  protected String makeString(char[] chars, int length) {
+    for (int i = 0; i < length; i++) {
+      if (chars[i] >= 0x80) {
+        // Not ASCII, so put the bytes back together and decode them properly.
+        byte[] bytes = new byte[length];
+        for (int j = 0; j < length; j++) {
+          bytes[j] = (byte) chars[j];
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    }
+    return super.makeString(chars, length);
+  }
+}
@@ -25,16 +25,29 @@ public class EasyAnimatorModelBuilder implements AnimationBuilder<IAnimatorModel
 
   // We will use these defaults when creating shapes because our model mismatches the text
   // description a little bit in that they don't work without motions.
-  private static WidthHeight defaultSize = new WidthHeight(100, 100);
-  private static Color defaultColor = new Color(100, 100, 100);
-  private static Point defaultPosition = new Point(-100, -100);
+  private static WidthHeight defaultSize = WidthHeight.of(100, 100);
+  private static Color defaultColor = Color.of(100, 100, 100);
+  private static Point defaultPosition = Point.of(-100, -100);
   private Map<String, String> shapes;
 
   /**
    * Construct a new EasyAnimatorBuilder. This initializes all the things we will need.
    */
   public EasyAnimatorModelBuilder() {
-    this.model = new EasyAnimator();
+    this(new EasyAnimator());
+  }
+
+  /**
+   * Construct a new EasyAnimatorBuilder that builds into the given model, for when an animation
+   * should be read into some other implementation, like an OffHeapAnimator for very big ones.
+   * @param model The model to build into, this is expected to be empty.
+   * @throws IllegalArgumentException If the model is uninitialized.
+   */
+  public EasyAnimatorModelBuilder(IAnimatorModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Unable to build into an uninitialized model.");
+    }
+    this.model = model;
     this.shapes = new HashMap<>();
   }
 
@@ -45,7 +58,7 @@ public class EasyAnimatorModelBuilder implements AnimationBuilder<IAnimatorModel
 
   @Override
   public AnimationBuilder<IAnimatorModel> setBounds(int x, int y, int width, int height) {
-    this.model.setCanvas(new Point(x, y), new WidthHeight(width, height));
+    this.model.setCanvas(Point.of(x, y), WidthHeight.of(width, height));
     return this;
   }
 
@@ -71,9 +84,9 @@ public class EasyAnimatorModelBuilder implements AnimationBuilder<IAnimatorModel
       return this;
     }
     this.model.addMotion(name, new BasicMotion(t1, t2,
-            new WidthHeight(w1, h1), new WidthHeight(w2, h2),
-            new Point(x1, y1), new Point(x2, y2),
-            new Color(r1, g1, b1), new Color(r2, g2, b2)));
+            WidthHeight.of(w1, h1), WidthHeight.of(w2, h2),
+            Point.of(x1, y1), Point.of(x2, y2),
+            Color.of(r1, g1, b1), Color.of(r2, g2, b2)));
     return this;
   }
 
@@ -85,9 +98,9 @@ public class EasyAnimatorModelBuilder implements AnimationBuilder<IAnimatorModel
     if (shapes.containsKey(name)) {
       model.addKeyframe(name,
               shapeFactory.getShape(shapes.get(name),
-                      new WidthHeight(w, h),
-                      new Point(x, y),
-                      new Color(r, g, b)),
+                      WidthHeight.of(w, h),
+                      Point.of(x, y),
+                      Color.of(r, g, b)),
               t);
     }
     return this;
@@ -35,6 +35,14 @@ public interface IApplicationBuilder {
    */
   void setSpeed(String speed) throws IllegalArgumentException;
 
+  /**
+   * Set where the model keeps its keyframes, for animations too big for the heap.
+   * @param store Either heap (the default), direct for memory outside the heap, or the path of a
+   *              directory to keep them in a file mapped into memory.
+   * @throws IllegalArgumentException If the given store is invalid.
+   */
+  void setStore(String store) throws IllegalArgumentException;
+
   /**
    * Launch the application with the parameters supplied.
    *
@@ -2,6 +2,7 @@ package cs3500.easyanimator.util;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import cs3500.easyanimator.model.Color;
 import cs3500.easyanimator.model.EasyAnimator;
@@ -32,6 +33,12 @@ public class LayeredAnimatorModelBuilder
   private final ILayer baseLayer;
   // We use the following map to remember types.
   private final Map<String, String> shapes;
+  // Every shape and layer goes through us while building, so we can index them by name instead of
+  // searching the layers on every line of a file.
+  private final Map<String, ILayer> shapeLayers;
+  private final Map<String, ILayer> layers;
+  // Makes the model of the base layer and of every layer declared.
+  private final Supplier<? extends IAnimatorModel> models;
 
   // We will apply these canvas properties over all the layers eventually.
   private Point canvasOffset;
@@ -42,16 +49,33 @@ public class LayeredAnimatorModelBuilder
    * @param name  The name of the base layer.
    */
   public LayeredAnimatorModelBuilder(String name) {
+    this(name, EasyAnimator::new);
+  }
+
+  /**
+   * Create a new LayeredAnimatorModelBuilder with the given default base layer name, with layers
+   * made by the given supplier.
+   * @param name    The name of the base layer.
+   * @param models  Makes an empty model for the base layer and each layer declared.
+   */
+  public LayeredAnimatorModelBuilder(String name, Supplier<? extends IAnimatorModel> models) {
     if (name == null) {
       throw new IllegalArgumentException("Unable to create a base layer with a null name.");
     }
+    if (models == null) {
+      throw new IllegalArgumentException("Unable to make layers without a supplier of models.");
+    }
+    this.models = models;
     // I use a map since it's easier than checking a list of layers for their name property.
     // I will add the entry set of the layers when I build.
-    IAnimatorModel baseModel = new EasyAnimator();
+    IAnimatorModel baseModel = models.get();
     baseLayer = new BasicLayer(name, true, baseModel);
     model = new LayeredAnimatorModel();
     model.addLayer(baseLayer);
     shapes = new HashMap<>();
+    shapeLayers = new HashMap<>();
+    layers = new HashMap<>();
+    layers.put(name, baseLayer);
   }
 
   /**
@@ -60,12 +84,7 @@ public class LayeredAnimatorModelBuilder
    * @return      The layer containing the named shape, or null.
    */
   private ILayer getShapeLayer(String name) {
-    for (ILayer layer: model.getLayers()) {
-      if (layer.getModel().getShapeNames().contains(name)) {
-        return layer;
-      }
-    }
-    return null;
+    return shapeLayers.get(name);
   }
 
   /**
@@ -74,12 +93,7 @@ public class LayeredAnimatorModelBuilder
    * @return     The layer with that name or null if it doesn't exist.
    */
   public ILayer getLayer(String name) {
-    for (ILayer layer: model.getLayers()) {
-      if (layer.getName().equals(name)) {
-        return layer;
-      }
-    }
-    return null;
+    return layers.get(name);
   }
 
   @Override
@@ -88,16 +102,17 @@ public class LayeredAnimatorModelBuilder
     if (getLayer(name) != null) {
       throw new IllegalStateException("A layer with that name already exists.");
     }
-    ILayer newLayer = new BasicLayer(name, visibility, new EasyAnimator());
+    ILayer newLayer = new BasicLayer(name, visibility, models.get());
     model.addLayer(newLayer);
+    layers.put(name, newLayer);
     return this;
   }
 
   private static IShapeFactory SHAPE_FACTORY = new BasicShapeFactory();
 
-  private static WidthHeight DEFAULT_SIZE = new WidthHeight(100, 100);
-  private static Color DEFAULT_COLOR = new Color(100, 100, 100);
-  private static Point DEFAULT_POSITION = new Point(-100, -100);
+  private static WidthHeight DEFAULT_SIZE = WidthHeight.of(100, 100);
+  private static Color DEFAULT_COLOR = Color.of(100, 100, 100);
+  private static Point DEFAULT_POSITION = Point.of(-100, -100);
 
   /**
    * A private helper method to declare a shape once we have a pointer to a layer.
@@ -111,6 +126,7 @@ public class LayeredAnimatorModelBuilder
     layer.getModel().addShape(name, SHAPE_FACTORY.getShape(type,
             DEFAULT_SIZE, DEFAULT_POSITION, DEFAULT_COLOR));
     shapes.put(name, type);
+    shapeLayers.put(name, layer);
     return this;
   }
 
@@ -155,9 +171,9 @@ public class LayeredAnimatorModelBuilder
       throw new IllegalStateException("Unable to create a motion for an undefined shape.");
     }
     IMotion motion = new BasicMotion(t1, t2,
-            new WidthHeight(w1, h1), new WidthHeight(w2, h2),
-            new Point(x1, y1), new Point(x2, y2),
-            new Color(r1, g1, b1), new Color(r2, g2, b2));
+            WidthHeight.of(w1, h1), WidthHeight.of(w2, h2),
+            Point.of(x1, y1), Point.of(x2, y2),
+            Color.of(r1, g1, b1), Color.of(r2, g2, b2));
     shapeLayer.getModel().addMotion(name, motion);
     return this;
   }
@@ -193,9 +209,9 @@ public class LayeredAnimatorModelBuilder
     }
     shapeLayer.getModel().addKeyframe(name,
             SHAPE_FACTORY.getShape(shapes.get(name),
-                    new WidthHeight(w, h),
-                    new Point(x, y),
-                    new Color(r, g, b)),
+                    WidthHeight.of(w, h),
+                    Point.of(x, y),
+                    Color.of(r, g, b)),
             t);
     return this;
   }
@@ -211,8 +227,8 @@ public class LayeredAnimatorModelBuilder
   @Override
   public AdvancedAnimationBuilder<ILayeredAnimatorModel> setBounds(int x, int y,
                                                                    int width, int height) {
-    this.canvasOffset = new Point(x, y);
-    this.canvasWH = new WidthHeight(width, height);
+    this.canvasOffset = Point.of(x, y);
+    this.canvasWH = WidthHeight.of(width, height);
     return this;
   }
 
@@ -0,0 +1,75 @@
+package cs3500.easyanimator.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * A MappedAnimationLexer reads an animation file by memory mapping it, so the bytes go from the
+ * page cache straight to the lexer with no copying, decoding or buffering in between.
+ *
+ * <p>The file is mapped one window at a time. A single mapping can't be larger than 2GB, and
+ * pages of a mapping that have been read stay part of the process until it is unmapped, so
+ * smaller windows keep a large file from all being resident at once. Windows are unmapped when
+ * they are garbage collected. Closing the lexer closes the file.</p>
+ */
+public class MappedAnimationLexer extends ByteBufferAnimationLexer implements Closeable {
+  // 64MB.
+  private static final long WINDOW_SIZE = 1L << 26;
+
+  private final FileChannel channel;
+  private final long size;
+  private long mapped;
+
+  /**
+   * Create a new lexer reading the whole of the given file, from the start.
+   * @param channel   An open channel of the file to read, the lexer takes over closing it.
+   * @param lineMode  Whether to keep to one line at a time (true) or read tokens across lines.
+   * @throws IOException If the file can't be mapped.
+   */
+  public MappedAnimationLexer(FileChannel channel, boolean lineMode) throws IOException {
+    this(channel, 0, lineMode);
+  }
+
+  /**
+   * Create a new lexer reading the rest of the given file from the given position, which should
+   * be the start of a line.
+   * @param channel   An open channel of the file to read, the lexer takes over closing it.
+   * @param position  Where in the file to start reading.
+   * @param lineMode  Whether to keep to one line at a time (true) or read tokens across lines.
+   * @throws IOException If the file can't be mapped.
+   * @throws IllegalArgumentException If the position is outside of the file.
+   */
+  public MappedAnimationLexer(FileChannel channel, long position, boolean lineMode)
+          throws IOException {
+    super(ByteBuffer.allocate(0), lineMode);
+    this.channel = Objects.requireNonNull(channel, "Must have non-null file source");
+    this.size = channel.size();
+    if (position < 0 || position > size) {
+      throw new IllegalArgumentException("Unable to start reading outside of the file.");
+    }
+    this.mapped = position;
+  }
+
+  @Override
+  protected ByteBuffer nextBuffer() {
+    if (mapped >= size) {
+      return null;
+    }
+    long length = Math.min(WINDOW_SIZE, size - mapped);
+    try {
+      ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+      mapped += length;
+      return window;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to map the animation input.", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,530 @@
+package cs3500.easyanimator.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A ParallelAnimationLoader reads large animation files using many threads. The file is split
+ * into chunks at line breaks, and each chunk is read on a fork join pool by the usual reader
+ * (AnimationReader or AdvancedAnimationReader) into a batch of recorded commands. The batches are
+ * then replayed into the real builder in the order of the file, so the builder sees exactly the
+ * calls it would have from reading the file front to back.
+ *
+ * <p>A chunk that fails to read, because it has a mistake or because a command of the basic
+ * format runs across the line break it was split at, is read again along with the rest of the
+ * file by a single lexer, after the chunks before it are replayed. So a file is either read the
+ * same as it would have been one token at a time, or refused with the same error. Errors are
+ * given as IllegalStateExceptions with the line of the mistake in front of the message, like
+ * "Line 12: Motion: expected integer for final time, got: x". Errors from the builder get a line
+ * number the same way.</p>
+ *
+ * <p>Small files aren't worth splitting, and are read by a single lexer straight away. So are
+ * all files when the pool only has one thread.</p>
+ */
+public final class ParallelAnimationLoader {
+  // Chunks are big enough that splitting costs nothing next to reading them.
+  private static final long MIN_CHUNK_SIZE = 1L << 20;
+  // And small enough that there are plenty of them to share out between threads.
+  private static final long MAX_CHUNK_SIZE = 1L << 24;
+  // A batch takes about as much memory as its chunk of text, this keeps the batches read ahead of
+  // the one being replayed from growing with the number of threads.
+  private static final long MAX_BYTES_IN_FLIGHT = 1L << 28;
+
+  private final ForkJoinPool pool;
+  private final long chunkSize; // Or 0 to pick one for each file.
+
+  /**
+   * Create a new loader reading chunks on the common fork join pool.
+   */
+  public ParallelAnimationLoader() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a new loader reading chunks on the given pool.
+   * @param pool  The pool to read chunks on.
+   */
+  public ParallelAnimationLoader(ForkJoinPool pool) {
+    this.pool = Objects.requireNonNull(pool, "Must have non-null pool");
+    this.chunkSize = 0;
+  }
+
+  /**
+   * Create a new loader reading chunks of about the given size on the given pool. Usually it's
+   * best to let the loader pick the size, this is for testing how files are split.
+   * @param pool      The pool to read chunks on.
+   * @param chunkSize The number of bytes to aim for in a chunk.
+   * @throws IllegalArgumentException If the chunk size isn't positive.
+   */
+  public ParallelAnimationLoader(ForkJoinPool pool, long chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Unable to split files into empty chunks.");
+    }
+    this.pool = Objects.requireNonNull(pool, "Must have non-null pool");
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Reads an animation in the format of {@link AnimationReader}.
+   * @param input   The file to read, it's left open.
+   * @param builder A builder for helping to construct a new animation.
+   * @param <Doc>   The main model interface type describing animations.
+   * @return        The animation the builder built.
+   * @throws IllegalStateException If the file can't be read or has a mistake in it.
+   */
+  public <Doc> Doc load(FileChannel input, AnimationBuilder<Doc> builder)
+          throws IllegalStateException {
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    return load(input, builder, false);
+  }
+
+  /**
+   * Reads an animation in the format of {@link AdvancedAnimationReader}.
+   * @param input   The file to read, it's left open.
+   * @param builder A builder for helping to construct a new animation.
+   * @param <Doc>   The main model interface type describing animations.
+   * @return        The animation the builder built.
+   * @throws IllegalStateException If the file can't be read or has a mistake in it.
+   */
+  public <Doc> Doc loadAdvanced(FileChannel input, AdvancedAnimationBuilder<Doc> builder)
+          throws IllegalStateException {
+    Objects.requireNonNull(builder, "Must provide a non-null AdvancedAnimationBuilder");
+    return load(input, builder, true);
+  }
+
+  /**
+   * A private helper to read either format, the advanced format being read a line at a time.
+   */
+  private <Doc> Doc load(FileChannel input, AnimationBuilder<Doc> builder, boolean advanced) {
+    Objects.requireNonNull(input, "Must have non-null file source");
+    if (pool.getParallelism() < 2) {
+      // Recording and replaying commands only pays for itself with threads to share them out.
+      return readRest(input, 0, 1, builder, advanced);
+    }
+    long[] bounds;
+    try {
+      bounds = split(input);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read the animation input.", e);
+    }
+    if (bounds.length <= 2) {
+      return readRest(input, 0, 1, builder, advanced);
+    }
+
+    // We keep only a few chunks ahead of the one being replayed, so the batches waiting to be
+    // replayed don't grow with the size of the file.
+    long averageChunk = bounds[bounds.length - 1] / (bounds.length - 1);
+    int ahead = (int) Math.max(1,
+            Math.min(pool.getParallelism() * 2L, MAX_BYTES_IN_FLIGHT / averageChunk));
+    ArrayDeque<ForkJoinTask<CommandBatch>> inFlight = new ArrayDeque<>();
+    int submitted = 0;
+    int line = 1;
+    for (int i = 0; i < bounds.length - 1; i++) {
+      while (submitted < bounds.length - 1 && submitted <= i + ahead) {
+        long start = bounds[submitted];
+        long end = bounds[submitted + 1];
+        inFlight.add(pool.submit(() -> readChunk(input, start, end, advanced)));
+        submitted++;
+      }
+      CommandBatch batch = inFlight.remove().join();
+      if (batch.failed) {
+        for (ForkJoinTask<CommandBatch> task : inFlight) {
+          task.cancel(false);
+        }
+        return readRest(input, bounds[i], line, builder, advanced);
+      }
+      batch.replay(builder, line);
+      line += batch.lineBreaks;
+    }
+    return builder.build();
+  }
+
+  /**
+   * A private helper to find where to split the file into chunks. Every chunk but the last ends
+   * with a line break. There is only one chunk if the file is small.
+   * @return  The offsets the chunks start at, and the size of the file at the end.
+   */
+  private long[] split(FileChannel input) throws IOException {
+    long size = input.size();
+    long chunkSize = this.chunkSize;
+    if (chunkSize == 0) {
+      chunkSize = Math.min(MAX_CHUNK_SIZE,
+              Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4L)));
+    }
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    ByteBuffer probe = ByteBuffer.allocate(4096);
+    long position = chunkSize;
+    while (position < size) {
+      // Look for the end of the line this position is on.
+      long lineEnd = -1;
+      while (lineEnd < 0 && position < size) {
+        probe.clear();
+        int read = input.read(probe, position);
+        if (read <= 0) {
+          break;
+        }
+        for (int i = 0; i < read; i++) {
+          if (probe.get(i) == '\n') {
+            lineEnd = position + i + 1;
+            break;
+          }
+        }
+        position += read;
+      }
+      if (lineEnd < 0 || lineEnd >= size) {
+        break;
+      }
+      bounds.add(lineEnd);
+      position = lineEnd + chunkSize;
+    }
+    bounds.add(size);
+    long[] result = new long[bounds.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = bounds.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * A private helper to read one chunk of the file into a batch of commands. This runs on the
+   * pool. Any trouble only marks the batch as failed, the chunk gets read again to report it.
+   */
+  private static CommandBatch readChunk(FileChannel input, long start, long end,
+                                        boolean advanced) {
+    CommandBatch batch;
+    try {
+      ByteBuffer chunk = input.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+      AnimationLexer lexer = new ByteBufferAnimationLexer(chunk.duplicate(), advanced);
+      batch = new CommandBatch(lexer, end - start);
+      if (advanced) {
+        AdvancedAnimationReader.parse(lexer, batch);
+      } else {
+        AnimationReader.parse(lexer, batch);
+      }
+      for (int i = 0; i < chunk.limit(); i++) {
+        if (chunk.get(i) == '\n') {
+          batch.lineBreaks++;
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      batch = new CommandBatch(null, 0);
+      batch.failed = true;
+    }
+    return batch;
+  }
+
+  /**
+   * A private helper to read the rest of the file, from the given position, with a single lexer
+   * straight into the builder.
+   * @param position  Where to start reading, the start of a line.
+   * @param line      The number of the line at that position.
+   */
+  private static <Doc> Doc readRest(FileChannel input, long position, int line,
+                                    AnimationBuilder<Doc> builder, boolean advanced) {
+    MappedAnimationLexer lexer;
+    try {
+      // The file isn't ours to close, so neither is this lexer.
+      lexer = new MappedAnimationLexer(input, position, advanced);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read the animation input.", e);
+    }
+    try {
+      if (advanced) {
+        return AdvancedAnimationReader.parse(lexer, (AdvancedAnimationBuilder<Doc>) builder);
+      } else {
+        return AnimationReader.parse(lexer, builder);
+      }
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      throw atLine(line + lexer.getLine() - 1, e);
+    }
+  }
+
+  /**
+   * A private helper to put the line number in front of an error.
+   */
+  private static IllegalStateException atLine(int line, RuntimeException e) {
+    return new IllegalStateException(String.format("Line %d: %s", line, e.getMessage()), e);
+  }
+
+  /**
+   * A CommandBatch is a builder that records the calls made to it, to make them again on
+   * another builder later. Numbers are kept in one int array, the kind of call and the line it
+   * came from first, then its arguments. Names are kept in order in a String array.
+   */
+  private static final class CommandBatch implements AdvancedAnimationBuilder<CommandBatch> {
+    private static final int BOUNDS = 0;
+    private static final int SHAPE = 1;
+    private static final int LAYERED_SHAPE = 2;
+    private static final int LAYER = 3;
+    private static final int MOTION = 4;
+    private static final int ROTATION_MOTION = 5;
+    private static final int KEYFRAME = 6;
+    private static final int ROTATION_KEYFRAME = 7;
+
+    private final AnimationLexer lexer;
+    private int[] ints;
+    private int intCount;
+    private String[] strings;
+    private int stringCount;
+    private int lineBreaks;
+    private boolean failed;
+
+    /**
+     * Create a new empty batch.
+     * @param lexer The lexer the batch is read from, to tell the line of each command.
+     * @param bytes The length of the text the batch is read from, to guess how big it'll be.
+     */
+    CommandBatch(AnimationLexer lexer, long bytes) {
+      this.lexer = lexer;
+      // A motion line is about 80 characters for 18 ints and a name.
+      this.ints = new int[(int) Math.min(Integer.MAX_VALUE - 8, 64 + bytes / 4)];
+      this.strings = new String[(int) Math.min(Integer.MAX_VALUE - 8, 16 + bytes / 64)];
+    }
+
+    /**
+     * A private helper to start recording a command.
+     */
+    private void command(int kind, int argumentCount) {
+      if (intCount + argumentCount + 2 > ints.length) {
+        ints = Arrays.copyOf(ints, Math.max(ints.length * 2, intCount + argumentCount + 2));
+      }
+      ints[intCount++] = kind;
+      ints[intCount++] = lexer.getLine();
+    }
+
+    /**
+     * A private helper to record a name.
+     */
+    private void string(String s) {
+      if (stringCount == strings.length) {
+        strings = Arrays.copyOf(strings, strings.length * 2);
+      }
+      strings[stringCount++] = s;
+    }
+
+    /**
+     * Makes the recorded calls on the given builder, in order.
+     * @param builder   The builder to call, it must be advanced if the batch came from the
+     *                  advanced format.
+     * @param firstLine The number in the file of the first line of the batch.
+     * @throws IllegalStateException If the builder refuses a call, with the line it came from.
+     */
+    void replay(AnimationBuilder<?> builder, int firstLine) {
+      int i = 0;
+      int s = 0;
+      int[] v = ints;
+      while (i < intCount) {
+        int kind = v[i];
+        int line = firstLine + v[i + 1] - 1;
+        i += 2;
+        try {
+          switch (kind) {
+            case BOUNDS:
+              builder.setBounds(v[i], v[i + 1], v[i + 2], v[i + 3]);
+              i += 4;
+              break;
+            case SHAPE:
+              builder.declareShape(strings[s], strings[s + 1]);
+              s += 2;
+              break;
+            case LAYERED_SHAPE:
+              ((AdvancedAnimationBuilder<?>) builder)
+                      .declareShape(strings[s], strings[s + 1], strings[s + 2]);
+              s += 3;
+              break;
+            case LAYER:
+              ((AdvancedAnimationBuilder<?>) builder).declareLayer(strings[s++], v[i++] != 0);
+              break;
+            case MOTION:
+              builder.addMotion(strings[s++],
+                      v[i], v[i + 1], v[i + 2], v[i + 3], v[i + 4], v[i + 5], v[i + 6],
+                      v[i + 7],
+                      v[i + 8], v[i + 9], v[i + 10], v[i + 11], v[i + 12], v[i + 13],
+                      v[i + 14], v[i + 15]);
+              i += 16;
+              break;
+            case ROTATION_MOTION:
+              ((AdvancedAnimationBuilder<?>) builder).addMotion(strings[s++],
+                      v[i], v[i + 1], v[i + 2], v[i + 3], v[i + 4], v[i + 5], v[i + 6],
+                      v[i + 7], v[i + 8],
+                      v[i + 9], v[i + 10], v[i + 11], v[i + 12], v[i + 13], v[i + 14],
+                      v[i + 15], v[i + 16], v[i + 17]);
+              i += 18;
+              break;
+            case KEYFRAME:
+              builder.addKeyframe(strings[s++],
+                      v[i], v[i + 1], v[i + 2], v[i + 3], v[i + 4], v[i + 5], v[i + 6],
+                      v[i + 7]);
+              i += 8;
+              break;
+            case ROTATION_KEYFRAME:
+              ((AdvancedAnimationBuilder<?>) builder).addKeyframe(strings[s++],
+                      v[i], v[i + 1], v[i + 2], v[i + 3], v[i + 4], v[i + 5], v[i + 6],
+                      v[i + 7], v[i + 8]);
+              i += 9;
+              break;
+            default:
+              throw new IllegalStateException("Unable to replay an unknown command.");
+          }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          throw atLine(line, e);
+        }
+      }
+    }
+
+    @Override
+    public CommandBatch build() {
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<CommandBatch> setBounds(int x, int y, int width, int height) {
+      command(BOUNDS, 4);
+      ints[intCount++] = x;
+      ints[intCount++] = y;
+      ints[intCount++] = width;
+      ints[intCount++] = height;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<CommandBatch> declareShape(String name, String type) {
+      command(SHAPE, 0);
+      string(name);
+      string(type);
+      return this;
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<CommandBatch> declareShape(String name, String type,
+                                                              String layer) {
+      command(LAYERED_SHAPE, 0);
+      string(name);
+      string(type);
+      string(layer);
+      return this;
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<CommandBatch> declareLayer(String name, boolean visibility) {
+      command(LAYER, 1);
+      string(name);
+      ints[intCount++] = visibility ? 1 : 0;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<CommandBatch> addMotion(String name,
+                                                    int t1, int x1, int y1, int w1, int h1,
+                                                    int r1, int g1, int b1,
+                                                    int t2, int x2, int y2, int w2, int h2,
+                                                    int r2, int g2, int b2) {
+      command(MOTION, 16);
+      string(name);
+      int[] v = ints;
+      int i = intCount;
+      v[i] = t1;
+      v[i + 1] = x1;
+      v[i + 2] = y1;
+      v[i + 3] = w1;
+      v[i + 4] = h1;
+      v[i + 5] = r1;
+      v[i + 6] = g1;
+      v[i + 7] = b1;
+      v[i + 8] = t2;
+      v[i + 9] = x2;
+      v[i + 10] = y2;
+      v[i + 11] = w2;
+      v[i + 12] = h2;
+      v[i + 13] = r2;
+      v[i + 14] = g2;
+      v[i + 15] = b2;
+      intCount += 16;
+      return this;
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<CommandBatch> addMotion(String name,
+                                                            int t1, int x1, int y1, int w1,
+                                                            int h1, int r1, int g1, int b1,
+                                                            int rot1,
+                                                            int t2, int x2, int y2, int w2,
+                                                            int h2, int r2, int g2, int b2,
+                                                            int rot2) {
+      command(ROTATION_MOTION, 18);
+      string(name);
+      int[] v = ints;
+      int i = intCount;
+      v[i] = t1;
+      v[i + 1] = x1;
+      v[i + 2] = y1;
+      v[i + 3] = w1;
+      v[i + 4] = h1;
+      v[i + 5] = r1;
+      v[i + 6] = g1;
+      v[i + 7] = b1;
+      v[i + 8] = rot1;
+      v[i + 9] = t2;
+      v[i + 10] = x2;
+      v[i + 11] = y2;
+      v[i + 12] = w2;
+      v[i + 13] = h2;
+      v[i + 14] = r2;
+      v[i + 15] = g2;
+      v[i + 16] = b2;
+      v[i + 17] = rot2;
+      intCount += 18;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<CommandBatch> addKeyframe(String name,
+                                                      int t, int x, int y, int w, int h,
+                                                      int r, int g, int b) {
+      command(KEYFRAME, 8);
+      string(name);
+      int[] v = ints;
+      int i = intCount;
+      v[i] = t;
+      v[i + 1] = x;
+      v[i + 2] = y;
+      v[i + 3] = w;
+      v[i + 4] = h;
+      v[i + 5] = r;
+      v[i + 6] = g;
+      v[i + 7] = b;
+      intCount += 8;
+      return this;
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<CommandBatch> addKeyframe(String name,
+                                                              int t, int x, int y, int w, int h,
+                                                              int r, int g, int b, int rot) {
+      command(ROTATION_KEYFRAME, 9);
+      string(name);
+      int[] v = ints;
+      int i = intCount;
+      v[i] = t;
+      v[i + 1] = x;
+      v[i + 2] = y;
+      v[i + 3] = w;
+      v[i + 4] = h;
+      v[i + 5] = r;
+      v[i + 6] = g;
+      v[i + 7] = b;
+      v[i + 8] = rot;
+      intCount += 9;
+      return this;
+    }
+  }
+}
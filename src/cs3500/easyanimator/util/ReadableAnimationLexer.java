@@ -0,0 +1,71 @@
+package cs3500.easyanimator.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * A ReadableAnimationLexer is an AnimationLexer reading from any Readable (a Reader, a
+ * CharBuffer, ...). Characters are pulled from the source in large blocks, so an unbuffered
+ * source like a FileReader is fine to hand over directly.
+ */
+public class ReadableAnimationLexer extends AnimationLexer {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Readable readable;
+  private final CharBuffer buffer;
+  private final char[] chars;
+  private int position;
+  private int limit;
+  private boolean done;
+
+  /**
+   * Create a new lexer reading from the given source.
+   * @param readable  The source of the animation.
+   * @param lineMode  Whether to keep to one line at a time (true) or read tokens across lines.
+   */
+  public ReadableAnimationLexer(Readable readable, boolean lineMode) {
+    super(lineMode);
+    this.readable = Objects.requireNonNull(readable, "Must have non-null readable source");
+    this.buffer = CharBuffer.allocate(BUFFER_SIZE);
+    this.chars = buffer.array();
+    this.position = 0;
+    this.limit = 0;
+    this.done = false;
+  }
+
+  @Override
+  protected int read() {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return chars[position++];
+  }
+
+  /**
+   * A private helper to read the next block of characters from the source.
+   * @return  True if there are more characters, false at the end of the input.
+   */
+  private boolean fill() {
+    if (done) {
+      return false;
+    }
+    buffer.clear();
+    int count;
+    try {
+      // A Readable may give us nothing without being done, so we keep asking.
+      do {
+        count = readable.read(buffer);
+      } while (count == 0);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read the animation input.", e);
+    }
+    if (count < 0) {
+      done = true;
+      return false;
+    }
+    position = 0;
+    limit = count;
+    return true;
+  }
+}
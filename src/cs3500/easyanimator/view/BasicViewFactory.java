@@ -1,8 +1,11 @@
 package cs3500.easyanimator.view;
 
+import java.io.OutputStream;
+
 /**
  * A BasicViewFactory is an IViewFactory that can construct the basic set of views: text, svg, and
- * visual.
+ * visual. Given a stream to write to, it can also construct the frames view, which writes every
+ * frame of the animation as raw RGB pixels.
  */
 public class BasicViewFactory implements IViewFactory {
   @Override
@@ -18,4 +21,12 @@ public class BasicViewFactory implements IViewFactory {
         throw new IllegalArgumentException("Invalid view type given.");
     }
   }
+
+  @Override
+  public IAnimatorView getView(String name, Appendable out, OutputStream bytes) {
+    if (name.equals("frames")) {
+      return new FrameExportView(FrameExportView.rawRGB(bytes));
+    }
+    return getView(name, out);
+  }
 }
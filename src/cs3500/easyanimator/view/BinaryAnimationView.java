@@ -0,0 +1,317 @@
+package cs3500.easyanimator.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.IAnimatorModelViewOnly;
+import cs3500.easyanimator.model.ILayeredAnimatorModelViewOnly;
+import cs3500.easyanimator.model.layers.ILayer;
+import cs3500.easyanimator.model.shapes.IShape;
+
+/**
+ * A BinaryAnimationView writes a model out in our compact binary format, which loads much faster
+ * than the text format since nothing has to be parsed or checked. See
+ * {@link cs3500.easyanimator.util.BinaryAnimationReader} to read it back.
+ *
+ * <p>All numbers other than the single bytes named below are varints, 7 bits to a byte with the
+ * high bit set on all but the last byte. Numbers that can be negative are zigzag encoded first, so
+ * small negative numbers stay small. The file is laid out as:</p>
+ * <ul>
+ * <li>The magic bytes 0x89 'E' 'Z' 'A', then the version byte, so the header is always five
+ * bytes.</li>
+ * <li>The string table, a count and then each string as a byte length and its UTF-8 bytes. Layer
+ * and shape names are given as indices into this table.</li>
+ * <li>The layers, a count and then for each its name, a visibility byte, its canvas (signed x and
+ * y, then width and height) and its number of shapes.</li>
+ * <li>The shapes of each layer in order, back to front. Each has its name, a type byte (see
+ * {@link FrameBuffer#RECTANGLE} and {@link FrameBuffer#OVAL}), its number of keyframes and then its
+ * keyframes as columns. The ticks come first, the first as is and the rest as the difference from
+ * the tick before. Then the x, y, width, height, red, green and blue columns, each as signed
+ * differences from the keyframe before, starting from 0.</li>
+ * </ul>
+ *
+ * <p>A model without layers is written as a single visible layer named "Base".</p>
+ */
+public class BinaryAnimationView implements IAnimatorView {
+  /**
+   * The bytes every binary animation starts with. The first byte isn't ASCII, so a text animation
+   * is never mistaken for one.
+   */
+  public static final byte[] MAGIC = {(byte) 0x89, 'E', 'Z', 'A'};
+  /**
+   * The version of the format this writes, written as a single byte.
+   */
+  public static final int VERSION = 1;
+
+  private static final String BASE_LAYER = "Base";
+
+  private final OutputStream out;
+  private IAnimatorModelViewOnly model;
+
+  /**
+   * Create a new BinaryAnimationView with the given stream to output to.
+   * @param out The output to write to.
+   */
+  public BinaryAnimationView(OutputStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void makeVisible() {
+    if (model == null) {
+      throw new IllegalStateException("Unable to create the given view without a model");
+    }
+
+    // We gather the layers first, since every name has to be in the string table up front.
+    List<String> layerNames = new ArrayList<>();
+    List<Boolean> visibilities = new ArrayList<>();
+    List<IAnimatorModelViewOnly> layerModels = new ArrayList<>();
+    if (model instanceof ILayeredAnimatorModelViewOnly) {
+      for (ILayer layer : ((ILayeredAnimatorModelViewOnly) model).getLayers()) {
+        IAnimatorModel layerModel = layer.getModel();
+        layerNames.add(layer.getName());
+        visibilities.add(layer.getVisibility());
+        layerModels.add(layerModel);
+      }
+    } else {
+      layerNames.add(BASE_LAYER);
+      visibilities.add(true);
+      layerModels.add(model);
+    }
+    StringTable strings = new StringTable();
+    List<Map<String, IShape>> layerShapes = new ArrayList<>();
+    for (int i = 0; i < layerModels.size(); i++) {
+      strings.indexOf(layerNames.get(i));
+      Map<String, IShape> shapes = layerModels.get(i).getShapes();
+      for (String name : shapes.keySet()) {
+        strings.indexOf(name);
+      }
+      layerShapes.add(shapes);
+    }
+
+    try {
+      VarintWriter writer = new VarintWriter(out);
+      writer.bytes(MAGIC);
+      writer.single(VERSION);
+      writer.varint(strings.strings.size());
+      for (String s : strings.strings) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writer.varint(bytes.length);
+        writer.bytes(bytes);
+      }
+
+      writer.varint(layerModels.size());
+      for (int i = 0; i < layerModels.size(); i++) {
+        IAnimatorModelViewOnly layerModel = layerModels.get(i);
+        writer.varint(strings.indexOf(layerNames.get(i)));
+        writer.single(visibilities.get(i) ? 1 : 0);
+        writer.signed(layerModel.getCanvasPosition().getX());
+        writer.signed(layerModel.getCanvasPosition().getY());
+        writer.signed(layerModel.getCanvasSize().getWidth());
+        writer.signed(layerModel.getCanvasSize().getHeight());
+        writer.varint(layerShapes.get(i).size());
+      }
+
+      for (int i = 0; i < layerModels.size(); i++) {
+        IAnimatorModelViewOnly layerModel = layerModels.get(i);
+        for (Map.Entry<String, IShape> shape : layerShapes.get(i).entrySet()) {
+          writer.varint(strings.indexOf(shape.getKey()));
+          writer.single(FrameBuffer.typeOf(shape.getValue()));
+          writeKeyframes(writer, layerModel.getKeyframes(shape.getKey()));
+        }
+      }
+      writer.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write the binary animation into the output.");
+    }
+  }
+
+  /**
+   * A private helper to write the keyframes of a shape as columns.
+   * @param writer    The writer to write to.
+   * @param keyframes The keyframes of the shape.
+   * @throws IOException If the output can't be written to.
+   */
+  private static void writeKeyframes(VarintWriter writer, SortedMap<Integer, IShape> keyframes)
+          throws IOException {
+    int count = keyframes.size();
+    int[] ticks = new int[count];
+    FrameBuffer states = new FrameBuffer(count);
+    int k = 0;
+    for (Map.Entry<Integer, IShape> keyframe : keyframes.entrySet()) {
+      ticks[k++] = keyframe.getKey();
+      states.add(keyframe.getValue());
+    }
+
+    writer.varint(count);
+    int previous = 0;
+    for (int i = 0; i < count; i++) {
+      writer.varint(ticks[i] - previous);
+      previous = ticks[i];
+    }
+    for (int column = 0; column < 7; column++) {
+      previous = 0;
+      for (int i = 0; i < count; i++) {
+        int value = column(states, column, i);
+        writer.signed(value - previous);
+        previous = value;
+      }
+    }
+  }
+
+  /**
+   * A private helper to give one column of a state in a frame.
+   * @param states  The frame of states.
+   * @param column  Which column, in the order x, y, width, height, red, green and blue.
+   * @param i       The index of the state.
+   * @return        The value of that column.
+   */
+  private static int column(FrameBuffer states, int column, int i) {
+    switch (column) {
+      case 0:
+        return states.getX(i);
+      case 1:
+        return states.getY(i);
+      case 2:
+        return states.getWidth(i);
+      case 3:
+        return states.getHeight(i);
+      case 4:
+        return (states.getRGB(i) >> 16) & 0xFF;
+      case 5:
+        return (states.getRGB(i) >> 8) & 0xFF;
+      default:
+        return states.getRGB(i) & 0xFF;
+    }
+  }
+
+  @Override
+  public void setModel(IAnimatorModelViewOnly model) {
+    this.model = model;
+  }
+
+  @Override
+  public void setSpeed(double speed) {
+    // Speed isn't part of an animation, so there's nothing to do.
+  }
+
+  /**
+   * A StringTable hands out an index for every distinct string, in the order they are first seen.
+   */
+  private static final class StringTable {
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * Gives the index of the given string, adding it to the table if it's new.
+     * @param s The string.
+     * @return  Its index in the table.
+     */
+    int indexOf(String s) {
+      Integer index = indices.get(s);
+      if (index == null) {
+        index = strings.size();
+        strings.add(s);
+        indices.put(s, index);
+      }
+      return index;
+    }
+  }
+
+  /**
+   * A VarintWriter buffers bytes and varints on their way to an output stream.
+   */
+  private static final class VarintWriter {
+    private final OutputStream out;
+    private final byte[] buffer = new byte[1 << 16];
+    private int length;
+
+    /**
+     * Create a new writer to the given stream.
+     * @param out The stream to write to.
+     */
+    VarintWriter(OutputStream out) {
+      this.out = out;
+    }
+
+    /**
+     * Writes an unsigned varint.
+     * @param value The value, taken as an unsigned 32 bit number.
+     * @throws IOException If the output can't be written to.
+     */
+    void varint(int value) throws IOException {
+      if (length + 5 > buffer.length) {
+        drain();
+      }
+      while ((value & ~0x7F) != 0) {
+        buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[length++] = (byte) value;
+    }
+
+    /**
+     * Writes a single byte.
+     * @param value The value, of which only the low 8 bits are written.
+     * @throws IOException If the output can't be written to.
+     */
+    void single(int value) throws IOException {
+      if (length + 1 > buffer.length) {
+        drain();
+      }
+      buffer[length++] = (byte) value;
+    }
+
+    /**
+     * Writes a signed varint, zigzag encoded.
+     * @param value The value.
+     * @throws IOException If the output can't be written to.
+     */
+    void signed(int value) throws IOException {
+      varint((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes some bytes as they are.
+     * @param bytes The bytes.
+     * @throws IOException If the output can't be written to.
+     */
+    void bytes(byte[] bytes) throws IOException {
+      if (length + bytes.length > buffer.length) {
+        drain();
+      }
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+      } else {
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+      }
+    }
+
+    /**
+     * A private helper to hand the buffered bytes to the stream.
+     * @throws IOException If the output can't be written to.
+     */
+    private void drain() throws IOException {
+      out.write(buffer, 0, length);
+      length = 0;
+    }
+
+    /**
+     * Writes out everything buffered and flushes the stream.
+     * @throws IOException If the output can't be written to.
+     */
+    void flush() throws IOException {
+      drain();
+      out.flush();
+    }
+  }
+}
@@ -1,21 +1,40 @@
 package cs3500.easyanimator.view;
 
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.shapes.IShape;
-import cs3500.easyanimator.model.shapes.IShapeVisitor;
-import cs3500.easyanimator.model.shapes.Oval;
-import cs3500.easyanimator.model.shapes.Rectangle;
 import javax.swing.JPanel;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * JPanel specific to an animation, has a list of shapes that will be drawn onto the panel.
+ * JPanel specific to an animation, has a frame of shapes that will be drawn onto the panel.
+ *
+ * <p>The panel keeps the frame before the one it's drawing, and notes the area of every shape
+ * that changed between them. Calling repaintChanges instead of repaint then only repaints that
+ * area, so a scene with a mostly still background doesn't fill the whole canvas every tick.</p>
+ *
+ * <p>A frame can come with images of layers drawn ahead of time (see {@link LayerRasterCache}),
+ * which are drawn in their place among its shapes.</p>
  */
 public class DrawPanel extends JPanel {
-  private List<IShape> shapes;
+  private FrameBuffer frame;
+  // The frame drawn before the current one, its buffer is reused for the next.
+  private FrameBuffer previous;
+  // The images drawn among the shapes of the frame and the previous frame, in order of index.
+  private List<LayerImage> images;
+  private List<LayerImage> previousImages;
+  private final ColorCache colors;
+
+  // The bounds of everything changed since we last repainted, empty when min is above max.
+  private int changedMinX;
+  private int changedMinY;
+  private int changedMaxX;
+  private int changedMaxY;
 
   /**
    * Basic Constructor for the Animation Panel.
@@ -23,7 +42,12 @@ public class DrawPanel extends JPanel {
   public DrawPanel() {
     super();
     this.setBackground(Color.WHITE);
-    this.shapes = new ArrayList<>(); // By default the pane is blank.
+    this.frame = new FrameBuffer(); // By default the pane is blank.
+    this.previous = new FrameBuffer();
+    this.images = new ArrayList<>();
+    this.previousImages = new ArrayList<>();
+    this.colors = new ColorCache();
+    clearChanges();
   }
 
   /**
@@ -31,8 +55,132 @@ public class DrawPanel extends JPanel {
    * @param shapes the shapes to set.
    */
   public void setShapes(List<IShape> shapes) {
-    this.shapes.clear();
-    this.shapes.addAll(shapes);
+    nextFrame();
+    for (IShape s : shapes) {
+      this.frame.add(s);
+    }
+    noteChanges();
+  }
+
+  /**
+   * Sets the panel to draw the shapes of the given frame. The frame is copied, so the caller is
+   * free to reuse it for the next tick.
+   * @param frame the frame to draw.
+   */
+  public void setFrame(FrameBuffer frame) {
+    setFrame(frame, Collections.emptyList());
+  }
+
+  /**
+   * Sets the panel to draw the shapes of the given frame with the given images of layers among
+   * them. The frame and list are copied, so the caller is free to reuse them for the next tick.
+   * @param frame   the frame to draw.
+   * @param images  the images to draw, in order of their index into the frame.
+   */
+  public void setFrame(FrameBuffer frame, List<LayerImage> images) {
+    nextFrame();
+    this.frame.copyFrom(frame);
+    this.images.addAll(images);
+    noteChanges();
+  }
+
+  /**
+   * Repaints only the area that changed since the last repaint, or nothing if the frames set since
+   * are all the same. Use this instead of repaint after setting a frame.
+   */
+  public void repaintChanges() {
+    if (changedMinX > changedMaxX) {
+      return;
+    }
+    // A pixel of margin, in case the edges of an oval are smoothed past its bounds.
+    repaint(changedMinX - 1, changedMinY - 1,
+            changedMaxX - changedMinX + 2, changedMaxY - changedMinY + 2);
+    clearChanges();
+  }
+
+  /**
+   * A private helper to keep the current frame as the previous one, and clear the other buffer
+   * for the frame about to be set.
+   */
+  private void nextFrame() {
+    FrameBuffer drawn = this.frame;
+    this.frame = this.previous;
+    this.previous = drawn;
+    this.frame.clear();
+    List<LayerImage> drawnImages = this.images;
+    this.images = this.previousImages;
+    this.previousImages = drawnImages;
+    this.images.clear();
+  }
+
+  /**
+   * A private helper to forget the changes, after they have been repainted.
+   */
+  private void clearChanges() {
+    changedMinX = Integer.MAX_VALUE;
+    changedMinY = Integer.MAX_VALUE;
+    changedMaxX = Integer.MIN_VALUE;
+    changedMaxY = Integer.MIN_VALUE;
+  }
+
+  /**
+   * A private helper to note the area of every shape that differs between the previous frame and
+   * the current one, in both its old and new places. Shapes are compared by their place in the
+   * frame, so a shape added or removed in the middle marks everything above it as changed.
+   */
+  private void noteChanges() {
+    int both = Math.min(frame.size(), previous.size());
+    for (int i = 0; i < both; i++) {
+      if (frame.getType(i) != previous.getType(i) || frame.getX(i) != previous.getX(i)
+              || frame.getY(i) != previous.getY(i) || frame.getWidth(i) != previous.getWidth(i)
+              || frame.getHeight(i) != previous.getHeight(i)
+              || frame.getRGB(i) != previous.getRGB(i)) {
+        noteChange(previous, i);
+        noteChange(frame, i);
+      }
+    }
+    for (int i = both; i < previous.size(); i++) {
+      noteChange(previous, i);
+    }
+    for (int i = both; i < frame.size(); i++) {
+      noteChange(frame, i);
+    }
+    for (int i = 0; i < Math.max(images.size(), previousImages.size()); i++) {
+      LayerImage image = i < images.size() ? images.get(i) : null;
+      LayerImage previousImage = i < previousImages.size() ? previousImages.get(i) : null;
+      if (image == null || previousImage == null || image.getImage() != previousImage.getImage()
+              || image.getX() != previousImage.getX() || image.getY() != previousImage.getY()
+              || image.getIndex() != previousImage.getIndex()) {
+        noteChange(image);
+        noteChange(previousImage);
+      }
+    }
+  }
+
+  /**
+   * A private helper to add the bounds of an image to the changed area.
+   * @param image the image, or null for none.
+   */
+  private void noteChange(LayerImage image) {
+    if (image == null) {
+      return;
+    }
+    changedMinX = Math.min(changedMinX, image.getX());
+    changedMinY = Math.min(changedMinY, image.getY());
+    changedMaxX = Math.max(changedMaxX, image.getX() + image.getImage().getWidth());
+    changedMaxY = Math.max(changedMaxY, image.getY() + image.getImage().getHeight());
+  }
+
+  /**
+   * A private helper to add the bounds of a shape to the changed area.
+   * @param frame the frame the shape is in.
+   * @param i     the index of the shape.
+   */
+  private void noteChange(FrameBuffer frame, int i) {
+    changedMinX = Math.min(changedMinX, frame.getX(i));
+    changedMinY = Math.min(changedMinY, frame.getY(i));
+    changedMaxX = Math.max(changedMaxX, frame.getX(i) + frame.getWidth(i));
+    changedMaxY = Math.max(changedMaxY, frame.getY(i) + frame.getHeight(i));
   }
 
   @Override
@@ -41,60 +189,78 @@ public class DrawPanel extends JPanel {
     Graphics2D g2d = (Graphics2D) g;
     g2d.setColor(Color.BLACK);
     // We are already transformed by get shapes at tick.
-    IShapeVisitor<Void> drawingVisitor = new DrawShapeVisitor(g2d);
-    for (IShape s : this.shapes) {
-      s.accept(drawingVisitor);
+    int drawn = 0;
+    for (LayerImage image : this.images) {
+      paintFrame(g2d, this.frame, this.colors, drawn, image.getIndex());
+      drawn = image.getIndex();
+      g2d.drawImage(image.getImage(), image.getX(), image.getY(), null);
     }
+    paintFrame(g2d, this.frame, this.colors, drawn, this.frame.size());
   }
 
   /**
-   * Custom visitor to draw the desired shape on the given Graphics2D.
+   * Draws every shape of the given frame onto the given graphics, in frame order.
+   * @param g2d     the graphics to draw onto.
+   * @param frame   the frame to draw.
+   * @param colors  the cache to take awt colors from.
    */
-  private class DrawShapeVisitor implements IShapeVisitor<Void> {
-    private int x;
-    private int y;
-    private int width;
-    private int height;
-    private Color color;
-    Graphics2D g2d;
+  static void paintFrame(Graphics2D g2d, FrameBuffer frame, ColorCache colors) {
+    paintFrame(g2d, frame, colors, 0, frame.size());
+  }
 
-    /**
-     * Constructor giving the visitor a graphics 2D to draw onto.
-     * @param g2d the graphics to use.
-     */
-    public DrawShapeVisitor(Graphics2D g2d) {
-      this.g2d = g2d;
+  /**
+   * Draws the shapes of the given frame from one index up to another onto the given graphics, in
+   * frame order.
+   * @param g2d     the graphics to draw onto.
+   * @param frame   the frame to draw.
+   * @param colors  the cache to take awt colors from.
+   * @param from    the index of the first shape to draw.
+   * @param to      the index after the last shape to draw.
+   */
+  static void paintFrame(Graphics2D g2d, FrameBuffer frame, ColorCache colors, int from, int to) {
+    // When only part of the panel is repainted, shapes entirely outside of it are skipped.
+    Rectangle clip = g2d.getClipBounds();
+    for (int i = from; i < to; i++) {
+      int x = frame.getX(i);
+      int y = frame.getY(i);
+      int width = frame.getWidth(i);
+      int height = frame.getHeight(i);
+      if (clip != null && (x > clip.x + clip.width || y > clip.y + clip.height
+              || x + width < clip.x || y + height < clip.y)) {
+        continue;
+      }
+      g2d.setColor(colors.get(frame.getRGB(i)));
+      if (frame.getType(i) == FrameBuffer.OVAL) {
+        g2d.fillOval(x, y, width, height);
+      } else {
+        g2d.fillRect(x, y, width, height);
+      }
     }
+  }
+
+  /**
+   * A small direct-mapped cache of awt colors, so repainting the same shapes does not create a
+   * new Color for every shape on every frame. A collision simply replaces the old entry.
+   */
+  static final class ColorCache {
+    private static final int SLOTS = 256;
+    private final int[] keys = new int[SLOTS];
+    private final Color[] values = new Color[SLOTS];
 
     /**
-     * Prepares parameters in the visitor with extracting all the needed properties from the given
-     * shape.
-     * @param shape The generic shape to use.
+     * Gives an awt color for the given packed rgb value.
+     * @param rgb the color packed as 0xRRGGBB.
+     * @return the matching awt color.
      */
-    private void prepare(IShape shape) {
-      this.x = shape.getPosition().getX();
-      this.y = shape.getPosition().getY();
-      this.width = shape.getSize().getWidth();
-      this.height = shape.getSize().getHeight();
-      this.color = new Color(shape.getColor().getRed(),
-              shape.getColor().getGreen(),
-              shape.getColor().getBlue());
-    }
-
-    @Override
-    public Void applyToRectangle(Rectangle rect) {
-      prepare(rect);
-      g2d.setColor(color);
-      g2d.fillRect(x, y, width, height);
-      return null;
-    }
-
-    @Override
-    public Void applyToOval(Oval oval) {
-      prepare(oval);
-      g2d.setColor(color);
-      g2d.fillOval(x, y, width, height);
-      return null;
+    Color get(int rgb) {
+      int slot = (rgb ^ (rgb >>> 8) ^ (rgb >>> 16)) & (SLOTS - 1);
+      Color c = values[slot];
+      if (c == null || keys[slot] != rgb) {
+        c = new Color(rgb);
+        keys[slot] = rgb;
+        values[slot] = c;
+      }
+      return c;
     }
   }
 }
@@ -1,6 +1,7 @@
 package cs3500.easyanimator.view;
 
 import cs3500.easyanimator.controller.EditorListener;
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.IAnimatorModelViewOnly;
 import cs3500.easyanimator.model.shapes.IShape;
 import cs3500.easyanimator.model.shapes.IShapeVisitor;
@@ -33,6 +34,8 @@ import java.util.SortedMap;
 public class EditorSwingView implements IEnhancedView {
   private final EditorListener listener;
   private final Timer timer;
+  // Decides the tick to draw from the time gone by, so slow frames skip ticks instead of lagging.
+  private final PlaybackClock clock;
   private int tick;
   private double speed;
   private boolean looping;
@@ -124,7 +127,8 @@ public class EditorSwingView implements IEnhancedView {
       if (ac == PLAYBACK_ACTION.PLAY.name()) {
         if (model != null) {
           // Without a model, if we start there will be errors.
-          timer.start();
+          clock.start(tick);
+          scheduleRefresh();
         }
       }
       // PAUSE
@@ -135,7 +139,9 @@ public class EditorSwingView implements IEnhancedView {
       else if (ac == PLAYBACK_ACTION.RESTART.name()) {
         timer.stop();
         tick = 0;
-        refresh();
+        clock.start(tick);
+        drawTick();
+        updateTickLabel();
       }
       // SPEEDUP
       else if (ac == PLAYBACK_ACTION.SPEEDUP.name()) {
@@ -149,6 +155,8 @@ public class EditorSwingView implements IEnhancedView {
       //TOGGLELOOP
       else if (ac == PLAYBACK_ACTION.TOGGLELOOP.name()) {
         looping = !looping;
+        // A looping clock may have run past the end, so we carry on from the tick we show.
+        clock.start(tick);
       }
       //TICKUP
       else if (ac == PLAYBACK_ACTION.TICKUP.name()) {
@@ -157,8 +165,8 @@ public class EditorSwingView implements IEnhancedView {
         } else {
           tick = tick + 1;
         }
-        mainPanel.setShapes(model.getShapesAtTick(tick));
-        mainPanel.repaint();
+        clock.start(tick);
+        drawTick();
         updateTickLabel();
       }
       //TICKDOWN
@@ -169,8 +177,8 @@ public class EditorSwingView implements IEnhancedView {
         } else {
           tick = tick - 1;
         }
-        mainPanel.setShapes(model.getShapesAtTick(tick));
-        mainPanel.repaint();
+        clock.start(tick);
+        drawTick();
         updateTickLabel();
       }
       else {
@@ -332,7 +340,8 @@ public class EditorSwingView implements IEnhancedView {
     // Editor stuff that is not graphics.
     this.listener = listener;
     //this.saveListener = listener;
-    this.timer = new Timer(30, e -> this.refresh());
+    this.clock = new PlaybackClock();
+    this.timer = new Timer(clock.getFrameDelay(), e -> this.timerFired());
     this.tick = 0;
     this.looping = true;
 
@@ -459,9 +468,11 @@ public class EditorSwingView implements IEnhancedView {
             buttonPanel);
 
     this.tickLabel = new JLabel();
+    this.statsLabel = new JLabel();
 
 
     buttonPanel.add(tickLabel);
+    buttonPanel.add(statsLabel);
 
     this.frame.add(playbackPanel);
     this.frame.addKeyListener(saveKeyListener);
@@ -473,6 +484,7 @@ public class EditorSwingView implements IEnhancedView {
   // We interact with these in the code below.
   private JFrame frame;
   private JLabel tickLabel;
+  private JLabel statsLabel;
 
   // SHAPE SELECTOR
   private KeyListener saveKeyListener;
@@ -493,6 +505,8 @@ public class EditorSwingView implements IEnhancedView {
 
   // PLAYBACK
   private DrawPanel mainPanel;
+  // Reused for every tick we draw so playback does not allocate a list of shapes per frame.
+  private final FrameBuffer drawFrame = new FrameBuffer();
 
 
   @Override
@@ -504,23 +518,43 @@ public class EditorSwingView implements IEnhancedView {
    * A custom method to use when refreshing playback.
    */
   private void refresh() {
+    int previous = this.tick;
     if (this.model.getMaxTick() == 0) {
       // A special rule for if the model is in a particularly weird state.
       this.tick = 0;
       this.timer.stop();
     } else if (this.looping) {
-      this.tick = (this.tick + 1) % model.getMaxTick();
+      clock.setEndTick(Integer.MAX_VALUE);
+      this.tick = clock.advance() % model.getMaxTick();
     } else {
       if (this.tick == model.getMaxTick()) {
         this.timer.stop();
         this.tick = 0;
       } else {
-        this.tick += 1;
+        // The model may have been edited, so the clock stops at its last tick as of now.
+        clock.setEndTick(model.getMaxTick());
+        this.tick = Math.min(clock.advance(), model.getMaxTick());
       }
     }
-    this.mainPanel.setShapes(model.getShapesAtTick(this.tick));
-    this.mainPanel.repaint();
+    if (this.tick == previous && this.timer.isRunning()) {
+      // Nothing new to draw, the timer fired before the next tick was due.
+      return;
+    }
+    this.drawTick();
+    clock.frameDrawn();
     this.updateTickLabel();
+    this.statsLabel.setText(String.format("   %.0f fps, %d ticks dropped",
+            clock.getFramesPerSecond(), clock.getDroppedTicks()));
+  }
+
+  /**
+   * Samples the model at the current tick into our frame and repaints the drawing panel with it.
+   */
+  private void drawTick() {
+    this.drawFrame.clear();
+    this.model.fillShapesAtTick(this.tick, this.drawFrame);
+    this.mainPanel.setFrame(this.drawFrame);
+    this.mainPanel.repaintChanges();
   }
 
   /**
@@ -533,7 +567,30 @@ public class EditorSwingView implements IEnhancedView {
   @Override
   public void setSpeed(double tps) {
     this.speed = Math.max(tps, 1);
-    this.timer.setDelay((int) Math.max(1, (1.0 / speed * 1000.0)));
+    this.clock.setSpeed(speed);
+    if (this.timer.isRunning()) {
+      this.scheduleRefresh();
+    }
+  }
+
+  /**
+   * Refreshes playback when the timer fires, and has it fire again when the next tick is due.
+   */
+  private void timerFired() {
+    this.refresh();
+    // Refreshing stops the timer when playback is done.
+    if (this.timer.isRunning()) {
+      this.scheduleRefresh();
+    }
+  }
+
+  /**
+   * Has the timer fire next when the clock's next tick is due, rather than a fixed delay after it
+   * last fired, so jitter doesn't show a tick twice and skip the one after.
+   */
+  private void scheduleRefresh() {
+    this.timer.setInitialDelay(clock.getFrameDelay());
+    this.timer.restart();
   }
 
   private static String NEW_KEYFRAME = "New Keyframe";
@@ -575,7 +632,7 @@ public class EditorSwingView implements IEnhancedView {
    */
   private void selectShape(String name) {
     // If the shape doesn't exist then we don't bother updating fields.
-    if (!model.getShapes().containsKey(name)) {
+    if (!model.containsShape(name)) {
       return;
     }
     // Shape fields.
@@ -627,7 +684,7 @@ public class EditorSwingView implements IEnhancedView {
     if (tick == null) {
       tick = this.tick;
     }
-    if (name == null || !model.getShapeNames().contains(name)) {
+    if (name == null || !model.containsShape(name)) {
       return;
     }
     SortedMap<Integer, IShape> keyframes = model.getKeyframes(name);
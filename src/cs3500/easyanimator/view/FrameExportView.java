@@ -0,0 +1,256 @@
+package cs3500.easyanimator.view;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.IAnimatorModelViewOnly;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+/**
+ * A FrameExportView draws every tick of an animation into an image, the same way the visual view
+ * paints its panel, and hands the images to a FrameSink to be saved. Nothing is shown on screen, so
+ * this works without a display, and one frame is written for each tick from 0 to the last tick of
+ * the model. The speed doesn't change the frames, give it to whatever plays them back instead.
+ *
+ * <p>Drawing and encoding frames is split across a pool of workers. The model is only sampled on
+ * the thread calling makeVisible, since sampling isn't safe to do from many threads at once, and
+ * frames are written in tick order on that thread too. Only a few frames per worker are in flight
+ * at a time, so memory stays the same however long the animation is.</p>
+ */
+public class FrameExportView implements IAnimatorView {
+
+  /**
+   * A FrameSink is where a FrameExportView saves its frames. Encoding is done by the workers, so it
+   * may be called for many frames at once, while writing is done in tick order on one thread.
+   */
+  public interface FrameSink {
+    /**
+     * Encodes a frame into the bytes to save. The image is reused once this returns.
+     * @param tick  The tick of the frame.
+     * @param frame The frame drawn.
+     * @return      The bytes to save for the frame.
+     * @throws IOException If the frame can't be encoded.
+     */
+    byte[] encode(int tick, BufferedImage frame) throws IOException;
+
+    /**
+     * Saves an encoded frame. Frames are saved in tick order.
+     * @param tick    The tick of the frame.
+     * @param encoded The bytes encode gave for the frame.
+     * @throws IOException If the frame can't be saved.
+     */
+    void write(int tick, byte[] encoded) throws IOException;
+
+    /**
+     * Called once every frame has been saved.
+     * @throws IOException If the frames can't be finished.
+     */
+    default void finish() throws IOException {
+      // Most sinks have nothing left to do.
+    }
+  }
+
+  /**
+   * Gives a sink that writes the frames one after another as raw 8 bit RGB pixels, row by row,
+   * with nothing in between. This is what video encoders take on their input, for example with
+   * ffmpeg -f rawvideo -pix_fmt rgb24 -s WIDTHxHEIGHT -r SPEED -i - out.mp4.
+   * @param out The stream to write to, it's flushed but left open.
+   * @return    The sink.
+   */
+  public static FrameSink rawRGB(OutputStream out) {
+    if (out == null) {
+      throw new IllegalArgumentException("Unable to write frames to an uninitialized output.");
+    }
+    return new FrameSink() {
+      @Override
+      public byte[] encode(int tick, BufferedImage frame) {
+        int[] pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        byte[] rgb = new byte[pixels.length * 3];
+        for (int i = 0, j = 0; i < pixels.length; i++) {
+          int pixel = pixels[i];
+          rgb[j++] = (byte) (pixel >> 16);
+          rgb[j++] = (byte) (pixel >> 8);
+          rgb[j++] = (byte) pixel;
+        }
+        return rgb;
+      }
+
+      @Override
+      public void write(int tick, byte[] encoded) throws IOException {
+        out.write(encoded);
+      }
+
+      @Override
+      public void finish() throws IOException {
+        out.flush();
+      }
+    };
+  }
+
+  /**
+   * Gives a sink that writes every frame as a PNG into the given directory, named by its tick like
+   * frame000042.png.
+   * @param directory The directory to write into, it's created if it doesn't exist.
+   * @return          The sink.
+   */
+  public static FrameSink pngSequence(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Unable to write frames to an uninitialized directory.");
+    }
+    return new FrameSink() {
+      @Override
+      public byte[] encode(int tick, BufferedImage frame) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(frame, "png", png);
+        return png.toByteArray();
+      }
+
+      @Override
+      public void write(int tick, byte[] encoded) throws IOException {
+        if (tick == 0) {
+          Files.createDirectories(directory);
+        }
+        Files.write(directory.resolve(String.format("frame%06d.png", tick)), encoded);
+      }
+    };
+  }
+
+  // How many frames each worker may have in flight before we wait on the oldest.
+  private static final int FRAMES_PER_WORKER = 2;
+
+  private final FrameSink sink;
+  private final int workers;
+  private IAnimatorModelViewOnly model;
+
+  /**
+   * Create a new FrameExportView with a worker for each processor.
+   * @param sink  Where to save the frames.
+   */
+  public FrameExportView(FrameSink sink) {
+    this(sink, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create a new FrameExportView with the given number of workers.
+   * @param sink    Where to save the frames.
+   * @param workers The number of threads to draw frames on.
+   * @throws IllegalArgumentException If the sink is uninitialized or there are no workers.
+   */
+  public FrameExportView(FrameSink sink, int workers) {
+    if (sink == null) {
+      throw new IllegalArgumentException("Unable to export frames without a sink.");
+    }
+    if (workers < 1) {
+      throw new IllegalArgumentException("Unable to export frames without any workers.");
+    }
+    this.sink = sink;
+    this.workers = workers;
+  }
+
+  @Override
+  public void makeVisible() {
+    if (model == null) {
+      throw new IllegalStateException("Unable to create the given view without a model");
+    }
+    WidthHeight canvas = model.getCanvasSize();
+    if (canvas == null || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+      throw new IllegalStateException("Unable to export frames of an animation without a canvas.");
+    }
+    int width = canvas.getWidth();
+    int height = canvas.getHeight();
+    // Every worker draws into an image of its own, which it reuses frame after frame.
+    ThreadLocal<Painter> painters = ThreadLocal.withInitial(() -> new Painter(width, height));
+
+    ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+      Thread thread = new Thread(r, "frame-export");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+      int maxTick = model.getMaxTick();
+      int written = 0;
+      for (int tick = 0; tick <= maxTick; tick++) {
+        FrameBuffer frame = new FrameBuffer();
+        model.fillShapesAtTick(tick, frame);
+        int frameTick = tick;
+        inFlight.add(pool.submit(() -> sink.encode(frameTick, painters.get().paint(frame))));
+        if (inFlight.size() >= workers * FRAMES_PER_WORKER) {
+          sink.write(written++, inFlight.remove().get());
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        sink.write(written++, inFlight.remove().get());
+      }
+      sink.finish();
+    } catch (IOException | ExecutionException e) {
+      throw new IllegalStateException("Unable to export the frames into the output.",
+              e instanceof ExecutionException ? e.getCause() : e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Unable to finish exporting the frames.", e);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Override
+  public void setModel(IAnimatorModelViewOnly model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot set the view to have a uninitialized model");
+    }
+    this.model = model;
+  }
+
+  @Override
+  public void setSpeed(double speed) {
+    // Every tick is a frame, how fast to play them is up to whoever plays them.
+  }
+
+  /**
+   * A Painter draws frames into one image, so a worker isn't allocating an image every frame.
+   */
+  private static final class Painter {
+    private final BufferedImage image;
+    private final Graphics2D g2d;
+    private final DrawPanel.ColorCache colors = new DrawPanel.ColorCache();
+
+    /**
+     * Create a new Painter with an image of the given size.
+     * @param width   The width of the image.
+     * @param height  The height of the image.
+     */
+    Painter(int width, int height) {
+      this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      this.g2d = image.createGraphics();
+    }
+
+    /**
+     * Draws the given frame over a white background, like the visual view does.
+     * @param frame The frame to draw.
+     * @return      The image drawn into.
+     */
+    BufferedImage paint(FrameBuffer frame) {
+      g2d.setColor(Color.WHITE);
+      g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+      DrawPanel.paintFrame(g2d, frame, colors);
+      return image;
+    }
+  }
+}
@@ -0,0 +1,359 @@
+package cs3500.easyanimator.view;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.ILayeredAnimatorModelViewOnly;
+import cs3500.easyanimator.model.IModelListener;
+import cs3500.easyanimator.model.ModelEvent;
+
+/**
+ * A FramePipeline samples the ticks playback is about to show on a thread of its own, so the
+ * thread that paints only has to take a frame that is already there. Sampling a large scene then
+ * no longer holds up the Swing event thread, and the editor stays responsive while it plays.
+ *
+ * <p>Frames are kept by tick in a bounded cache, dropping the least recently used first, so
+ * scrubbing back over ticks already shown or prepared around doesn't sample them again. Added to
+ * the model as a listener, the pipeline drops only the frames of the ticks each edit affects, and
+ * the rest stay. Without it, {@link #invalidate()} drops them all.</p>
+ *
+ * <p>Models aren't safe to share between threads. Only the pipeline's thread touches the model
+ * while frames are being prepared, so whoever owns the pipeline must call {@link #settle()} before
+ * reading or editing the model, and may use it freely until they next call {@link #prepare(List)}.
+ * Edits made through {@link #edit(Runnable)} are settled for. Every method must be called from
+ * that one owning thread, which is also the one editing. If a pipeline listening to the model
+ * hears of an edit it wasn't settled for, a frame may have read the model halfway, so it drops
+ * every frame it has. That can't stop the frame being sampled while the edit was made, only keep
+ * it from being shown again.</p>
+ */
+public final class FramePipeline implements IModelListener {
+
+  /**
+   * A frame sampled for a tick, with the images of its still layers.
+   */
+  public static final class PreparedFrame {
+    private final FrameBuffer frame;
+    private final List<LayerImage> images;
+    private int tick;
+
+    /**
+     * Create a new empty frame.
+     */
+    private PreparedFrame() {
+      this.frame = new FrameBuffer();
+      this.images = new ArrayList<>();
+    }
+
+    /**
+     * Gives the shapes of the moving layers.
+     * @return  The frame, which must not be changed.
+     */
+    public FrameBuffer getFrame() {
+      return frame;
+    }
+
+    /**
+     * Gives the images of the still layers, in their places among the shapes.
+     * @return  An unmodifiable list of the images.
+     */
+    public List<LayerImage> getImages() {
+      return Collections.unmodifiableList(images);
+    }
+
+    /**
+     * Gives the tick this frame was sampled at.
+     * @return  The tick.
+     */
+    public int getTick() {
+      return tick;
+    }
+  }
+
+  /**
+   * A frame of the cache being prepared, or already prepared, for a tick.
+   */
+  private static final class Job {
+    private final PreparedFrame prepared;
+    private final Future<?> future;
+
+    Job(PreparedFrame prepared, Future<?> future) {
+      this.prepared = prepared;
+      this.future = future;
+    }
+  }
+
+  private final ILayeredAnimatorModelViewOnly model;
+  // Only used while holding the sampling lock, by whichever thread samples.
+  private final LayerRasterCache rasters;
+  private final ExecutorService worker;
+  // Held while sampling, so the owner can wait out the frame being sampled.
+  private final ReentrantLock sampling;
+  // Bumped under the lock to call off frames that haven't started yet.
+  private int generation;
+  // Whether no frame has been handed to our thread since we last settled, so the model is ours.
+  private boolean settled;
+
+  // The frames being prepared or ready by tick, least recently used first.
+  private final LinkedHashMap<Integer, Job> frames;
+  // Frames free to prepare into, and how many frames we may have at all.
+  private final Deque<PreparedFrame> free;
+  private final int capacity;
+  private int allocated;
+  // The frame we sample into ourselves when the cache has no room.
+  private final PreparedFrame direct;
+
+  /**
+   * Create a new pipeline preparing frames of the given model.
+   * @param model     The model to sample.
+   * @param capacity  How many frames may be kept at once, prepared ahead or already shown.
+   * @throws IllegalArgumentException If the model is uninitialized or the capacity isn't
+   *                                  positive.
+   */
+  public FramePipeline(ILayeredAnimatorModelViewOnly model, int capacity) {
+    if (model == null || capacity < 1) {
+      throw new IllegalArgumentException("Unable to prepare frames of an uninitialized model, or "
+              + "without room for them.");
+    }
+    this.model = model;
+    this.rasters = new LayerRasterCache();
+    this.worker = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "frame-pipeline");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.sampling = new ReentrantLock();
+    this.frames = new LinkedHashMap<>(16, 0.75f, true);
+    this.free = new ArrayDeque<>();
+    this.capacity = capacity;
+    this.direct = new PreparedFrame();
+    this.settled = true;
+  }
+
+  /**
+   * Starts sampling the given ticks on the pipeline's thread, in order, as far as there is room.
+   * Ticks already kept are left as they are. To make room, the least recently used frames that
+   * are done and not among the given ticks are dropped.
+   * @param ticks The ticks expected to be shown soon, soonest first.
+   * @throws IllegalArgumentException If the ticks are uninitialized.
+   */
+  public void prepare(List<Integer> ticks) {
+    if (ticks == null) {
+      throw new IllegalArgumentException("Unable to prepare uninitialized ticks.");
+    }
+    for (int tick : ticks) {
+      // Looking it up marks it as recently used.
+      if (frames.get(tick) != null) {
+        continue;
+      }
+      PreparedFrame prepared = acquire(ticks);
+      if (prepared == null) {
+        return;
+      }
+      int current = generation;
+      settled = false;
+      frames.put(tick, new Job(prepared, worker.submit(() -> {
+        sampling.lock();
+        try {
+          // We were called off before we got to start.
+          if (generation == current) {
+            sample(tick, prepared);
+          }
+        } finally {
+          sampling.unlock();
+        }
+      })));
+    }
+  }
+
+  /**
+   * Gives the frame for the given tick, waiting for it if it's being prepared and sampling it
+   * right away if it isn't, keeping it for next time. The frame is only good until the next call
+   * to the pipeline.
+   * @param tick  The tick to show.
+   * @return      The frame of the tick.
+   * @throws IllegalStateException If the model could not be sampled.
+   */
+  public PreparedFrame take(int tick) {
+    Job job = frames.get(tick);
+    if (job != null) {
+      try {
+        await(job);
+      } catch (IllegalStateException e) {
+        frames.remove(tick);
+        release(job.prepared);
+        throw e;
+      }
+      return job.prepared;
+    }
+    settle();
+    PreparedFrame prepared = acquire(Collections.emptyList());
+    if (prepared == null) {
+      prepared = direct;
+    }
+    sample(tick, prepared);
+    if (prepared != direct) {
+      frames.put(tick, new Job(prepared, CompletableFuture.completedFuture(null)));
+    }
+    return prepared;
+  }
+
+  /**
+   * Calls off the frames that haven't started and waits for the one being sampled, so the model
+   * may be read on this thread until the next call to prepare. Frames already prepared are kept.
+   */
+  public void settle() {
+    sampling.lock();
+    try {
+      generation++;
+      Iterator<Job> iterator = frames.values().iterator();
+      while (iterator.hasNext()) {
+        Job job = iterator.next();
+        // A job not done hasn't sampled anything, as we hold the lock, and won't now.
+        if (!job.future.isDone()) {
+          job.future.cancel(false);
+          release(job.prepared);
+          iterator.remove();
+        }
+      }
+    } finally {
+      sampling.unlock();
+    }
+    settled = true;
+  }
+
+  /**
+   * Settles the pipeline and then makes the given edits to the model, so no frame is being sampled
+   * while they are made.
+   * @param edits Makes the edits.
+   * @throws IllegalArgumentException If the edits are uninitialized.
+   */
+  public void edit(Runnable edits) {
+    if (edits == null) {
+      throw new IllegalArgumentException("Unable to make uninitialized edits.");
+    }
+    settle();
+    edits.run();
+  }
+
+  /**
+   * Drops every prepared frame and drawn layer, for when the model changed in a way we weren't
+   * told about.
+   */
+  public void invalidate() {
+    settle();
+    for (Job job : frames.values()) {
+      release(job.prepared);
+    }
+    frames.clear();
+    rasters.invalidate();
+  }
+
+  /**
+   * Drops the frames of the ticks the change affects, keeping the rest. If the pipeline wasn't
+   * settled before the change was made, every frame is dropped instead, as any of them may have
+   * read the model halfway through it.
+   * @param event The change to the model.
+   */
+  @Override
+  public void modelChanged(ModelEvent event) {
+    if (!settled) {
+      invalidate();
+      return;
+    }
+    Iterator<Map.Entry<Integer, Job>> iterator = frames.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, Job> entry = iterator.next();
+      if (event.affects(entry.getKey())) {
+        release(entry.getValue().prepared);
+        iterator.remove();
+      }
+    }
+    // Drawn layers know the version of their model they were drawn at, so they sort themselves out.
+  }
+
+  /**
+   * Stops the pipeline's thread, the pipeline can't be used after.
+   */
+  public void shutdown() {
+    worker.shutdownNow();
+  }
+
+  /**
+   * A private helper to sample a tick of the model into a frame.
+   */
+  private void sample(int tick, PreparedFrame prepared) {
+    prepared.frame.clear();
+    prepared.images.clear();
+    rasters.fill(model, tick, prepared.frame, prepared.images);
+    prepared.tick = tick;
+  }
+
+  /**
+   * A private helper to find a frame to prepare into, a free one, a new one if there's room, or
+   * else the least recently used one that is done and not wanted.
+   * @param wanted  The ticks whose frames must be kept.
+   * @return        The frame, or null if every frame is in use.
+   */
+  private PreparedFrame acquire(List<Integer> wanted) {
+    if (!free.isEmpty()) {
+      return free.remove();
+    }
+    if (allocated < capacity) {
+      allocated++;
+      return new PreparedFrame();
+    }
+    Iterator<Map.Entry<Integer, Job>> iterator = frames.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, Job> entry = iterator.next();
+      if (entry.getValue().future.isDone() && !wanted.contains(entry.getKey())) {
+        iterator.remove();
+        return entry.getValue().prepared;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A private helper to put a frame back to be prepared into again.
+   */
+  private void release(PreparedFrame prepared) {
+    free.add(prepared);
+  }
+
+  /**
+   * A private helper to wait for a frame being prepared.
+   * @throws IllegalStateException If sampling it failed.
+   */
+  private void await(Job job) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          job.future.get();
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Unable to prepare the frame of a tick.", e.getCause());
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
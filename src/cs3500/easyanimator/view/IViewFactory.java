@@ -1,5 +1,7 @@
 package cs3500.easyanimator.view;
 
+import java.io.OutputStream;
+
 /**
  * An IViewFactory helps us build a factory from a string description. It is a way of letting the
  * user pick what view they are using with our application without tying our launcher code down
@@ -14,4 +16,15 @@ public interface IViewFactory {
    * @return      A newly initialized view. The model has yet to be set.
    */
   IAnimatorView getView(String name, Appendable out);
+
+  /**
+   * Give an instance of a view with the given name, for views that write bytes rather than text.
+   * @param name  The name of the view we want to use.
+   * @param out   An appendable location for output, for the text views.
+   * @param bytes The same output as a stream, for views that write bytes.
+   * @return      A newly initialized view. The model has yet to be set.
+   */
+  default IAnimatorView getView(String name, Appendable out, OutputStream bytes) {
+    return getView(name, out);
+  }
 }
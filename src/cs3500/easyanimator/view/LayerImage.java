@@ -0,0 +1,65 @@
+package cs3500.easyanimator.view;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A LayerImage is a layer already drawn into an image, to be drawn in its place among the shapes
+ * of a frame instead of drawing each of its shapes again.
+ */
+public final class LayerImage {
+  private final BufferedImage image;
+  private final int x;
+  private final int y;
+  private final int index;
+
+  /**
+   * Create a new layer image.
+   * @param image The drawn layer.
+   * @param x     Where the left of the image goes.
+   * @param y     Where the top of the image goes.
+   * @param index The number of shapes of the frame drawn before the image, the rest go on top.
+   * @throws IllegalArgumentException If the image is uninitialized or the index is negative.
+   */
+  public LayerImage(BufferedImage image, int x, int y, int index) {
+    if (image == null || index < 0) {
+      throw new IllegalArgumentException("Unable to place an uninitialized image, or before "
+              + "the start of a frame.");
+    }
+    this.image = image;
+    this.x = x;
+    this.y = y;
+    this.index = index;
+  }
+
+  /**
+   * Gives the drawn layer.
+   * @return  The image.
+   */
+  public BufferedImage getImage() {
+    return image;
+  }
+
+  /**
+   * Gives where the left of the image goes.
+   * @return  The x of the image.
+   */
+  public int getX() {
+    return x;
+  }
+
+  /**
+   * Gives where the top of the image goes.
+   * @return  The y of the image.
+   */
+  public int getY() {
+    return y;
+  }
+
+  /**
+   * Gives the number of shapes of the frame drawn before the image.
+   * @return  The index of the first shape drawn on top of the image.
+   */
+  public int getIndex() {
+    return index;
+  }
+}
@@ -0,0 +1,171 @@
+package cs3500.easyanimator.view;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.ILayeredAnimatorModelViewOnly;
+import cs3500.easyanimator.model.Point;
+import cs3500.easyanimator.model.layers.ILayer;
+
+/**
+ * A LayerRasterCache samples a layered model like its fillShapesAtTick does, except that a layer
+ * that is going to stay still for a while is drawn into an image once and handed out as that image
+ * until it moves. Backgrounds and scenery then cost one image draw a frame instead of sampling and
+ * filling every one of their shapes.
+ *
+ * <p>Whether a layer is still comes from its model's getLastStillTick. The images are only kept
+ * while the model's layer is where it was, the tick is in the range the image was drawn for, and
+ * the model is at the version it was drawn at, so editing one layer only redraws that layer.</p>
+ */
+public final class LayerRasterCache {
+  // A layer has to stay still at least this many ticks after the current one to be worth drawing.
+  private static final int MIN_STILL_TICKS = 4;
+  // Filling a shape costs about as much as drawing this many pixels of an image, and filling a
+  // pixel of a shape about a quarter of one. An image is only kept if it's cheaper to draw than
+  // the shapes it replaces, so a few large shapes are still filled.
+  private static final long PIXELS_PER_SHAPE = 1024;
+  // Images bigger than this many pixels aren't kept, to bound the memory of the cache.
+  private static final long MAX_PIXELS = 1L << 24;
+
+  /**
+   * A layer drawn into an image, and the ticks and place it was drawn for.
+   */
+  private static final class Raster {
+    private final LayerImage image;
+    private final int from;
+    private final int to;
+    private final int dx;
+    private final int dy;
+    private final long version;
+
+    Raster(LayerImage image, int from, int to, int dx, int dy, long version) {
+      this.image = image;
+      this.from = from;
+      this.to = to;
+      this.dx = dx;
+      this.dy = dy;
+      this.version = version;
+    }
+  }
+
+  private final DrawPanel.ColorCache colors;
+  // The frame each layer is sampled into before we decide whether to keep it as an image.
+  private final FrameBuffer layerFrame;
+  private Map<IAnimatorModel, Raster> rasters;
+
+  /**
+   * Create a new empty cache.
+   */
+  public LayerRasterCache() {
+    this.colors = new DrawPanel.ColorCache();
+    this.layerFrame = new FrameBuffer();
+    this.rasters = new IdentityHashMap<>();
+  }
+
+  /**
+   * Forgets every image, so each layer is sampled again.
+   */
+  public void invalidate() {
+    rasters.clear();
+  }
+
+  /**
+   * Samples the visible layers of the model at the given tick. The shapes of moving layers are
+   * appended to the frame, and each still layer is added to the images, at its place among them.
+   * Drawing both with {@link DrawPanel#setFrame(FrameBuffer, List)} looks the same as drawing the
+   * frame the model's fillShapesAtTick gives.
+   * @param model   The model to sample.
+   * @param tick    The tick to sample.
+   * @param frame   The frame to append moving shapes to.
+   * @param images  The images to add still layers to.
+   * @throws IllegalArgumentException If any argument is uninitialized.
+   */
+  public void fill(ILayeredAnimatorModelViewOnly model, int tick, FrameBuffer frame,
+                   List<LayerImage> images) {
+    if (model == null || frame == null || images == null) {
+      throw new IllegalArgumentException("Unable to sample layers with uninitialized arguments.");
+    }
+    List<ILayer> layers = model.getLayers();
+    if (layers.isEmpty()) {
+      return;
+    }
+    // The layers are lined up with the global canvas, as the model does it.
+    int globalX = Integer.MAX_VALUE;
+    int globalY = Integer.MAX_VALUE;
+    for (ILayer layer : layers) {
+      Point offset = layer.getModel().getCanvasPosition();
+      globalX = Math.min(globalX, offset.getX());
+      globalY = Math.min(globalY, offset.getY());
+    }
+
+    Map<IAnimatorModel, Raster> kept = new IdentityHashMap<>();
+    for (ILayer layer : layers) {
+      if (!layer.getVisibility()) {
+        continue;
+      }
+      IAnimatorModel layerModel = layer.getModel();
+      Point offset = layerModel.getCanvasPosition();
+      int dx = offset.getX() - globalX;
+      int dy = offset.getY() - globalY;
+      Raster raster = kept.containsKey(layerModel) ? kept.get(layerModel) : rasters.get(layerModel);
+      if (raster == null || tick < raster.from || tick > raster.to
+              || raster.dx != dx || raster.dy != dy || raster.version != layerModel.getVersion()) {
+        raster = sample(layerModel, tick, dx, dy, frame);
+      }
+      if (raster != null) {
+        kept.put(layerModel, raster);
+        LayerImage image = raster.image;
+        images.add(new LayerImage(image.getImage(), image.getX(), image.getY(), frame.size()));
+      }
+    }
+    // Images of layers we didn't draw this time are dropped.
+    rasters = kept;
+  }
+
+  /**
+   * A private helper to sample a layer, drawing it into an image if it's going to stay still, or
+   * else appending its shapes to the frame.
+   * @return  The image of the layer, or null if its shapes were appended instead.
+   */
+  private Raster sample(IAnimatorModel layerModel, int tick, int dx, int dy, FrameBuffer frame) {
+    layerFrame.clear();
+    layerModel.fillShapesAtTick(tick, layerFrame);
+    int still = layerModel.getLastStillTick(tick);
+    if (still - tick < MIN_STILL_TICKS || layerFrame.size() == 0) {
+      frame.append(layerFrame, dx, dy);
+      return null;
+    }
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    long filled = 0;
+    for (int i = 0; i < layerFrame.size(); i++) {
+      filled += (long) layerFrame.getWidth(i) * layerFrame.getHeight(i);
+      minX = Math.min(minX, layerFrame.getX(i));
+      minY = Math.min(minY, layerFrame.getY(i));
+      maxX = Math.max(maxX, layerFrame.getX(i) + layerFrame.getWidth(i));
+      maxY = Math.max(maxY, layerFrame.getY(i) + layerFrame.getHeight(i));
+    }
+    long width = (long) maxX - minX + 1;
+    long height = (long) maxY - minY + 1;
+    long cost = PIXELS_PER_SHAPE * layerFrame.size() + filled / 4;
+    if (width * height > MAX_PIXELS || width * height > cost) {
+      frame.append(layerFrame, dx, dy);
+      return null;
+    }
+    BufferedImage image = new BufferedImage((int) width, (int) height,
+            BufferedImage.TYPE_INT_ARGB_PRE);
+    Graphics2D g2d = image.createGraphics();
+    g2d.translate(-minX, -minY);
+    DrawPanel.paintFrame(g2d, layerFrame, colors);
+    g2d.dispose();
+    return new Raster(new LayerImage(image, minX + dx, minY + dy, 0), tick, still, dx, dy,
+            layerModel.getVersion());
+  }
+}
@@ -0,0 +1,200 @@
+package cs3500.easyanimator.view;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A PlaybackClock decides which tick playback should be showing from how much time has passed,
+ * rather than from how many times a timer has fired. A timer can't keep up when sampling and
+ * painting a frame takes longer than its delay, and Swing quietly coalesces the fires it missed,
+ * so counting fires plays heavy scenes slower than their speed. Asking the clock instead skips
+ * the ticks we had no time to draw, and playback stays in real time. A timer driving playback
+ * should fire when the clock says the next tick is due, see {@link #getFrameDelay()}, so timer
+ * jitter doesn't show one tick twice and skip the next.
+ *
+ * <p>The clock also counts the frames actually drawn each second and the ticks it had to skip,
+ * to tell how well playback is keeping up. Only ticks skipped because a timer fired later than the
+ * clock asked count as dropped, not those skipped because a screen can't show them all.</p>
+ *
+ * <p>Given an end tick, the clock stops there rather than running on past the last tick.</p>
+ */
+public final class PlaybackClock {
+  // The least time between two frames, there is no use in drawing faster than a screen shows.
+  private static final int MIN_FRAME_MILLIS = 16;
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final LongSupplier nanoTime;
+  private double speed;
+
+  // Where playback was at the given time, it moves on at our speed from there.
+  private double anchorTick;
+  private long anchorNanos;
+  // The last tick we gave out, and the one we stop at.
+  private int tick;
+  private int endTick;
+  // The tick a timer firing when we asked it to would be given, anything later is dropped.
+  private int dueTick;
+
+  private long droppedTicks;
+  // Frames drawn since the start of the current second, and the rate of the last full second.
+  private int windowFrames;
+  private long windowStart;
+  private double framesPerSecond;
+
+  /**
+   * Create a new clock at tick 0, running at one tick a second, on the system's time.
+   */
+  public PlaybackClock() {
+    this(System::nanoTime);
+  }
+
+  /**
+   * Create a new clock at tick 0, running at one tick a second, on the given time.
+   * @param nanoTime  Gives the current time in nanoseconds, like {@link System#nanoTime()}.
+   * @throws IllegalArgumentException If the time is uninitialized.
+   */
+  public PlaybackClock(LongSupplier nanoTime) {
+    if (nanoTime == null) {
+      throw new IllegalArgumentException("Unable to keep time with an uninitialized time source.");
+    }
+    this.nanoTime = nanoTime;
+    this.speed = 1;
+    this.endTick = Integer.MAX_VALUE;
+    start(0);
+  }
+
+  /**
+   * Sets how many ticks go by each second. Playback carries on from where it is now.
+   * @param tps The ticks per second.
+   * @throws IllegalArgumentException If the speed is not positive.
+   */
+  public void setSpeed(double tps) {
+    if (!(tps > 0)) {
+      throw new IllegalArgumentException("Unable to play at a speed that is not positive.");
+    }
+    long now = nanoTime.getAsLong();
+    this.anchorTick = position(now);
+    this.anchorNanos = now;
+    this.speed = tps;
+    planNextFrame(now);
+  }
+
+  /**
+   * Gives how many ticks go by each second.
+   * @return  The ticks per second.
+   */
+  public double getSpeed() {
+    return speed;
+  }
+
+  /**
+   * Gives how long a timer driving playback should wait before firing again, until the next tick
+   * is due as of now, unless that is sooner than a screen can show.
+   * @return  The delay in milliseconds.
+   */
+  public int getFrameDelay() {
+    return frameDelay(position(nanoTime.getAsLong()));
+  }
+
+  /**
+   * Sets the last tick playback goes to, the clock stays on it once there. The ticks it never gets
+   * to aren't counted as dropped.
+   * @param endTick The last tick, or {@link Integer#MAX_VALUE} to run on, as when looping.
+   */
+  public void setEndTick(int endTick) {
+    this.endTick = endTick;
+  }
+
+  /**
+   * Moves playback to the given tick as of now, as when starting, resuming or jumping to a tick.
+   * @param tick  The tick playback is at now.
+   */
+  public void start(int tick) {
+    long now = nanoTime.getAsLong();
+    this.anchorTick = tick;
+    this.anchorNanos = now;
+    this.tick = tick;
+    this.windowFrames = 0;
+    this.windowStart = now;
+    planNextFrame(now);
+  }
+
+  /**
+   * Gives the tick playback should be showing now, never past the end tick. Any ticks skipped
+   * past the one a timer firing on time would have been given are counted as dropped.
+   * @return  The tick to draw, never before the last one given.
+   */
+  public int advance() {
+    long now = nanoTime.getAsLong();
+    int next = (int) Math.min(endTick, Math.floor(position(now)));
+    if (next > tick) {
+      droppedTicks += Math.max(0, next - dueTick);
+      tick = next;
+    }
+    planNextFrame(now);
+    return tick;
+  }
+
+  /**
+   * Counts a frame drawn, for a tick that wasn't drawn before.
+   */
+  public void frameDrawn() {
+    long now = nanoTime.getAsLong();
+    windowFrames++;
+    if (now - windowStart >= NANOS_PER_SECOND) {
+      framesPerSecond = windowFrames * NANOS_PER_SECOND / (now - windowStart);
+      windowFrames = 0;
+      windowStart = now;
+    }
+  }
+
+  /**
+   * Gives how many frames were drawn over the last full second of playback.
+   * @return  The frames per second, 0 before a second has gone by.
+   */
+  public double getFramesPerSecond() {
+    return framesPerSecond;
+  }
+
+  /**
+   * Gives how many ticks were skipped because a frame wasn't drawn in time for them, past the ones
+   * skipped to draw no faster than a screen shows.
+   * @return  The number of dropped ticks.
+   */
+  public long getDroppedTicks() {
+    return droppedTicks;
+  }
+
+  /**
+   * A private helper to work out the delay until the next tick is due from the given position,
+   * unless that is sooner than a screen can show.
+   * @param position  Where playback is.
+   * @return          The delay in milliseconds.
+   */
+  private int frameDelay(double position) {
+    // Rounding up, firing a moment early would only show the tick we're on again.
+    double millis = Math.ceil((Math.floor(position) + 1 - position) * 1000.0 / speed);
+    return (int) Math.max(MIN_FRAME_MILLIS, Math.min(Integer.MAX_VALUE, millis));
+  }
+
+  /**
+   * A private helper to note the tick a timer asked to fire after the frame delay as of the given
+   * time would be given, so a later fire counts what it skips past that tick as dropped.
+   * @param now The time in nanoseconds.
+   */
+  private void planNextFrame(long now) {
+    double position = position(now);
+    double due = position + frameDelay(position) * speed / 1000.0;
+    // At least the next tick, in case the sum rounds just short of it.
+    double next = Math.max(Math.floor(position) + 1, Math.floor(due));
+    dueTick = (int) Math.min(Integer.MAX_VALUE, next);
+  }
+
+  /**
+   * A private helper to find where playback is at the given time.
+   * @param now The time in nanoseconds.
+   * @return    The tick, with the fraction of the way to the next.
+   */
+  private double position(long now) {
+    return anchorTick + (now - anchorNanos) * speed / NANOS_PER_SECOND;
+  }
+}
@@ -1,14 +1,10 @@
 package cs3500.easyanimator.view;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.SortedSet;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import cs3500.easyanimator.model.Color;
 import cs3500.easyanimator.model.IAnimatorModelViewOnly;
@@ -19,8 +15,9 @@ import cs3500.easyanimator.model.shapes.Oval;
 import cs3500.easyanimator.model.shapes.Rectangle;
 
 /**
- * A SVGAnimationVie is a view of a model's motions in svg format. This creates a String and prints
- * it out to the appendable output and makeVisible's method call.
+ * A SVGAnimationVie is a view of a model's motions in svg format. This writes the document out
+ * to the appendable output on makeVisible's method call, element by element, so the whole document
+ * is never held in memory at once.
  */
 public class SVGAnimationView implements IAnimatorView {
 
@@ -28,18 +25,6 @@ public class SVGAnimationView implements IAnimatorView {
   private IAnimatorModelViewOnly model;
   private double speed;
 
-  private static HashMap<String, String> defaultShapeProperties;
-  private static HashMap<String, String> defaultAnimateProperties;
-
-  // Staticially initialize these default maps.
-  static {
-    defaultAnimateProperties = new HashMap<>();
-    defaultAnimateProperties.put("fill", "freeze");
-    defaultAnimateProperties.put("attributeType", "xml");
-    defaultShapeProperties = new HashMap<>();
-    defaultShapeProperties.put("visibility", "visible");
-  }
-
   /**
    * Create a new SVGAnimationView with the given appendable to output to.
    * @param out The output to write to.
@@ -49,99 +34,13 @@ public class SVGAnimationView implements IAnimatorView {
   }
 
   /**
-   * Create the string for an element.
-   * @param tagName     The tag name for an element.
-   * @param attributes  The attributes of that element as a map.
-   * @param elements    The child elements as a list of a strings.
-   * @return            Returns a string of the element.
-   */
-  private static String createElement(String tagName,
-                                      Map<String, String> attributes,
-                                      List<String> elements) {
-    StringBuilder attributeStringBuilder = new StringBuilder();
-    for (Map.Entry<String, String> attribute: attributes.entrySet()) {
-      attributeStringBuilder.append(String.format("%s=\"%s\" ",
-              attribute.getKey(), attribute.getValue()));
-    }
-    return String.format("<%s %s>\n%s\n</%s>",
-            tagName,
-            attributeStringBuilder.toString().trim(),
-            elements.stream()
-                    .filter(s -> !s.equals(""))
-                    .collect(Collectors.joining("\n"))
-                    .trim(),
-            tagName);
-  }
-
-  /**
-   * Give the color code for the given color instance.
-   * @param c     The color to return the code of.
-   * @return      A string in the format rgb(r,g,b)
-   */
-  private static String getColorCode(Color c) {
-    return String.format("rgb(%d, %d, %d)", c.getRed(), c.getGreen(), c.getBlue());
-  }
-
-  /**
-   * Get a localized time given the given tick and speed.
+   * Get a localized time in milliseconds given the given tick and speed.
    * @param tick  The tick.
    * @param speed The ticks per second to interpret the tick by.
-   * @return      The time in the correct format.
-   */
-  private static String getTime(long tick, double speed) {
-    return String.format("%dms", (long) ((double) tick / speed * 1000.0));
-  }
-
-  /**
-   * Create an animate element for the given motion using the functions and name.
-   * @param motion  The motion to create the element from.
-   * @param attributeName The attributeName to use.
-   * @param from    The function used to transform the motion into a value for from.
-   * @param to      The same as from but for to.
-   * @param speed   The speed of animation.
-   * @return        A string of animates from a motion.
+   * @return      The time in milliseconds.
    */
-  private static String motionToAnimate(IMotion motion, String attributeName,
-                                        Function<IMotion, String> from,
-                                        Function<IMotion, String> to,
-                                        double speed) {
-    String fromStr = from.apply(motion);
-    String toStr = to.apply(motion);
-    if (!toStr.equals(fromStr)) {
-      HashMap<String, String> animateAttributes = new HashMap<>(defaultAnimateProperties);
-      animateAttributes.put("begin",
-              "base.begin+" + getTime(motion.getStartTime(), speed));
-      animateAttributes.put("dur",
-              getTime(motion.getEndTime() - motion.getStartTime(), speed));
-
-      animateAttributes.put("attributeName", attributeName);
-      animateAttributes.put("from", from.apply(motion));
-      animateAttributes.put("to", to.apply(motion));
-      return createElement("animate", animateAttributes, Collections.emptyList());
-    } else {
-      return "";
-    }
-  }
-
-  /**
-   * Create an animate element that loops back to some initial state.
-   * @param attributeName The name of the attribute to reset.
-   * @param from          The field to start from.
-   * @param to            The field to transform to.
-   * @return              A string of an animate element.
-   */
-  private static String loopbackElement(String attributeName, String from, String to) {
-    if (!from.equals(to)) {
-      HashMap<String, String> animateAttributes = new HashMap<>(defaultAnimateProperties);
-      animateAttributes.put("attributeName", attributeName);
-      animateAttributes.put("begin", "base.end");
-      animateAttributes.put("dur", "1ms");
-      animateAttributes.put("from", from);
-      animateAttributes.put("to", to);
-      return createElement("animate", animateAttributes, Collections.emptyList());
-    } else {
-      return "";
-    }
+  private static long getTime(long tick, double speed) {
+    return (long) ((double) tick / speed * 1000.0);
   }
 
   private static String SVG_VERSION = "1.1";
@@ -153,46 +52,50 @@ public class SVGAnimationView implements IAnimatorView {
       throw new IllegalStateException("Unable to create the given view without a model");
     }
 
-    // We will use the function createElement in order to craft everything.
-    // The first thing we need is the svg element. Let's make that now.
-    Map<String, String> svgAttributes = new HashMap<>();
-    svgAttributes.put("xmlns", XMLNS);
-    svgAttributes.put("version", SVG_VERSION);
-    svgAttributes.put("width", Integer.toString(model.getCanvasSize().getWidth()));
-    svgAttributes.put("height", Integer.toString(model.getCanvasSize().getHeight()));
-    svgAttributes.put("viewBox", String.format("%d %d %d %d",
-            model.getCanvasPosition().getX(), model.getCanvasPosition().getY(),
-            model.getCanvasSize().getWidth(), model.getCanvasSize().getHeight()));
-    List<String> svgElements = new ArrayList<>();
-    // We populate the elements array with entries from the model.
-    Map<String, SortedSet<IMotion>> motions = model.getSortedMotions();
-    // We find the last motion in the bunch since it will affect the elements of our shapes.
-    long loopback = model.getMaxTick();
-
-    for (Map.Entry<String, IShape> shape: model.getShapes().entrySet()) {
-      svgElements.add(shape.getValue().accept(
-              new SVGTagCreator(shape.getKey(),
-                      motions.get(shape.getKey()),
-                      speed,
-                      loopback)));
-    }
-
-    // The last element we need to add is the loopingline.
-    HashMap<String, String> loopingLineAttrs = new HashMap<>();
-    loopingLineAttrs.put("id", "loopingline");
-    HashMap<String, String> loopingLineAnimateAttrs = new HashMap<>();
-    loopingLineAnimateAttrs.put("id", "base");
-    loopingLineAnimateAttrs.put("begin", "0;base.end");
-    loopingLineAnimateAttrs.put("dur", getTime(model.getMaxTick(), speed));
-    loopingLineAnimateAttrs.put("attributeName", "visibility");
-    loopingLineAnimateAttrs.put("from", "hide");
-    loopingLineAnimateAttrs.put("to", "hide");
-    List<String> loopingLineElements = Collections.singletonList(createElement("animate",
-            loopingLineAnimateAttrs, Collections.emptyList()));
-    svgElements.add(createElement("line", loopingLineAttrs, loopingLineElements));
-
     try {
-      out.append(createElement("svg", svgAttributes, svgElements));
+      SVGWriter writer = new SVGWriter(out);
+      // The first thing we need is the svg element.
+      // Attributes are written in the order this view has always written them in.
+      writer.start("svg");
+      writer.attribute("xmlns", XMLNS);
+      writer.startAttribute("viewBox");
+      writer.value(model.getCanvasPosition().getX()).value(" ")
+              .value(model.getCanvasPosition().getY()).value(" ")
+              .value(model.getCanvasSize().getWidth()).value(" ")
+              .value(model.getCanvasSize().getHeight());
+      writer.endAttribute();
+      writer.attribute("width", model.getCanvasSize().getWidth());
+      writer.attribute("version", SVG_VERSION);
+      writer.attribute("height", model.getCanvasSize().getHeight());
+
+      // We fill the svg with entries from the model.
+      Map<String, SortedSet<IMotion>> motions = model.getSortedMotions();
+      // We find the last motion in the bunch since it will affect the elements of our shapes.
+      long loopback = model.getMaxTick();
+
+      for (Map.Entry<String, IShape> shape: model.getShapes().entrySet()) {
+        shape.getValue().accept(new SVGTagCreator(writer,
+                shape.getKey(),
+                motions.get(shape.getKey()),
+                speed,
+                loopback));
+      }
+
+      // The last element we need to add is the loopingline.
+      writer.start("line");
+      writer.attribute("id", "loopingline");
+      writer.start("animate");
+      writer.timeAttribute("dur", "", getTime(loopback, speed));
+      writer.attribute("attributeName", "visibility");
+      writer.attribute("from", "hide");
+      writer.attribute("id", "base");
+      writer.attribute("to", "hide");
+      writer.attribute("begin", "0;base.end");
+      writer.end();
+      writer.end();
+
+      writer.end();
+      writer.flush();
     } catch (IOException e) {
       throw new IllegalStateException("Unable to print out svg into malformed output.");
     }
@@ -209,10 +112,157 @@ public class SVGAnimationView implements IAnimatorView {
   }
 
   /**
-   * A visitor class to take in a shape (with an id, and a list of motions) and return
-   * the correct string of the shape and it's animates as children.
+   * An SVGWriter writes elements and attributes straight to an appendable as they are made. Output
+   * is collected in a small buffer which is handed to the appendable whenever it fills up, so
+   * memory use does not depend on the size of the document.
+   *
+   * <p>Elements are laid out the way this view always has: the start tag on its own line, each
+   * child on its own line, and the end tag on its own line. An element without children still
+   * gets an empty line between its tags.</p>
+   */
+  private static class SVGWriter {
+    private static final int FLUSH_AT = 8192;
+
+    private final Appendable out;
+    private final StringBuilder buffer;
+    private final Deque<String> openTags;
+    // Whether the innermost element is still waiting for the '>' of its start tag.
+    private boolean inStartTag;
+
+    /**
+     * Create a new writer for the given output.
+     * @param out The output to write to.
+     */
+    SVGWriter(Appendable out) {
+      this.out = out;
+      this.buffer = new StringBuilder(FLUSH_AT + 256);
+      this.openTags = new ArrayDeque<>();
+      this.inStartTag = false;
+    }
+
+    /**
+     * Starts a new element inside the current one. Attributes can be written until the next
+     * element is started or this one is ended.
+     * @param tagName The tag name of the element.
+     * @throws IOException If the output can't be written to.
+     */
+    void start(String tagName) throws IOException {
+      if (inStartTag) {
+        buffer.append(">\n"); // We are the first child of our parent.
+      } else if (!openTags.isEmpty()) {
+        buffer.append('\n'); // We follow a sibling.
+      }
+      buffer.append('<').append(tagName);
+      openTags.push(tagName);
+      inStartTag = true;
+    }
+
+    /**
+     * Ends the current element.
+     * @throws IOException If the output can't be written to.
+     */
+    void end() throws IOException {
+      if (inStartTag) {
+        buffer.append(">\n");
+        inStartTag = false;
+      }
+      buffer.append("\n</").append(openTags.pop()).append('>');
+      if (buffer.length() >= FLUSH_AT) {
+        flush();
+      }
+    }
+
+    /**
+     * Starts an attribute of the current element, the value is written with the value methods.
+     * @param name  The name of the attribute.
+     * @return      This writer, for chaining values.
+     */
+    SVGWriter startAttribute(String name) {
+      buffer.append(' ').append(name).append("=\"");
+      return this;
+    }
+
+    /**
+     * Writes part of the value of the current attribute.
+     * @param value The text to write.
+     * @return      This writer, for chaining values.
+     */
+    SVGWriter value(String value) {
+      buffer.append(value);
+      return this;
+    }
+
+    /**
+     * Writes part of the value of the current attribute.
+     * @param value The number to write.
+     * @return      This writer, for chaining values.
+     */
+    SVGWriter value(long value) {
+      buffer.append(value);
+      return this;
+    }
+
+    /**
+     * Ends the current attribute.
+     */
+    void endAttribute() {
+      buffer.append('"');
+    }
+
+    /**
+     * Writes a whole attribute of the current element.
+     * @param name  The name of the attribute.
+     * @param value The value of the attribute.
+     */
+    void attribute(String name, String value) {
+      startAttribute(name).value(value).endAttribute();
+    }
+
+    /**
+     * Writes a whole attribute of the current element.
+     * @param name  The name of the attribute.
+     * @param value The value of the attribute.
+     */
+    void attribute(String name, long value) {
+      startAttribute(name).value(value).endAttribute();
+    }
+
+    /**
+     * Writes a color attribute of the current element in the format rgb(r, g, b).
+     * @param name  The name of the attribute.
+     * @param c     The color to write.
+     */
+    void colorAttribute(String name, Color c) {
+      startAttribute(name).value("rgb(").value(c.getRed()).value(", ").value(c.getGreen())
+              .value(", ").value(c.getBlue()).value(")").endAttribute();
+    }
+
+    /**
+     * Writes a time attribute of the current element.
+     * @param name    The name of the attribute.
+     * @param prefix  Anything to put before the time, like "base.begin+".
+     * @param millis  The time in milliseconds.
+     */
+    void timeAttribute(String name, String prefix, long millis) {
+      startAttribute(name).value(prefix).value(millis).value("ms").endAttribute();
+    }
+
+    /**
+     * Hands everything buffered so far to the output.
+     * @throws IOException If the output can't be written to.
+     */
+    void flush() throws IOException {
+      out.append(buffer);
+      buffer.setLength(0);
+    }
+  }
+
+  /**
+   * A visitor class to take in a shape (with an id, and a list of motions) and write out
+   * the correct element of the shape and it's animates as children.
    */
-  private static class SVGTagCreator implements IShapeVisitor<String> {
+  private static class SVGTagCreator implements IShapeVisitor<Void> {
+    private final SVGWriter writer;
     private final String id;
     private final SortedSet<IMotion> motions;
     private final double speed;
@@ -220,184 +270,265 @@ public class SVGAnimationView implements IAnimatorView {
 
     /**
      * Create a new instance of the tag creator.
+     * @param writer  The writer to write the element to.
      * @param id      The id of the element to use.
      * @param motions The motions to put into animates.
      * @param speed   The speed of the element.
      * @param loopback  When to loop elements back.
      */
-    SVGTagCreator(String id, SortedSet<IMotion> motions, double speed, long loopback) {
+    SVGTagCreator(SVGWriter writer, String id, SortedSet<IMotion> motions, double speed,
+                  long loopback) {
+      this.writer = writer;
       this.id = id;
       this.motions = motions;
       this.speed = speed;
       this.loopback = loopback;
     }
 
-    @Override
-    public String applyToRectangle(Rectangle r) {
-      HashMap<String, String> rectangleAttributes = new HashMap<>(defaultShapeProperties);
-      List<String> rectangleElements = new ArrayList<>();
+    /**
+     * Writes the start of an animate element, everything up to from and to.
+     * @param attributeName The attributeName to use.
+     * @param durMillis     The duration of the animate in milliseconds.
+     * @throws IOException  If the output can't be written to.
+     */
+    private void startAnimate(String attributeName, long durMillis) throws IOException {
+      writer.start("animate");
+      writer.timeAttribute("dur", "", durMillis);
+      writer.attribute("attributeType", "xml");
+      writer.attribute("attributeName", attributeName);
+    }
 
-      if (motions.size() == 0) {
-        // We just won't create the element if it has no motions.
-        return "";
+    /**
+     * Writes the end of an animate element, everything after from and to.
+     * @param begin         The begin value of the animate.
+     * @param beginMillis   A time to add to the begin value, or -1 for none.
+     * @throws IOException  If the output can't be written to.
+     */
+    private void endAnimate(String begin, long beginMillis) throws IOException {
+      writer.attribute("fill", "freeze");
+      if (beginMillis < 0) {
+        writer.attribute("begin", begin);
+      } else {
+        writer.timeAttribute("begin", begin, beginMillis);
       }
-      // Motions is sorted. So we can initialize our shape with the first state properties.
-      // We will re-use this variable later.
-      IMotion initialMotion = motions.first();
-      IMotion lastMotion = motions.last();
-      rectangleAttributes.put("id", id);
-      rectangleAttributes.put("width", Integer.toString(initialMotion.getStartSize().getWidth()));
-      rectangleAttributes.put("height", Integer.toString(initialMotion.getStartSize().getHeight()));
-      rectangleAttributes.put("x", Integer.toString(initialMotion.getStartPosition().getX()));
-      rectangleAttributes.put("y", Integer.toString(initialMotion.getStartPosition().getY()));
-      rectangleAttributes.put("fill", getColorCode(initialMotion.getStartColor()));
-
-      for (IMotion motion: motions) {
-        rectangleElements.add(motionToAnimate(motion, "width", fromW, toW, speed));
-        rectangleElements.add(motionToAnimate(motion, "height", fromH, toH, speed));
-        rectangleElements.add(motionToAnimate(motion, "x", fromX, toX, speed));
-        rectangleElements.add(motionToAnimate(motion, "y", fromY, toY, speed));
-        rectangleElements.add(motionToAnimate(motion, "fill", fromColor, toColor, speed));
+      writer.end();
+    }
+
+    /**
+     * Write an animate element for the given motion of a number attribute, if it changes.
+     * @param motion        The motion to create the element from.
+     * @param attributeName The attributeName to use.
+     * @param from          The value at the start of the motion.
+     * @param to            The value at the end of the motion.
+     * @throws IOException  If the output can't be written to.
+     */
+    private void motionToAnimate(IMotion motion, String attributeName, int from, int to)
+            throws IOException {
+      if (from == to) {
+        return;
       }
+      startAnimate(attributeName, getTime(motion.getEndTime() - motion.getStartTime(), speed));
+      writer.attribute("from", from);
+      writer.attribute("to", to);
+      endAnimate("base.begin+", getTime(motion.getStartTime(), speed));
+    }
+
+    /**
+     * Write an animate element for the color of the given motion, if it changes.
+     * @param motion        The motion to create the element from.
+     * @throws IOException  If the output can't be written to.
+     */
+    private void motionToColorAnimate(IMotion motion) throws IOException {
+      if (sameColor(motion.getStartColor(), motion.getEndColor())) {
+        return;
+      }
+      startAnimate("fill", getTime(motion.getEndTime() - motion.getStartTime(), speed));
+      writer.colorAttribute("from", motion.getStartColor());
+      writer.colorAttribute("to", motion.getEndColor());
+      endAnimate("base.begin+", getTime(motion.getStartTime(), speed));
+    }
+
+    /**
+     * Write an animate element that loops a number attribute back to some initial state.
+     * @param attributeName The name of the attribute to reset.
+     * @param from          The value to start from.
+     * @param to            The value to transform to.
+     * @throws IOException  If the output can't be written to.
+     */
+    private void loopbackElement(String attributeName, int from, int to) throws IOException {
+      if (from == to) {
+        return;
+      }
+      startAnimate(attributeName, 1);
+      writer.attribute("from", from);
+      writer.attribute("to", to);
+      endAnimate("base.end", -1);
+    }
 
-      addVisibilityAnimates(rectangleElements,
-              initialMotion.getStartTime(), lastMotion.getEndTime());
-
-      rectangleElements.add(loopbackElement("width",
-              Integer.toString(lastMotion.getEndSize().getWidth()),
-              Integer.toString(initialMotion.getStartSize().getWidth())));
-      rectangleElements.add(loopbackElement("height",
-              Integer.toString(lastMotion.getEndSize().getHeight()),
-              Integer.toString(initialMotion.getStartSize().getHeight())));
-      rectangleElements.add(loopbackElement("x",
-              Integer.toString(lastMotion.getEndPosition().getX()),
-              Integer.toString(initialMotion.getStartPosition().getX())));
-      rectangleElements.add(loopbackElement("y",
-              Integer.toString(lastMotion.getEndPosition().getY()),
-              Integer.toString(initialMotion.getStartPosition().getY())));
-      rectangleElements.add(loopbackElement("fill",
-              getColorCode(lastMotion.getEndColor()),
-              getColorCode(initialMotion.getStartColor())));
-
-      return createElement("rect", rectangleAttributes, rectangleElements);
+    /**
+     * Write an animate element that loops the color back to some initial state.
+     * @param from          The color to start from.
+     * @param to            The color to transform to.
+     * @throws IOException  If the output can't be written to.
+     */
+    private void loopbackColorElement(Color from, Color to) throws IOException {
+      if (sameColor(from, to)) {
+        return;
+      }
+      startAnimate("fill", 1);
+      writer.colorAttribute("from", from);
+      writer.colorAttribute("to", to);
+      endAnimate("base.end", -1);
     }
 
-    private Function<IMotion, String> fromW = m -> "" + m.getStartSize().getWidth();
-    private Function<IMotion, String> toW = m -> "" + m.getEndSize().getWidth();
-    private Function<IMotion, String> fromX = m -> "" + m.getStartPosition().getX();
-    private Function<IMotion, String> toX = m -> "" + m.getEndPosition().getX();
-    private Function<IMotion, String> fromH = m -> "" + m.getStartSize().getHeight();
-    private Function<IMotion, String> toH = m -> "" + m.getEndSize().getHeight();
-    private Function<IMotion, String> fromY = m -> "" + m.getStartPosition().getY();
-    private Function<IMotion, String> toY = m -> "" + m.getEndPosition().getY();
-
-    private Function<IMotion, String> fromColor = m -> getColorCode(m.getStartColor());
-    private Function<IMotion, String> toColor = m -> getColorCode(m.getEndColor());
-
-    private Function<IMotion, String> fromRX = m -> "" + m.getStartSize().getWidth() / 2;
-    private Function<IMotion, String> toRX = m -> "" + m.getEndSize().getWidth() / 2;
-    private Function<IMotion, String> fromCX = m -> "" + (m.getStartPosition().getX() +
-            m.getStartSize().getWidth() / 2);
-    private Function<IMotion, String> toCX = m -> "" + (m.getEndPosition().getX() +
-            m.getEndSize().getWidth() / 2);
-    private Function<IMotion, String> fromRY = m -> "" + m.getStartSize().getHeight() / 2;
-    private Function<IMotion, String> toRY = m -> "" + m.getEndSize().getHeight() / 2;
-    private Function<IMotion, String> fromCY = m -> "" + (m.getStartPosition().getY() +
-            m.getStartSize().getHeight() / 2);
-    private Function<IMotion, String> toCY = m -> "" + (m.getEndPosition().getY() +
-            m.getEndSize().getHeight() / 2);
+    /**
+     * A helper to check if two colors would be written the same.
+     * @param a The first color.
+     * @param b The second color.
+     * @return  True if they have the same components.
+     */
+    private static boolean sameColor(Color a, Color b) {
+      return a.getRed() == b.getRed() && a.getGreen() == b.getGreen()
+              && a.getBlue() == b.getBlue();
+    }
 
     /**
-     * Adds visibility animates if necessary.
-     * @param elements  The elements to prepend or append.
+     * Writes the animate to toggle visibility on, if necessary.
      * @param initialTick The first motion tick of the element.
-     * @param finalTick The final motion tick of the element
+     * @throws IOException  If the output can't be written to.
      */
-    private void addVisibilityAnimates(List<String> elements, long initialTick, long finalTick) {
+    private void toggleOnAnimate(long initialTick) throws IOException {
       if (initialTick > 0) {
-        Map<String, String> toggleOnAttributes = new HashMap<>(defaultAnimateProperties);
-        toggleOnAttributes.put("begin", "base.begin+0ms");
-        toggleOnAttributes.put("dur", getTime(initialTick, speed));
-        toggleOnAttributes.put("attributeName", "visibility");
-        toggleOnAttributes.put("from", "hide");
-        toggleOnAttributes.put("to", "visible");
-        elements.add(0, createElement("animate",
-                toggleOnAttributes, Collections.emptyList()));
+        startAnimate("visibility", getTime(initialTick, speed));
+        writer.attribute("from", "hide");
+        writer.attribute("to", "visible");
+        endAnimate("base.begin+", 0);
       }
+    }
 
+    /**
+     * Writes the animate to toggle visibility off, if necessary.
+     * @param finalTick The final motion tick of the element
+     * @throws IOException  If the output can't be written to.
+     */
+    private void toggleOffAnimate(long finalTick) throws IOException {
       if (finalTick < loopback) {
-        Map<String, String> toggleOffAttributes = new HashMap<>(defaultAnimateProperties);
-        toggleOffAttributes.put("begin", "base.begin+0ms");
-        toggleOffAttributes.put("dur", getTime(loopback - finalTick, speed));
-        toggleOffAttributes.put("attributeName", "visibility");
-        toggleOffAttributes.put("from", "visible");
-        toggleOffAttributes.put("to", "hide");
-        elements.add(createElement("animate",
-                toggleOffAttributes, Collections.emptyList()));
+        startAnimate("visibility", getTime(loopback - finalTick, speed));
+        writer.attribute("from", "visible");
+        writer.attribute("to", "hide");
+        endAnimate("base.begin+", 0);
       }
     }
 
     @Override
-    public String applyToOval(Oval o) {
-      HashMap<String, String> ellipseAttributes = new HashMap<>(defaultShapeProperties);
-      List<String> ellipseElements = new ArrayList<>();
-
+    public Void applyToRectangle(Rectangle r) {
       if (motions.size() == 0) {
         // We just won't create the element if it has no motions.
-        return "";
+        return null;
       }
       // Motions is sorted. So we can initialize our shape with the first state properties.
-      // We will re-use this variable later.
       IMotion initialMotion = motions.first();
       IMotion lastMotion = motions.last();
-      ellipseAttributes.put("id", id);
-      ellipseAttributes.put("rx", Integer.toString(initialMotion.getStartSize().getWidth() / 2));
-      ellipseAttributes.put("ry", Integer.toString(initialMotion.getStartSize().getHeight() / 2));
-      ellipseAttributes.put("cx",
-              Integer.toString(initialMotion.getStartPosition().getX() +
-                      initialMotion.getStartSize().getWidth() / 2));
-      ellipseAttributes.put("cy",
-              Integer.toString(initialMotion.getStartPosition().getY() +
-                      initialMotion.getStartSize().getHeight() / 2));
-      ellipseAttributes.put("fill", getColorCode(initialMotion.getStartColor()));
-
-      for (IMotion motion: motions) {
-        ellipseElements.add(motionToAnimate(motion, "rx", fromRX, toRX, speed));
-        ellipseElements.add(motionToAnimate(motion, "ry", fromRY, toRY, speed));
-        ellipseElements.add(motionToAnimate(motion, "cx", fromCX, toCX, speed));
-        ellipseElements.add(motionToAnimate(motion, "cy", fromCY, toCY, speed));
-        ellipseElements.add(motionToAnimate(motion, "fill", fromColor, toColor, speed));
+      try {
+        writer.start("rect");
+        writer.attribute("visibility", "visible");
+        writer.attribute("width", initialMotion.getStartSize().getWidth());
+        writer.attribute("x", initialMotion.getStartPosition().getX());
+        writer.attribute("y", initialMotion.getStartPosition().getY());
+        writer.attribute("id", id);
+        writer.colorAttribute("fill", initialMotion.getStartColor());
+        writer.attribute("height", initialMotion.getStartSize().getHeight());
+
+        toggleOnAnimate(initialMotion.getStartTime());
+        for (IMotion m: motions) {
+          motionToAnimate(m, "width", m.getStartSize().getWidth(), m.getEndSize().getWidth());
+          motionToAnimate(m, "height", m.getStartSize().getHeight(), m.getEndSize().getHeight());
+          motionToAnimate(m, "x", m.getStartPosition().getX(), m.getEndPosition().getX());
+          motionToAnimate(m, "y", m.getStartPosition().getY(), m.getEndPosition().getY());
+          motionToColorAnimate(m);
+        }
+        toggleOffAnimate(lastMotion.getEndTime());
+
+        loopbackElement("width",
+                lastMotion.getEndSize().getWidth(),
+                initialMotion.getStartSize().getWidth());
+        loopbackElement("height",
+                lastMotion.getEndSize().getHeight(),
+                initialMotion.getStartSize().getHeight());
+        loopbackElement("x",
+                lastMotion.getEndPosition().getX(),
+                initialMotion.getStartPosition().getX());
+        loopbackElement("y",
+                lastMotion.getEndPosition().getY(),
+                initialMotion.getStartPosition().getY());
+        loopbackColorElement(lastMotion.getEndColor(), initialMotion.getStartColor());
+        writer.end();
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to print out svg into malformed output.");
       }
+      return null;
+    }
 
-      // Following this we need to create three elements.
-      // Something to toggle visibility on (if applicable).
-      // Something to toggle visibility off (if applicable).
-      // Something to loop our initial state back.
-      addVisibilityAnimates(ellipseElements,
-              initialMotion.getStartTime(), lastMotion.getEndTime());
-      // Now we loop back to our initial state.
-      ellipseElements.add(loopbackElement("rx",
-              Integer.toString(lastMotion.getEndSize().getWidth() / 2),
-              Integer.toString(initialMotion.getStartSize().getWidth() / 2)));
-      ellipseElements.add(loopbackElement("ry",
-              Integer.toString(lastMotion.getEndSize().getHeight() / 2),
-              Integer.toString(initialMotion.getStartSize().getHeight() / 2)));
-      ellipseElements.add(loopbackElement("cx",
-              Integer.toString(lastMotion.getEndPosition().getX() +
-                      lastMotion.getEndSize().getWidth() / 2),
-              Integer.toString(initialMotion.getStartPosition().getX() +
-                      initialMotion.getStartSize().getWidth() / 2)));
-      ellipseElements.add(loopbackElement("y",
-              Integer.toString(lastMotion.getEndPosition().getY() +
-                      lastMotion.getEndSize().getHeight() / 2),
-              Integer.toString(initialMotion.getStartPosition().getY() +
-                      initialMotion.getStartSize().getHeight() / 2)));
-      ellipseElements.add(loopbackElement("fill",
-              getColorCode(lastMotion.getEndColor()),
-              getColorCode(initialMotion.getStartColor())));
-
-
-      return createElement("ellipse", ellipseAttributes, ellipseElements);
+    @Override
+    public Void applyToOval(Oval o) {
+      if (motions.size() == 0) {
+        // We just won't create the element if it has no motions.
+        return null;
+      }
+      // Motions is sorted. So we can initialize our shape with the first state properties.
+      IMotion initialMotion = motions.first();
+      IMotion lastMotion = motions.last();
+      try {
+        writer.start("ellipse");
+        writer.attribute("visibility", "visible");
+        writer.attribute("cx", initialMotion.getStartPosition().getX() +
+                initialMotion.getStartSize().getWidth() / 2);
+        writer.attribute("rx", initialMotion.getStartSize().getWidth() / 2);
+        writer.attribute("cy", initialMotion.getStartPosition().getY() +
+                initialMotion.getStartSize().getHeight() / 2);
+        writer.attribute("ry", initialMotion.getStartSize().getHeight() / 2);
+        writer.attribute("id", id);
+        writer.colorAttribute("fill", initialMotion.getStartColor());
+
+        // Something to toggle visibility on (if applicable).
+        toggleOnAnimate(initialMotion.getStartTime());
+        for (IMotion m: motions) {
+          motionToAnimate(m, "rx",
+                  m.getStartSize().getWidth() / 2, m.getEndSize().getWidth() / 2);
+          motionToAnimate(m, "ry",
+                  m.getStartSize().getHeight() / 2, m.getEndSize().getHeight() / 2);
+          motionToAnimate(m, "cx",
+                  m.getStartPosition().getX() + m.getStartSize().getWidth() / 2,
+                  m.getEndPosition().getX() + m.getEndSize().getWidth() / 2);
+          motionToAnimate(m, "cy",
+                  m.getStartPosition().getY() + m.getStartSize().getHeight() / 2,
+                  m.getEndPosition().getY() + m.getEndSize().getHeight() / 2);
+          motionToColorAnimate(m);
+        }
+        // Something to toggle visibility off (if applicable).
+        toggleOffAnimate(lastMotion.getEndTime());
+
+        // Now we loop back to our initial state.
+        loopbackElement("rx",
+                lastMotion.getEndSize().getWidth() / 2,
+                initialMotion.getStartSize().getWidth() / 2);
+        loopbackElement("ry",
+                lastMotion.getEndSize().getHeight() / 2,
+                initialMotion.getStartSize().getHeight() / 2);
+        loopbackElement("cx",
+                lastMotion.getEndPosition().getX() + lastMotion.getEndSize().getWidth() / 2,
+                initialMotion.getStartPosition().getX() +
+                        initialMotion.getStartSize().getWidth() / 2);
+        loopbackElement("y",
+                lastMotion.getEndPosition().getY() + lastMotion.getEndSize().getHeight() / 2,
+                initialMotion.getStartPosition().getY() +
+                        initialMotion.getStartSize().getHeight() / 2);
+        loopbackColorElement(lastMotion.getEndColor(), initialMotion.getStartColor());
+        writer.end();
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to print out svg into malformed output.");
+      }
+      return null;
     }
   }
-}
\ No newline at end of file
+}
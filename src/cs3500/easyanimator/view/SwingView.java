@@ -1,11 +1,13 @@
 package cs3500.easyanimator.view;
 
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JScrollPane;
 import javax.swing.Timer;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.IAnimatorModelViewOnly;
 import cs3500.easyanimator.model.shapes.WidthHeight;
 
@@ -17,6 +19,11 @@ public class SwingView extends JFrame implements IAnimatorView {
   private DrawPanel mainPanel;
   private Timer timer;
   private int tick;
+  // Decides the tick to draw from the time gone by, so slow frames skip ticks instead of lagging.
+  private final PlaybackClock clock;
+  private final FrameBuffer frame;
+  // Shows how well playback is keeping up.
+  private final JLabel statsLabel;
 
   /**
    * Basic constructor for the SwingView to use.
@@ -27,11 +34,18 @@ public class SwingView extends JFrame implements IAnimatorView {
     this.setSize(new Dimension(800, 600));
     this.tick = 0;
     this.mainPanel = new DrawPanel();
+    this.frame = new FrameBuffer();
+    this.clock = new PlaybackClock();
     JScrollPane scrollPane = new JScrollPane(mainPanel);
     this.add(scrollPane, BorderLayout.CENTER);
+    this.statsLabel = new JLabel(" ");
+    this.add(statsLabel, BorderLayout.SOUTH);
     this.setResizable(true);
     this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-    this.timer = new Timer(30, e -> this.refresh());
+    this.timer = new Timer(clock.getFrameDelay(), e -> {
+      this.refresh();
+      this.scheduleRefresh();
+    });
     // We don't need to start this timer until we have a model.
   }
 
@@ -56,7 +70,9 @@ public class SwingView extends JFrame implements IAnimatorView {
     this.mainPanel.setMaximumSize(canvasDimension);
     // Repack.
     pack();
-    timer.start();
+    drawTick();
+    clock.start(0);
+    scheduleRefresh();
   }
 
   @Override
@@ -64,15 +80,45 @@ public class SwingView extends JFrame implements IAnimatorView {
     if (tps <= 0) {
       throw new IllegalArgumentException("Speed must be integer greater than 0.");
     }
-    timer.setDelay(((int) (1.0 / tps * 1000)));
+    clock.setSpeed(tps);
+    if (timer.isRunning()) {
+      scheduleRefresh();
+    }
+  }
+
+  /**
+   * Has the timer fire next when the clock's next tick is due, rather than a fixed delay after it
+   * last fired, so jitter doesn't show a tick twice and skip the one after.
+   */
+  private void scheduleRefresh() {
+    timer.setInitialDelay(clock.getFrameDelay());
+    timer.restart();
   }
 
   /**
    * Do whatever methods are necessary to refresh all the components in this view.
    */
   private void refresh() {
-    this.tick = (this.tick + 1) % model.getMaxTick();
-    mainPanel.setShapes(model.getShapesAtTick(tick));
-    mainPanel.repaint();
+    int next = clock.advance() % model.getMaxTick();
+    if (next == tick) {
+      // Nothing new to draw, the timer fired before the next tick was due.
+      return;
+    }
+    this.tick = next;
+    drawTick();
+  }
+
+  /**
+   * Samples the model at the current tick into our frame and repaints with it.
+   */
+  private void drawTick() {
+    // We reuse the same frame every tick rather than asking the model for a new list of shapes.
+    frame.clear();
+    model.fillShapesAtTick(tick, frame);
+    mainPanel.setFrame(frame);
+    mainPanel.repaintChanges();
+    clock.frameDrawn();
+    statsLabel.setText(String.format(" %.0f fps, %d ticks dropped",
+            clock.getFramesPerSecond(), clock.getDroppedTicks()));
   }
 }
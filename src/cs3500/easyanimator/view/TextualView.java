@@ -94,22 +94,8 @@ public class TextualView implements IAnimatorView {
 
     @Override
     public String applyToBasicMotion(BasicMotion b) {
-      return b.getStartTime() + " "
-              + b.getStartPosition().getX() + " "
-              + b.getStartPosition().getY() + " "
-              + b.getStartSize().getWidth() + " "
-              + b.getStartSize().getHeight() + " "
-              + b.getStartColor().getRed() + " "
-              + b.getStartColor().getGreen() + " "
-              + b.getStartColor().getBlue() + " "
-              + b.getEndTime() + " "
-              + b.getEndPosition().getX() + " "
-              + b.getEndPosition().getY() + " "
-              + b.getEndSize().getWidth() + " "
-              + b.getEndSize().getHeight() + " "
-              + b.getEndColor().getRed() + " "
-              + b.getEndColor().getGreen() + " "
-              + b.getEndColor().getBlue();
+      // A basic motion already prints itself in the format of the text view.
+      return b.toString();
     }
   }
 
@@ -6,11 +6,14 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  * Tests class for all the methods of the Color class.
  */
-class TestColor {
+public class TestColor {
   private Color testColor = new Color(50, 100, 150);
 
   @Test
@@ -39,4 +42,52 @@ class TestColor {
     assertNotEquals(color2, color3);
 
   }
+
+  @Test
+  public void testRGB() {
+    assertEquals(0x326496, testColor.getRGB());
+    assertEquals(testColor, Color.ofRGB(0x326496));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRGBOutOfRange() {
+    Color.ofRGB(0x1000000);
+  }
+
+  @Test
+  public void testOf() {
+    Color color = Color.of(50, 100, 150);
+    assertEquals(testColor, color);
+    assertSame(color, Color.of(50, 100, 150));
+    assertSame(color, Color.ofRGB(0x326496));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOfBelowRange() {
+    Color.of(0, -1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOfAboveRange() {
+    Color.of(0, 0, 256);
+  }
+
+  @Test
+  public void testOfSlotCollision() {
+    Color first = Color.of(1, 2, 3);
+    // Walk through colors until one takes the first color's slot, which a fresh first shows.
+    for (int rgb = 0; rgb <= 0xFFFFFF; rgb++) {
+      Color other = Color.ofRGB(rgb);
+      Color again = Color.of(1, 2, 3);
+      if (again != first) {
+        assertEquals(rgb, other.getRGB());
+        assertEquals(1, again.getRed());
+        assertEquals(2, again.getGreen());
+        assertEquals(3, again.getBlue());
+        assertNotSame(other, again);
+        return;
+      }
+    }
+    fail("No color shared a slot with another.");
+  }
 }
@@ -2,6 +2,7 @@ package testmodel.testeasyanimator;
 
 import cs3500.easyanimator.model.Color;
 import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.OffHeapAnimator;
 import cs3500.easyanimator.model.Point;
 import org.junit.Test;
 
@@ -43,6 +44,16 @@ public abstract class AnimatorModelTest {
     }
   }
 
+  /**
+   * A test class to set the IAnimatorModel tests onto the OffHeapAnimator implementation.
+   */
+  public static class OffHeapAnimatorTest extends AnimatorModelTest {
+    @Override
+    IAnimatorModel model() {
+      return new OffHeapAnimator();
+    }
+  }
+
   // When we have an implementing class this with be evaluated for each test suite instance.
   // We also have this variable because these tests were originally written with this variable
   //  equal to a specific implementation of the EasyAnimator class.
@@ -497,6 +508,37 @@ public abstract class AnimatorModelTest {
             m3.getEndTime(), model.getMaxTick());
   }
 
+  /**
+   * The max tick should follow edits back down as well as up.
+   */
+  @Test
+  public void testGetMaxTickAfterRemovals() {
+    WidthHeight widthHeight = new WidthHeight(100, 100);
+    Point point = new Point(100, 100);
+    Color color = new Color(255, 255, 255);
+    model.addShape("sample", new Rectangle(widthHeight, point, color));
+    model.addShape("sample2", new Oval(widthHeight, point, color));
+    IMotion m = new BasicMotion(0, 100, widthHeight, widthHeight, point, point, color, color);
+    IMotion m2 = new BasicMotion(0, 300, widthHeight, widthHeight, point, point, color, color);
+    model.addMotion("sample", m);
+    model.addMotion("sample2", m2);
+    assertEquals(300, model.getMaxTick());
+    model.addKeyframe("sample", new Rectangle(widthHeight, point, color), 400);
+    assertEquals(400, model.getMaxTick());
+    model.removeKeyframe("sample", 400);
+    assertEquals("Removing the last keyframe should bring the max tick back down.",
+            300, model.getMaxTick());
+    model.removeMotion("sample2", m2);
+    assertEquals("Removing the latest motion should bring the max tick back down.",
+            100, model.getMaxTick());
+    model.addMotion("sample2", m2);
+    model.removeShape("sample2");
+    assertEquals("Removing the latest shape should bring the max tick back down.",
+            100, model.getMaxTick());
+    model.removeShape("sample");
+    assertEquals(0, model.getMaxTick());
+  }
+
   /**
    * A small set of tests around the getShapeMaxTick method. This is very similar to getMaxTick
    * tests except we don't add new shapes.
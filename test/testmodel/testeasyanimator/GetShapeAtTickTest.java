@@ -2,6 +2,7 @@ package testmodel.testeasyanimator;
 
 import cs3500.easyanimator.model.Color;
 import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.FrameBuffer;
 import cs3500.easyanimator.model.IAnimatorModel;
 import cs3500.easyanimator.model.Point;
 import cs3500.easyanimator.model.motions.BasicMotion;
@@ -11,6 +12,10 @@ import cs3500.easyanimator.model.shapes.Rectangle;
 import cs3500.easyanimator.model.shapes.WidthHeight;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
@@ -74,4 +79,152 @@ public class GetShapeAtTickTest {
     this.model.setCanvas(new Point(0,0), new WidthHeight(500, 500));
     assertEquals(1, model.getShapesAtTick(5).size());
   }
+
+  @Test
+  public void testGetShapeAtTickAfterEdits() {
+    Rectangle r = new Rectangle(new WidthHeight(100, 100),
+            new Point(100, 100), new Color(100,100,100));
+    model.addShape("R", r);
+    model.setCanvas(new Point(0,0), new WidthHeight(500, 500));
+    model.addMotion("R", new BasicMotion(0, 10,
+            new WidthHeight(100, 100), new WidthHeight(200, 300),
+            new Point(100, 100), new Point(300, 400),
+            new Color(0,0,0), new Color(50,100,200)));
+    // Sampling once compiles the keyframes, the edits below should still be seen.
+    assertEquals(200, model.getShapeAtTick("R", 5).getPosition().getX());
+
+    model.addKeyframe("R", new Rectangle(new WidthHeight(100, 100),
+            new Point(0, 0), new Color(0, 0, 0)), 5);
+    assertEquals(0, model.getShapeAtTick("R", 5).getPosition().getX());
+    assertEquals(120, model.getShapeAtTick("R", 7).getPosition().getX());
+
+    model.removeKeyframe("R", 5);
+    assertEquals(200, model.getShapeAtTick("R", 5).getPosition().getX());
+
+    model.addKeyframe("R", new Rectangle(new WidthHeight(200, 300),
+            new Point(300, 400), new Color(50,100,200)), 20);
+    assertEquals(300, model.getShapeAtTick("R", 15).getPosition().getX());
+    assertNull(model.getShapeAtTick("R", 21));
+
+    // Moving the canvas moves the shapes we sample.
+    model.setCanvas(new Point(100, 100), new WidthHeight(500, 500));
+    assertEquals(100, model.getShapeAtTick("R", 5).getPosition().getX());
+    assertEquals(150, model.getShapeAtTick("R", 5).getPosition().getY());
+  }
+
+  @Test
+  public void testFillShapesAtTick() {
+    Oval c = new Oval(new WidthHeight(100, 100),
+            new Point(100, 100), new Color(255, 0, 0));
+    Rectangle r = new Rectangle(new WidthHeight(100, 100),
+            new Point(100, 100), new Color(100,100,100));
+    model.addShape("C", c);
+    model.addShape("R", r);
+    model.addMotion("C", new BasicMotion(0, 20,
+            new WidthHeight(100, 100), new WidthHeight(200, 200),
+            new Point(100, 100), new Point(300, 300),
+            new Color(0,0,0), new Color(200,200,200)));
+    model.addMotion("R", new BasicMotion(0, 10,
+            new WidthHeight(100, 100), new WidthHeight(200, 300),
+            new Point(100, 100), new Point(300, 400),
+            new Color(0,0,0), new Color(50,100,200)));
+    model.setCanvas(new Point(0,0), new WidthHeight(500, 500));
+
+    FrameBuffer frame = new FrameBuffer(0);
+    model.fillShapesAtTick(5, frame);
+    assertEquals(2, frame.size());
+    // Shapes come out in the order they were added.
+    assertEquals(FrameBuffer.OVAL, frame.getType(0));
+    assertEquals(FrameBuffer.RECTANGLE, frame.getType(1));
+    assertEquals(200, frame.getX(1));
+    assertEquals(250, frame.getY(1));
+    assertEquals(150, frame.getWidth(1));
+    assertEquals(200, frame.getHeight(1));
+    assertEquals((25 << 16) | (50 << 8) | 100, frame.getRGB(1));
+
+    // The frame is appended to, it is up to the caller to clear it.
+    model.fillShapesAtTick(15, frame);
+    assertEquals(3, frame.size());
+    frame.clear();
+    model.fillShapesAtTick(15, frame);
+    assertEquals(1, frame.size());
+    assertEquals(FrameBuffer.OVAL, frame.getType(0));
+    assertEquals(model.getShapesAtTick(15).get(0).getPosition().getX(), frame.getX(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFillShapesAtTickNullFrame() {
+    model.fillShapesAtTick(0, null);
+  }
+
+  /**
+   * A helper to check that getShapesAtTick matches asking for every shape one at a time.
+   * @param tick  The tick to check.
+   */
+  private void assertMatchesEachShape(int tick) {
+    List<IShape> expected = new ArrayList<>();
+    for (String id : model.getShapes().keySet()) {
+      IShape shape = model.getShapeAtTick(id, tick);
+      if (shape != null) {
+        expected.add(shape);
+      }
+    }
+    List<IShape> actual = model.getShapesAtTick(tick);
+    assertEquals("Number of shapes at tick " + tick, expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getPosition(), actual.get(i).getPosition());
+      assertEquals(expected.get(i).getSize(), actual.get(i).getSize());
+      assertEquals(expected.get(i).getColor(), actual.get(i).getColor());
+    }
+  }
+
+  @Test
+  public void testGetShapesAtTickOnlyAliveShapes() {
+    model.setCanvas(new Point(0,0), new WidthHeight(500, 500));
+    // Shapes alive over staggered, overlapping and touching ranges of ticks.
+    for (int i = 0; i < 40; i++) {
+      String id = "S" + i;
+      model.addShape(id, new Rectangle(new WidthHeight(1, 1), new Point(0, 0),
+              new Color(0, 0, 0)));
+      int start = (i * 7) % 50;
+      model.addKeyframe(id, new Rectangle(new WidthHeight(10, 10), new Point(i, i),
+              new Color(i, i, i)), start);
+      model.addKeyframe(id, new Rectangle(new WidthHeight(20, 20), new Point(2 * i, i),
+              new Color(i, i, i)), start + (i % 5) * 5);
+    }
+    for (int tick = 0; tick < 80; tick++) {
+      assertMatchesEachShape(tick);
+    }
+    for (int tick = 80; tick >= 0; tick -= 3) {
+      assertMatchesEachShape(tick);
+    }
+    Random random = new Random(3500);
+    for (int i = 0; i < 200; i++) {
+      int tick = random.nextInt(80);
+      assertMatchesEachShape(tick);
+      // Edits in between samples should be picked up.
+      String id = "S" + random.nextInt(40);
+      switch (random.nextInt(4)) {
+        case 0:
+          model.addKeyframe(id, new Rectangle(new WidthHeight(5, 5), new Point(1, 1),
+                  new Color(1, 1, 1)), random.nextInt(80));
+          break;
+        case 1:
+          int first = model.getKeyframes(id).isEmpty() ? -1 : model.getKeyframes(id).firstKey();
+          if (first >= 0) {
+            model.removeKeyframe(id, first);
+          }
+          break;
+        case 2:
+          model.removeShape(id);
+          model.addShape(id, new Oval(new WidthHeight(1, 1), new Point(0, 0),
+                  new Color(0, 0, 0)));
+          break;
+        default:
+          break;
+      }
+    }
+    // The shapes that were removed and added back are drawn on top now.
+    assertMatchesEachShape(40);
+  }
 }
@@ -2,16 +2,35 @@ package testmodel.testeasyanimator;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
 import cs3500.easyanimator.model.Color;
 import cs3500.easyanimator.model.EasyAnimator;
 import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.IModelListener;
+import cs3500.easyanimator.model.ModelEvent;
+import cs3500.easyanimator.model.OffHeapAnimator;
 import cs3500.easyanimator.model.Point;
 import cs3500.easyanimator.model.motions.BasicMotion;
+import cs3500.easyanimator.model.motions.IMotion;
 import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.Oval;
 import cs3500.easyanimator.model.shapes.Rectangle;
 import cs3500.easyanimator.model.shapes.WidthHeight;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * A collection of tests pertaining to if the model can take in new keyframes.
@@ -28,6 +47,16 @@ public abstract class KeyframeTests {
     }
   }
 
+  /**
+   * Creates a test suite specifically for the OffHeapAnimator implementation.
+   */
+  public static class OffHeapAnimatorTests extends KeyframeTests {
+    @Override
+    IAnimatorModel model() {
+      return new OffHeapAnimator();
+    }
+  }
+
   /**
    * Get the model for this specific implementation.
    * @return  The model for this implementation, a new one.
@@ -117,4 +146,458 @@ public abstract class KeyframeTests {
                     middle.getColor(), end.getColor()),
             model.getSortedMotions().get("example").last());
   }
+
+  /**
+   * A test to verify adding many keyframes at once is the same as adding them one at a time, both
+   * into an empty shape and one that already has keyframes.
+   */
+  @Test
+  public void testAddKeyframes() {
+    IShape start = new Rectangle(small, here, red);
+    IShape middle = new Rectangle(med, mid, in_between);
+    IShape end = new Rectangle(large, there, blue);
+
+    SortedMap<Integer, IShape> states = new TreeMap<>();
+    states.put(0, start);
+    states.put(100, end);
+    IAnimatorModel bulk = model();
+    bulk.addShape("example", start);
+    bulk.addKeyframes("example", states);
+    IAnimatorModel single = model();
+    single.addShape("example", start);
+    single.addKeyframe("example", start, 0);
+    single.addKeyframe("example", end, 100);
+    assertEquals("Expected the same keyframes either way.",
+            single.getKeyframes("example"), bulk.getKeyframes("example"));
+    assertEquals("Expected the same motions either way.",
+            single.getSortedMotions(), bulk.getSortedMotions());
+
+    // The keyframes we add are copies, so changing our map changes nothing.
+    states.clear();
+    states.put(50, middle);
+    states.put(100, start);
+    bulk.addKeyframes("example", states);
+    assertEquals("We should have three different keyframes.",
+            3, bulk.getKeyframes("example").size());
+    assertEquals("Expected the last keyframe to be replaced.",
+            start, bulk.getKeyframes("example").get(100));
+    assertEquals("Expected the shape to end when its last keyframe does.",
+            100, bulk.getMaxTick());
+  }
+
+  /**
+   * A test to verify bad keyframes are refused when added together.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddKeyframesNegativeTick() {
+    IAnimatorModel model = model();
+    IShape start = new Rectangle(small, here, red);
+    model.addShape("example", start);
+    SortedMap<Integer, IShape> states = new TreeMap<>();
+    states.put(-1, start);
+    model.addKeyframes("example", states);
+  }
+
+  /**
+   * A test to verify keyframes given in an order other than their ticks are checked and added by
+   * their ticks.
+   */
+  @Test
+  public void testAddKeyframesInAnotherOrder() {
+    IAnimatorModel model = model();
+    IShape start = new Rectangle(small, here, red);
+    IShape end = new Rectangle(large, there, blue);
+    model.addShape("example", start);
+    SortedMap<Integer, IShape> states = new TreeMap<>(Collections.reverseOrder());
+    states.put(10, start);
+    states.put(-1, start);
+    try {
+      model.addKeyframes("example", states);
+      fail("Expected the negative tick to be refused, though it comes last.");
+    } catch (IllegalArgumentException e) {
+      assertTrue(model.getKeyframes("example").isEmpty());
+    }
+
+    List<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+    states.remove(-1);
+    states.put(40, end);
+    model.addKeyframes("example", states);
+    assertEquals(start, model.getKeyframes("example").get(10));
+    assertEquals(end, model.getKeyframes("example").get(40));
+    assertEquals(40, model.getMaxTick());
+    assertEvent(events.get(0), ModelEvent.Kind.KEYFRAMES_CHANGED, "example", 10, 40);
+  }
+
+  /**
+   * A test to verify the sorted motions follow edits, only changing for the shape edited, and
+   * can't be modified through.
+   */
+  @Test
+  public void testSortedMotionsFollowEdits() {
+    IAnimatorModel model = model();
+    IShape start = new Rectangle(small, here, red);
+    IShape end = new Rectangle(large, there, blue);
+    model.addShape("edited", start);
+    model.addShape("untouched", start);
+    model.addKeyframe("edited", start, 0);
+    model.addKeyframe("edited", end, 10);
+    model.addKeyframe("untouched", start, 0);
+    model.addKeyframe("untouched", end, 10);
+    Map<String, SortedSet<IMotion>> motions = model.getSortedMotions();
+    SortedSet<IMotion> untouched = motions.get("untouched");
+    assertEquals(1, motions.get("edited").size());
+
+    model.addKeyframe("edited", start, 20);
+    assertEquals("Expected the motions to show the new keyframe.",
+            2, model.getSortedMotions().get("edited").size());
+    assertEquals("Expected the motions we already had to show it too.",
+            2, motions.get("edited").size());
+    assertSame("Expected the motions of the other shape to be kept.",
+            untouched, model.getSortedMotions().get("untouched"));
+
+    model.removeShape("edited");
+    assertEquals(Collections.singleton("untouched"), model.getSortedMotions().keySet());
+    assertNull(model.getSortedMotions().get("edited"));
+  }
+
+  /**
+   * A test to verify how long the model stays still from a tick, as a shape appears, moves, holds
+   * still, and disappears, and as its keyframes change.
+   */
+  @Test
+  public void testLastStillTick() {
+    IAnimatorModel model = model();
+    assertEquals("Expected an empty model to stay still forever.",
+            Integer.MAX_VALUE, model.getLastStillTick(0));
+    IShape start = new Rectangle(small, here, red);
+    IShape end = new Rectangle(large, there, blue);
+    model.addShape("R", start);
+    model.addKeyframe("R", start, 0);
+    model.addKeyframe("R", end, 10);
+    model.addKeyframe("R", end, 20);
+
+    assertEquals("Expected nothing before the shape appears.", -1, model.getLastStillTick(-5));
+    assertEquals("Expected the shape to move right after it appears.",
+            0, model.getLastStillTick(0));
+    assertEquals(5, model.getLastStillTick(5));
+    assertEquals("Expected the shape to hold still until it disappears.",
+            20, model.getLastStillTick(10));
+    assertEquals(20, model.getLastStillTick(15));
+    assertEquals("Expected nothing after the shape disappears.",
+            Integer.MAX_VALUE, model.getLastStillTick(21));
+
+    model.addKeyframe("R", start, 30);
+    assertEquals("Expected the new keyframe to be seen.", 21, model.getLastStillTick(21));
+    assertEquals(20, model.getLastStillTick(15));
+    model.removeShape("R");
+    assertEquals(Integer.MAX_VALUE, model.getLastStillTick(15));
+  }
+
+  /**
+   * A private helper to check an event is of the given kind, shape and ticks.
+   */
+  private static void assertEvent(ModelEvent event, ModelEvent.Kind kind, String shape,
+                                  int fromTick, int toTick) {
+    assertEquals(kind, event.getKind());
+    assertEquals(shape, event.getShape());
+    assertEquals("Expected to affect from tick " + fromTick + ".", fromTick, event.getFromTick());
+    assertEquals("Expected to affect to tick " + toTick + ".", toTick, event.getToTick());
+  }
+
+  /**
+   * A test to verify every edit is told to listeners, with the ticks it may change, and moves the
+   * model on a version.
+   */
+  @Test
+  public void testModelEvents() {
+    IAnimatorModel model = model();
+    List<ModelEvent> events = new ArrayList<>();
+    IModelListener listener = events::add;
+    model.addModelListener(listener);
+    IShape start = new Rectangle(small, here, red);
+    IShape end = new Rectangle(large, there, blue);
+
+    model.setCanvas(here, large);
+    assertEvent(events.get(0), ModelEvent.Kind.CANVAS_CHANGED, null, 0, Integer.MAX_VALUE);
+    model.addShape("R", start);
+    assertEvent(events.get(1), ModelEvent.Kind.SHAPE_ADDED, "R", 0, -1);
+    assertFalse("Expected a shape without keyframes to change no tick.", events.get(1).affects(0));
+    model.addKeyframe("R", start, 10);
+    assertEvent(events.get(2), ModelEvent.Kind.KEYFRAMES_CHANGED, "R", 10, 10);
+    model.addKeyframe("R", end, 30);
+    assertEvent(events.get(3), ModelEvent.Kind.KEYFRAMES_CHANGED, "R", 10, 30);
+    model.addKeyframe("R", start, 50);
+    assertEvent(events.get(4), ModelEvent.Kind.KEYFRAMES_CHANGED, "R", 30, 50);
+    model.removeKeyframe("R", 30);
+    assertEvent(events.get(5), ModelEvent.Kind.KEYFRAMES_CHANGED, "R", 10, 50);
+    model.addMotion("R", new BasicMotion(50, 60, small, small, here, here, red, red));
+    assertEvent(events.get(6), ModelEvent.Kind.KEYFRAMES_CHANGED, "R", 10, 60);
+    assertTrue(events.get(6).affects(55));
+    assertFalse(events.get(6).affects(5));
+    model.addShape("R", new Oval(small, here, red));
+    assertEvent(events.get(7), ModelEvent.Kind.SHAPE_ADDED, "R", 10, 60);
+    model.removeShape("R");
+    assertEvent(events.get(8), ModelEvent.Kind.SHAPE_REMOVED, "R", 10, 60);
+
+    assertEquals(9, events.size());
+    for (int i = 0; i < events.size(); i++) {
+      assertEquals("Expected each change to be a new version.",
+              i + 1, events.get(i).getVersion());
+    }
+    assertEquals(9, model.getVersion());
+    model.removeModelListener(listener);
+    model.addShape("O", start);
+    assertEquals("Expected a removed listener not to be told.", 9, events.size());
+    assertEquals("Expected the version to move on all the same.", 10, model.getVersion());
+  }
+
+  /**
+   * A private helper to describe everything about a model we can see, so two descriptions are
+   * equal if the models look the same.
+   */
+  private static List<Object> describe(IAnimatorModel model) {
+    List<Object> description = new ArrayList<>();
+    description.add(model.getCanvasPosition());
+    description.add(model.getCanvasSize());
+    Map<String, Object> shapes = new LinkedHashMap<>();
+    for (String id : model.getShapeNames()) {
+      shapes.put(id, new TreeMap<>(model.getKeyframes(id)));
+    }
+    description.add(new ArrayList<>(shapes.keySet()));
+    description.add(shapes);
+    description.add(model.getMaxTick());
+    for (int tick = 0; tick <= model.getMaxTick() + 1; tick++) {
+      description.add(model.getShapesAtTick(tick));
+    }
+    return description;
+  }
+
+  /**
+   * A test to verify edits made as one are told to listeners once for each shape when they're
+   * done, and leave the model as if they were made one at a time.
+   */
+  @Test
+  public void testEdit() {
+    IAnimatorModel model = model();
+    IAnimatorModel expected = model();
+    List<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+    model.setCanvas(here, large);
+    expected.setCanvas(here, large);
+    model.addShape("O", new Oval(small, here, red));
+    expected.addShape("O", new Oval(small, here, red));
+    events.clear();
+
+    model.edit(m -> {
+      m.addShape("R", new Rectangle(small, here, red));
+      for (int tick = 0; tick < 100; tick += 10) {
+        m.addMotion("R", new BasicMotion(tick, tick + 10, small, small,
+                new Point(tick, 0), new Point(tick + 10, 0), red, red));
+      }
+      m.addKeyframe("O", new Oval(large, there, blue), 5);
+      m.addKeyframe("O", new Oval(large, there, blue), 15);
+      assertTrue("Expected listeners to hear nothing until the edits are done.", events.isEmpty());
+    });
+    expected.addShape("R", new Rectangle(small, here, red));
+    for (int tick = 0; tick < 100; tick += 10) {
+      expected.addMotion("R", new BasicMotion(tick, tick + 10, small, small,
+              new Point(tick, 0), new Point(tick + 10, 0), red, red));
+    }
+    expected.addKeyframe("O", new Oval(large, there, blue), 5);
+    expected.addKeyframe("O", new Oval(large, there, blue), 15);
+
+    assertEquals(describe(expected), describe(model));
+    assertEquals("Expected one event for each shape edited.", 2, events.size());
+    assertEvent(events.get(0), ModelEvent.Kind.SHAPE_ADDED, "R", 0, 100);
+    assertEvent(events.get(1), ModelEvent.Kind.KEYFRAMES_CHANGED, "O", 5, 15);
+    assertEquals(events.get(1).getVersion(), model.getVersion());
+  }
+
+  /**
+   * A test to verify a failed edit undoes every edit made as part of it, and tells no one.
+   */
+  @Test
+  public void testEditUndoneOnFailure() {
+    IAnimatorModel model = model();
+    model.setCanvas(here, large);
+    for (String id : new String[] {"A", "B", "C"}) {
+      model.addShape(id, new Rectangle(small, here, red));
+      model.addKeyframe(id, new Rectangle(small, here, red), 0);
+      model.addKeyframe(id, new Rectangle(large, there, blue), 20);
+    }
+    List<Object> before = describe(model);
+    long version = model.getVersion();
+    List<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+
+    try {
+      model.edit(m -> {
+        m.setCanvas(there, small);
+        m.removeShape("A");
+        m.addShape("A", new Oval(small, here, red));
+        m.addKeyframe("B", new Rectangle(small, there, red), 40);
+        m.removeKeyframe("C", 0);
+        m.addShape("D", new Rectangle(small, here, red));
+        m.addKeyframe("D", new Rectangle(small, here, red), 50);
+        m.removeShape("C");
+        m.removeShape("Nope");
+      });
+      fail("Expected the edits to fail.");
+    } catch (IllegalArgumentException e) {
+      // The last edit failed, so none of them happened.
+    }
+    assertEquals(before, describe(model));
+    assertTrue("Expected listeners to hear nothing.", events.isEmpty());
+    assertEquals(version, model.getVersion());
+
+    // And the model can still be edited.
+    model.addKeyframe("A", new Rectangle(small, there, red), 40);
+    assertEquals(40, model.getMaxTick());
+    assertEquals(1, events.size());
+  }
+
+  /**
+   * A test to verify motions added in an edit are checked as they are added, just as they are
+   * outside of one, and a motion refused undoes the edits before it.
+   */
+  @Test
+  public void testEditChecksMotionsAsAdded() {
+    IAnimatorModel model = model();
+    model.setCanvas(here, large);
+    model.addShape("R", new Rectangle(small, here, red));
+    model.addKeyframe("R", new Rectangle(small, here, red), 0);
+    // What works outside an edit works inside one.
+    model.edit(m -> {
+      m.addMotion("R", new BasicMotion(0, 10, small, large, here, there, red, blue));
+      m.addKeyframe("R", new Rectangle(large, there, blue), 10);
+      m.addMotion("R", new BasicMotion(20, 30, large, large, there, there, blue, blue));
+      m.removeMotion("R", new BasicMotion(20, 30, large, large, there, there, blue, blue));
+    });
+    assertEquals(10, model.getMaxTick());
+
+    List<Object> before = describe(model);
+    String outside = null;
+    try {
+      model.addMotion("R", new BasicMotion(10, 20, small, small, here, here, red, red));
+      fail("Expected the motion not to agree.");
+    } catch (IllegalArgumentException e) {
+      outside = e.getMessage();
+    }
+    try {
+      model.edit(m -> {
+        m.addKeyframe("R", new Rectangle(small, here, red), 30);
+        m.addMotion("R", new BasicMotion(10, 20, small, small, here, here, red, red));
+      });
+      fail("Expected the motion not to agree.");
+    } catch (IllegalArgumentException e) {
+      assertEquals(outside, e.getMessage());
+    }
+    assertEquals(before, describe(model));
+  }
+
+  /**
+   * A test to verify edits made inside other edits are part of them.
+   */
+  @Test
+  public void testNestedEdit() {
+    IAnimatorModel model = model();
+    model.addShape("R", new Rectangle(small, here, red));
+    try {
+      model.edit(m -> {
+        m.edit(inner -> inner.addKeyframe("R", new Rectangle(small, here, red), 10));
+        assertEquals(1, m.getKeyframes("R").size());
+        throw new IllegalStateException("Changed our mind.");
+      });
+      fail("Expected the edits to fail.");
+    } catch (IllegalStateException e) {
+      assertEquals("Changed our mind.", e.getMessage());
+    }
+    assertTrue("Expected the inner edits to be undone too.", model.getKeyframes("R").isEmpty());
+  }
+
+  /**
+   * A test to verify edits can't be uninitialized.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullEdit() {
+    model().edit(null);
+  }
+
+  /**
+   * A test to verify a listener can't be uninitialized.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullListener() {
+    model().addModelListener(null);
+  }
+
+  /**
+   * A test to verify the sorted motions can't be changed through the map.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSortedMotionsUnmodifiable() {
+    IAnimatorModel model = model();
+    IShape start = new Rectangle(small, here, red);
+    model.addShape("example", start);
+    model.addKeyframe("example", start, 0);
+    model.getSortedMotions().get("example").clear();
+  }
+
+  /**
+   * A test to verify shapes can't be dropped through the sorted motions.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSortedMotionsKeysUnmodifiable() {
+    IAnimatorModel model = model();
+    model.addShape("example", new Rectangle(small, here, red));
+    model.getSortedMotions().keySet().clear();
+  }
+
+  /**
+   * A test to verify the shapes we get follow edits and contains shape agrees with them.
+   */
+  @Test
+  public void testShapesFollowEdits() {
+    IAnimatorModel model = model();
+    IShape start = new Rectangle(small, here, red);
+    model.addShape("example", start);
+    Map<String, IShape> shapes = model.getShapes();
+    assertTrue(model.containsShape("example"));
+    assertFalse(model.containsShape("other"));
+    assertFalse(model.containsShape(null));
+
+    model.addShape("other", new Oval(large, there, blue));
+    model.addKeyframe("example", start, 0);
+    model.addKeyframes("example", new TreeMap<>(Collections.singletonMap(10, start)));
+    assertTrue(model.containsShape("other"));
+    assertEquals(2, shapes.size());
+    assertEquals(new Oval(large, there, blue), shapes.get("other"));
+    assertEquals(2, model.getKeyframes("example").size());
+
+    model.removeShape("other");
+    assertFalse(model.containsShape("other"));
+    assertEquals(Collections.singleton("example"), model.getShapes().keySet());
+  }
+
+  /**
+   * A test to verify the shapes we get can't be used to change the model.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testShapesUnmodifiable() {
+    IAnimatorModel model = model();
+    model.addShape("example", new Rectangle(small, here, red));
+    model.getShapes().get("example").setColor(blue);
+  }
+
+  /**
+   * A test to verify the keyframes we get can't be used to change the model.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testKeyframesUnmodifiable() {
+    IAnimatorModel model = model();
+    IShape start = new Rectangle(small, here, red);
+    model.addShape("example", start);
+    model.getKeyframes("example").put(0, start);
+  }
 }
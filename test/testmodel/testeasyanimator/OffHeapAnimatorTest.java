@@ -0,0 +1,213 @@
+package testmodel.testeasyanimator;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+import cs3500.easyanimator.model.Color;
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.OffHeapAnimator;
+import cs3500.easyanimator.model.Point;
+import cs3500.easyanimator.model.motions.BasicMotion;
+import cs3500.easyanimator.model.shapes.IShape;
+import cs3500.easyanimator.model.shapes.Oval;
+import cs3500.easyanimator.model.shapes.Rectangle;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the OffHeapAnimator acts just like the EasyAnimator, by making the same edits to both
+ * and comparing everything we can ask of them.
+ */
+public class OffHeapAnimatorTest {
+
+  /**
+   * A helper to check two models give the same answers.
+   * @param expected  The model we expect.
+   * @param actual    The model we have.
+   */
+  private void assertSameModel(IAnimatorModel expected, IAnimatorModel actual) {
+    assertEquals(expected.getShapes(), actual.getShapes());
+    assertEquals(expected.getSortedMotions(), actual.getSortedMotions());
+    assertEquals(expected.getMaxTick(), actual.getMaxTick());
+    for (String id : expected.getShapeNames()) {
+      // Keyframes always take the type of their shape in the OffHeapAnimator, so we compare states.
+      SortedMap<Integer, IShape> keyframes = actual.getKeyframes(id);
+      assertEquals(expected.getKeyframes(id).keySet(), keyframes.keySet());
+      for (Map.Entry<Integer, IShape> keyframe : expected.getKeyframes(id).entrySet()) {
+        IShape state = keyframes.get(keyframe.getKey());
+        assertEquals(keyframe.getValue().getSize(), state.getSize());
+        assertEquals(keyframe.getValue().getPosition(), state.getPosition());
+        assertEquals(keyframe.getValue().getColor(), state.getColor());
+      }
+      assertEquals(expected.getShapeMaxTick(id), actual.getShapeMaxTick(id));
+    }
+    for (int tick = 0; tick <= expected.getMaxTick() + 1; tick++) {
+      assertEquals(expected.getShapesAtTick(tick), actual.getShapesAtTick(tick));
+      assertEquals(expected.getLastStillTick(tick), actual.getLastStillTick(tick));
+    }
+  }
+
+  /**
+   * A helper to run the same edit against both models, checking they both accept it or both
+   * refuse it with the same message.
+   * @param edit  The edit to make to a model.
+   * @param both  The two models.
+   */
+  private void edit(Consumer<IAnimatorModel> edit, IAnimatorModel... both) {
+    String[] messages = new String[both.length];
+    for (int i = 0; i < both.length; i++) {
+      try {
+        edit.accept(both[i]);
+      } catch (IllegalArgumentException e) {
+        messages[i] = e.getMessage();
+      }
+    }
+    assertEquals(messages[0], messages[1]);
+  }
+
+  @Test
+  public void testRandomEdits() {
+    IAnimatorModel expected = new EasyAnimator();
+    IAnimatorModel actual = new OffHeapAnimator();
+    edit(m -> m.setCanvas(new Point(10, -20), new WidthHeight(300, 200)), expected, actual);
+    Random random = new Random(3500);
+    for (int i = 0; i < 3000; i++) {
+      String id = "S" + random.nextInt(12);
+      int tick = random.nextInt(120);
+      int length = random.nextInt(20);
+      WidthHeight size = new WidthHeight(random.nextInt(3), 4);
+      Point position = new Point(random.nextInt(3), -random.nextInt(2));
+      Color color = new Color(random.nextInt(2) * 255, 0, 30);
+      boolean oval = random.nextBoolean();
+      switch (random.nextInt(8)) {
+        case 0:
+          edit(m -> m.addShape(id, oval
+                  ? new Rectangle(size, position, color) : new Oval(size, position, color)),
+                  expected, actual);
+          break;
+        case 1:
+          edit(m -> m.removeShape(id), expected, actual);
+          break;
+        case 2:
+        case 3:
+          edit(m -> m.addKeyframe(id, new Rectangle(size, position, color), tick),
+                  expected, actual);
+          break;
+        case 4:
+          edit(m -> m.removeKeyframe(id, tick), expected, actual);
+          break;
+        case 5:
+          edit(m -> m.addMotion(id, new BasicMotion(tick, tick + length, size, size,
+                  position, position, color, color)), expected, actual);
+          break;
+        case 6:
+          if (expected.getShapes().containsKey(id) && !expected.getKeyframes(id).isEmpty()) {
+            int start = expected.getKeyframes(id).firstKey();
+            int end = expected.getKeyframes(id).lastKey();
+            BasicMotion motion = new BasicMotion(start, end,
+                    expected.getKeyframes(id).get(start).getSize(),
+                    expected.getKeyframes(id).get(end).getSize(),
+                    expected.getKeyframes(id).get(start).getPosition(),
+                    expected.getKeyframes(id).get(end).getPosition(),
+                    expected.getKeyframes(id).get(start).getColor(),
+                    expected.getKeyframes(id).get(end).getColor());
+            edit(m -> m.removeMotion(id, motion), expected, actual);
+          }
+          break;
+        default:
+          if (i % 100 == 0) {
+            assertSameModel(expected, actual);
+          }
+          break;
+      }
+    }
+    assertSameModel(expected, actual);
+  }
+
+  @Test
+  public void testKeyframesView() {
+    IAnimatorModel model = new OffHeapAnimator();
+    model.addShape("R", new Rectangle(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    SortedMap<Integer, IShape> keyframes = model.getKeyframes("R");
+    assertTrue(keyframes.isEmpty());
+    for (int tick = 0; tick <= 40; tick += 10) {
+      model.addKeyframe("R", new Rectangle(new WidthHeight(tick, 1), new Point(tick, 0),
+              new Color(0, 0, 0)), tick);
+    }
+    // The view handed out before follows the keyframes added since.
+    assertEquals(Arrays.asList(0, 10, 20, 30, 40), new ArrayList<>(keyframes.keySet()));
+    assertEquals(new Point(20, 0), keyframes.get(20).getPosition());
+    assertEquals(null, keyframes.get(25));
+    assertEquals(Arrays.asList(10, 20), new ArrayList<>(keyframes.subMap(10, 30).keySet()));
+    assertEquals(Arrays.asList(0, 10), new ArrayList<>(keyframes.headMap(15).keySet()));
+    assertEquals(Arrays.asList(30, 40), new ArrayList<>(keyframes.tailMap(21).keySet()));
+    assertEquals(30, (int) keyframes.tailMap(21).firstKey());
+    assertEquals(20, (int) keyframes.subMap(10, 30).lastKey());
+
+    // Edits undone put the keyframes back into the same view.
+    try {
+      model.edit(m -> {
+        m.removeKeyframe("R", 20);
+        m.removeShape("R");
+        throw new IllegalStateException("Undo the edits.");
+      });
+    } catch (IllegalStateException e) {
+      // Expected, the edits are undone.
+    }
+    assertEquals(Arrays.asList(0, 10, 20, 30, 40), new ArrayList<>(keyframes.keySet()));
+    assertEquals(new WidthHeight(30, 1), keyframes.get(30).getSize());
+
+    model.removeShape("R");
+    assertTrue(keyframes.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKeyframesViewOutOfRange() {
+    IAnimatorModel model = new OffHeapAnimator();
+    model.addShape("R", new Rectangle(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    model.getKeyframes("R").subMap(10, 20).headMap(30);
+  }
+
+  @Test
+  public void testMappedFile() throws IOException {
+    Path directory = Files.createTempDirectory("keyframes");
+    StringBuilder text = new StringBuilder("canvas 0 0 100 100\n");
+    // Enough shapes and keyframes for blocks to be grown, freed and handed out again.
+    for (int i = 0; i < 50; i++) {
+      text.append("shape S").append(i).append(i % 2 == 0 ? " rectangle\n" : " ellipse\n");
+    }
+    for (int m = 0; m < 200; m++) {
+      for (int i = 0; i < 50; i++) {
+        text.append(String.format("motion S%d %d %d %d 5 5 0 0 0 %d %d %d 5 5 0 0 0%n",
+                i, m, m + i, m, m + 1, m + i + 1, m + 1));
+      }
+    }
+    IAnimatorModel expected = AnimationReader.parseFile(new StringReader(text.toString()),
+            new EasyAnimatorModelBuilder());
+    try (OffHeapAnimator actual = new OffHeapAnimator(directory)) {
+      AnimationReader.parseFile(new StringReader(text.toString()),
+              new EasyAnimatorModelBuilder(actual));
+      assertSameModel(expected, actual);
+      assertTrue(actual.getReservedBytes() > 0);
+    } finally {
+      assertEquals("Expected the file to be deleted by the time it's closed.",
+              0, directory.toFile().list().length);
+      Files.delete(directory);
+    }
+  }
+}
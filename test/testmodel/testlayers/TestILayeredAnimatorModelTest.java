@@ -2,7 +2,12 @@ package testmodel.testlayers;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -11,6 +16,7 @@ import cs3500.easyanimator.model.EasyAnimator;
 import cs3500.easyanimator.model.IAnimatorModel;
 import cs3500.easyanimator.model.ILayeredAnimatorModel;
 import cs3500.easyanimator.model.LayeredAnimatorModel;
+import cs3500.easyanimator.model.ModelEvent;
 import cs3500.easyanimator.model.Point;
 import cs3500.easyanimator.model.layers.BasicLayer;
 import cs3500.easyanimator.model.layers.ILayer;
@@ -41,6 +47,18 @@ public abstract class TestILayeredAnimatorModelTest {
     }
   }
 
+  /**
+   * A class meant to instantiate tests for the LayeredAnimatorModel sampling layers on a pool.
+   */
+  public static class TestParallelLayeredAnimatorModel extends TestILayeredAnimatorModelTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Override
+    ILayeredAnimatorModel getModel() {
+      return new LayeredAnimatorModel(POOL);
+    }
+  }
+
   // First we start with the read-only methods.
 
   private static WidthHeight SMALL = new WidthHeight(100, 100);
@@ -416,4 +434,203 @@ public abstract class TestILayeredAnimatorModelTest {
             OVAL, model.getShapesAtTick(25).get(2));
 
   }
+
+  /**
+   * A set of rules to check shapes are still found after being added, moved and removed in the
+   * models of layers directly, and after their layers are removed.
+   */
+  @Test
+  public void testShapeLookupFollowsLayers() {
+    ILayeredAnimatorModel model = getModel();
+    IAnimatorModel top = new EasyAnimator();
+    IAnimatorModel bottom = new EasyAnimator();
+    model.addLayer(new BasicLayer("TOP", true, top));
+    model.addLayer(new BasicLayer("BOTTOM", true, bottom));
+    top.addShape("moving", RECT);
+    top.addKeyframe("moving", RECT, 0);
+    top.addKeyframe("moving", RECT_TWO, 10);
+    assertEquals(10, model.getShapeMaxTick("moving"));
+
+    // Now we move it to the other layer, with a different life.
+    top.removeShape("moving");
+    bottom.addShape("moving", OVAL);
+    bottom.addKeyframe("moving", OVAL, 0);
+    bottom.addKeyframe("moving", OVAL_TWO, 20);
+    assertEquals("Expected the shape to be found in its new layer.",
+            20, model.getShapeMaxTick("moving"));
+
+    model.removeLayer(1);
+    assertFalse("Expected the shape to go with its layer.", model.containsShape("moving"));
+    top.addShape("moving", RECT);
+    assertTrue(model.containsShape("moving"));
+    assertEquals(0, model.getShapeMaxTick("moving"));
+  }
+
+  /**
+   * A set of rules to check the layered model stays still only as long as every visible layer.
+   */
+  @Test
+  public void testLastStillTick() {
+    ILayeredAnimatorModel model = getModel();
+    IAnimatorModel top = new EasyAnimator();
+    IAnimatorModel bottom = new EasyAnimator();
+    ILayer topLayer = new BasicLayer("TOP", true, top);
+    model.addLayer(topLayer);
+    model.addLayer(new BasicLayer("BOTTOM", true, bottom));
+    top.addShape("still", RECT);
+    top.addKeyframe("still", RECT, 0);
+    top.addKeyframe("still", RECT, 50);
+    bottom.addShape("moving", OVAL);
+    bottom.addKeyframe("moving", OVAL, 10);
+    bottom.addKeyframe("moving", OVAL_TWO, 20);
+
+    assertEquals("Expected the bottom layer to start moving.", 9, model.getLastStillTick(0));
+    assertEquals(20, model.getLastStillTick(20));
+    assertEquals("Expected the top layer to hold still after.", 50, model.getLastStillTick(25));
+    model.removeLayer(topLayer);
+    model.addLayer(topLayer.setVisibility(false), 0);
+    assertEquals("Expected a hidden layer not to count.", 9, model.getLastStillTick(0));
+    assertEquals(Integer.MAX_VALUE, model.getLastStillTick(21));
+  }
+
+  /**
+   * A set of rules to check changes to layers and to the models in them are told to listeners of
+   * the layered model, and only while a layer has the model.
+   */
+  @Test
+  public void testModelEvents() {
+    ILayeredAnimatorModel model = getModel();
+    List<ModelEvent> events = new ArrayList<>();
+    model.addModelListener(events::add);
+    IAnimatorModel shared = new EasyAnimator();
+    ILayer first = new BasicLayer("FIRST", true, shared);
+    ILayer second = new BasicLayer("SECOND", true, shared);
+    model.addLayer(first);
+    model.addLayer(second);
+    assertEquals(2, events.size());
+    assertEquals(ModelEvent.Kind.LAYERS_CHANGED, events.get(1).getKind());
+    assertTrue(events.get(1).affects(1000));
+
+    shared.addShape("R", RECT);
+    shared.addKeyframe("R", RECT, 5);
+    assertEquals("Expected a model in two layers to be heard once.", 4, events.size());
+    assertEquals(ModelEvent.Kind.KEYFRAMES_CHANGED, events.get(3).getKind());
+    assertEquals("R", events.get(3).getShape());
+    assertTrue(events.get(3).affects(5));
+    assertFalse(events.get(3).affects(6));
+    assertEquals("Expected the layered model's own version.", 4, events.get(3).getVersion());
+    assertEquals(4, model.getVersion());
+
+    model.swapLayer(0, 1);
+    model.removeLayer(first);
+    shared.addKeyframe("R", RECT, 10);
+    assertEquals("Expected the model to still be heard from its other layer.", 7, events.size());
+    model.removeLayer(second);
+    shared.addKeyframe("R", RECT, 15);
+    assertEquals("Expected a model in no layer not to be heard.", 8, events.size());
+  }
+
+  /**
+   * A set of rules to check shapes are found in the right layer as they're added to and removed
+   * from the layers' models.
+   */
+  @Test
+  public void testShapeLookupFollowsEdits() {
+    ILayeredAnimatorModel model = getModel();
+    IAnimatorModel top = new EasyAnimator();
+    IAnimatorModel bottom = new EasyAnimator();
+    model.addLayer(new BasicLayer("TOP", true, top));
+    model.addLayer(new BasicLayer("BOTTOM", true, bottom));
+    bottom.addShape("R", RECT);
+    bottom.addKeyframe("R", RECT, 0);
+    bottom.addKeyframe("R", RECT, 30);
+    assertEquals(30, model.getShapeMaxTick("R"));
+    bottom.removeShape("R");
+    assertFalse(model.containsShape("R"));
+    top.addShape("R", RECT);
+    top.addKeyframe("R", RECT, 10);
+    assertTrue(model.containsShape("R"));
+    assertEquals("Expected the shape to be found in its new layer.",
+            10, model.getShapeMaxTick("R"));
+  }
+
+  /**
+   * A set of rules to check the global canvas and max tick, which are kept between calls, follow
+   * edits to the layers and their models.
+   */
+  @Test
+  public void testCanvasAndMaxTickFollowEdits() {
+    ILayeredAnimatorModel model = getModel();
+    IAnimatorModel top = new EasyAnimator();
+    top.setCanvas(ELSEWHERE, SMALL);
+    model.addLayer(new BasicLayer("TOP", true, top));
+    assertEquals(ELSEWHERE, model.getCanvasPosition());
+    assertEquals(SMALL, model.getCanvasSize());
+    assertEquals(0, model.getMaxTick());
+
+    top.addShape("R", RECT);
+    top.addKeyframe("R", RECT, 40);
+    assertEquals(40, model.getMaxTick());
+    top.setCanvas(ORIGIN, SMALL);
+    assertEquals(ORIGIN, model.getCanvasPosition());
+
+    IAnimatorModel bottom = new EasyAnimator();
+    bottom.setCanvas(new Point(-50, -50), SMALL);
+    bottom.addShape("O", OVAL);
+    bottom.addKeyframe("O", OVAL, 90);
+    model.addLayer(new BasicLayer("BOTTOM", true, bottom));
+    assertEquals(new Point(-50, -50), model.getCanvasPosition());
+    assertEquals(new WidthHeight(150, 150), model.getCanvasSize());
+    assertEquals(90, model.getMaxTick());
+
+    bottom.removeShape("O");
+    assertEquals(40, model.getMaxTick());
+    model.removeLayer(1);
+    assertEquals(ORIGIN, model.getCanvasPosition());
+    assertEquals(SMALL, model.getCanvasSize());
+
+    // A canvas that isn't square, so its height has to come from the heights of the layers.
+    top.setCanvas(ORIGIN, new WidthHeight(30, 70));
+    assertEquals(new WidthHeight(30, 70), model.getCanvasSize());
+  }
+
+  /**
+   * A set of rules to check a frame with many shapes over many layers, which may be sampled a
+   * layer at a time or all at once, comes out the same as sampling one layer after another.
+   */
+  @Test
+  public void testManyShapesInLayerOrder() {
+    ILayeredAnimatorModel model = getModel();
+    ILayeredAnimatorModel expected = new LayeredAnimatorModel();
+    IAnimatorModel shared = null;
+    for (int l = 0; l < 4; l++) {
+      IAnimatorModel layerModel = new EasyAnimator();
+      layerModel.setCanvas(new Point(l * 10, -l * 5), LARGE);
+      for (int i = 0; i < 600; i++) {
+        String name = "L" + l + "S" + i;
+        layerModel.addShape(name, i % 2 == 0 ? RECT : OVAL);
+        layerModel.addKeyframe(name, new Rectangle(SMALL, new Point(i, l), RED), i % 7);
+        layerModel.addKeyframe(name, new Rectangle(LARGE, new Point(l, i), BLUE), 20 + i % 5);
+      }
+      ILayer layer = new BasicLayer("L" + l, l != 2, layerModel);
+      model.addLayer(layer);
+      expected.addLayer(layer);
+      shared = layerModel;
+    }
+    // The same model twice should be drawn twice.
+    model.addLayer(new BasicLayer("again", true, shared), 0);
+    expected.addLayer(new BasicLayer("again", true, shared), 0);
+    for (int tick = 0; tick <= 26; tick++) {
+      assertEquals("Expected the same shapes in the same order at tick " + tick,
+              expected.getShapesAtTick(tick), model.getShapesAtTick(tick));
+    }
+    // Fewer shapes than are worth sampling at once, and then more again.
+    for (int i = 0; i < 600; i++) {
+      shared.removeShape("L3S" + i);
+    }
+    assertEquals(expected.getShapesAtTick(22), model.getShapesAtTick(22));
+    shared.addShape("again", RECT);
+    shared.addKeyframe("again", RECT, 3);
+    assertEquals(expected.getShapesAtTick(22), model.getShapesAtTick(22));
+  }
 }
@@ -54,4 +54,35 @@ public class TestBasicMotion {
     assertEquals("Expected color at tick 50 to equal the middle values.",
             middleColor, motion.getColor(50));
   }
+
+  @Test
+  public void testPackedTweenMatchesTween() {
+    IMotion motion = new BasicMotion(3, 17,
+            new WidthHeight(7, 300), new WidthHeight(250, 1),
+            new Point(-40, 99), new Point(13, -250),
+            new Color(255, 3, 128), new Color(0, 255, 129));
+    for (int tick = 3; tick <= 17; tick++) {
+      long position = motion.getPackedPosition(tick);
+      assertEquals(IMotion.tween(-40, 3, 13, 17, tick), Point.unpackX(position));
+      assertEquals(IMotion.tween(99, 3, -250, 17, tick), Point.unpackY(position));
+      long size = motion.getPackedSize(tick);
+      assertEquals(IMotion.tween(7, 3, 250, 17, tick), WidthHeight.unpackWidth(size));
+      assertEquals(IMotion.tween(300, 3, 1, 17, tick), WidthHeight.unpackHeight(size));
+      assertEquals(new Color(IMotion.tween(255, 3, 0, 17, tick),
+                      IMotion.tween(3, 3, 255, 17, tick),
+                      IMotion.tween(128, 3, 129, 17, tick)),
+              Color.ofRGB(motion.getRGB(tick)));
+    }
+  }
+
+  /**
+   * A test to verify a value that isn't changing stays put at every tick of a motion.
+   */
+  @Test
+  public void testTweenHoldsStillValues() {
+    for (int tick = 1; tick <= 20; tick++) {
+      assertEquals(-630, IMotion.tween(-630, 1, -630, 20, tick));
+      assertEquals(1000003, IMotion.tween(1000003, 1, 1000003, 20, tick));
+    }
+  }
 }
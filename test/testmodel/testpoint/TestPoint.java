@@ -6,11 +6,14 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  * Test class that test all the methods of the Point class.
  */
-class TestPoint {
+public class TestPoint {
   private Point testPoint = new Point(5, 10);
 
   @Test
@@ -33,4 +36,41 @@ class TestPoint {
     assertNotEquals(point1, point2);
     assertNotEquals(point2, point3);
   }
+
+  @Test
+  public void testPack() {
+    Point point = new Point(-7, -2000000000);
+    assertEquals(-7, Point.unpackX(point.pack()));
+    assertEquals(-2000000000, Point.unpackY(point.pack()));
+    assertEquals(point, Point.unpack(point.pack()));
+    assertEquals(Point.pack(-7, -2000000000), point.pack());
+    assertNotEquals(new Point(0, -1).pack(), new Point(-1, 0).pack());
+  }
+
+  @Test
+  public void testOf() {
+    Point point = Point.of(5, 10);
+    assertEquals(testPoint, point);
+    assertSame(point, Point.of(5, 10));
+    assertSame(point, Point.unpack(point.pack()));
+  }
+
+  @Test
+  public void testOfSlotCollision() {
+    Point first = Point.of(-3, 7);
+    // Walk along a row until a point takes the first point's slot, which a fresh first shows.
+    for (int x = 0; x < 1 << 24; x++) {
+      Point other = Point.of(x, 0);
+      Point again = Point.of(-3, 7);
+      if (again != first) {
+        assertEquals(x, other.getX());
+        assertEquals(0, other.getY());
+        assertEquals(-3, again.getX());
+        assertEquals(7, again.getY());
+        assertNotSame(other, again);
+        return;
+      }
+    }
+    fail("No point shared a slot with another.");
+  }
 }
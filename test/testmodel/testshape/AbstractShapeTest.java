@@ -10,6 +10,9 @@ import cs3500.easyanimator.model.shapes.WidthHeight;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link IShape}s.
@@ -107,6 +110,50 @@ public abstract class AbstractShapeTest {
     assertEquals(new Point(150, 175), testShape.getPosition());
   }
 
+  @Test
+  public void testPackedState() {
+    this.reset();
+    assertEquals(new WidthHeight(3, 10).pack(), testShape.getPackedSize());
+    assertEquals(new Point(50, 100).pack(), testShape.getPackedPosition());
+    assertEquals(new Color(100, 100, 100).getRGB(), testShape.getRGB());
+    testShape.setPosition(new Point(-5, 7));
+    assertEquals(new Point(-5, 7).pack(), testShape.getPackedPosition());
+  }
+
+  @Test
+  public void testSameState() {
+    this.reset();
+    assertTrue(IShape.sameState(testShape,
+            oval(this.testSize, testShapeColor, this.testShapePosition)));
+    assertFalse(IShape.sameState(testShape,
+            rec(this.testSize, new Color(100, 100, 101), this.testShapePosition)));
+  }
+
+  @Test
+  public void testFreeze() {
+    this.reset();
+    IShape frozen = testShape.freeze();
+    assertEquals(testShape, frozen);
+    assertSame("Expected freezing a frozen shape to give itself.", frozen, frozen.freeze());
+    testShape.setColor(new Color(0, 0, 0));
+    assertEquals("Expected the frozen copy to not follow the original.",
+            new Color(100, 100, 100), frozen.getColor());
+    IShape thawed = frozen.copy();
+    thawed.setColor(new Color(0, 0, 0));
+    assertEquals(testShape, thawed);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSetFrozen() {
+    this.reset();
+    testShape.freeze().setPosition(new Point(150, 175));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUninitializedColor() {
+    rec(this.testSize, null, this.testShapePosition);
+  }
+
   /**
    * Constructs an instance of the class under test representing the Shape
    * given as a Rectangle.
@@ -0,0 +1,75 @@
+package testmodel.testwidthheight;
+
+import cs3500.easyanimator.model.shapes.WidthHeight;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class that tests all the methods of the WidthHeight class.
+ */
+public class TestWidthHeight {
+  private WidthHeight testSize = new WidthHeight(20, 40);
+
+  @Test
+  public void testGetWidth() {
+    assertEquals(20, testSize.getWidth());
+  }
+
+  @Test
+  public void testGetHeight() {
+    assertEquals(40, testSize.getHeight());
+  }
+
+  @Test
+  public void testEquals() {
+    WidthHeight size1 = new WidthHeight(10, 20);
+    WidthHeight size2 = new WidthHeight(20, 10);
+    WidthHeight size3 = new WidthHeight(10, 20);
+
+    assertEquals(size1, size3);
+    assertNotEquals(size1, size2);
+    assertNotEquals(size2, size3);
+  }
+
+  @Test
+  public void testPack() {
+    WidthHeight size = new WidthHeight(-1, 2000000000);
+    assertEquals(-1, WidthHeight.unpackWidth(size.pack()));
+    assertEquals(2000000000, WidthHeight.unpackHeight(size.pack()));
+    assertEquals(size, WidthHeight.unpack(size.pack()));
+    assertEquals(WidthHeight.pack(-1, 2000000000), size.pack());
+  }
+
+  @Test
+  public void testOf() {
+    WidthHeight size = WidthHeight.of(20, 40);
+    assertEquals(testSize, size);
+    assertSame(size, WidthHeight.of(20, 40));
+    assertSame(size, WidthHeight.unpack(size.pack()));
+  }
+
+  @Test
+  public void testOfSlotCollision() {
+    WidthHeight first = WidthHeight.of(30, 60);
+    // Walk through widths until a size takes the first size's slot, which a fresh first shows.
+    for (int width = 0; width < 1 << 24; width++) {
+      WidthHeight other = WidthHeight.of(width, 1);
+      WidthHeight again = WidthHeight.of(30, 60);
+      if (again != first) {
+        assertEquals(width, other.getWidth());
+        assertEquals(1, other.getHeight());
+        assertEquals(30, again.getWidth());
+        assertEquals(60, again.getHeight());
+        assertNotSame(other, again);
+        return;
+      }
+    }
+    fail("No size shared a slot with another.");
+  }
+}
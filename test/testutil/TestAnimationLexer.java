@@ -0,0 +1,192 @@
+package testutil;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+import cs3500.easyanimator.util.AnimationLexer;
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.ByteBufferAnimationLexer;
+import cs3500.easyanimator.util.MappedAnimationLexer;
+import cs3500.easyanimator.util.ReadableAnimationLexer;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the AnimationLexer the animation readers use to split up their input.
+ */
+public class TestAnimationLexer {
+
+  /**
+   * A helper to make a lexer over the given text.
+   * @param text      The text to read.
+   * @param lineMode  Whether the lexer keeps to one line at a time.
+   * @return          The new lexer.
+   */
+  private AnimationLexer lexer(String text, boolean lineMode) {
+    return new ReadableAnimationLexer(new StringReader(text), lineMode);
+  }
+
+  @Test
+  public void testTokensAndComments() {
+    AnimationLexer lexer = lexer("  shape R\trectangle # a comment\n#another\n\nmotion R#x\n",
+            false);
+    assertEquals("shape", lexer.next());
+    assertEquals("R", lexer.next());
+    assertEquals("rectangle", lexer.next());
+    assertEquals("motion", lexer.next());
+    assertEquals("The comment should end the token.", "R", lexer.next());
+    assertFalse(lexer.hasNext());
+    try {
+      lexer.next();
+      fail("Expected no more tokens.");
+    } catch (NoSuchElementException e) {
+      // This was supposed to happen.
+    }
+  }
+
+  @Test
+  public void testIntegers() {
+    AnimationLexer lexer = lexer("12 -7 +3 2147483647 -2147483648 2147483648 1x -", false);
+    assertEquals(12, lexer.nextInt());
+    assertEquals(-7, lexer.nextInt());
+    assertEquals(3, lexer.nextInt());
+    assertEquals(Integer.MAX_VALUE, lexer.nextInt());
+    assertEquals(Integer.MIN_VALUE, lexer.nextInt());
+    assertFalse("Too big for an int.", lexer.hasNextInt());
+    assertEquals("2147483648", lexer.next());
+    assertFalse(lexer.hasNextInt());
+    assertEquals("1x", lexer.next());
+    assertFalse(lexer.hasNextInt());
+    assertEquals("-", lexer.next());
+  }
+
+  @Test
+  public void testBooleans() {
+    AnimationLexer lexer = lexer("true FALSE maybe", false);
+    assertTrue(lexer.nextBoolean());
+    assertFalse(lexer.nextBoolean());
+    assertFalse(lexer.hasNextBoolean());
+  }
+
+  @Test
+  public void testLineMode() {
+    AnimationLexer lexer = lexer("layer A true extra\r\n\n# nothing here\nshape B", true);
+    assertEquals("layer", lexer.next());
+    assertEquals(1, lexer.getLine());
+    assertEquals("A", lexer.next());
+    assertTrue(lexer.nextLine());
+    assertFalse("A \\r\\n line ending is one line.", lexer.hasNext());
+    assertTrue(lexer.nextLine());
+    assertFalse("Comments don't give tokens.", lexer.hasNext());
+    assertTrue(lexer.nextLine());
+    assertEquals("shape", lexer.next());
+    assertEquals(4, lexer.getLine());
+    assertEquals("B", lexer.next());
+    assertFalse(lexer.hasNext());
+    assertFalse(lexer.nextLine());
+  }
+
+  @Test
+  public void testRepeatedNamesShareStrings() {
+    AnimationLexer lexer = lexer("motion disk1 motion disk1", false);
+    String first = lexer.next();
+    String name = lexer.next();
+    assertSame(first, lexer.next());
+    assertSame(name, lexer.next());
+  }
+
+  @Test
+  public void testReaderErrorMessages() {
+    String[] inputs = {
+      "canvas 0 0 10 x",
+      "canvas 0 0 10",
+      "shape R",
+      "wiggle R around",
+    };
+    String[] messages = {
+      "Canvas: expected integer for height, got: x",
+      "Canvas: expected integer for height, but no more input available",
+      "Shape: Expected a type, but no more input available",
+      "Unexpected keyword: wiggle R around",
+    };
+    for (int i = 0; i < inputs.length; i++) {
+      try {
+        AnimationReader.parseFile(new StringReader(inputs[i]), new EasyAnimatorModelBuilder());
+        fail("Expected the input to be refused: " + inputs[i]);
+      } catch (IllegalStateException e) {
+        assertEquals(messages[i], e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testByteBuffersSplitMidToken() {
+    byte[] bytes = "shape Ré rectangle\nmotion Ré 12".getBytes(StandardCharsets.UTF_8);
+    // Hand the bytes over three at a time, so tokens, and the é, are split between buffers.
+    AnimationLexer lexer = new ByteBufferAnimationLexer(ByteBuffer.wrap(bytes, 0, 3), false) {
+      private int offset = 3;
+
+      @Override
+      protected ByteBuffer nextBuffer() {
+        if (offset >= bytes.length) {
+          return null;
+        }
+        ByteBuffer next = ByteBuffer.wrap(bytes, offset, Math.min(3, bytes.length - offset));
+        offset += 3;
+        return next;
+      }
+    };
+    assertEquals("shape", lexer.next());
+    assertEquals("Ré", lexer.next());
+    assertEquals("rectangle", lexer.next());
+    assertEquals("motion", lexer.next());
+    assertEquals("Ré", lexer.next());
+    assertEquals(12, lexer.nextInt());
+    assertEquals(2, lexer.getLine());
+    assertFalse(lexer.hasNext());
+  }
+
+  @Test
+  public void testMappedFile() throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    try {
+      Files.write(file, "canvas 0 0 10 20\r\nshape R rectangle # done\r\n"
+              .getBytes(StandardCharsets.US_ASCII));
+      try (MappedAnimationLexer lexer =
+                   new MappedAnimationLexer(FileChannel.open(file, StandardOpenOption.READ),
+                           true)) {
+        assertEquals("canvas", lexer.next());
+        assertEquals(0, lexer.nextInt());
+        assertEquals(0, lexer.nextInt());
+        assertEquals(10, lexer.nextInt());
+        assertEquals(20, lexer.nextInt());
+        assertFalse(lexer.hasNext());
+        assertTrue(lexer.nextLine());
+        assertEquals("shape", lexer.next());
+        assertEquals("R", lexer.next());
+        assertEquals("rectangle", lexer.next());
+        assertFalse(lexer.hasNext());
+        assertEquals(2, lexer.getLine());
+        assertTrue(lexer.nextLine());
+        assertFalse(lexer.hasNext());
+        assertFalse(lexer.nextLine());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package testutil;
+
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.OffHeapAnimator;
+import cs3500.easyanimator.util.AdvancedAnimationBuilder;
+import cs3500.easyanimator.util.AdvancedAnimationReader;
+import cs3500.easyanimator.util.AnimationBuilder;
+import cs3500.easyanimator.util.AnimationReader;
+import cs3500.easyanimator.util.EasyAnimatorModelBuilder;
+import cs3500.easyanimator.util.ParallelAnimationLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the ParallelAnimationLoader. Files are split into tiny chunks so even our small
+ * example files are read on many threads.
+ */
+public class TestParallelAnimationLoader {
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  /**
+   * A builder that writes down every call made to it, and can be told to refuse one.
+   */
+  private static class LogBuilder implements AdvancedAnimationBuilder<List<String>> {
+    private final List<String> log = new ArrayList<>();
+    private final int refuse;
+
+    LogBuilder(int refuse) {
+      this.refuse = refuse;
+    }
+
+    LogBuilder() {
+      this(-1);
+    }
+
+    private LogBuilder log(String call) {
+      if (log.size() == refuse) {
+        throw new IllegalArgumentException("Refused " + call);
+      }
+      log.add(call);
+      return this;
+    }
+
+    @Override
+    public List<String> build() {
+      return log;
+    }
+
+    @Override
+    public AnimationBuilder<List<String>> setBounds(int x, int y, int width, int height) {
+      return log("canvas " + x + " " + y + " " + width + " " + height);
+    }
+
+    @Override
+    public AnimationBuilder<List<String>> declareShape(String name, String type) {
+      return log("shape " + name + " " + type);
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<List<String>> declareShape(String name, String type,
+                                                               String layer) {
+      return log("shape " + name + " " + type + " " + layer);
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<List<String>> declareLayer(String name, boolean visibility) {
+      return log("layer " + name + " " + visibility);
+    }
+
+    @Override
+    public AnimationBuilder<List<String>> addMotion(String name,
+                                                    int t1, int x1, int y1, int w1, int h1,
+                                                    int r1, int g1, int b1,
+                                                    int t2, int x2, int y2, int w2, int h2,
+                                                    int r2, int g2, int b2) {
+      return log(String.format("motion %s %d %d %d %d %d %d %d %d %d %d %d %d %d %d %d %d",
+              name, t1, x1, y1, w1, h1, r1, g1, b1, t2, x2, y2, w2, h2, r2, g2, b2));
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<List<String>> addMotion(String name,
+                                                            int t1, int x1, int y1, int w1,
+                                                            int h1, int r1, int g1, int b1,
+                                                            int rot1,
+                                                            int t2, int x2, int y2, int w2,
+                                                            int h2, int r2, int g2, int b2,
+                                                            int rot2) {
+      return log(String.format("motion %s %d %d %d %d %d %d %d %d %d %d %d %d %d %d %d %d %d %d",
+              name, t1, x1, y1, w1, h1, r1, g1, b1, rot1, t2, x2, y2, w2, h2, r2, g2, b2, rot2));
+    }
+
+    @Override
+    public AnimationBuilder<List<String>> addKeyframe(String name,
+                                                      int t, int x, int y, int w, int h,
+                                                      int r, int g, int b) {
+      return log("keyframe " + name);
+    }
+
+    @Override
+    public AdvancedAnimationBuilder<List<String>> addKeyframe(String name,
+                                                              int t, int x, int y, int w, int h,
+                                                              int r, int g, int b, int rot) {
+      return log("keyframe " + name);
+    }
+  }
+
+  /**
+   * A helper to load a file in the basic format in chunks of the given size.
+   */
+  private List<String> load(Path file, long chunkSize, LogBuilder builder) throws IOException {
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new ParallelAnimationLoader(pool, chunkSize).load(in, builder);
+    }
+  }
+
+  /**
+   * A helper to load a file in the advanced format in chunks of the given size.
+   */
+  private List<String> loadAdvanced(Path file, long chunkSize, LogBuilder builder)
+          throws IOException {
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new ParallelAnimationLoader(pool, chunkSize).loadAdvanced(in, builder);
+    }
+  }
+
+  /**
+   * A helper to write some text to a temporary file.
+   */
+  private Path write(String text) throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+
+  @Test
+  public void testSameAsReadersOnExamples() throws IOException {
+    String[] basic = {"buildings.txt", "toh-8.txt", "testinput.txt"};
+    String[] advanced = {"testinputlayerstwo.txt", "testinputlayersthree.txt"};
+    for (long chunkSize : new long[]{1, 97, 4096, 1 << 20}) {
+      for (String name : basic) {
+        List<String> expected;
+        try (FileReader in = new FileReader(name)) {
+          expected = AnimationReader.parseFile(in, new LogBuilder());
+        }
+        assertEquals(name, expected, load(Paths.get(name), chunkSize, new LogBuilder()));
+      }
+      for (String name : advanced) {
+        List<String> expected;
+        try (FileReader in = new FileReader(name)) {
+          expected = AdvancedAnimationReader.parseFile(in, new LogBuilder());
+        }
+        assertEquals(name, expected, loadAdvanced(Paths.get(name), chunkSize, new LogBuilder()));
+      }
+    }
+  }
+
+  @Test
+  public void testCommandAcrossLines() throws IOException {
+    // The basic format doesn't care about lines, so a chunk can end in the middle of a motion.
+    String text = "canvas 0 0\n10 10\nshape R rectangle\n"
+            + "motion R 1 2 3 4 5 6 7 8\n9 10 11 12 13 14 15 16\n"
+            + "motion R 9 10 11 12 13 14 15 16 20 10 11 12 13 14 15 16\n";
+    List<String> expected = AnimationReader.parseFile(new StringReader(text), new LogBuilder());
+    for (long chunkSize = 1; chunkSize < text.length(); chunkSize += 7) {
+      assertEquals(expected, load(write(text), chunkSize, new LogBuilder()));
+    }
+  }
+
+  @Test
+  public void testErrorsHaveLineNumbers() throws IOException {
+    String text = "canvas 0 0 10 10\r\n# A comment.\r\nshape R rectangle\r\n\r\n"
+            + "motion R 1 2 3 4 5 6 7 8 9 10 11 12 13 14 15 16\r\n"
+            + "motion R 9 10 11 12 13 14 15 16 x 10 11 12 13 14 15 16\r\n"
+            + "motion R 9 10 11 12 13 14 15 16 20 10 11 12 13 14 15 16\r\n";
+    for (long chunkSize : new long[]{1, 20, 1 << 20}) {
+      for (boolean advanced : new boolean[]{false, true}) {
+        LogBuilder builder = new LogBuilder();
+        try {
+          if (advanced) {
+            loadAdvanced(write(text), chunkSize, builder);
+          } else {
+            load(write(text), chunkSize, builder);
+          }
+          fail("Expected the bad motion to be refused.");
+        } catch (IllegalStateException e) {
+          assertEquals("Line 6: Motion: expected integer for final time, got: x", e.getMessage());
+        }
+        // Everything before the mistake was built, in order.
+        assertEquals(3, builder.log.size());
+      }
+    }
+  }
+
+  @Test
+  public void testBuilderErrorsHaveLineNumbers() throws IOException {
+    String text = "canvas 0 0 10 10\nshape R rectangle\n\nshape S ellipse\nshape T ellipse\n";
+    for (long chunkSize : new long[]{1, 1 << 20}) {
+      try {
+        load(write(text), chunkSize, new LogBuilder(2));
+        fail("Expected the builder to refuse the third call.");
+      } catch (IllegalStateException e) {
+        assertEquals("Line 4: Refused shape S ellipse", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testBadMotionInModelHasLineNumber() throws IOException {
+    // The motion on line 4 starts in another state than the one on line 3 ends in.
+    String text = "canvas 0 0 10 10\nshape R rectangle\n"
+            + "motion R 1 0 0 5 5 255 0 0 10 20 20 5 5 255 0 0\n"
+            + "motion R 10 0 0 5 5 255 0 0 20 0 0 5 5 255 0 0\n";
+    for (IAnimatorModel model : new IAnimatorModel[]{new EasyAnimator(), new OffHeapAnimator()}) {
+      try (FileChannel in = FileChannel.open(write(text), StandardOpenOption.READ)) {
+        new ParallelAnimationLoader(pool, 1 << 20).load(in, new EasyAnimatorModelBuilder(model));
+        fail("Expected the motion on line 4 to be refused.");
+      } catch (IllegalStateException e) {
+        assertEquals("Line 4: Unable to add the given motion, state mismatch on the left.",
+                e.getMessage());
+      }
+      // The motion before it was kept.
+      assertEquals(10, model.getMaxTick());
+      assertTrue(model.getKeyframes("R").containsKey(1));
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package testview;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import cs3500.easyanimator.model.Color;
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.IAnimatorModelViewOnly;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.model.OffHeapAnimator;
+import cs3500.easyanimator.model.Point;
+import cs3500.easyanimator.model.layers.ILayer;
+import cs3500.easyanimator.model.shapes.Oval;
+import cs3500.easyanimator.model.shapes.Rectangle;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.util.AdvancedAnimationReader;
+import cs3500.easyanimator.util.BinaryAnimationReader;
+import cs3500.easyanimator.util.LayeredAnimatorModelBuilder;
+import cs3500.easyanimator.view.BinaryAnimationView;
+import cs3500.easyanimator.view.IAnimatorView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the binary view, by reading what it writes back with the BinaryAnimationReader.
+ */
+public class TestBinaryAnimationView {
+
+  /**
+   * A helper to write a model out in the binary format.
+   * @param model The model to write.
+   * @return      The bytes written.
+   */
+  private byte[] write(IAnimatorModelViewOnly model) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    IAnimatorView view = new BinaryAnimationView(out);
+    view.setModel(model);
+    view.makeVisible();
+    return out.toByteArray();
+  }
+
+  /**
+   * A helper to check two models have the same canvas, shapes and keyframes, in the same order.
+   * @param expected  The model we expect.
+   * @param actual    The model we have.
+   */
+  private void assertSameAnimation(IAnimatorModelViewOnly expected,
+                                   IAnimatorModelViewOnly actual) {
+    assertEquals(expected.getCanvasPosition(), actual.getCanvasPosition());
+    assertEquals(expected.getCanvasSize(), actual.getCanvasSize());
+    assertEquals(expected.getShapeNames(), actual.getShapeNames());
+    for (String name : expected.getShapeNames()) {
+      assertEquals(expected.getShapes().get(name).getClass(),
+              actual.getShapes().get(name).getClass());
+      assertEquals(expected.getKeyframes(name).keySet(), actual.getKeyframes(name).keySet());
+      for (int tick : expected.getKeyframes(name).keySet()) {
+        assertEquals(expected.getShapeAtTick(name, tick).getPosition(),
+                actual.getShapeAtTick(name, tick).getPosition());
+        assertEquals(expected.getShapeAtTick(name, tick).getSize(),
+                actual.getShapeAtTick(name, tick).getSize());
+        assertEquals(expected.getShapeAtTick(name, tick).getColor(),
+                actual.getShapeAtTick(name, tick).getColor());
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTripSingleModel() {
+    IAnimatorModel model = new EasyAnimator();
+    model.setCanvas(new Point(-20, 30), new WidthHeight(640, 480));
+    model.addShape("R", new Rectangle(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    model.addShape("Ö", new Oval(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    model.addKeyframe("R", new Rectangle(new WidthHeight(10, 20), new Point(-300, 5),
+            new Color(255, 0, 128)), 0);
+    model.addKeyframe("R", new Rectangle(new WidthHeight(12, 20), new Point(400, -5),
+            new Color(0, 255, 0)), 1000000);
+    model.addKeyframe("Ö", new Oval(new WidthHeight(5, 5), new Point(1, 2),
+            new Color(1, 2, 3)), 7);
+
+    ILayeredAnimatorModel read = BinaryAnimationReader.read(ByteBuffer.wrap(write(model)));
+    assertEquals(1, read.getLayers().size());
+    assertEquals("Base", read.getLayer(0).getName());
+    assertSameAnimation(model, read.getLayer(0).getModel());
+  }
+
+  @Test
+  public void testRoundTripLayers() throws IOException {
+    ILayeredAnimatorModel model;
+    try (FileReader in = new FileReader("testinputlayersthree.txt")) {
+      model = AdvancedAnimationReader.parseFile(in, new LayeredAnimatorModelBuilder("Base"));
+    }
+    model.addLayer(model.getLayer(1).setVisibility(false).setName("Hidden"));
+
+    ILayeredAnimatorModel read = BinaryAnimationReader.read(ByteBuffer.wrap(write(model)));
+    assertEquals(model.getLayers().size(), read.getLayers().size());
+    for (int i = 0; i < model.getLayers().size(); i++) {
+      ILayer expected = model.getLayer(i);
+      ILayer actual = read.getLayer(i);
+      assertEquals(expected.getName(), actual.getName());
+      assertEquals(expected.getVisibility(), actual.getVisibility());
+      assertSameAnimation(expected.getModel(), actual.getModel());
+    }
+  }
+
+  @Test
+  public void testRoundTripOffHeapLayers() throws IOException {
+    ILayeredAnimatorModel heap;
+    ILayeredAnimatorModel offHeap;
+    try (FileReader in = new FileReader("testinputlayersthree.txt")) {
+      heap = AdvancedAnimationReader.parseFile(in, new LayeredAnimatorModelBuilder("Base"));
+    }
+    try (FileReader in = new FileReader("testinputlayersthree.txt")) {
+      offHeap = AdvancedAnimationReader.parseFile(in,
+              new LayeredAnimatorModelBuilder("Base", OffHeapAnimator::new));
+    }
+
+    ILayeredAnimatorModel read = BinaryAnimationReader.read(ByteBuffer.wrap(write(offHeap)),
+            OffHeapAnimator::new);
+    assertEquals(heap.getLayers().size(), offHeap.getLayers().size());
+    assertEquals(heap.getLayers().size(), read.getLayers().size());
+    for (int i = 0; i < heap.getLayers().size(); i++) {
+      // The base layer and every declared layer keep their keyframes off the heap.
+      assertTrue(offHeap.getLayer(i).getModel() instanceof OffHeapAnimator);
+      assertTrue(read.getLayer(i).getModel() instanceof OffHeapAnimator);
+      assertSameAnimation(heap.getLayer(i).getModel(), offHeap.getLayer(i).getModel());
+      assertSameAnimation(heap.getLayer(i).getModel(), read.getLayer(i).getModel());
+    }
+  }
+
+  @Test
+  public void testMalformedInput() {
+    IAnimatorModel model = new EasyAnimator();
+    model.setCanvas(new Point(0, 0), new WidthHeight(10, 10));
+    model.addShape("R", new Rectangle(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    model.addKeyframe("R", new Rectangle(new WidthHeight(10, 20), new Point(3, 5),
+            new Color(255, 0, 128)), 4);
+    byte[] bytes = write(model);
+    byte[] newer = Arrays.copyOf(bytes, bytes.length);
+    newer[BinaryAnimationView.MAGIC.length] = BinaryAnimationView.VERSION + 1;
+
+    byte[][] inputs = {
+      "canvas 0 0 10 10".getBytes(),
+      Arrays.copyOf(bytes, bytes.length - 1),
+      Arrays.copyOf(bytes, bytes.length + 1),
+      newer,
+    };
+    String[] messages = {
+      "Unable to read a file that isn't a binary animation.",
+      "Unable to read a binary animation that ends early.",
+      "Unable to read a binary animation with trailing bytes.",
+      "Unable to read version " + (BinaryAnimationView.VERSION + 1)
+              + " of the binary animation format.",
+    };
+    for (int i = 0; i < inputs.length; i++) {
+      try {
+        BinaryAnimationReader.read(ByteBuffer.wrap(inputs[i]));
+        fail("Expected the input to be refused.");
+      } catch (IllegalStateException e) {
+        assertEquals(messages[i], e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package testview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.view.DrawPanel;
+import cs3500.easyanimator.view.LayerImage;
+
+/**
+ * Tests for the area the DrawPanel repaints after a new frame, which should only be the bounds of
+ * what changed, plus a pixel of margin. The panel is never shown, it just notes what it's asked to
+ * repaint.
+ */
+public class TestDrawPanel {
+  private RecordingPanel panel;
+
+  /**
+   * A DrawPanel that keeps the areas it's asked to repaint instead of repainting them.
+   */
+  private static class RecordingPanel extends DrawPanel {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Rectangle> repainted = new ArrayList<>();
+
+    @Override
+    public void repaint(int x, int y, int width, int height) {
+      repainted.add(new Rectangle(x, y, width, height));
+    }
+  }
+
+  @Before
+  public void setUp() {
+    panel = new RecordingPanel();
+  }
+
+  /**
+   * Makes a frame of the given shapes, each given as its type, x, y, width and height.
+   */
+  private static FrameBuffer frame(int[]... shapes) {
+    FrameBuffer frame = new FrameBuffer();
+    for (int[] s : shapes) {
+      frame.add(s[0], s[1], s[2], s[3], s[4], 10, 20, 30);
+    }
+    return frame;
+  }
+
+  /**
+   * Sets the frame and repaints it, so the frame after it is compared against it.
+   */
+  private void drawn(FrameBuffer frame, List<LayerImage> images) {
+    panel.setFrame(frame, images);
+    panel.repaintChanges();
+    panel.repainted.clear();
+  }
+
+  private static final int[] BACK = {FrameBuffer.RECTANGLE, 0, 0, 500, 500};
+  private static final int[] BALL = {FrameBuffer.OVAL, 100, 100, 20, 20};
+  private static final int[] BOX = {FrameBuffer.RECTANGLE, 300, 300, 10, 10};
+
+  @Test
+  public void testMovedShapeMarksOldAndNewBounds() {
+    drawn(frame(BACK, BALL, BOX), Collections.emptyList());
+    panel.setFrame(frame(BACK, new int[]{FrameBuffer.OVAL, 110, 120, 20, 20}, BOX));
+    panel.repaintChanges();
+    // From (100, 100) to (130, 140), with the margin.
+    assertEquals(Arrays.asList(new Rectangle(99, 99, 32, 42)), panel.repainted);
+  }
+
+  @Test
+  public void testRecoloredShapeMarksItsBounds() {
+    drawn(frame(BACK, BALL, BOX), Collections.emptyList());
+    FrameBuffer recolored = frame(BACK);
+    recolored.add(FrameBuffer.OVAL, 100, 100, 20, 20, 255, 0, 0);
+    recolored.add(BOX[0], BOX[1], BOX[2], BOX[3], BOX[4], 10, 20, 30);
+    panel.setFrame(recolored);
+    panel.repaintChanges();
+    assertEquals(Arrays.asList(new Rectangle(99, 99, 22, 22)), panel.repainted);
+  }
+
+  @Test
+  public void testAddedShapeMarksTheTail() {
+    drawn(frame(BACK, BALL), Collections.emptyList());
+    panel.setFrame(frame(BACK, BALL, BOX));
+    panel.repaintChanges();
+    assertEquals(Arrays.asList(new Rectangle(299, 299, 12, 12)), panel.repainted);
+  }
+
+  @Test
+  public void testRemovedShapeMarksTheTail() {
+    drawn(frame(BACK, BALL, BOX), Collections.emptyList());
+    panel.setFrame(frame(BACK, BALL));
+    panel.repaintChanges();
+    assertEquals(Arrays.asList(new Rectangle(299, 299, 12, 12)), panel.repainted);
+  }
+
+  @Test
+  public void testShapeAddedInTheMiddleMarksEverythingAboveIt() {
+    drawn(frame(BACK, BALL, BOX), Collections.emptyList());
+    panel.setFrame(frame(BACK, new int[]{FrameBuffer.RECTANGLE, 50, 60, 5, 5}, BALL, BOX));
+    panel.repaintChanges();
+    // The new shape, the ball and the box all moved up a place, from (50, 60) to (310, 310).
+    assertEquals(Arrays.asList(new Rectangle(49, 59, 262, 252)), panel.repainted);
+  }
+
+  @Test
+  public void testImageSwapMarksBothImages() {
+    BufferedImage small = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    BufferedImage large = new BufferedImage(30, 20, BufferedImage.TYPE_INT_ARGB);
+    drawn(frame(BACK, BALL), Collections.singletonList(new LayerImage(small, 200, 5, 1)));
+    panel.setFrame(frame(BACK, BALL), Collections.singletonList(new LayerImage(large, 190, 5, 1)));
+    panel.repaintChanges();
+    // From (190, 5) to (220, 25), the small image inside the large one.
+    assertEquals(Arrays.asList(new Rectangle(189, 4, 32, 22)), panel.repainted);
+  }
+
+  @Test
+  public void testIdenticalFrameMarksNothing() {
+    BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    drawn(frame(BACK, BALL, BOX), Collections.singletonList(new LayerImage(image, 5, 5, 1)));
+    panel.setFrame(frame(BACK, BALL, BOX),
+            Collections.singletonList(new LayerImage(image, 5, 5, 1)));
+    panel.repaintChanges();
+    assertEquals(Collections.emptyList(), panel.repainted);
+  }
+
+  @Test
+  public void testChangesAddUpUntilRepainted() {
+    drawn(frame(BACK, BALL, BOX), Collections.emptyList());
+    panel.setFrame(frame(BACK, new int[]{FrameBuffer.OVAL, 110, 100, 20, 20}, BOX));
+    panel.setFrame(frame(BACK, new int[]{FrameBuffer.OVAL, 120, 100, 20, 20}, BOX));
+    panel.repaintChanges();
+    panel.repaintChanges();
+    // Both moves in one repaint, and nothing left for the second.
+    assertEquals(Arrays.asList(new Rectangle(99, 99, 42, 22)), panel.repainted);
+  }
+}
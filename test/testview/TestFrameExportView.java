@@ -0,0 +1,142 @@
+package testview;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import cs3500.easyanimator.model.Color;
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.Point;
+import cs3500.easyanimator.model.motions.BasicMotion;
+import cs3500.easyanimator.model.shapes.Oval;
+import cs3500.easyanimator.model.shapes.Rectangle;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.view.FrameExportView;
+import cs3500.easyanimator.view.IAnimatorView;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the frame export view, checking the pixels of the frames it draws.
+ */
+public class TestFrameExportView {
+  private static final int WIDTH = 20;
+  private static final int HEIGHT = 10;
+
+  /**
+   * A helper to make a small animation. A red rectangle moves right across a canvas that doesn't
+   * start at the origin, while a blue oval appears for part of it.
+   * @return  The model of the animation.
+   */
+  private IAnimatorModel model() {
+    IAnimatorModel model = new EasyAnimator();
+    model.setCanvas(new Point(100, 50), new WidthHeight(WIDTH, HEIGHT));
+    model.addShape("R", new Rectangle(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    model.addShape("O", new Oval(new WidthHeight(1, 1), new Point(0, 0), new Color(0, 0, 0)));
+    model.addMotion("R", new BasicMotion(0, 10,
+            new WidthHeight(2, 2), new WidthHeight(2, 2),
+            new Point(100, 50), new Point(110, 50),
+            new Color(255, 0, 0), new Color(255, 0, 0)));
+    model.addMotion("O", new BasicMotion(4, 6,
+            new WidthHeight(6, 6), new WidthHeight(6, 6),
+            new Point(110, 54), new Point(110, 54),
+            new Color(0, 0, 255), new Color(0, 0, 255)));
+    return model;
+  }
+
+  /**
+   * A helper to export the animation as raw RGB.
+   * @param workers The number of workers to use.
+   * @return        The bytes written.
+   */
+  private byte[] exportRaw(int workers) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    IAnimatorView view = new FrameExportView(FrameExportView.rawRGB(out), workers);
+    view.setModel(model());
+    view.makeVisible();
+    return out.toByteArray();
+  }
+
+  /**
+   * A helper to give the color of a pixel of a raw RGB frame.
+   * @param raw   The raw frames.
+   * @param tick  The frame.
+   * @param x     The x of the pixel.
+   * @param y     The y of the pixel.
+   * @return      The color packed as 0xRRGGBB.
+   */
+  private int pixel(byte[] raw, int tick, int x, int y) {
+    int i = ((tick * HEIGHT + y) * WIDTH + x) * 3;
+    return ((raw[i] & 0xFF) << 16) | ((raw[i + 1] & 0xFF) << 8) | (raw[i + 2] & 0xFF);
+  }
+
+  @Test
+  public void testRawFrames() {
+    byte[] raw = exportRaw(1);
+    assertEquals("Expected a frame for every tick from 0 to 10.",
+            11 * WIDTH * HEIGHT * 3, raw.length);
+    // The rectangle starts in the corner of the canvas and moves one pixel a tick.
+    assertEquals(0xFF0000, pixel(raw, 0, 0, 0));
+    assertEquals(0xFF0000, pixel(raw, 0, 1, 1));
+    assertEquals(0xFFFFFF, pixel(raw, 0, 2, 0));
+    assertEquals(0xFFFFFF, pixel(raw, 3, 0, 0));
+    assertEquals(0xFF0000, pixel(raw, 3, 3, 0));
+    assertEquals(0xFF0000, pixel(raw, 10, 11, 1));
+    // The oval is only there from tick 4 to 6.
+    assertEquals(0xFFFFFF, pixel(raw, 3, 13, 7));
+    assertEquals(0x0000FF, pixel(raw, 5, 13, 7));
+    assertEquals(0xFFFFFF, pixel(raw, 7, 13, 7));
+  }
+
+  @Test
+  public void testWorkersKeepFrameOrder() {
+    byte[] single = exportRaw(1);
+    assertArrayEquals(single, exportRaw(3));
+    assertArrayEquals(single, exportRaw(16));
+  }
+
+  @Test
+  public void testPngSequence() throws IOException {
+    Path directory = Files.createTempDirectory("frames");
+    try {
+      IAnimatorView view = new FrameExportView(FrameExportView.pngSequence(directory), 2);
+      view.setModel(model());
+      view.makeVisible();
+
+      String[] names = directory.toFile().list();
+      Arrays.sort(names);
+      assertEquals(11, names.length);
+      assertEquals("frame000000.png", names[0]);
+      assertEquals("frame000010.png", names[10]);
+      byte[] raw = exportRaw(1);
+      BufferedImage frame = ImageIO.read(directory.resolve("frame000005.png").toFile());
+      assertEquals(WIDTH, frame.getWidth());
+      assertEquals(HEIGHT, frame.getHeight());
+      for (int y = 0; y < HEIGHT; y++) {
+        for (int x = 0; x < WIDTH; x++) {
+          assertEquals(pixel(raw, 5, x, y), frame.getRGB(x, y) & 0xFFFFFF);
+        }
+      }
+    } finally {
+      for (File file : directory.toFile().listFiles()) {
+        Files.delete(file.toPath());
+      }
+      Files.delete(directory);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoModel() {
+    new FrameExportView(FrameExportView.rawRGB(new ByteArrayOutputStream())).makeVisible();
+  }
+}
@@ -0,0 +1,213 @@
+package testview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs3500.easyanimator.model.Color;
+import cs3500.easyanimator.model.EasyAnimator;
+import cs3500.easyanimator.model.FrameBuffer;
+import cs3500.easyanimator.model.IAnimatorModel;
+import cs3500.easyanimator.model.ILayeredAnimatorModel;
+import cs3500.easyanimator.model.LayeredAnimatorModel;
+import cs3500.easyanimator.model.ModelEvent;
+import cs3500.easyanimator.model.Point;
+import cs3500.easyanimator.model.layers.BasicLayer;
+import cs3500.easyanimator.model.shapes.Oval;
+import cs3500.easyanimator.model.shapes.Rectangle;
+import cs3500.easyanimator.model.shapes.WidthHeight;
+import cs3500.easyanimator.view.FramePipeline;
+
+/**
+ * A test suite for the FramePipeline, checking the frames it prepares on its own thread are the
+ * frames of the model at their ticks, before and after edits.
+ */
+public class TestFramePipeline {
+  private ILayeredAnimatorModel model;
+  private IAnimatorModel top;
+  private FramePipeline pipeline;
+
+  /**
+   * Builds a model of two layers with a moving shape each, and a pipeline for it.
+   */
+  public TestFramePipeline() {
+    model = new LayeredAnimatorModel();
+    top = new EasyAnimator();
+    IAnimatorModel bottom = new EasyAnimator();
+    top.setCanvas(new Point(0, 0), new WidthHeight(200, 200));
+    bottom.setCanvas(new Point(-10, -20), new WidthHeight(200, 200));
+    top.addShape("R", new Rectangle(new WidthHeight(10, 10), new Point(0, 0),
+            new Color(255, 0, 0)));
+    top.addKeyframe("R", top.getShapes().get("R"), 0);
+    top.addKeyframe("R", new Rectangle(new WidthHeight(50, 20), new Point(100, 80),
+            new Color(0, 0, 255)), 40);
+    bottom.addShape("O", new Oval(new WidthHeight(30, 30), new Point(5, 5),
+            new Color(0, 255, 0)));
+    bottom.addKeyframe("O", bottom.getShapes().get("O"), 10);
+    bottom.addKeyframe("O", new Oval(new WidthHeight(5, 60), new Point(150, 0),
+            new Color(0, 0, 0)), 30);
+    model.addLayer(new BasicLayer("top", true, top));
+    model.addLayer(new BasicLayer("bottom", true, bottom));
+    pipeline = new FramePipeline(model, 3);
+  }
+
+  /**
+   * A private helper to check the pipeline gives the model's frame at a tick.
+   */
+  private void assertFrameAt(int tick) {
+    FramePipeline.PreparedFrame prepared = pipeline.take(tick);
+    pipeline.settle();
+    assertEquals(tick, prepared.getTick());
+    assertTrue("Expected no images of so few shapes.", prepared.getImages().isEmpty());
+    assertSameShapes(sample(tick), prepared.getFrame());
+  }
+
+  /**
+   * A private helper to sample the model at a tick.
+   */
+  private FrameBuffer sample(int tick) {
+    FrameBuffer frame = new FrameBuffer();
+    model.fillShapesAtTick(tick, frame);
+    return frame;
+  }
+
+  /**
+   * A private helper to check two frames hold the same shapes.
+   */
+  private static void assertSameShapes(FrameBuffer expected, FrameBuffer actual) {
+    assertEquals("Expected as many shapes.", expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getType(i), actual.getType(i));
+      assertEquals(expected.getX(i), actual.getX(i));
+      assertEquals(expected.getY(i), actual.getY(i));
+      assertEquals(expected.getWidth(i), actual.getWidth(i));
+      assertEquals(expected.getHeight(i), actual.getHeight(i));
+      assertEquals(expected.getRGB(i), actual.getRGB(i));
+    }
+  }
+
+  /**
+   * A test to verify frames prepared ahead, and frames that weren't, are those of the model.
+   */
+  @Test
+  public void testPreparedFramesMatchModel() {
+    for (int tick = 0; tick <= 41; tick++) {
+      pipeline.prepare(Arrays.asList(tick + 1, tick + 2, tick + 3, tick + 4));
+      assertFrameAt(tick);
+    }
+    // And jumping to a tick that wasn't prepared.
+    pipeline.prepare(Arrays.asList(5, 6, 7));
+    assertFrameAt(33);
+    pipeline.shutdown();
+  }
+
+  /**
+   * A test to verify frames prepared before an edit aren't given out after it.
+   */
+  @Test
+  public void testInvalidateAfterEdit() {
+    pipeline.prepare(Arrays.asList(20, 21, 22));
+    pipeline.invalidate();
+    top.addKeyframe("R", new Rectangle(new WidthHeight(1, 1), new Point(1, 1),
+            new Color(1, 1, 1)), 20);
+    top.addKeyframe("R", new Rectangle(new WidthHeight(1, 1), new Point(1, 1),
+            new Color(1, 1, 1)), 60);
+    assertFrameAt(20);
+    pipeline.prepare(Collections.singletonList(50));
+    assertFrameAt(50);
+    pipeline.shutdown();
+  }
+
+  /**
+   * A test to verify a pipeline listening to the model gives frames of the model after edits to
+   * some of its ticks, without being invalidated.
+   */
+  @Test
+  public void testEditsDropAffectedFrames() {
+    model.addModelListener(pipeline);
+    for (int tick = 0; tick <= 45; tick++) {
+      pipeline.take(tick);
+    }
+    pipeline.settle();
+    top.addKeyframe("R", new Rectangle(new WidthHeight(1, 1), new Point(1, 1),
+            new Color(1, 1, 1)), 20);
+    top.removeKeyframe("R", 40);
+    for (int tick = 0; tick <= 45; tick++) {
+      assertFrameAt(tick);
+    }
+    model.removeLayer(1);
+    assertFrameAt(15);
+    pipeline.shutdown();
+  }
+
+  /**
+   * A test to verify edits made through the pipeline wait for the frames being prepared, and an
+   * edit made around it still drops every frame without keeping others from hearing of it.
+   */
+  @Test
+  public void testEditWhilePreparing() {
+    model.addModelListener(pipeline);
+    List<ModelEvent> heard = new ArrayList<>();
+    model.addModelListener(heard::add);
+    pipeline.prepare(Arrays.asList(20, 21, 22));
+    pipeline.edit(() -> top.addKeyframe("R", new Rectangle(new WidthHeight(1, 1),
+            new Point(1, 1), new Color(1, 1, 1)), 21));
+    assertFrameAt(21);
+
+    pipeline.prepare(Arrays.asList(20, 21, 22));
+    top.removeKeyframe("R", 21);
+    assertEquals("Expected every listener to hear of both edits.", 2, heard.size());
+    assertFrameAt(21);
+    pipeline.shutdown();
+  }
+
+  /**
+   * A test to verify frames are kept until they are the least recently used, by editing the
+   * model without invalidating so the frames kept show what it was.
+   */
+  @Test
+  public void testLeastRecentlyUsedDropped() {
+    FrameBuffer before = sample(6);
+    pipeline.take(5);
+    pipeline.take(6);
+    pipeline.take(7);
+    pipeline.settle();
+    top.addKeyframe("R", new Rectangle(new WidthHeight(1, 1), new Point(1, 1),
+            new Color(1, 1, 1)), 6);
+    FrameBuffer after = sample(6);
+
+    pipeline.take(6);
+    assertSameShapes(before, pipeline.take(6).getFrame());
+    // 5 is the least recently used now, so it goes first, and then 7.
+    pipeline.take(8);
+    FrameBuffer dropped = pipeline.take(5).getFrame();
+    pipeline.settle();
+    assertSameShapes(sample(5), dropped);
+    assertSameShapes(before, pipeline.take(6).getFrame());
+    pipeline.invalidate();
+    assertSameShapes(after, pipeline.take(6).getFrame());
+    pipeline.shutdown();
+  }
+
+  /**
+   * A test to verify a pipeline needs a model and room for frames.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoRoom() {
+    new FramePipeline(model, 0);
+  }
+
+  /**
+   * A test to verify preparing needs ticks.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullTicks() {
+    pipeline.prepare(null);
+  }
+}
@@ -0,0 +1,165 @@
+package testview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.easyanimator.view.PlaybackClock;
+
+/**
+ * A test suite for the PlaybackClock, run on a time we move by hand.
+ */
+public class TestPlaybackClock {
+  private static final long MILLIS = 1_000_000L;
+
+  private long now = 5000 * MILLIS;
+  private final PlaybackClock clock = new PlaybackClock(() -> now);
+
+  /**
+   * A test to verify ticks follow the time gone by, however often we ask.
+   */
+  @Test
+  public void testAdvanceFollowsTime() {
+    clock.setSpeed(20);
+    clock.start(3);
+    assertEquals(3, clock.advance());
+    now += 49 * MILLIS;
+    assertEquals("Expected no tick before its time.", 3, clock.advance());
+    now += MILLIS;
+    assertEquals(4, clock.advance());
+    now += 50 * MILLIS;
+    assertEquals(5, clock.advance());
+    assertEquals(0, clock.getDroppedTicks());
+  }
+
+  /**
+   * A test to verify a slow frame skips the ticks it had no time for, and counts them.
+   */
+  @Test
+  public void testSlowFramesDropTicks() {
+    clock.setSpeed(100);
+    clock.start(0);
+    now += 10 * MILLIS;
+    assertEquals(1, clock.advance());
+    now += 250 * MILLIS;
+    assertEquals("Expected to be where the time says, not one tick on.", 26, clock.advance());
+    assertEquals(24, clock.getDroppedTicks());
+  }
+
+  /**
+   * A test to verify playing faster than a screen shows skips ticks without dropping them, when
+   * the timer fires when asked.
+   */
+  @Test
+  public void testFastPlaybackOnTimeDropsNothing() {
+    clock.setSpeed(1000);
+    clock.start(0);
+    for (int i = 1; i <= 10; i++) {
+      now += clock.getFrameDelay() * MILLIS;
+      assertEquals(16 * i, clock.advance());
+    }
+    assertEquals(0, clock.getDroppedTicks());
+  }
+
+  /**
+   * A test to verify a late fire only drops the ticks past the one it was due for.
+   */
+  @Test
+  public void testLateFireDropsPastDeadline() {
+    clock.setSpeed(1000);
+    clock.start(0);
+    assertEquals(16, clock.getFrameDelay());
+    now += 20 * MILLIS;
+    assertEquals(20, clock.advance());
+    assertEquals(4, clock.getDroppedTicks());
+  }
+
+  /**
+   * A test to verify the clock stays on the end tick, and doesn't count the ticks past it.
+   */
+  @Test
+  public void testEndTickStopsClock() {
+    clock.setSpeed(100);
+    clock.setEndTick(10);
+    clock.start(0);
+    now += clock.getFrameDelay() * MILLIS;
+    assertEquals(1, clock.advance());
+    assertEquals(0, clock.getDroppedTicks());
+    now += 1000 * MILLIS;
+    assertEquals(10, clock.advance());
+    // The next fire was due at tick 3, so ticks 3 to 9 were missed, but nothing past the end was.
+    assertEquals(7, clock.getDroppedTicks());
+    now += 1000 * MILLIS;
+    assertEquals(10, clock.advance());
+    assertEquals(7, clock.getDroppedTicks());
+  }
+
+  /**
+   * A test to verify changing speed carries on from where playback is.
+   */
+  @Test
+  public void testSpeedChangeKeepsPlace() {
+    clock.setSpeed(10);
+    clock.start(0);
+    now += 1000 * MILLIS;
+    clock.setSpeed(100);
+    assertEquals(10, clock.advance());
+    now += 100 * MILLIS;
+    assertEquals(20, clock.advance());
+  }
+
+  /**
+   * A test to verify the frames drawn are counted over each second.
+   */
+  @Test
+  public void testFramesPerSecond() {
+    clock.setSpeed(1000);
+    clock.start(0);
+    assertEquals(0, clock.getFramesPerSecond(), 0);
+    for (int i = 0; i < 25; i++) {
+      now += 40 * MILLIS;
+      clock.advance();
+      clock.frameDrawn();
+      // Asking again for the same tick isn't drawing a frame.
+      clock.advance();
+    }
+    assertEquals(25, clock.getFramesPerSecond(), 0.001);
+  }
+
+  /**
+   * A test to verify the timer delay follows the speed, but is never faster than a screen.
+   */
+  @Test
+  public void testFrameDelay() {
+    clock.setSpeed(20);
+    assertEquals(50, clock.getFrameDelay());
+    clock.setSpeed(1000);
+    assertEquals(16, clock.getFrameDelay());
+  }
+
+  /**
+   * A test to verify the timer delay is until the next tick is due, so a late fire isn't late
+   * again on the next one.
+   */
+  @Test
+  public void testFrameDelayUntilNextTick() {
+    clock.setSpeed(25);
+    clock.start(0);
+    now += 10 * MILLIS;
+    assertEquals(30, clock.getFrameDelay());
+    now += 45 * MILLIS;
+    assertEquals(1, clock.advance());
+    assertEquals(25, clock.getFrameDelay());
+    // The next tick is due sooner than a screen shows a frame, so we wait for the screen.
+    now += 20 * MILLIS;
+    assertEquals(16, clock.getFrameDelay());
+  }
+
+  /**
+   * A test to verify a speed that isn't positive is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadSpeed() {
+    clock.setSpeed(0);
+  }
+}
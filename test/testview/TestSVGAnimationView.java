@@ -322,4 +322,41 @@ public class TestSVGAnimationView {
             "base.begin+500ms",
             "500ms");
   }
+
+  /**
+   * Tests the exact text we write for a small animation, not just the document it parses to.
+   * Exports are diffed between versions, so the layout of the text should stay put.
+   */
+  @Test
+  public void testExactOutput() {
+    initialize();
+    model.setCanvas(new Point(0, 0), new WidthHeight(10, 20));
+    model.addShape("R", new Rectangle(SMALL, TOP_LEFT, RED));
+    model.addMotion("R", new BasicMotion(0, 30,
+            SMALL, SMALL, TOP_LEFT, BOTTOM_RIGHT, RED, RED));
+    view.makeVisible();
+    assertEquals("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 10 20\" "
+            + "width=\"10\" version=\"1.1\" height=\"20\">\n"
+            + "<rect visibility=\"visible\" width=\"100\" x=\"100\" y=\"100\" id=\"R\" "
+            + "fill=\"rgb(200, 0, 0)\" height=\"50\">\n"
+            + "<animate dur=\"1000ms\" attributeType=\"xml\" attributeName=\"x\" "
+            + "from=\"100\" to=\"900\" fill=\"freeze\" begin=\"base.begin+0ms\">\n\n"
+            + "</animate>\n"
+            + "<animate dur=\"1000ms\" attributeType=\"xml\" attributeName=\"y\" "
+            + "from=\"100\" to=\"700\" fill=\"freeze\" begin=\"base.begin+0ms\">\n\n"
+            + "</animate>\n"
+            + "<animate dur=\"1ms\" attributeType=\"xml\" attributeName=\"x\" "
+            + "from=\"900\" to=\"100\" fill=\"freeze\" begin=\"base.end\">\n\n"
+            + "</animate>\n"
+            + "<animate dur=\"1ms\" attributeType=\"xml\" attributeName=\"y\" "
+            + "from=\"700\" to=\"100\" fill=\"freeze\" begin=\"base.end\">\n\n"
+            + "</animate>\n"
+            + "</rect>\n"
+            + "<line id=\"loopingline\">\n"
+            + "<animate dur=\"1000ms\" attributeName=\"visibility\" from=\"hide\" "
+            + "id=\"base\" to=\"hide\" begin=\"0;base.end\">\n\n"
+            + "</animate>\n"
+            + "</line>\n"
+            + "</svg>", out.toString());
+  }
 }